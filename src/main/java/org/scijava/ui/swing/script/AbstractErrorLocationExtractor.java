@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+
+import org.scijava.plugin.AbstractRichPlugin;
+import org.scijava.script.ScriptLanguage;
+
+/**
+ * Abstract base class for {@link ErrorLocationExtractor}s of the languages
+ * with the given file extensions.
+ */
+public abstract class AbstractErrorLocationExtractor extends
+	AbstractRichPlugin implements ErrorLocationExtractor
+{
+
+	private final List<String> extensions;
+
+	/** @param extensions The file extensions of the supported languages. */
+	protected AbstractErrorLocationExtractor(final String... extensions) {
+		this.extensions = Arrays.asList(extensions);
+	}
+
+	// -- ErrorLocationExtractor methods --
+
+	@Override
+	public boolean supports(final ScriptLanguage language) {
+		for (final String extension : language.getExtensions()) {
+			if (extensions.contains(extension.toLowerCase())) return true;
+		}
+		return false;
+	}
+
+	// -- Helper methods --
+
+	/** The value of a group of digits, or 0 if the group did not match. */
+	protected static int number(final Matcher matcher, final int group) {
+		final String digits = matcher.group(group);
+		if (digits == null) return 0;
+		try {
+			return Integer.parseInt(digits);
+		}
+		catch (final NumberFormatException e) {
+			return 0; // too long
+		}
+	}
+
+	/** Whether the text contains the word, ignoring case, without copying. */
+	protected static boolean containsIgnoreCase(final String text,
+		final String word)
+	{
+		for (int i = 0; i <= text.length() - word.length(); i++) {
+			if (text.regionMatches(true, i, word, 0, word.length())) return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Caret;
+import javax.swing.text.DefaultCaret;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchEngine;
+
+/**
+ * Replacements of ranges of a document, collected in document order and then
+ * applied as one undoable edit.
+ * <p>
+ * Bulk operations like Zap Gremlins, the tab/space conversions and Replace
+ * All used to rewrite the whole text with {@code setText}, or to search the
+ * rest of the document anew for each match. Instead, they scan the document's
+ * own buffer, segment by segment, and only collect the ranges that change.
+ * Replacements on the same line are merged into one, so that document
+ * listeners are told about each changed line once, and the positions at line
+ * starts (bookmarks, folds, line highlights) stay where they are.
+ * </p>
+ */
+final class BulkEdit {
+
+	private final Document document;
+	private final Segment segment = new Segment();
+
+	/** Merged replacements, as start and end offsets, and their texts. */
+	private int[] ranges = new int[32];
+	private final List<String> texts = new ArrayList<>();
+
+	/** The replacement being merged with those that follow on its line. */
+	private int start, end;
+	private StringBuilder pending;
+
+	private int count;
+
+	BulkEdit(final Document document) {
+		this.document = document;
+	}
+
+	/** Receives the text of a document in the segments of its own buffer. */
+	interface Scanner {
+
+		/**
+		 * @param text The next part of the text; only valid during this call.
+		 * @param offset Where it starts in the document.
+		 */
+		void scan(Segment text, int offset) throws BadLocationException;
+	}
+
+	/**
+	 * Replaces gremlins, i.e. characters outside [32, 127] other than newlines
+	 * and tabs, with spaces, unless they are quoted.
+	 *
+	 * @see EditorPane#zapGremlins()
+	 */
+	static BulkEdit zapGremlins(final Document document) {
+		final BulkEdit edit = new BulkEdit(document);
+		edit.scan(new Scanner() {
+
+			private boolean inQuotes = false;
+			private char quoteChar = 0;
+
+			@Override
+			public void scan(final Segment text, final int offset) throws BadLocationException {
+				for (int i = 0; i < text.count; i++) {
+					final char c = text.array[text.offset + i];
+					if (!inQuotes) {
+						if (c == '"' || c == '\'') {
+							inQuotes = true;
+							quoteChar = c;
+						}
+						else if (c != '\n' && c != '\t' && (c < 32 || c > 127)) {
+							edit.replace(offset + i, 1, " ");
+						}
+					}
+					else if (c == quoteChar || c == '\n') {
+						inQuotes = false;
+					}
+				}
+			}
+		});
+		return edit;
+	}
+
+	/** Replaces each tab with the given number of spaces. */
+	static BulkEdit tabsToSpaces(final Document document, final int tabSize) {
+		final BulkEdit edit = new BulkEdit(document);
+		final char[] spaces = new char[tabSize];
+		Arrays.fill(spaces, ' ');
+		final String replacement = new String(spaces);
+		edit.scan((text, offset) -> {
+			for (int i = 0; i < text.count; i++) {
+				if (text.array[text.offset + i] == '\t') edit.replace(offset + i, 1, replacement);
+			}
+		});
+		return edit;
+	}
+
+	/** Replaces each run of the given number of spaces with a tab. */
+	static BulkEdit spacesToTabs(final Document document, final int tabSize) {
+		final BulkEdit edit = new BulkEdit(document);
+		edit.scan(new Scanner() {
+
+			private int runStart, run;
+
+			@Override
+			public void scan(final Segment text, final int offset) throws BadLocationException {
+				for (int i = 0; i < text.count; i++) {
+					if (text.array[text.offset + i] == ' ') {
+						if (run++ == 0) runStart = offset + i;
+						if (run == tabSize) {
+							edit.replace(runStart, tabSize, "\t");
+							run = 0;
+						}
+					}
+					else run = 0;
+				}
+			}
+		});
+		return edit;
+	}
+
+	/**
+	 * Replaces all matches of a search, like
+	 * {@link SearchEngine#replaceAll(RTextArea, SearchContext)} but in one pass
+	 * over the text as it was before.
+	 *
+	 * @throws java.util.regex.PatternSyntaxException If the search is an invalid
+	 *           regular expression.
+	 */
+	static BulkEdit replaceAll(final Document document, final SearchContext context) {
+		final BulkEdit edit = new BulkEdit(document);
+		final String searchFor = context.getSearchFor();
+		if (searchFor == null || searchFor.isEmpty()) return edit;
+		final boolean regex = context.isRegularExpression();
+		final boolean wholeWord = context.getWholeWord();
+		final Pattern pattern = regex
+				? Pattern.compile(wholeWord ? "\\b(?:" + searchFor + ")\\b" : searchFor,
+						RSyntaxUtilities.getPatternFlags(context.getMatchCase(), Pattern.MULTILINE))
+				: Pattern.compile(searchFor, RSyntaxUtilities.getPatternFlags(context.getMatchCase(), Pattern.LITERAL));
+		final String replaceWith = context.getReplaceWith() == null ? "" : context.getReplaceWith();
+		try {
+			// The whole text at once: matches may span segments
+			final Segment text = new Segment();
+			document.getText(0, document.getLength(), text);
+			final Matcher matcher = pattern.matcher(text);
+			while (matcher.find()) {
+				final int offset = matcher.start(), length = matcher.end() - offset;
+				if (!regex && wholeWord && !isWholeWord(text, offset, length)) continue;
+				edit.replace(offset, length, regex ? SearchEngine.getReplacementText(matcher, replaceWith) : replaceWith);
+			}
+		}
+		catch (final BadLocationException e) {
+			throw new IllegalStateException(e); // cannot happen
+		}
+		return edit;
+	}
+
+	/** Whether a match is neither preceded nor followed by a letter or digit, as in {@link SearchEngine}. */
+	private static boolean isWholeWord(final CharSequence text, final int offset, final int length) {
+		return (offset == 0 || !Character.isLetterOrDigit(text.charAt(offset - 1))) &&
+				(offset + length == text.length() || !Character.isLetterOrDigit(text.charAt(offset + length)));
+	}
+
+	/**
+	 * Passes the whole text of the document to the scanner, in the segments of
+	 * its own buffer, without copying it.
+	 */
+	void scan(final Scanner scanner) {
+		final Segment text = new Segment();
+		text.setPartialReturn(true);
+		try {
+			for (int offset = 0, length = document.getLength(); offset < length; offset += text.count) {
+				document.getText(offset, length - offset, text);
+				scanner.scan(text, offset);
+			}
+		}
+		catch (final BadLocationException e) {
+			throw new IllegalStateException(e); // cannot happen
+		}
+	}
+
+	/**
+	 * Adds a replacement. Replacements must be added in document order, and
+	 * must not overlap.
+	 */
+	void replace(final int offset, final int length, final String text) throws BadLocationException {
+		if (pending != null && offset < end) {
+			throw new IllegalArgumentException("Replacement at " + offset + " overlaps the previous one");
+		}
+		count++;
+		if (pending != null) {
+			document.getText(end, offset - end, segment);
+			if (!containsNewline(segment)) {
+				pending.append(segment.array, segment.offset, segment.count).append(text);
+				end = offset + length;
+				return;
+			}
+			flush();
+		}
+		start = offset;
+		end = offset + length;
+		pending = new StringBuilder(text);
+	}
+
+	private static boolean containsNewline(final Segment text) {
+		for (int i = text.offset; i < text.offset + text.count; i++) {
+			if (text.array[i] == '\n') return true;
+		}
+		return false;
+	}
+
+	private void flush() {
+		final int n = texts.size();
+		if (2 * n == ranges.length) ranges = Arrays.copyOf(ranges, 2 * ranges.length);
+		ranges[2 * n] = start;
+		ranges[2 * n + 1] = end;
+		texts.add(pending.toString());
+		pending = null;
+	}
+
+	/** The number of replacements added. */
+	int size() {
+		return count;
+	}
+
+	/**
+	 * Applies the replacements to the document in one atomic edit of the given
+	 * text area.
+	 * <p>
+	 * They are applied first to last: the text area's view measures all lines
+	 * again whenever text is removed from the longest one, which it then takes
+	 * to be the first of the longest, i.e. one that is already done. The caret
+	 * is kept still meanwhile, and then moved once.
+	 * </p>
+	 *
+	 * @return the number of replacements
+	 */
+	int apply(final RTextArea textArea) {
+		if (pending != null) flush();
+		if (texts.isEmpty()) return count;
+		final Caret caret = textArea.getCaret();
+		final int dot = caret.getDot(), mark = caret.getMark();
+		final DefaultCaret defaultCaret = caret instanceof DefaultCaret ? (DefaultCaret) caret : null;
+		final int updatePolicy = defaultCaret == null ? 0 : defaultCaret.getUpdatePolicy();
+		if (defaultCaret != null) defaultCaret.setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+		textArea.beginAtomicEdit();
+		try {
+			for (int i = 0, shift = 0; i < texts.size(); i++) {
+				final int offset = ranges[2 * i] + shift, length = ranges[2 * i + 1] - ranges[2 * i];
+				((AbstractDocument) document).replace(offset, length, texts.get(i), null);
+				shift += texts.get(i).length() - length;
+			}
+		}
+		catch (final BadLocationException e) {
+			throw new IllegalStateException(e); // cannot happen: collected from this version
+		}
+		finally {
+			textArea.endAtomicEdit();
+			if (defaultCaret != null) {
+				defaultCaret.setUpdatePolicy(updatePolicy);
+				caret.setDot(map(mark));
+				caret.moveDot(map(dot));
+			}
+		}
+		return count;
+	}
+
+	/** Where an offset is after the replacements; inside of one, it moves to its end. */
+	private int map(final int offset) {
+		int shift = 0;
+		for (int i = 0; i < texts.size() && ranges[2 * i] < offset; i++) {
+			final int length = ranges[2 * i + 1] - ranges[2 * i];
+			if (offset < ranges[2 * i + 1]) return ranges[2 * i] + shift + texts.get(i).length();
+			shift += texts.get(i).length() - length;
+		}
+		return offset + shift;
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks the commands of the {@link CommandPalette} against a query.
+ * <p>
+ * Everything a query is matched against is computed once, when a command is
+ * added: the lowercase name without white space, the word starts within it
+ * (which form the command's acronym), the lowercase menu location and a bit
+ * mask of the characters in both. Commands missing any of the query's
+ * characters are then rejected with one mask test, and the rest are scored
+ * by a single pass over their name.
+ * </p>
+ * <p>
+ * A query matches a name if its characters appear in the name in order.
+ * Matches score higher when they start at word starts (so that {@code tc}
+ * finds <em>Toggle Comment</em>), are consecutive, start at the beginning of
+ * the name or cover all of it, and lower the more characters they skip.
+ * Commands whose location matches instead score a quarter. How often a
+ * command was {@link #used(String) used} adds a logarithmic bonus, and ties
+ * keep the order in which the commands were added.
+ * </p>
+ * <p>
+ * Only the best {@code limit} commands are kept, in a small sorted array, so
+ * a query costs one pass over all commands however many of them match.
+ * Commands can be added and removed at any time, at a constant cost: removed
+ * commands are skipped until they make up half of the list, which is then
+ * compacted. This class is not thread-safe; the palette only uses it on the
+ * event dispatch thread.
+ * </p>
+ */
+class CommandMatcher<T> {
+
+	private static final int BONUS_MATCH = 16;
+	private static final int BONUS_BOUNDARY = 24;
+	private static final int BONUS_CONSECUTIVE = 16;
+	private static final int BONUS_FIRST = 32;
+	private static final int BONUS_EXACT = 64;
+	private static final int PENALTY_GAP_START = 6;
+	private static final int PENALTY_GAP = 1;
+	private static final int BONUS_USAGE = 12;
+
+	private final List<Entry<T>> entries = new ArrayList<>();
+	private final Map<String, Entry<T>> byId = new HashMap<>();
+	private int removed;
+
+	/** How often each command was used, by id; shared with the caller. */
+	private final Map<String, Integer> usage;
+
+	/** Reused by {@link #top(String, int)}. */
+	private long[] ranks = new long[0];
+
+	/** @param usage How often each command was used, by id; updated in place. */
+	CommandMatcher(final Map<String, Integer> usage) {
+		this.usage = usage;
+	}
+
+	/**
+	 * Adds a command, replacing any with the same id. Commands added later lose
+	 * ties.
+	 */
+	void add(final String id, final String location, final T item) {
+		remove(id);
+		final Entry<T> entry = new Entry<>(id, location, item, entries.size());
+		final Integer uses = usage.get(id);
+		if (uses != null) entry.uses = uses;
+		entries.add(entry);
+		byId.put(id, entry);
+	}
+
+	/** Removes the command with the given id, if any. */
+	void remove(final String id) {
+		final Entry<T> entry = byId.remove(id);
+		if (entry == null) return;
+		entry.removed = true;
+		if (++removed > entries.size() / 2) compact();
+	}
+
+	private void compact() {
+		entries.removeIf(entry -> entry.removed);
+		for (int i = 0; i < entries.size(); i++) entries.get(i).order = i;
+		removed = 0;
+	}
+
+	int size() {
+		return entries.size() - removed;
+	}
+
+	/** Records that the given command was run, so that it ranks higher. */
+	void used(final String id) {
+		final int uses = usage.merge(id, 1, Integer::sum);
+		final Entry<T> entry = byId.get(id);
+		if (entry != null) entry.uses = uses;
+	}
+
+	/**
+	 * Returns the best matches, best first.
+	 *
+	 * @param query The query, lowercase and without white space. If empty, all
+	 *          commands are returned, the most used first.
+	 * @param limit The maximum number of matches to return
+	 */
+	List<T> top(final String query, final int limit) {
+		if (query.isEmpty()) return all();
+		final char[] q = query.toCharArray();
+		final long mask = mask(q);
+		if (ranks.length < limit) ranks = new long[limit];
+		int count = 0;
+		for (final Entry<T> entry : entries) {
+			if ((entry.mask & mask) != mask || entry.removed) continue;
+			int score = score(q, entry.name, entry.boundaries);
+			if (score <= 0) {
+				score = score(q, entry.location, null) / 4;
+				if (score <= 0) continue;
+			}
+			score += BONUS_USAGE * (32 - Integer.numberOfLeadingZeros(entry.uses));
+			// higher is better: the score, then the earlier entry
+			final long rank = (long) score << 32 | (Integer.MAX_VALUE - entry.order);
+			if (count == limit && rank <= ranks[count - 1]) continue;
+			int i = count < limit ? count++ : count - 1;
+			for (; i > 0 && ranks[i - 1] < rank; i--) ranks[i] = ranks[i - 1];
+			ranks[i] = rank;
+		}
+		final List<T> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(entries.get(Integer.MAX_VALUE - (int) ranks[i]).item);
+		}
+		return result;
+	}
+
+	private List<T> all() {
+		final List<Entry<T>> sorted = new ArrayList<>(size());
+		for (final Entry<T> entry : entries) {
+			if (!entry.removed) sorted.add(entry);
+		}
+		Collections.sort(sorted, (e1, e2) -> Integer.compare(e2.uses, e1.uses)); // stable
+		final List<T> result = new ArrayList<>(sorted.size());
+		for (final Entry<T> entry : sorted) result.add(entry.item);
+		return result;
+	}
+
+	/**
+	 * Scores a match of {@code q} within {@code s}, or returns 0 if there is
+	 * none. The match is found as in fzf's first algorithm: the first
+	 * occurrence of the query as a subsequence is found going forwards, and
+	 * then shortened going backwards from its end.
+	 */
+	static int score(final char[] q, final char[] s, final boolean[] boundaries) {
+		if (q.length > s.length) return 0;
+		int j = 0, end = -1;
+		for (int i = 0; i < s.length; i++) {
+			if (s[i] == q[j] && ++j == q.length) {
+				end = i;
+				break;
+			}
+		}
+		if (end < 0) return 0;
+		int start = end;
+		for (j = q.length - 1; ; start--) {
+			if (s[start] == q[j] && --j < 0) break;
+		}
+		int score = 0;
+		int previous = start - 1;
+		j = 0;
+		for (int i = start; i <= end; i++) {
+			if (s[i] != q[j]) continue;
+			score += BONUS_MATCH;
+			if (boundaries != null && boundaries[i]) score += BONUS_BOUNDARY;
+			if (previous == i - 1) {
+				if (j > 0) score += BONUS_CONSECUTIVE;
+			}
+			else {
+				score -= PENALTY_GAP_START + PENALTY_GAP * (i - previous - 1);
+			}
+			previous = i;
+			j++;
+		}
+		if (start == 0) score += BONUS_FIRST;
+		if (start == 0 && q.length == s.length) score += BONUS_EXACT;
+		return Math.max(1, score);
+	}
+
+	/** One bit per character, modulo 64. */
+	static long mask(final char[] chars) {
+		long mask = 0;
+		for (final char c : chars) mask |= 1L << c;
+		return mask;
+	}
+
+	private static class Entry<T> {
+
+		final T item;
+		int order;
+		boolean removed;
+		/** Lowercase, without white space. */
+		final char[] name, location;
+		/** Whether each character of {@link #name} starts a word. */
+		final boolean[] boundaries;
+		final long mask;
+		int uses;
+
+		Entry(final String id, final String location, final T item, final int order) {
+			this.item = item;
+			this.order = order;
+			final StringBuilder name = new StringBuilder(id.length());
+			final boolean[] boundaries = new boolean[id.length()];
+			char previous = ' ';
+			for (int i = 0; i < id.length(); i++) {
+				final char c = id.charAt(i);
+				if (Character.isWhitespace(c)) {
+					previous = c;
+					continue;
+				}
+				boundaries[name.length()] = !Character.isLetterOrDigit(previous) //
+					|| Character.isUpperCase(c) && Character.isLowerCase(previous) //
+					|| Character.isDigit(c) != Character.isDigit(previous);
+				name.append(Character.toLowerCase(c));
+				previous = c;
+			}
+			this.name = name.toString().toCharArray();
+			this.boundaries = Arrays.copyOf(boundaries, this.name.length);
+			this.location = location.toLowerCase().replaceAll("\\s+", "").toCharArray();
+			mask = mask(this.name) | mask(this.location);
+		}
+	}
+}
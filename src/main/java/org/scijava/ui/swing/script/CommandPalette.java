@@ -37,6 +37,8 @@ import java.awt.Font;
 import java.awt.Insets;
 import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
@@ -44,10 +46,17 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.AbstractAction;
 import javax.swing.AbstractButton;
@@ -67,7 +76,6 @@ import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.KeyStroke;
 import javax.swing.ListSelectionModel;
-import javax.swing.MenuElement;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
@@ -76,6 +84,7 @@ import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 
 import org.fife.ui.rtextarea.RecordableTextAction;
+import org.scijava.prefs.PrefService;
 import org.scijava.util.PlatformUtils;
 
 class CommandPalette {
@@ -88,6 +97,9 @@ class CommandPalette {
 	private static final int TABLE_ROWS = 6; // no. of commands to be displayed
 	private static final float OPACITY = 1f; // 0-1 range
 	private static final boolean IGNORE_WHITESPACE = true; // Ignore white spaces while matching?
+	private static final int MAX_MATCHES = 100; // no. of matches listed for a query
+	private static final int MAX_USAGE_PREFS = 200; // no. of command usage counts remembered
+	private static final String USAGE_PREFS = "script.editor.palette.usage";
 	private static Palette frame;
 
 	private SearchField searchField;
@@ -95,11 +107,41 @@ class CommandPalette {
 	private final TextEditor textEditor;
 	private final CmdAction noHitsCmd;
 	private final CmdScrapper cmdScrapper;
+	private final PrefService prefService;
+	/** How often each command was run, by id, across sessions. */
+	private final Map<String, Integer> usage = new ConcurrentHashMap<>();
+	/** The index changes already reflected in the list. */
+	private int listedChanges;
 
-	public CommandPalette(final TextEditor textEditor) {
+	public CommandPalette(final TextEditor textEditor, final PrefService prefService) {
 		this.textEditor = textEditor;
+		this.prefService = prefService;
 		noHitsCmd = new SearchWebCmd();
 		cmdScrapper = new CmdScrapper(textEditor);
+		loadUsage();
+	}
+
+	private void loadUsage() {
+		final Map<String, String> map = prefService.getMap(TextEditor.class, USAGE_PREFS);
+		if (map == null)
+			return;
+		map.forEach((id, uses) -> {
+			try {
+				usage.put(id, Integer.parseInt(uses));
+			} catch (final NumberFormatException ignored) {
+				// skip corrupt entries
+			}
+		});
+	}
+
+	private void saveUsage() {
+		// Only the most used commands are worth remembering
+		final Map<String, String> map = new LinkedHashMap<>();
+		usage.entrySet().stream() //
+				.sorted((e1, e2) -> Integer.compare(e2.getValue(), e1.getValue())) //
+				.limit(MAX_USAGE_PREFS) //
+				.forEach(e -> map.put(e.getKey(), e.getValue().toString()));
+		prefService.put(TextEditor.class, USAGE_PREFS, map);
 	}
 
 	void install(final JMenu toolsMenu) {
@@ -118,8 +160,6 @@ class CommandPalette {
 	}
 
 	Map<String, String> getShortcuts() {
-		if (!cmdScrapper.scrapeSuccessful())
-			cmdScrapper.scrape();
 		final TreeMap<String, String> result = new TreeMap<>();
 		cmdScrapper.getCmdMap().forEach((id, cmdAction) -> {
 			if (cmdAction.hotkey != null && !cmdAction.hotkey.isEmpty())
@@ -130,8 +170,6 @@ class CommandPalette {
 	}
 
 	Map<String, String> getRecordableActions() {
-		if (!cmdScrapper.scrapeSuccessful())
-			cmdScrapper.scrape();
 		final TreeMap<String, String> result = new TreeMap<>();
 		cmdScrapper.getCmdMap().forEach((id, cmdAction) -> {
 			if (cmdAction.recordable())
@@ -145,6 +183,11 @@ class CommandPalette {
 		cmdScrapper.registerOther(button, description);
 	}
 
+	/** Indexes all commands in the background, once the editor's menus exist. */
+	void startIndexing() {
+		cmdScrapper.startIndexing();
+	}
+
 	void dispose() {
 		if (frame != null) frame.dispose();
 		frame = null;
@@ -183,27 +226,30 @@ class CommandPalette {
 		return new String[] {ca.id, ca.description()};
 	}
 
-	private void populateList(final String matchingSubstring) {
+	private void populateList(final String query) {
 		final ArrayList<String[]> list = new ArrayList<>();
-		if (!cmdScrapper.scrapeSuccessful())
-			cmdScrapper.scrape();
-		cmdScrapper.getCmdMap().forEach((id, cmd) -> {
-			if (cmd.matches(matchingSubstring)) {
-				list.add(makeRow(cmd));
-			}
-		});
+		cmdScrapper.getMatcher().top(query, MAX_MATCHES).forEach(cmd -> list.add(makeRow(cmd)));
 		if (list.isEmpty()) {
 			list.add(makeRow(noHitsCmd));
 		}
 		table.getInternalModel().setData(list);
+		listedChanges = cmdScrapper.getChanges();
 		if (searchField != null)
 			searchField.requestFocus();
 	}
 
+	private String getQuery() {
+		final String text = searchField.getText();
+		if (text == null)
+			return "";
+		final String query = text.toLowerCase();
+		return (IGNORE_WHITESPACE) ? query.replaceAll("\\s+", "") : query;
+	}
+
 	private void runCmd(final String command) {
 		SwingUtilities.invokeLater(() -> {
 			if (CmdScrapper.REBUILD_ID.equals(command)) {
-				cmdScrapper.scrape();
+				cmdScrapper.rebuild();
 				table.clearSelection();
 				searchField.setText("");
 				searchField.requestFocus();
@@ -224,6 +270,10 @@ class CommandPalette {
 					frame.setVisible(true);
 					return;
 				}
+				if (cmd != noHitsCmd) {
+					cmdScrapper.getMatcher().used(cmd.id);
+					saveUsage();
+				}
 				hideWindow(); // hide before running, in case command opens a dialog
 				if (hasButton) {
 					cmd.button.doClick();
@@ -243,6 +293,8 @@ class CommandPalette {
 			hideWindow();
 		} else {
 			frame.center(textEditor);
+			if (listedChanges != cmdScrapper.getChanges())
+				populateList(getQuery());
 			table.clearSelection();
 			frame.setVisible(true);
 			searchField.requestFocus();
@@ -276,23 +328,15 @@ class CommandPalette {
 
 	private class PromptDocumentListener implements DocumentListener {
 		public void insertUpdate(final DocumentEvent e) {
-			populateList(getQueryFromSearchField());
+			populateList(getQuery());
 		}
 
 		public void removeUpdate(final DocumentEvent e) {
-			populateList(getQueryFromSearchField());
+			populateList(getQuery());
 		}
 
 		public void changedUpdate(final DocumentEvent e) {
-			populateList(getQueryFromSearchField());
-		}
-
-		String getQueryFromSearchField() {
-			final String text = searchField.getText();
-			if (text == null)
-				return "";
-			final String query = text.toLowerCase();
-			return (IGNORE_WHITESPACE) ? query.replaceAll("\\s+", "") : query;
+			populateList(getQuery());
 		}
 	}
 
@@ -480,9 +524,32 @@ class CommandPalette {
 		private final static int COLUMNS = 2;
 		List<String[]> list;
 
+		/** Replaces the rows, notifying only about those that changed. */
 		void setData(final ArrayList<String[]> list) {
+			final List<String[]> old = this.list;
 			this.list = list;
-			fireTableDataChanged();
+			if (old == null) {
+				fireTableDataChanged();
+				return;
+			}
+			final int common = Math.min(old.size(), list.size());
+			for (int first = 0; first < common; first++) {
+				if (sameRow(old.get(first), list.get(first)))
+					continue;
+				int last = first;
+				while (last + 1 < common && !sameRow(old.get(last + 1), list.get(last + 1)))
+					last++;
+				fireTableRowsUpdated(first, last);
+				first = last;
+			}
+			if (old.size() > common)
+				fireTableRowsDeleted(common, old.size() - 1);
+			else if (list.size() > common)
+				fireTableRowsInserted(common, list.size() - 1);
+		}
+
+		private boolean sameRow(final String[] row1, final String[] row2) {
+			return row1[0].equals(row2[0]) && row1[1].equals(row2[1]);
 		}
 
 		String getCommand(final int row) {
@@ -528,10 +595,14 @@ class CommandPalette {
 			this.hotkey = "";
 		}
 
-		CmdAction(final String cmdName, final AbstractButton button) {
+		/**
+		 * @param buttonAction The button's action, read with it on the event
+		 *          dispatch thread.
+		 */
+		CmdAction(final String cmdName, final AbstractButton button, final Action buttonAction) {
 			this(cmdName);
-			if (button.getAction() != null && button.getAction() instanceof AbstractAction)
-				action = (AbstractAction) button.getAction();
+			if (buttonAction instanceof AbstractAction)
+				action = buttonAction;
 			else
 				this.button = button;
 		}
@@ -554,14 +625,6 @@ class CommandPalette {
 			return rec;
 		}
 
-		boolean matches(final String lowercaseQuery) {
-			if (IGNORE_WHITESPACE) {
-				return id.toLowerCase().replaceAll("\\s+", "").contains(lowercaseQuery)
-						|| menuLocation.toLowerCase().contains(lowercaseQuery);
-			}
-			return id.toLowerCase().contains(lowercaseQuery) || menuLocation.toLowerCase().contains(lowercaseQuery);
-		}
-
 		void setkeyString(final KeyStroke key) {
 			if (hotkey.isEmpty()) {
 				hotkey = prettifiedKey(key);
@@ -730,51 +793,152 @@ class CommandPalette {
 		}
 	}
 
+	/**
+	 * Keeps the index of all commands: the items of the menu bar and of the
+	 * editor's popup menu, the text area's actions and the other registered
+	 * buttons.
+	 * <p>
+	 * The menus and maps are read on the event dispatch thread, like all Swing
+	 * components, and only the commands and their matcher are then built in the
+	 * background, by {@link #startIndexing()}. The menus are listened to while
+	 * they are read, so that items added, removed or changed later (e.g.,
+	 * templates and languages) update the index one by one, instead of all menus
+	 * being scraped again. The index is only accessed on the event dispatch
+	 * thread; changes seen before it was installed are replayed then. The text
+	 * area's action and input maps cannot be listened to, and are only read when
+	 * the index is (re)built.
+	 * </p>
+	 */
 	private class CmdScrapper {
 		final TextEditor textEditor;
 		static final String REBUILD_ID = "Rebuild Actions Index";
-		private final TreeMap<String, CmdAction> cmdMap;
-		private TreeMap<String, CmdAction> otherMap;
+		private static final String POPUP_LOCATION = "Popup Menu";
+		/** Buttons registered by the editor itself; locked on. */
+		private final Index others = new Index();
+		/** The menu location of each listened-to container. */
+		private final Map<Container, String> locations = Collections.synchronizedMap(new WeakHashMap<>());
+		private final MenuListener listener = new MenuListener();
+		/** The current index, or null until it is built. */
+		private Index index;
+		/** Changes seen before the index was installed. */
+		private final List<Runnable> pending = new ArrayList<>();
+		/** Counts changes to the index, so that the palette knows when to update. */
+		private int changes;
 
 		CmdScrapper(final TextEditor textEditor) {
 			this.textEditor = textEditor;
-			// It seems that the ScriptEditor has duplicated actions(!?) registered
-			// in input/action maps. Some Duplicates seem to be defined in lower
-			// case, so we'll assemble a case-insensitive map to mitigate this
-			cmdMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		}
+
+		/**
+		 * Reads the menus and maps, and builds the index from them in the
+		 * background, unless it is needed earlier.
+		 */
+		void startIndexing() {
+			if (!SwingUtilities.isEventDispatchThread()) {
+				SwingUtilities.invokeLater(this::startIndexing);
+				return;
+			}
+			final Snapshot snapshot = snapshot();
+			final Thread thread = new Thread(() -> {
+				final Index built = build(snapshot);
+				SwingUtilities.invokeLater(() -> {
+					if (index == null)
+						install(built);
+				});
+			}, "Command palette indexer");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		/** Rebuilds the index right away, e.g. to pick up changed action maps. */
+		void rebuild() {
+			install(build(snapshot()));
 		}
 
 		TreeMap<String, CmdAction> getCmdMap() {
-			if (otherMap != null)
-				cmdMap.putAll(otherMap);
-			return cmdMap;
+			return index().cmdMap;
+		}
+
+		CommandMatcher<CmdAction> getMatcher() {
+			return index().matcher;
+		}
+
+		int getChanges() {
+			return changes;
+		}
+
+		private Index index() {
+			if (index == null)
+				install(build(snapshot()));
+			return index;
+		}
+
+		private void install(final Index built) {
+			index = built;
+			pending.forEach(Runnable::run);
+			pending.clear();
+			changes++;
 		}
 
-		boolean scrapeSuccessful() {
-			return !cmdMap.isEmpty();
+		/** Applies a change to the index on the event dispatch thread, once it exists. */
+		private void update(final Runnable change) {
+			final Runnable r = () -> {
+				if (index == null) {
+					pending.add(change);
+				} else {
+					change.run();
+					changes++;
+				}
+			};
+			if (SwingUtilities.isEventDispatchThread())
+				r.run();
+			else
+				SwingUtilities.invokeLater(r);
 		}
 
-		void scrape() {
-			cmdMap.clear();
-			cmdMap.put(REBUILD_ID, new CmdAction(REBUILD_ID));
-			parseActionAndInputMaps();
+		/** Reads all menus and maps, and listens to the menus; on the event dispatch thread. */
+		private Snapshot snapshot() {
+			final Snapshot snapshot = new Snapshot();
+			readActionAndInputMaps(snapshot);
 			final JMenuBar menuBar = textEditor.getJMenuBar();
-			final int topLevelMenus = menuBar.getMenuCount();
-			for (int i = 0; i < topLevelMenus; ++i) {
-				final JMenu topLevelMenu = menuBar.getMenu(i);
-				if (topLevelMenu != null && topLevelMenu.getText() != null) {
-					parseMenu(topLevelMenu.getText(), topLevelMenu);
+			listen(menuBar, null);
+			for (final Component c : menuBar.getComponents()) {
+				if (c instanceof JMenu && ((JMenu) c).getText() != null) {
+					readMenu(snapshot.items, ((JMenu) c).getText(), (JMenu) c);
 				}
 			}
 			final JPopupMenu popup = textEditor.getEditorPane().getPopupMenu();
 			if (popup != null) {
-				getMenuItems(popup).forEach(mi -> {
-					registerMenuItem(mi, "Popup Menu");
-				});
+				readMenu(snapshot.items, POPUP_LOCATION, popup);
 			}
+			synchronized (others) {
+				snapshot.others.addAll(others.cmdMap.values());
+			}
+			return snapshot;
 		}
 
-		private void parseActionAndInputMaps() {
+		/** Builds the commands and their matcher; may be called on any thread. */
+		private Index build(final Snapshot snapshot) {
+			final Index built = new Index();
+			built.put(new CmdAction(REBUILD_ID));
+			for (final Entry binding : snapshot.bindings) {
+				final CmdAction cmdAction = binding.toCmdAction(binding.button == null
+						? cleanseActionDescription(binding.name) : binding.name);
+				cmdAction.setkeyString(binding.key);
+				built.put(cmdAction);
+			}
+			for (final Entry action : snapshot.actions) {
+				if (built.cmdMap.get(action.name) == null) {
+					built.put(action.toCmdAction(cleanseActionDescription(action.name)));
+				}
+			}
+			snapshot.items.forEach(built::register);
+			snapshot.others.forEach(built::put);
+			built.sort();
+			return built;
+		}
+
+		private void readActionAndInputMaps(final Snapshot snapshot) {
 			final InputMap inputMap = textEditor.getTextArea().getInputMap(JComponent.WHEN_FOCUSED);
 			final KeyStroke[] keys = inputMap.allKeys();
 			if (keys != null) {
@@ -784,80 +948,67 @@ class CommandPalette {
 						continue;
 					}
 					final Object obj = inputMap.get(key);
-					CmdAction cmdAction;
-					String cmdName;
 					if (obj instanceof Action) {
-						cmdName = (String) ((Action) obj).getValue(Action.NAME);
-						cmdAction = new CmdAction(cleanseActionDescription(cmdName), (AbstractAction) obj);
+						final Action action = (Action) obj;
+						snapshot.bindings.add(new Entry((String) action.getValue(Action.NAME), null, key, null, action));
 					} else if (obj instanceof AbstractButton) {
-						cmdName = ((AbstractButton) obj).getText();
-						cmdAction = new CmdAction(cmdName, (AbstractButton) obj);
-					} else {
-						continue;
+						final AbstractButton button = (AbstractButton) obj;
+						snapshot.bindings.add(new Entry(button.getText(), null, key, button, button.getAction()));
 					}
-					cmdAction.setkeyString(key);
-					cmdMap.put(cmdAction.id, cmdAction);
 				}
 			}
 			final ActionMap actionMap = textEditor.getTextArea().getActionMap();
 			for (final Object obj : actionMap.keys()) {
-				if (obj instanceof String && cmdMap.get((String) obj) == null) {
-					final Action action = actionMap.get((String) obj);
-					final CmdAction cmdAction = new CmdAction(cleanseActionDescription((String) obj), action);
-					cmdMap.put(cmdAction.id, cmdAction);
+				if (obj instanceof String) {
+					snapshot.actions.add(new Entry((String) obj, null, null, null, actionMap.get(obj)));
 				}
 			}
 		}
 
-		private void parseMenu(final String componentHostingMenu, final JMenu menu) {
-			final int n = menu.getItemCount();
-			for (int i = 0; i < n; ++i) {
-				registerMenuItem(menu.getItem(i), componentHostingMenu);
+		/** Reads the items of a menu and its submenus, and listens to them. */
+		private void readMenu(final List<Entry> items, final String location, final Container menu) {
+			final Container popup = (menu instanceof JMenu) ? ((JMenu) menu).getPopupMenu() : menu;
+			listen(popup, location);
+			for (final Component c : popup.getComponents()) {
+				readItem(items, location, c);
 			}
 		}
 
-		private void registerMenuItem(final JMenuItem m, final String hostingComponent) {
-			if (m != null) {
-				String label = m.getActionCommand();
-				if (label == null)
-					label = m.getText();
-				if (m instanceof JMenu) {
-					final JMenu subMenu = (JMenu) m;
-					String hostDesc = subMenu.getText();
-					if (hostDesc == null)
-						hostDesc = hostingComponent;
-					parseMenu(hostDesc, subMenu);
-				} else {
-					registerMain(m, hostingComponent);
-				}
+		private void readItem(final List<Entry> items, final String location, final Component c) {
+			if (c instanceof JMenu) {
+				final String text = ((JMenu) c).getText();
+				readMenu(items, (text == null) ? location : text, (JMenu) c);
+			} else if (c instanceof JMenuItem) {
+				final JMenuItem item = (JMenuItem) c;
+				if (!Arrays.asList(item.getPropertyChangeListeners()).contains(listener))
+					item.addPropertyChangeListener(listener);
+				items.add(entry(item, location));
 			}
 		}
 
-		private List<JMenuItem> getMenuItems(final JPopupMenu popupMenu) {
-			final List<JMenuItem> list = new ArrayList<>();
-			for (final MenuElement me : popupMenu.getSubElements()) {
-				if (me == null) {
-					continue;
-				} else if (me instanceof JMenuItem) {
-					list.add((JMenuItem) me);
-				} else if (me instanceof JMenu) {
-					getMenuItems((JMenu) me, list);
-				}
-			}
-			return list;
+		/** Reads what the index needs of a button; on the event dispatch thread. */
+		private Entry entry(final AbstractButton button, final String location) {
+			String label = button.getActionCommand();
+			if (label == null && button.getText() != null)
+				label = button.getText().trim();
+			final KeyStroke accelerator = (button instanceof JMenuItem) ? ((JMenuItem) button).getAccelerator() : null;
+			return new Entry(label, location, accelerator, button, button.getAction());
 		}
 
-		private void getMenuItems(final JMenu menu, final List<JMenuItem> holdingList) {
-			for (int j = 0; j < menu.getItemCount(); j++) {
-				final JMenuItem jmi = menu.getItem(j);
-				if (jmi == null)
-					continue;
-				if (jmi instanceof JMenu) {
-					getMenuItems((JMenu) jmi, holdingList);
-				} else {
-					holdingList.add(jmi);
-				}
-			}
+		private void listen(final Container container, final String location) {
+			if (location != null)
+				locations.put(container, location);
+			if (!Arrays.asList(container.getContainerListeners()).contains(listener))
+				container.addContainerListener(listener);
+		}
+
+		private String locationOf(final Container container) {
+			final String location = locations.get(container);
+			if (location != null)
+				return location;
+			if (container instanceof JPopupMenu && ((JPopupMenu) container).getInvoker() instanceof JMenu)
+				return ((JMenu) ((JPopupMenu) container).getInvoker()).getText();
+			return "";
 		}
 
 		private boolean irrelevantCommand(final String label) {
@@ -865,39 +1016,12 @@ class CommandPalette {
 			return label == null || label.endsWith(" pt") || label.length() < 2;
 		}
 
-		void registerMain(final AbstractButton button, final String description) {
-			register(cmdMap, button, description);
-		}
-
 		void registerOther(final AbstractButton button, final String description) {
-			if (otherMap == null)
-				otherMap = new TreeMap<>();
-			register(otherMap, button, description);
-		}
-
-		private void register(final TreeMap<String, CmdAction> map, final AbstractButton button,
-				final String descriptionOfComponentHostingButton) {
-			String label = button.getActionCommand();
-			if (NAME.equals(label))
-				return; // do not register command palette
-			if (label == null)
-				label = button.getText().trim();
-			if (irrelevantCommand(label))
-				return;
-			if (label.endsWith("..."))
-				label = label.substring(0, label.length() - 3);
-			// If a command has already been registered, we'll include its accelerator
-			final boolean isMenuItem = button instanceof JMenuItem;
-			final CmdAction registeredAction = (CmdAction) map.get(label);
-			final KeyStroke accelerator = (isMenuItem) ? ((JMenuItem) button).getAccelerator() : null;
-			if (registeredAction != null && accelerator != null) {
-				registeredAction.setkeyString(accelerator);
-			} else {
-				final CmdAction ca = new CmdAction(label, button);
-				ca.menuLocation = descriptionOfComponentHostingButton;
-				if (accelerator != null) ca.setkeyString(accelerator);
-				map.put(ca.id, ca);
+			final Entry entry = entry(button, description);
+			synchronized (others) {
+				others.register(entry);
 			}
+			update(() -> index.register(entry));
 		}
 
 		private String cleanseActionDescription(String actionId) {
@@ -911,6 +1035,142 @@ class CommandPalette {
 			return actionId.replaceAll("([A-Z])", " $1").trim(); // CamelCase to Camel Case
 		}
 
+		/** Follows items being added to, removed from or changed in the menus. */
+		private class MenuListener implements ContainerListener, PropertyChangeListener {
+
+			@Override
+			public void componentAdded(final ContainerEvent e) {
+				final Container parent = e.getContainer();
+				final Component child = e.getChild();
+				update(() -> {
+					final List<Entry> items = new ArrayList<>();
+					readItem(items, locationOf(parent), child);
+					items.forEach(index::register);
+				});
+			}
+
+			@Override
+			public void componentRemoved(final ContainerEvent e) {
+				final Component child = e.getChild();
+				update(() -> unregister(child));
+			}
+
+			@Override
+			public void propertyChange(final PropertyChangeEvent e) {
+				if (e.getPropertyName() == null)
+					return;
+				switch (e.getPropertyName()) {
+				case "text":
+				case "actionCommand":
+				case "accelerator":
+					final JMenuItem item = (JMenuItem) e.getSource();
+					update(() -> {
+						unregister(item);
+						if (item.getParent() != null)
+							index.register(entry(item, locationOf(item.getParent())));
+					});
+					break;
+				default:
+					break;
+				}
+			}
+
+			private void unregister(final Component c) {
+				if (c instanceof JMenu) {
+					for (final Component item : ((JMenu) c).getMenuComponents())
+						unregister(item);
+				} else if (c instanceof AbstractButton) {
+					index.unregister((AbstractButton) c);
+				}
+			}
+		}
+
+		/** A command as read from a menu item, button or map, on the event dispatch thread. */
+		private class Entry {
+			final String name;
+			final String location;
+			/** The key binding or accelerator, if any. */
+			final KeyStroke key;
+			final AbstractButton button;
+			final Action action;
+
+			Entry(final String name, final String location, final KeyStroke key, final AbstractButton button,
+					final Action action) {
+				this.name = name;
+				this.location = location;
+				this.key = key;
+				this.button = button;
+				this.action = action;
+			}
+
+			CmdAction toCmdAction(final String id) {
+				return (button == null) ? new CmdAction(id, action) : new CmdAction(id, button, action);
+			}
+		}
+
+		/** The menus and maps, as read on the event dispatch thread. */
+		private class Snapshot {
+			final List<Entry> bindings = new ArrayList<>();
+			final List<Entry> actions = new ArrayList<>();
+			final List<Entry> items = new ArrayList<>();
+			final List<CmdAction> others = new ArrayList<>();
+		}
+
+		/** Commands by id, and the matcher over them. */
+		private class Index {
+			// It seems that the ScriptEditor has duplicated actions(!?) registered
+			// in input/action maps. Some Duplicates seem to be defined in lower
+			// case, so we'll assemble a case-insensitive map to mitigate this
+			final TreeMap<String, CmdAction> cmdMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			final Map<AbstractButton, CmdAction> byButton = new WeakHashMap<>();
+			/** Null until {@link #sort()}ed. */
+			CommandMatcher<CmdAction> matcher;
+
+			void put(final CmdAction ca) {
+				final CmdAction old = cmdMap.put(ca.id, ca);
+				if (matcher == null)
+					return;
+				if (old != null)
+					matcher.remove(old.id);
+				matcher.add(ca.id, ca.menuLocation, ca);
+			}
+
+			/** (Re)builds the matcher in alphabetical order, which then breaks ties. */
+			void sort() {
+				matcher = new CommandMatcher<>(usage);
+				cmdMap.values().forEach(ca -> matcher.add(ca.id, ca.menuLocation, ca));
+			}
+
+			void register(final Entry item) {
+				String label = item.name;
+				if (NAME.equals(label))
+					return; // do not register command palette
+				if (irrelevantCommand(label))
+					return;
+				if (label.endsWith("..."))
+					label = label.substring(0, label.length() - 3);
+				// If a command has already been registered, we'll include its accelerator
+				final CmdAction registeredAction = cmdMap.get(label);
+				if (registeredAction != null && item.key != null) {
+					registeredAction.setkeyString(item.key);
+				} else {
+					final CmdAction ca = item.toCmdAction(label);
+					ca.menuLocation = item.location;
+					if (item.key != null) ca.setkeyString(item.key);
+					put(ca);
+					byButton.put(item.button, ca);
+				}
+			}
+
+			void unregister(final AbstractButton button) {
+				final CmdAction ca = byButton.remove(button);
+				if (ca != null && cmdMap.get(ca.id) == ca) {
+					cmdMap.remove(ca.id);
+					matcher.remove(ca.id);
+				}
+			}
+		}
+
 	}
 
 	private class SearchWebCmd extends CmdAction {
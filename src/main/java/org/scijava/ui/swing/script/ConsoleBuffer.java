@@ -0,0 +1,317 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+
+/**
+ * Bounded ring buffer of the characters on their way to a console
+ * {@link JTextArea}, which keeps at most a given number of lines.
+ * <p>
+ * The producer side takes no locks: {@code write} only copies characters
+ * into the ring and publishes them with a volatile write. It must be called
+ * by one thread at a time; the writers serialize their callers for that.
+ * Only when the ring is full does the producer wait, until the
+ * {@link ConsoleFlusher} has drained it. The consumer appends all pending
+ * characters to the text area in one edit, always on the event dispatch
+ * thread: the producer never touches the text area, and {@link #flush()}
+ * hands the drain over to the event dispatch thread too.
+ * </p>
+ * <p>
+ * Old lines are dropped in chunks: only once the text area exceeds the line
+ * limit by a tenth, and then down to the limit. Each line is thus removed at
+ * an amortized constant cost, instead of editing the document on every flush.
+ * Output that would be dropped anyway is never inserted.
+ * </p>
+ */
+class ConsoleBuffer {
+
+	/** The default maximum number of lines kept in a console. */
+	static final int DEFAULT_LINE_LIMIT = 10000;
+
+	private final JTextArea textArea;
+	private final char[] ring;
+	private final int mask;
+
+	/** Total characters written by the producer and read by the consumer. */
+	private volatile long tail = 0, head = 0;
+
+	private volatile int lineLimit = DEFAULT_LINE_LIMIT;
+
+	/** Whether the {@link ConsoleFlusher} is due to drain this buffer. */
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	/** Whether the {@link ConsoleFlusher} is due to drain this buffer because it is full. */
+	private final AtomicBoolean full = new AtomicBoolean();
+
+	/** Notified whenever the consumer frees space in the ring. */
+	private final Object space = new Object();
+
+	/** Whether output is dropped instead of shown. */
+	private volatile boolean discarded = false;
+
+	/** Sees every drained chunk, in order. */
+	private volatile Consumer<String> listener;
+
+	/** Reused by the consumer, which also locks on it. */
+	private final StringBuilder pending = new StringBuilder();
+
+	ConsoleBuffer(final JTextArea textArea) {
+		this(textArea, 1 << 16);
+	}
+
+	/** @param capacity The ring size; rounded up to a power of two. */
+	ConsoleBuffer(final JTextArea textArea, final int capacity) {
+		this.textArea = textArea;
+		ring = new char[Integer.highestOneBit(Math.max(2, capacity) * 2 - 1)];
+		mask = ring.length - 1;
+	}
+
+	int getLineLimit() {
+		return lineLimit;
+	}
+
+	void setLineLimit(final int lineLimit) {
+		this.lineLimit = Math.max(1, lineLimit);
+	}
+
+	/**
+	 * Sets who sees each chunk of output as it is drained to the text area, or
+	 * {@code null}. Chunks are delivered in order, in the draining thread.
+	 */
+	void setListener(final Consumer<String> listener) {
+		this.listener = listener;
+	}
+
+	/** Producer side: one thread at a time. */
+	void write(final char c) {
+		if (discarded) return;
+		while (tail - head == ring.length) {
+			if (!awaitSpace()) return;
+		}
+		ring[(int) tail & mask] = c;
+		tail = tail + 1;
+		schedule();
+	}
+
+	/** Producer side: one thread at a time. */
+	void write(final char[] chars, int off, int len) {
+		if (discarded) return;
+		while (len > 0) {
+			final long t = tail;
+			final int n = (int) Math.min(len, ring.length - (t - head));
+			if (0 == n) {
+				if (!awaitSpace()) return;
+				continue;
+			}
+			final int at = (int) t & mask;
+			final int first = Math.min(n, ring.length - at);
+			System.arraycopy(chars, off, ring, at, first);
+			System.arraycopy(chars, off + first, ring, 0, n - first);
+			tail = t + n; // publish
+			off += n;
+			len -= n;
+		}
+		schedule();
+	}
+
+	/** Producer side: one thread at a time. */
+	void write(final String s) {
+		if (discarded) return;
+		for (int off = 0, len = s.length(); len > 0;) {
+			final long t = tail;
+			final int n = (int) Math.min(len, ring.length - (t - head));
+			if (0 == n) {
+				if (!awaitSpace()) return;
+				continue;
+			}
+			final int at = (int) t & mask;
+			final int first = Math.min(n, ring.length - at);
+			s.getChars(off, off + first, ring, at);
+			s.getChars(off + first, off + n, ring, 0);
+			tail = t + n; // publish
+			off += n;
+			len -= n;
+		}
+		schedule();
+	}
+
+	/**
+	 * Producer side, with the ring full: has the event dispatch thread drain
+	 * it, and waits until it has. On the event dispatch thread itself, drains
+	 * it right away.
+	 *
+	 * @return false if interrupted while waiting; the rest of the output is
+	 *         then dropped
+	 */
+	private boolean awaitSpace() {
+		if (SwingUtilities.isEventDispatchThread()) {
+			drain();
+			return true;
+		}
+		if (full.compareAndSet(false, true)) {
+			ConsoleFlusher.getInstance().flushNow(this);
+		}
+		synchronized (space) {
+			try {
+				while (tail - head == ring.length && !discarded) {
+					space.wait();
+				}
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void schedule() {
+		if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+			ConsoleFlusher.getInstance().schedule(this);
+		}
+	}
+
+	/** Whether characters are waiting to be drained. */
+	boolean isEmpty() {
+		return head == tail;
+	}
+
+	/** Drop pending and future output. */
+	void discard() {
+		discarded = true;
+		synchronized (pending) {
+			head = tail;
+		}
+		synchronized (space) {
+			space.notifyAll();
+		}
+	}
+
+	/** Called by the {@link ConsoleFlusher}; returns the number of characters shown. */
+	int flushScheduled() {
+		// Reset first, so that concurrent writes schedule this buffer again
+		scheduled.set(false);
+		return drain();
+	}
+
+	/** Called by the {@link ConsoleFlusher} when the producer waits for space. */
+	void flushFull() {
+		full.set(false);
+		drain();
+	}
+
+	/**
+	 * Shows all pending characters in the text area, on the event dispatch
+	 * thread, and waits until they are shown. If interrupted, they are shown
+	 * later instead.
+	 */
+	void flush() {
+		if (SwingUtilities.isEventDispatchThread()) {
+			drain();
+			return;
+		}
+		try {
+			SwingUtilities.invokeAndWait(this::drain);
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			schedule();
+		}
+		catch (final InvocationTargetException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Consumer side, on the event dispatch thread: append all pending
+	 * characters to the text area.
+	 *
+	 * @return the number of characters drained
+	 */
+	private int drain() {
+		synchronized (pending) {
+			final long h = head, t = tail;
+			if (h == t) return 0;
+			final int at = (int) h & mask;
+			final int n = (int) (t - h);
+			final int first = Math.min(n, ring.length - at);
+			pending.append(ring, at, first);
+			if (first < n) pending.append(ring, 0, n - first);
+			head = t; // release the space to the producer
+			synchronized (space) {
+				space.notifyAll();
+			}
+			final String chunk = pending.toString();
+			pending.setLength(0);
+			append(chunk);
+			final Consumer<String> l = listener;
+			if (l != null) l.accept(chunk);
+			return n;
+		}
+	}
+
+	private void append(final String text) {
+		final int limit = lineLimit;
+		// Skip what would be dropped right away
+		int start = 0;
+		for (int i = text.length() - 1, lines = 0; i >= 0; i--) {
+			if ('\n' == text.charAt(i) && ++lines == limit) {
+				start = i + 1;
+				break;
+			}
+		}
+		synchronized (textArea) {
+			try {
+				if (start > 0) {
+					textArea.setText(text.substring(start));
+				}
+				else {
+					textArea.append(text);
+					final int lineCount = textArea.getLineCount();
+					if (lineCount > limit + limit / 10) {
+						textArea.replaceRange("", 0, textArea.getLineStartOffset(lineCount - limit));
+					}
+				}
+			}
+			catch (final BadLocationException e) {
+				// Cannot happen: the line exists
+				throw new IllegalStateException(e);
+			}
+			textArea.setCaretPosition(textArea.getDocument().getLength());
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Editor-wide scheduler that flushes all console sinks on the event dispatch
+ * thread.
+ * <p>
+ * A {@link ConsoleBuffer} schedules itself when it receives output while
+ * idle. The next tick of a single Swing {@link Timer} drains every scheduled
+ * buffer, and the timer stops when there is nothing left to flush. Consoles
+ * thus cost no threads of their own, and unclosed ones are simply garbage
+ * collected.
+ * </p>
+ * <p>
+ * The interval adapts to the output: sparse output shows up after
+ * {@value #MIN_DELAY} ms, while floods double the interval up to
+ * {@value #MAX_DELAY} ms so that the text areas are repainted in larger
+ * batches.
+ * </p>
+ */
+final class ConsoleFlusher implements ActionListener {
+
+	static final int MIN_DELAY = 20;
+	static final int MAX_DELAY = 400;
+
+	/** Characters per tick above which the output counts as a flood. */
+	private static final int FLOOD = 16 * 1024;
+
+	private static final ConsoleFlusher instance = new ConsoleFlusher();
+
+	private final Queue<ConsoleBuffer> scheduled = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean running = new AtomicBoolean();
+	private final Timer timer;
+
+	private ConsoleFlusher() {
+		timer = new Timer(MIN_DELAY, this);
+	}
+
+	static ConsoleFlusher getInstance() {
+		return instance;
+	}
+
+	/** Flush the given buffer on the next tick. Callable from any thread. */
+	void schedule(final ConsoleBuffer buffer) {
+		scheduled.add(buffer);
+		if (running.compareAndSet(false, true)) timer.start();
+	}
+
+	/**
+	 * Flush the given buffer as soon as possible, because its producer waits
+	 * for space. Callable from any thread.
+	 */
+	void flushNow(final ConsoleBuffer buffer) {
+		SwingUtilities.invokeLater(buffer::flushFull);
+	}
+
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		long chars = 0;
+		for (ConsoleBuffer buffer; (buffer = scheduled.poll()) != null;) {
+			chars += buffer.flushScheduled();
+		}
+		if (chars > 0) {
+			timer.setDelay(chars < FLOOD ? MIN_DELAY : Math.min(MAX_DELAY, timer
+				.getDelay() * 2));
+			return;
+		}
+		// Idle: stop, unless a buffer was scheduled in the meantime
+		timer.stop();
+		timer.setDelay(MIN_DELAY);
+		running.set(false);
+		if (!scheduled.isEmpty() && running.compareAndSet(false, true)) timer
+			.start();
+	}
+}
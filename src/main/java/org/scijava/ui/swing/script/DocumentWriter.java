@@ -0,0 +1,223 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+/**
+ * Saves documents to files, atomically and off the event dispatch thread.
+ * <p>
+ * The text is encoded as UTF-8 straight from the document's own buffer,
+ * segment by segment, while the document is read-locked. It goes to a
+ * temporary file in the target's directory, which is forced to disk and then
+ * renamed over the target. A crash mid-write thus leaves the target as it was.
+ * All writes run on one background thread, so that writes to the same file
+ * happen in the order they were submitted.
+ * </p>
+ */
+final class DocumentWriter {
+
+	private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), r -> {
+				final Thread thread = new Thread(r, "Script editor writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		writer.allowCoreThreadTimeOut(true);
+	}
+
+	private DocumentWriter() {
+		// prevent instantiation of utility class
+	}
+
+	/** Runs the given write on the writer thread, after all writes submitted before. */
+	static <T> Future<T> submit(final Callable<T> write) {
+		return writer.submit(write);
+	}
+
+	/**
+	 * Writes a document to a file atomically: the file either keeps its old
+	 * contents or gets all of the new ones.
+	 *
+	 * @param document The document to write.
+	 * @param file The file to replace. A symbolic link is followed.
+	 * @param whileLocked Run once the document is read-locked, before it is
+	 *          written, e.g. to note which version of the document is saved.
+	 * @return the fingerprint of the written contents
+	 * @throws IOException If the file cannot be written or replaced.
+	 */
+	static FileFingerprint write(final Document document, final File file, final Runnable whileLocked)
+			throws IOException {
+		final File dir = file.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.exists() && !dir.mkdirs()) {
+			throw new IOException("Cannot create directory: " + dir);
+		}
+		Path target = file.toPath();
+		if (Files.exists(target)) target = target.toRealPath();
+		Path temp;
+		FileChannel created;
+		for (;;) {
+			// Unlike Files.createTempFile, with the default permissions of new files
+			temp = target.resolveSibling("." + target.getFileName() + "." +
+					Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			try {
+				created = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+				break;
+			}
+			catch (final FileAlreadyExistsException e) {
+				// try another name
+			}
+		}
+		final CRC32 crc = new CRC32();
+		final long size;
+		try {
+			try (FileChannel channel = created) {
+				final IOException[] exception = { null };
+				document.render(() -> {
+					whileLocked.run();
+					try {
+						encode(document, channel, crc);
+					}
+					catch (final IOException e) {
+						exception[0] = e;
+					}
+				});
+				if (exception[0] != null) throw exception[0];
+				channel.force(true);
+				size = channel.size();
+			}
+			if (Files.exists(target)) {
+				try {
+					Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+				}
+				catch (final UnsupportedOperationException e) {
+					// not a POSIX file system
+				}
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (final AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+		forceDirectory(target.toAbsolutePath().getParent());
+		return new FileFingerprint(size, crc.getValue());
+	}
+
+	/** Encodes the document as UTF-8, in chunks, without copying all of it. Call with the document read-locked. */
+	private static void encode(final Document document, final FileChannel channel, final CRC32 crc)
+			throws IOException {
+		final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		final Segment segment = new Segment();
+		segment.setPartialReturn(true);
+		// Surrogate pairs split between segments are left over in the buffer
+		final CharBuffer chars = CharBuffer.allocate(8192);
+		final ByteBuffer bytes = ByteBuffer.allocate(32768);
+		final int length = document.getLength();
+		try {
+			for (int offset = 0; offset < length; offset += segment.count) {
+				document.getText(offset, Math.min(length - offset, chars.remaining()), segment);
+				chars.put(segment.array, segment.offset, segment.count);
+				chars.flip();
+				encode(encoder, chars, bytes, false, channel, crc);
+				chars.compact();
+			}
+		}
+		catch (final BadLocationException e) {
+			// Cannot happen: the document is locked
+			throw new IllegalStateException(e);
+		}
+		chars.flip();
+		encode(encoder, chars, bytes, true, channel, crc);
+		while (encoder.flush(bytes).isOverflow())
+			drain(bytes, channel, crc);
+		drain(bytes, channel, crc);
+	}
+
+	private static void encode(final CharsetEncoder encoder, final CharBuffer chars, final ByteBuffer bytes,
+			final boolean endOfInput, final FileChannel channel, final CRC32 crc) throws IOException {
+		for (CoderResult result = encoder.encode(chars, bytes, endOfInput); result.isOverflow(); result = encoder
+				.encode(chars, bytes, endOfInput)) {
+			drain(bytes, channel, crc);
+		}
+	}
+
+	private static void drain(final ByteBuffer bytes, final FileChannel channel, final CRC32 crc)
+			throws IOException {
+		bytes.flip();
+		crc.update(bytes.array(), 0, bytes.limit());
+		while (bytes.hasRemaining())
+			channel.write(bytes);
+		bytes.clear();
+	}
+
+	/** Forces a rename to disk, where the platform allows it. */
+	private static void forceDirectory(final Path dir) {
+		try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+		catch (final IOException e) {
+			// e.g. on Windows, where directories cannot be opened
+		}
+	}
+}
@@ -34,21 +34,22 @@ import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.InterruptedIOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -61,13 +62,18 @@ import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollPane;
 import javax.swing.JViewport;
 import javax.swing.MenuElement;
+import javax.swing.SwingUtilities;
 import javax.swing.ToolTipManager;
 import javax.swing.UIManager;
+import javax.swing.event.ChangeListener;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
+import javax.swing.text.AbstractDocument;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.Caret;
+import javax.swing.text.Document;
 
 import org.fife.rsta.ac.LanguageSupport;
 import org.fife.rsta.ac.LanguageSupportFactory;
@@ -104,13 +110,38 @@ import org.scijava.util.FileUtils;
  */
 public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 
+	/**
+	 * Files larger than this many bytes are opened in large-file mode: read-only,
+	 * without syntax highlighting, and loaded as the view nears the end of the
+	 * loaded text. See {@link #isLargeFileMode()}.
+	 */
+	public static final long LARGE_FILE_THRESHOLD = 16 << 20;
+
+	/** The bound property fired when entering or leaving large-file mode. */
+	public static final String LARGE_FILE_PROPERTY = "largeFile";
+
+	/**
+	 * Lines longer than this many characters are shown as plain text by default.
+	 * See {@link #setLongLineLimit(int)}.
+	 */
+	public static final int DEFAULT_LONG_LINE_LIMIT = 10000;
+
 	private String fallBackBaseName;
 	private File curFile;
 	private File gitDirectory;
-	private long fileLastModified;
+	private volatile long fileLastModified;
+	/** The file's contents as last loaded or saved; {@code null} in large-file mode. */
+	private volatile FileFingerprint fingerprint;
+	/** Whether a {@link FileChangeWatcher} reports changes to the file. */
+	private volatile boolean watched;
+	private boolean changedOutside;
+	/** Held while the file is written, or compared with its fingerprint. */
+	final Object fileLock = new Object();
 	private ScriptLanguage currentLanguage;
 	private Gutter gutter;
 	private int modifyCount;
+	/** Counts all edits, unlike {@link #modifyCount}, which undo decrements. */
+	private long edits;
 
 	private boolean undoInProgress;
 	private boolean redoInProgress;
@@ -121,6 +152,20 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 	private final ErrorParser errorHighlighter;
 	private final JMenu noneLangSyntaxMenu;
 	private final EditorPaneActions actions;
+	private final TaskTagParser taskTagParser = new TaskTagParser();
+	private LargeFileLoader largeFile;
+	/** Restores what large-file mode turned off. */
+	private Runnable largeFileRestore;
+	/** Whether the loaded text of a large file is being appended. */
+	private boolean appendingLoaded;
+	/** Loads more of a large file as the view nears the end of the loaded text. */
+	private final ChangeListener largeFileScroller = e -> {
+		if (largeFile == null) return;
+		final Rectangle view = getVisibleRect();
+		if (view.y + 2 * view.height >= getHeight()) largeFile.loadMore();
+	};
+	/** Read by the token makers whenever they lex a line. */
+	private volatile int longLineLimit = DEFAULT_LONG_LINE_LIMIT;
 
 
 	@Parameter
@@ -145,6 +190,7 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 
 		errorHighlighter= new ErrorParser(this);
 		actions = new EditorPaneActions(this);
+		((RSyntaxDocument) getDocument()).setTokenMakerFactory(new LongLineTokenMaker.Factory(() -> longLineLimit));
 
 		// set sensible defaults
 		setAntiAliasingEnabled(true);
@@ -172,7 +218,7 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 			}
 		});
 		// Add support for TODO, FIXME, HACK
-		addParser(new TaskTagParser());
+		addParser(taskTagParser);
 
 		//NB: Loading of preferences will happen by calling #loadPreferences();
 
@@ -474,6 +520,10 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 	 * Set the title according to whether the file was modified or not.
 	 */
 	protected void modified() {
+		if (appendingLoaded) {
+			return;
+		}
+		edits++;
 		if (undoInProgress) {
 			modifyCount--;
 		}
@@ -500,31 +550,267 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 	 *         this {@link EditorPane} since it was openend.
 	 */
 	public boolean wasChangedOutside() {
+		if (watched) return changedOutside;
 		return curFile != null && curFile.exists() &&
 			curFile.lastModified() != fileLastModified;
 	}
 
+	FileFingerprint getFingerprint() {
+		return fingerprint;
+	}
+
+	long getFileLastModified() {
+		return fileLastModified;
+	}
+
+	void setWatched(final boolean watched) {
+		this.watched = watched;
+	}
+
+	/** Called by the {@link FileChangeWatcher} on the event dispatch thread. */
+	void setChangedOutside() {
+		changedOutside = true;
+	}
+
 	/**
-	 * Write the contents of this {@link EditorPane} to given file.
+	 * Stops reporting the current change made outside, before the user is asked
+	 * about it.
+	 */
+	void outsideChangeSeen() {
+		changedOutside = false;
+		if (curFile == null || !curFile.exists()) return;
+		synchronized (fileLock) {
+			fileLastModified = curFile.lastModified();
+			if (fingerprint != null) {
+				try {
+					fingerprint = FileFingerprint.of(curFile.toPath());
+				}
+				catch (final IOException e) {
+					fingerprint = null;
+				}
+			}
+		}
+	}
+
+	/** Marks this pane as differing from its file, whose change was not reloaded. */
+	void outsideChangeKept() {
+		modifyCount = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Write the contents of this {@link EditorPane} to given file, and wait
+	 * until the file is written. See {@link #writeInBackground(File)}.
 	 *
 	 * @param file File to write the contents of this editor to.
-	 * @throws IOException Thrown when a parent directory could not be created.
+	 * @throws IOException Thrown when the file could not be written.
 	 */
 	public void write(final File file) throws IOException {
-		final File dir = file.getParentFile();
-		if (dir != null && !dir.exists()) {
-			// create needed parent directories
-			if (!dir.mkdirs()) {
-				throw new IOException("Cannot create directory: " + dir);
+		final Save save = new Save(file);
+		try {
+			DocumentWriter.submit(save).get();
+		}
+		catch (final ExecutionException e) {
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while saving " + file.getName());
+		}
+		save.commit();
+	}
+
+	/**
+	 * Write the contents of this {@link EditorPane} to given file in the
+	 * background. The file is replaced atomically: a failed write leaves it as it
+	 * was. This pane is marked as saved once the file is written, unless edited
+	 * in the meantime.
+	 *
+	 * @param file File to write the contents of this editor to.
+	 * @return Completed on the event dispatch thread, once the file is written or
+	 *         the write failed.
+	 */
+	public CompletableFuture<File> writeInBackground(final File file) {
+		final CompletableFuture<File> result = new CompletableFuture<>();
+		final Save save;
+		try {
+			save = new Save(file);
+		}
+		catch (final IOException e) {
+			result.completeExceptionally(e);
+			return result;
+		}
+		DocumentWriter.submit(() -> {
+			try {
+				save.call();
+				SwingUtilities.invokeLater(() -> {
+					save.commit();
+					result.complete(file);
+				});
+			}
+			catch (final IOException | RuntimeException e) {
+				SwingUtilities.invokeLater(() -> result.completeExceptionally(e));
 			}
+			return null;
+		});
+		return result;
+	}
+
+	/** A write of the document to a file, and which version of it was written. */
+	private class Save implements Callable<Save> {
+
+		private final Document document = getDocument();
+		private final File file;
+		private int savedModifyCount;
+		private long savedEdits;
+		private long lastModified;
+
+		private Save(final File file) throws IOException {
+			if (largeFile != null && !largeFile.isComplete()) {
+				throw new IOException(largeFile.getFile().getName() +
+					" is only partially loaded. Load all of it before saving.");
+			}
+			this.file = file;
+		}
+
+		/** Writes the file; called on the writer thread. */
+		@Override
+		public Save call() throws IOException {
+			synchronized (fileLock) {
+				// The counts only change while the document is write-locked
+				fingerprint = DocumentWriter.write(document, file, () -> {
+					savedModifyCount = modifyCount;
+					savedEdits = edits;
+				});
+				lastModified = file.lastModified();
+			}
+			return this;
+		}
+
+		/** Marks the written version as saved; called once the write is done. */
+		private void commit() {
+			if (document != getDocument()) return;
+			if (edits == savedEdits) modifyCount = 0;
+			else if (modifyCount != Integer.MIN_VALUE && savedModifyCount != Integer.MIN_VALUE)
+				modifyCount -= savedModifyCount; // edited while saving
+			else modifyCount = Integer.MIN_VALUE;
+			fileLastModified = lastModified;
+			changedOutside = false;
+		}
+	}
+
+	/**
+	 * Reloads the file of this pane in the background, e.g. after it was changed
+	 * outside. Only the lines that differ from the file are replaced, in one
+	 * undoable edit, so that the caret, folds, bookmarks and the undo history
+	 * are kept. Files shown in, or due for, large-file mode are opened anew.
+	 *
+	 * @return Completed on the event dispatch thread, once the file is reloaded
+	 *         or reading it failed.
+	 */
+	public CompletableFuture<File> reloadInBackground() {
+		final File file = curFile;
+		final CompletableFuture<File> result = new CompletableFuture<>();
+		if (file == null || largeFile != null || !file.exists() || file.length() > LARGE_FILE_THRESHOLD) {
+			try {
+				open(file);
+				result.complete(file);
+			}
+			catch (final IOException e) {
+				result.completeExceptionally(e);
+			}
+			return result;
+		}
+		reload(file, result);
+		return result;
+	}
+
+	private void reload(final File file, final CompletableFuture<File> result) {
+		final Reload reload = new Reload(file);
+		// On the writer thread, to read the file after pending saves
+		DocumentWriter.submit(() -> {
+			try {
+				reload.call();
+				SwingUtilities.invokeLater(() -> {
+					// Diff again if edited in the meantime
+					if (curFile != file || reload.apply()) result.complete(file);
+					else reload(file, result);
+				});
+			}
+			catch (final IOException | RuntimeException e) {
+				SwingUtilities.invokeLater(() -> result.completeExceptionally(e));
+			}
+			return null;
+		});
+	}
+
+	/** A reload of the file, as the changes to the version of the document it was compared with. */
+	private class Reload implements Callable<Reload> {
+
+		private final Document document = getDocument();
+		private final File file;
+		private long diffedEdits;
+		private List<LineDiff.Edit> changes;
+		private FileFingerprint loaded;
+		private long lastModified;
+
+		private Reload(final File file) {
+			this.file = file;
+		}
+
+		/** Reads the file and diffs the document with it; called on the writer thread. */
+		@Override
+		public Reload call() throws IOException {
+			final byte[] bytes;
+			synchronized (fileLock) {
+				bytes = Files.readAllBytes(file.toPath());
+				loaded = FileFingerprint.of(bytes);
+				lastModified = file.lastModified();
+			}
+			final String[] text = new String[1];
+			// Edits only change while the document is write-locked
+			document.render(() -> {
+				diffedEdits = edits;
+				try {
+					text[0] = document.getText(0, document.getLength());
+				}
+				catch (final BadLocationException e) {
+					throw new IllegalStateException(e); // cannot happen
+				}
+			});
+			changes = LineDiff.diff(text[0], new String(bytes, StandardCharsets.UTF_8));
+			return this;
+		}
+
+		/**
+		 * Applies the changes, last first, in one atomic edit; called on the event
+		 * dispatch thread.
+		 *
+		 * @return false if the document was edited since it was diffed
+		 */
+		private boolean apply() {
+			if (document != getDocument() || edits != diffedEdits) return false;
+			if (!changes.isEmpty()) {
+				beginAtomicEdit();
+				try {
+					for (int i = changes.size() - 1; i >= 0; i--) {
+						final LineDiff.Edit change = changes.get(i);
+						((AbstractDocument) document).replace(change.offset, change.length, change.text, null);
+					}
+				}
+				catch (final BadLocationException e) {
+					throw new IllegalStateException(e); // cannot happen: diffed with this version
+				}
+				finally {
+					endAtomicEdit();
+				}
+			}
+			fingerprint = loaded;
+			fileLastModified = lastModified;
+			modifyCount = 0;
+			changedOutside = false;
+			return true;
 		}
-		final BufferedWriter outFile =
-			new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
-				"UTF-8"));
-		outFile.write(getText());
-		outFile.close();
-		modifyCount = 0;
-		fileLastModified = file.lastModified();
 	}
 
 	/**
@@ -535,41 +821,52 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 	 */
 	public void open(final File file) throws IOException {
 		final File oldFile = curFile;
+		final int oldLine = getCaretLineNumber();
 		curFile = null;
-		if (file == null)
+		if (largeFile != null) {
+			// Drop the loaded text before turning highlighting etc. back on
 			setText("");
+			leaveLargeFileMode();
+		}
+		if (file == null) {
+			setText("");
+			fingerprint = null;
+		}
 		else {
 			int line = 0;
 			try {
 				if (file.getCanonicalPath().equals(oldFile.getCanonicalPath()))
-					line = getCaretLineNumber();
+					line = oldLine;
 			} catch (final Exception e) {
 				/* ignore */}
 			if (!file.exists()) {
 				modifyCount = Integer.MIN_VALUE;
 				setFileName(file);
-					return;
+				return;
+			}
+			if (file.length() > LARGE_FILE_THRESHOLD) {
+				final LargeFileLoader loader = new LargeFileLoader(this, file);
+				setText("");
+				enterLargeFileMode(loader);
+				loader.loadFirst();
+				fingerprint = null; // too costly: changes are told by the modification time
+			}
+			else {
+				final byte[] bytes;
+				synchronized (fileLock) {
+					bytes = Files.readAllBytes(file.toPath());
+					fingerprint = FileFingerprint.of(bytes);
 				}
-				final StringBuffer string = new StringBuffer();
-				try (BufferedReader reader = new BufferedReader(
-						new InputStreamReader(new FileInputStream(file), "UTF-8"))) {
-					final char[] buffer = new char[16384];
-					for (;;) {
-						final int count = reader.read(buffer);
-						if (count < 0)
-							break;
-					string.append(buffer, 0, count);
+				final String text = new String(bytes, StandardCharsets.UTF_8);
+				try {
+					setText(text);
+				} catch (final Error | IndexOutOfBoundsException e2) {
+					// Mysterious parsing errors w/ IJM!? Syntax highlighting will
+					// fail but things should be back to normal on next repaint. See
+					// https://github.com/scijava/script-editor/issues/14
+					// https://forum.image.sc/t/shiny-new-script-editor/64160/19
+					log.debug(e2);
 				}
-				reader.close();
-			}
-			try {
-				setText(string.toString());
-			} catch (final Error | IndexOutOfBoundsException e2) {
-				// Mysterious parsing errors w/ IJM!? Syntax highlighting will
-				// fail but things should be back to normal on next repaint. See
-				// https://github.com/scijava/script-editor/issues/14
-				// https://forum.image.sc/t/shiny-new-script-editor/64160/19
-				log.debug(e2);
 			}
 			curFile = file;
 			if (line > getLineCount())
@@ -583,9 +880,109 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 			discardAllEdits();
 			fileLastModified = file == null || !file.exists() ? 0 : file.lastModified();
 			modifyCount = 0;
+			changedOutside = false;
 			getDocument().addDocumentListener(this); // Add as late as possible to avoid spurious updates
 	}
 
+	/**
+	 * Whether the file shown is larger than {@link #LARGE_FILE_THRESHOLD} and
+	 * not fully loaded for editing yet. In large-file mode, this pane is
+	 * read-only, shows the file only up to a little below the view, and has
+	 * syntax highlighting, mark occurrences, code folding, bracket matching,
+	 * line wrap and language support turned off.
+	 *
+	 * @return <code>true</code> if in large-file mode
+	 * @see #loadWholeFile()
+	 */
+	public boolean isLargeFileMode() {
+		return largeFile != null;
+	}
+
+	LargeFileLoader getLargeFileLoader() {
+		return largeFile;
+	}
+
+	/**
+	 * Leaves large-file mode: loads the rest of the file in the background, and
+	 * then turns editing and syntax highlighting back on.
+	 */
+	public void loadWholeFile() {
+		if (largeFile == null) return;
+		largeFile.loadAll(this::leaveLargeFileMode);
+	}
+
+	/** Stops loading a large file, e.g., when this pane is closed. */
+	void closeLargeFile() {
+		if (largeFile != null) largeFile.close();
+	}
+
+	private void enterLargeFileMode(final LargeFileLoader loader) {
+		final boolean editable = isEditable();
+		final boolean markOccurrences = getMarkOccurrences();
+		final boolean codeFolding = isCodeFoldingEnabled();
+		final boolean bracketMatching = isBracketMatchingEnabled();
+		final boolean lineWrap = getLineWrap();
+		largeFileRestore = () -> {
+			setEditable(editable);
+			setMarkOccurrences(markOccurrences);
+			setCodeFoldingEnabled(codeFolding);
+			setBracketMatchingEnabled(bracketMatching);
+			setLineWrap(lineWrap);
+			addParser(taskTagParser);
+		};
+		setEditable(false);
+		setMarkOccurrences(false);
+		setCodeFoldingEnabled(false);
+		setBracketMatchingEnabled(false);
+		setLineWrap(false);
+		removeParser(taskTagParser);
+		setSyntaxEditingStyle(SYNTAX_STYLE_NONE);
+		largeFile = loader;
+		if (getParent() instanceof JViewport)
+			((JViewport) getParent()).addChangeListener(largeFileScroller);
+		firePropertyChange(LARGE_FILE_PROPERTY, false, true);
+	}
+
+	private void leaveLargeFileMode() {
+		largeFile.close();
+		largeFile = null;
+		if (getParent() instanceof JViewport)
+			((JViewport) getParent()).removeChangeListener(largeFileScroller);
+		largeFileRestore.run();
+		largeFileRestore = null;
+		// Only for its syntax highlighting and language support: keep the file as is
+		final File file = curFile;
+		final int count = modifyCount;
+		setLanguage(currentLanguage);
+		curFile = file;
+		modifyCount = count;
+		firePropertyChange(LARGE_FILE_PROPERTY, true, false);
+	}
+
+	/** Appends the next chunk of a large file, without marking this pane as modified. */
+	void appendLoaded(final String text) {
+		final Document document = getDocument();
+		final Caret caret = getCaret();
+		final int dot = caret.getDot(), mark = caret.getMark();
+		appendingLoaded = true;
+		try {
+			document.insertString(document.getLength(), text, null);
+		}
+		catch (final BadLocationException e) {
+			// Cannot happen: the end of the document is a valid location
+			throw new IllegalStateException(e);
+		}
+		finally {
+			appendingLoaded = false;
+		}
+		// Keep the view where it is, even at the end of the loaded text
+		if (caret.getDot() != dot || caret.getMark() != mark) {
+			caret.setDot(mark);
+			caret.moveDot(dot);
+		}
+		discardAllEdits();
+	}
+
 	/**
 	 * Set the name to use for new files. The file extension for the current
 	 * script language is added automatically.
@@ -747,7 +1144,7 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 		final String styleName =
 			"text/" + languageName.toLowerCase().replace(' ', '-');
 		try {
-			setSyntaxEditingStyle(styleName);
+			setSyntaxEditingStyle(largeFile == null ? styleName : SYNTAX_STYLE_NONE);
 		}
 		catch (final NullPointerException | IndexOutOfBoundsException exc) {
 			// NB Avoid possible NPEs and other exceptions in RSyntaxTextArea code.
@@ -766,6 +1163,10 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 			supportStatus = "Active language: None";
 			return; // no need to update console any further
 		}
+		if (largeFile != null) {
+			supportStatus = "Active language: " + languageName + "\nAutocompletion: N/A for large files";
+			return;
+		}
 		String supportLevel = "SciJava supported";
 		// try to get language support for current language, may be null.
 		support = languageSupportService.getLanguageSupport(currentLanguage);
@@ -968,69 +1369,59 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 	 * @return number of characters replaced.
 	 */
 	public int zapGremlins() {
-		final char[] chars = getText().toCharArray();
-		int count = 0; // number of "gremlins" zapped
-		boolean inQuotes = false;
-		char quoteChar = 0;
-
-		for (int i = 0; i < chars.length; ++i) {
-			final char c = chars[i];
-
-			if (!inQuotes) {
-				if (c == '"' || c == '\'') {
-					inQuotes = true;
-					quoteChar = c;
-				}
-				else if (c != '\n' && c != '\t' && (c < 32 || c > 127)) {
-					count++;
-					chars[i] = ' ';
-				}
-			}
-			else if (c == quoteChar || c == '\n') {
-				inQuotes = false;
-			}
-		}
-		if (count > 0) {
-			beginAtomicEdit();
-			try {
-				setText(new String(chars));
-			}
-			catch (final Throwable t) {
-				log.error(t);
-			}
-			finally {
-				endAtomicEdit();
-			}
-		}
-		return count;
+		return BulkEdit.zapGremlins(getDocument()).apply(this);
 	}
 
+	/**
+	 * Replaces each tab with as many spaces as the tab size, in one undoable
+	 * edit that only touches the lines with tabs.
+	 */
 	@Override
 	public void convertTabsToSpaces() {
-		beginAtomicEdit();
-		try {
-			super.convertTabsToSpaces();
-		}
-		catch (final Throwable t) {
-			log.error(t);
-		}
-		finally {
-			endAtomicEdit();
-		}
+		BulkEdit.tabsToSpaces(getDocument(), getTabSize()).apply(this);
 	}
 
+	/**
+	 * Replaces each run of as many spaces as the tab size with a tab, in one
+	 * undoable edit that only touches the lines that change.
+	 */
 	@Override
 	public void convertSpacesToTabs() {
-		beginAtomicEdit();
-		try {
-			super.convertSpacesToTabs();
-		}
-		catch (final Throwable t) {
-			log.error(t);
-		}
-		finally {
-			endAtomicEdit();
-		}
+		BulkEdit.spacesToTabs(getDocument(), getTabSize()).apply(this);
+	}
+
+	/**
+	 * Replaces all matches of a search in one undoable edit, which only touches
+	 * the lines with matches.
+	 *
+	 * @return the number of replacements
+	 * @see SearchEngine#replaceAll(RTextArea, SearchContext)
+	 */
+	public int replaceAll(final SearchContext context) {
+		if (context.getMarkAll()) clearMarkAllHighlights();
+		return BulkEdit.replaceAll(getDocument(), context).apply(this);
+	}
+
+	/**
+	 * Shows lines longer than the given number of characters as plain text:
+	 * they are neither lexed nor highlighted, and have no matching brackets,
+	 * links or marked occurrences. This keeps typing and scrolling responsive
+	 * with, e.g., minified code or recorded macros, whose lines can be a
+	 * megabyte long.
+	 *
+	 * @param limit The longest line to highlight; 0 or less for no limit.
+	 */
+	public void setLongLineLimit(final int limit) {
+		if (limit == longLineLimit) return;
+		longLineLimit = limit;
+		// Lex all lines again
+		((RSyntaxDocument) getDocument()).setSyntaxStyle(getSyntaxEditingStyle());
+		repaint();
+	}
+
+	/** @see #setLongLineLimit(int) */
+	public int getLongLineLimit() {
+		return longLineLimit;
 	}
 
 	// --- Preferences ---
@@ -1047,6 +1438,7 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 	public static final String AUTOCOMPLETE_FALLBACK_PREFS = "script.editor.ACFallback";
 	public static final String MARK_OCCURRENCES_PREFS = "script.editor.Occurrences";
 	public static final String FOLDERS_PREFS = "script.editor.folders";
+	public static final String LONG_LINE_LIMIT_PREFS = "script.editor.LongLineLimit";
 	public static final int DEFAULT_TAB_SIZE = 4;
 	public static final String DEFAULT_THEME = "default";
 
@@ -1076,6 +1468,7 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 			setFallbackAutoCompletion(prefService.getBoolean(getClass(), AUTOCOMPLETE_FALLBACK_PREFS, false));
 			setMarkOccurrences(prefService.getBoolean(getClass(), MARK_OCCURRENCES_PREFS, false));
 			setMarginLineEnabled(prefService.getBoolean(getClass(), MARGIN_VISIBLE_PREFS, false));
+			setLongLineLimit(prefService.getInt(getClass(), LONG_LINE_LIMIT_PREFS, DEFAULT_LONG_LINE_LIMIT));
 			applyTheme(themeName());
 		}
 	}
@@ -1130,6 +1523,7 @@ public class EditorPane extends RSyntaxTextArea implements DocumentListener {
 		prefService.put(getClass(), AUTOCOMPLETE_FALLBACK_PREFS, isAutoCompletionFallbackEnabled());
 		prefService.put(getClass(), MARGIN_VISIBLE_PREFS, isMarginLineEnabled());
 		prefService.put(getClass(), MARK_OCCURRENCES_PREFS, getMarkOccurrences());
+		prefService.put(getClass(), LONG_LINE_LIMIT_PREFS, getLongLineLimit());
 		if (null != top_folders) prefService.put(getClass(), FOLDERS_PREFS, top_folders);
 		if (null != theme) prefService.put(getClass(), THEME_PREFS, theme);
 	}
@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import java.util.Objects;
+
+/**
+ * A location in a script, as mentioned by its error output.
+ */
+public class ErrorLocation {
+
+	private final String file;
+	private final int line, column;
+
+	/**
+	 * @param file The file name as mentioned in the error output, or
+	 *          {@code null} if it does not mention one.
+	 * @param line The 1-based line number.
+	 * @param column The 1-based column, or 0 if unknown.
+	 */
+	public ErrorLocation(final String file, final int line, final int column) {
+		this.file = file;
+		this.line = line;
+		this.column = column;
+	}
+
+	/** The file name as mentioned in the error output, or {@code null}. */
+	public String getFile() {
+		return file;
+	}
+
+	/** The 1-based line number. */
+	public int getLine() {
+		return line;
+	}
+
+	/** The 1-based column, or 0 if unknown. */
+	public int getColumn() {
+		return column;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (!(o instanceof ErrorLocation)) return false;
+		final ErrorLocation other = (ErrorLocation) o;
+		return Objects.equals(file, other.file) && line == other.line &&
+			column == other.column;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(file, line, column);
+	}
+
+	@Override
+	public String toString() {
+		return (file == null ? "" : file) + ":" + line + (column > 0 ? ":" +
+			column : "");
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import org.scijava.plugin.RichPlugin;
+import org.scijava.script.ScriptLanguage;
+
+/**
+ * Interface for plugins that find the script locations mentioned in the error
+ * output of a {@link ScriptLanguage}, such as its stack traces.
+ * <p>
+ * The {@link ErrorParser} uses the extractor with the highest priority that
+ * supports the language of the script, and feeds it the output one line at a
+ * time, while the script is running. Extractors must be cheap on lines that
+ * mention no location, which are the vast majority.
+ * </p>
+ */
+public interface ErrorLocationExtractor extends RichPlugin {
+
+	/** Whether this extractor understands the error output of the language. */
+	boolean supports(ScriptLanguage language);
+
+	/**
+	 * Finds the script location mentioned in one line of error output.
+	 *
+	 * @param line One line of error output, without its line break.
+	 * @param fileName The file name of the script in the editor, or
+	 *          {@code null}.
+	 * @return the location, or {@code null} if the line mentions none.
+	 */
+	ErrorLocation extract(String line, String fileName);
+
+	/**
+	 * The number of lines the language prepends to the script before running
+	 * it, which shifts the reported line numbers.
+	 */
+	default int getLineOffset() {
+		return 0;
+	}
+}
@@ -35,13 +35,11 @@ import java.awt.Rectangle;
 import java.awt.Window;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.StringTokenizer;
-import java.util.TreeSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
 
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Element;
@@ -53,14 +51,18 @@ import org.fife.ui.rsyntaxtextarea.parser.DefaultParseResult;
 import org.fife.ui.rsyntaxtextarea.parser.DefaultParserNotice;
 import org.fife.ui.rsyntaxtextarea.parser.ParseResult;
 import org.fife.ui.rsyntaxtextarea.parser.Parser;
+import org.scijava.plugin.PluginService;
 import org.scijava.script.ScriptLanguage;
+import org.scijava.ui.swing.script.errors.DefaultErrorLocationExtractor;
 
 public class ErrorParser {
 
 	/* Color for ErrorStrip marks and fallback taint for line highlights */
 	private static final Color COLOR = Color.RED;
+	/* Longest partial line kept between chunks of output */
+	private static final int MAX_LINE_LENGTH = 64 * 1024;
 	/* 0-base indices of Editor's lines that have errored */
-	private TreeSet<Integer> errorLines;
+	private NavigableSet<Integer> errorLines;
 	/* When running selected code errored lines map to Editor through this offset */
 	private int lineOffset;
 	private boolean enabled;
@@ -69,6 +71,14 @@ public class ErrorParser {
 	private int lengthOfJTextAreaWriter;
 	private ErrorStripNotifyingParser notifyingParser;
 	private boolean parsingSucceeded;
+	/* The rules of the current run, or null if its errors are not parsed */
+	private Rules rules;
+	/* Why the errors of the current run are not parsed, or null if silently */
+	private String abortMessage;
+	private boolean abortOffsetNotice;
+	/* The end of the output so far, after its last line break */
+	private final StringBuilder partialLine = new StringBuilder();
+	private boolean updatePending;
 
 	public ErrorParser(final EditorPane editorPane) {
 		this.editorPane = editorPane;
@@ -102,6 +112,7 @@ public class ErrorParser {
 			editorPane.removeParser(notifyingParser);
 			if (notifyingParser.highlightAbnoxiously)
 				editorPane.removeAllLineHighlights();
+			notifyingParser = null;
 		}
 	}
 
@@ -131,15 +142,25 @@ public class ErrorParser {
 		}
 	}
 
+	/**
+	 * Starts parsing the output of a run, as it is written to the given writer.
+	 * Call {@link #parse()} when the run is done.
+	 */
 	public void setWriter(final JTextAreaWriter writer) {
+		if (this.writer != null) this.writer.setChunkListener(null);
 		this.writer = writer;
-		lengthOfJTextAreaWriter = writer.textArea.getText().length();
+		lengthOfJTextAreaWriter = writer.textArea.getDocument().getLength();
+		start();
+		writer.setChunkListener(this::consume);
 	}
 
+	/** Finishes parsing the output of the run. */
 	public void parse() {
 		if (writer == null)
 			throw new IllegalArgumentException("Writer is null");
-		parse(writer.textArea.getText().substring(lengthOfJTextAreaWriter));
+		writer.flushQueue(); // delivers the remaining output to consume()
+		writer.setChunkListener(null);
+		finish();
 	}
 
 	public void parse(final Throwable t) {
@@ -190,138 +211,136 @@ public class ErrorParser {
 	}
 
 	private void parse(final String errorLog) {
+		start();
+		consume(errorLog);
+		finish();
+	}
+
+	/** Decides how to parse the output of a run, based on its language. */
+	private synchronized void start() {
+		rules = null;
+		abortMessage = null;
+		abortOffsetNotice = false;
+		partialLine.setLength(0);
+		errorLines = new ConcurrentSkipListSet<>();
 
 		final ScriptLanguage lang = editorPane.getCurrentLanguage();
 		if (lang == null) {
-			abort();
 			return;
 		}
 		final boolean isIJM = isImageJMacro();
 		if (isIJM) {
-			abort("Execution errors handled by the Macro Interpreter. Use the Interpreter's Debug option for error tracking", false);
+			abortMessage = "Execution errors handled by the Macro Interpreter. Use the Interpreter's Debug option for error tracking";
 			return;
 		}
 		// Do nothing if disabled, or if only selected text was evaluated in the
 		// script but we don't know where in the document such selection occurred
 		if (!enabled) {
-			abort("Execution errors are not highlighted when auto-imports are active", true);
+			abortMessage = "Execution errors are not highlighted when auto-imports are active";
+			abortOffsetNotice = true;
 			return;
 		}
 		if (lineOffset == -1) {
-			abort("Code selection unknown: Erros are not highlighted in the Editor", true);
+			abortMessage = "Code selection unknown: Erros are not highlighted in the Editor";
+			abortOffsetNotice = true;
 			return;
 		}
-	
-		final boolean isJava = "Java".equals(lang.getLanguageName());
-		final String fileName = editorPane.getFileName();
-		if (isJava && fileName == null) {
-			abort();
+
+		final ErrorLocationExtractor extractor = extractorFor(lang);
+		if (extractor == null) {
 			return;
 		}
+		rules = new Rules(extractor, editorPane.getFileName(), lineOffset + extractor.getLineOffset());
+	}
+
+	/** The extractor with the highest priority that supports the language. */
+	private ErrorLocationExtractor extractorFor(final ScriptLanguage lang) {
+		final PluginService pluginService = editorPane.context == null ? null : editorPane.context.getService(PluginService.class);
+		if (pluginService == null) return new DefaultErrorLocationExtractor();
+		for (final ErrorLocationExtractor extractor : pluginService.createInstancesOfType(ErrorLocationExtractor.class)) {
+			if (extractor.supports(lang)) return extractor;
+		}
+		return null;
+	}
 
-		// HACK scala code seems to always be pre-pended by some 10 lines of code(!?).
-		if ("Scala".equals(lang.getLanguageName()))
-			lineOffset += 10;
-		// HACK and R by one (!?)
-		else if ("R".equals(lang.getLanguageName()))	
-			lineOffset += 1;
-
-		errorLines = new TreeSet<>();
-		final StringTokenizer tokenizer = new StringTokenizer(errorLog, "\n");
-		if (isJava) {
-			while (tokenizer.hasMoreTokens()) {
-				parseJava(fileName, tokenizer.nextToken(), errorLines);
+	/** Parses a chunk of output, as it arrives. */
+	private synchronized void consume(final String chunk) {
+		if (rules == null) return;
+		final int before = errorLines.size();
+		int start = 0;
+		for (int nl; (nl = chunk.indexOf('\n', start)) >= 0; start = nl + 1) {
+			if (partialLine.length() == 0) {
+				rules.match(chunk.substring(start, nl), errorLines);
 			}
-		} else {
-			while (tokenizer.hasMoreTokens()) {
-				parseNonJava(tokenizer.nextToken(), errorLines);
+			else {
+				partialLine.append(chunk, start, nl);
+				rules.match(partialLine.toString(), errorLines);
+				partialLine.setLength(0);
 			}
 		}
-		if (!errorLines.isEmpty()) {
-			notifyingParser = new ErrorStripNotifyingParser();
-			editorPane.addParser(notifyingParser);
-			editorPane.forceReparsing(notifyingParser);
-			gotoLine(errorLines.first());
+		if (partialLine.length() < MAX_LINE_LENGTH) {
+			partialLine.append(chunk, start, Math.min(chunk.length(), start + MAX_LINE_LENGTH - partialLine.length()));
 		}
-		parsingSucceeded = true;
-	}
-
-	private void parseNonJava(final String lineText, final Collection<Integer> errorLines) {
-
-		if ( // Elimination of some false positives. TODO: Make this Regex
-			lineText.indexOf(":classloader:") > -1 // ruby
-			|| lineText.indexOf(".org.python.") > -1 // python
-			|| lineText.indexOf(".codehaus.groovy.") > -1 // groovy
-			|| lineText.indexOf(".tools.nsc.") > -1 // scala
-			|| lineText.indexOf("at bsh.") > -1 // beanshel
-			|| lineText.indexOf("$Recompilation$") > -1 // javascript
-		) {//
-			return;
+		if (errorLines.size() != before && !updatePending) {
+			// Update the error strip live, at most once per event
+			updatePending = true;
+			SwingUtilities.invokeLater(() -> updateErrorStrip(false));
 		}
-
-		final int extensionIdx = extensionIdx(lineText);
-		final int lineIdx = lineText.toLowerCase().indexOf("line");
-		if (lineIdx < 0 && extensionIdx < 0 && filenameIdx(lineText) < 0)
-			return;
-
-		extractLineIndicesFromFilteredTextLines(lineText, errorLines);
 	}
 
-	private void extractLineIndicesFromFilteredTextLines(final String lineText, final Collection<Integer> errorLines) {
-//		System.out.println("Section being matched: " + lineText);
-		final Pattern pattern = Pattern.compile(":(\\d+)|line\\D*(\\d+)", Pattern.CASE_INSENSITIVE);
-		final Matcher matcher = pattern.matcher(lineText);
-
-		if (matcher.find()) {
-			try {
-				final String firstGroup = matcher.group(1);
-				final String lastGroup = matcher.group(matcher.groupCount());
-				final String group = (firstGroup == null) ? lastGroup : firstGroup;
-//				System.out.println("firstGroup: " + firstGroup);
-//				System.out.println("lastGroup: " + lastGroup);
-
-				final int lineNumber = Integer.valueOf(group.trim());
-				if (lineNumber > 0)
-					errorLines.add(lineNumber - 1 + lineOffset); // store 0-based indices
-			} catch (final NumberFormatException e) {
-				e.printStackTrace();
+	/** Parses what is left of the output, and shows the result. */
+	private void finish() {
+		synchronized (this) {
+			if (rules == null) {
+				if (abortMessage == null) abort();
+				else abort(abortMessage, abortOffsetNotice);
+				return;
 			}
+			if (partialLine.length() > 0) {
+				rules.match(partialLine.toString(), errorLines);
+				partialLine.setLength(0);
+			}
+			rules = null;
+			parsingSucceeded = true;
 		}
+		SwingUtilities.invokeLater(() -> updateErrorStrip(true));
 	}
 
-	private int extensionIdx(final String line) {
-		int dotIndex = -1;
-		for (final String extension : editorPane.getCurrentLanguage().getExtensions()) {
-			dotIndex = line.indexOf("." + extension);
-			if (dotIndex > -1)
-				return dotIndex;
+	/** Invoke in the context of the event dispatch thread. */
+	private void updateErrorStrip(final boolean done) {
+		synchronized (this) {
+			updatePending = false;
 		}
-		return -1;
+		final NavigableSet<Integer> lines = errorLines;
+		if (lines == null || lines.isEmpty()) return;
+		if (notifyingParser == null) {
+			notifyingParser = new ErrorStripNotifyingParser();
+			editorPane.addParser(notifyingParser);
+		}
+		editorPane.forceReparsing(notifyingParser);
+		if (done) gotoLine(lines.first());
 	}
 
-	private int filenameIdx(final String line) {
-		int index = line.indexOf(editorPane.getFileName());
-		if (index == -1)
-			index = (line.indexOf(" Script")); // unsaved file, etc.
-		return index;
-	}
+	/**
+	 * The rules to find the editor lines in the error output of a language,
+	 * prepared once per run.
+	 */
+	private static class Rules {
 
-	private void parseJava(final String filename, final String line, final Collection<Integer> errorLines) {
-		int colon = line.indexOf(filename);
-		if (colon <= 0)
-			return;
-//		System.out.println("Parsing candidate: " + line);
-		colon += filename.length();
-		final int next = line.indexOf(':', colon + 1);
-		if (next < colon + 2)
-			return;
-		try {
-			final int lineNumber = Integer.parseInt(line.substring(colon + 1, next));
-			if (lineNumber > 0)
-				errorLines.add(lineNumber - 1 + lineOffset); // store 0-based indices
-//			System.out.println("line Np: " + (lineNumber - 1));
-		} catch (final NumberFormatException e) {
-			// ignore
+		private final ErrorLocationExtractor extractor;
+		private final String fileName;
+		private final int offset;
+
+		Rules(final ErrorLocationExtractor extractor, final String fileName, final int offset) {
+			this.extractor = extractor;
+			this.fileName = fileName;
+			this.offset = offset;
+		}
+
+		void match(final String lineText, final Collection<Integer> errorLines) {
+			final ErrorLocation location = extractor.extract(lineText, fileName);
+			if (location != null && location.getLine() > 0)
+				errorLines.add(location.getLine() - 1 + offset); // store 0-based indices
 		}
 	}
 
@@ -335,7 +354,8 @@ public class ErrorParser {
 			String finalMsg = "[INFO] " + msg + "\n";
 			if (offsetNotice)
 				finalMsg += "[INFO] Reported error line(s) may not match line numbers in the editor\n";
-			writer.textArea.insert(finalMsg, lengthOfJTextAreaWriter);
+			// The console may have dropped old lines in the meantime
+			writer.textArea.insert(finalMsg, Math.min(lengthOfJTextAreaWriter, writer.textArea.getDocument().getLength()));
 		}
 		errorLines = null;
 	}
@@ -365,6 +385,9 @@ public class ErrorParser {
 			result.clearNotices();
 			result.setParsedLines(0, lineCount - 1);
 			if (isEnabled() && !SyntaxConstants.SYNTAX_STYLE_NONE.equals(style)) {
+				// Reparsed as errors stream in: do not stack highlights
+				if (highlightAbnoxiously)
+					editorPane.removeAllLineHighlights();
 				errorLines.forEach(line -> {
 					result.addNotice(new ErrorNotice(this, line));
 				});
@@ -408,21 +431,4 @@ public class ErrorParser {
 		}
 
 	}
-
-	public static void main(final String[] args) throws Exception {
-		// poor man's test for REGEX filtering
-		final String groovy = "	at Script1.run(Script1.groovy:51)";
-		final String python = "File \"New_.py\", line 51, in <module>";
-		final String ruby = "<main> at Batch_Convert.rb:51";
-		final String scala = " at line number 51 at column number 18";
-		final String beanshell = "or class name: Systesm : at Line: 51 : in file: ";
-		final String javascript = "	at jdk.nashorn.internal.scripts.Script$15$Greeting.:program(Greeting.js:51)";
-		Arrays.asList(groovy, python, ruby, scala, beanshell, javascript).forEach(lang -> {
-			final ErrorParser parser = new ErrorParser(new EditorPane());
-			final TreeSet<Integer> errorLines = new TreeSet<>();
-			parser.extractLineIndicesFromFilteredTextLines(lang, errorLines);
-			assert (errorLines.first() == 50);
-			System.out.println((errorLines.first() == 50) + ": <<" + lang + ">> ");
-		});
-	}
 }
@@ -0,0 +1,253 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import org.scijava.log.Logger;
+
+/**
+ * Watches the files open in the tabs of a {@link TextEditor} for changes made
+ * outside of it, with one {@link WatchService} for the folders of all of them.
+ * <p>
+ * Each event on an open file is checked on the watcher thread against the
+ * {@link FileFingerprint} of the file as the {@link EditorPane} last loaded or
+ * saved it. Only real changes are reported, on the event dispatch thread:
+ * files that were only touched, or rewritten with the same contents, are not.
+ * Panes whose file cannot be watched fall back to comparing modification
+ * times (see {@link EditorPane#wasChangedOutside()}).
+ * </p>
+ */
+class FileChangeWatcher {
+
+	/** How long to wait for more events after one, as a save often makes several. */
+	private static final long SETTLE_MILLIS = 50;
+
+	private final Logger log;
+	private final Consumer<EditorPane> listener;
+
+	// Guarded by this
+	private final Map<EditorPane, Path> files = new HashMap<>();
+	private final Map<Path, WatchKey> folders = new HashMap<>();
+	private WatchService watcher;
+	private boolean closed;
+
+	/** The number of events on open files checked so far. */
+	private final AtomicLong checked = new AtomicLong();
+
+	/**
+	 * @param log Where to report failures to watch.
+	 * @param listener Told on the event dispatch thread about panes whose file
+	 *          was changed outside; their {@link EditorPane#wasChangedOutside()}
+	 *          is then {@code true}.
+	 */
+	FileChangeWatcher(final Logger log, final Consumer<EditorPane> listener) {
+		this.log = log;
+		this.listener = listener;
+	}
+
+	/**
+	 * Starts watching the file of the given pane, or stops if it has none. Call
+	 * whenever the pane opens or is saved to another file.
+	 */
+	synchronized void watch(final EditorPane editorPane) {
+		final Path old = files.remove(editorPane);
+		final Path path = watchable(editorPane.getFile());
+		final boolean watched = path != null && register(path.getParent());
+		if (watched) files.put(editorPane, path);
+		editorPane.setWatched(watched);
+		if (old != null) release(old.getParent());
+	}
+
+	/** Stops watching the file of the given pane, e.g. when its tab is closed. */
+	synchronized void unwatch(final EditorPane editorPane) {
+		final Path old = files.remove(editorPane);
+		editorPane.setWatched(false);
+		if (old != null) release(old.getParent());
+	}
+
+	/**
+	 * The number of events on open files checked so far. Once it has grown,
+	 * any change found is on its way to the event dispatch thread.
+	 */
+	long getCheckedCount() {
+		return checked.get();
+	}
+
+	/** Stops watching all files. */
+	synchronized void close() {
+		closed = true;
+		for (final EditorPane editorPane : files.keySet())
+			editorPane.setWatched(false);
+		files.clear();
+		folders.clear();
+		if (watcher != null) {
+			try {
+				watcher.close();
+			}
+			catch (final IOException e) {
+				log.debug(e);
+			}
+		}
+	}
+
+	/** The path to watch for the given file, following links, or {@code null}. */
+	private static Path watchable(final File file) {
+		if (file == null) return null;
+		try {
+			final Path path = file.toPath().toAbsolutePath().normalize();
+			return Files.exists(path) ? path.toRealPath() : path;
+		}
+		catch (final IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private boolean register(final Path folder) {
+		if (closed || folder == null) return false;
+		if (folders.containsKey(folder)) return true;
+		try {
+			if (watcher == null) {
+				watcher = FileSystems.getDefault().newWatchService();
+				final Thread watching = new Thread(this::run, "Script editor file watcher");
+				watching.setDaemon(true);
+				watching.start();
+			}
+			folders.put(folder, folder.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY));
+			return true;
+		}
+		catch (final IOException | RuntimeException e) {
+			log.debug("Cannot watch " + folder, e);
+			return false;
+		}
+	}
+
+	private void release(final Path folder) {
+		for (final Path path : files.values()) {
+			if (path.getParent().equals(folder)) return;
+		}
+		final WatchKey key = folders.remove(folder);
+		if (key != null) key.cancel();
+	}
+
+	/** Checks the open files the events are about. Runs on the watcher thread. */
+	private void run() {
+		for (;;) {
+			final Set<Path> changed = new HashSet<>();
+			try {
+				WatchKey key = watcher.take();
+				do {
+					collect(key, changed);
+					key = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				while (key != null);
+			}
+			catch (final InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+			final List<EditorPane> panes = new ArrayList<>();
+			final List<Path> paths = new ArrayList<>();
+			synchronized (this) {
+				for (final Map.Entry<EditorPane, Path> entry : files.entrySet()) {
+					if (changed.contains(entry.getValue())) {
+						panes.add(entry.getKey());
+						paths.add(entry.getValue());
+					}
+				}
+			}
+			for (int i = 0; i < panes.size(); i++) {
+				check(panes.get(i), paths.get(i));
+				checked.incrementAndGet();
+			}
+		}
+	}
+
+	private void collect(final WatchKey key, final Set<Path> changed) {
+		final Path folder = (Path) key.watchable();
+		for (final WatchEvent<?> event : key.pollEvents()) {
+			if (StandardWatchEventKinds.OVERFLOW == event.kind()) {
+				synchronized (this) {
+					for (final Path path : files.values()) {
+						if (path.getParent().equals(folder)) changed.add(path);
+					}
+				}
+			}
+			else {
+				changed.add(folder.resolve((Path) event.context()));
+			}
+		}
+		key.reset();
+	}
+
+	/** Reports the pane if its file differs from what it last loaded or saved. */
+	private void check(final EditorPane editorPane, final Path path) {
+		final FileFingerprint expected;
+		synchronized (editorPane.fileLock) {
+			// Deleted files are not reported, as before
+			if (!Files.exists(path)) return;
+			expected = editorPane.getFingerprint();
+			try {
+				if (expected == null ? path.toFile().lastModified() == editorPane.getFileLastModified()
+						: expected.matches(path)) return;
+			}
+			catch (final IOException e) {
+				log.debug(e);
+				return;
+			}
+		}
+		SwingUtilities.invokeLater(() -> {
+			// Unless it was loaded or saved since
+			if (editorPane.getFingerprint() != expected) return;
+			editorPane.setChangedOutside();
+			listener.accept(editorPane);
+		});
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The size and CRC-32 of a file's contents, as last loaded or saved by an
+ * {@link EditorPane}. Comparing it with the file on disk tells real changes
+ * from files that were only touched, or rewritten with the same contents.
+ */
+final class FileFingerprint {
+
+	private final long size;
+	private final long crc;
+
+	FileFingerprint(final long size, final long crc) {
+		this.size = size;
+		this.crc = crc;
+	}
+
+	/** The fingerprint of the given contents. */
+	static FileFingerprint of(final byte[] contents) {
+		final CRC32 crc = new CRC32();
+		crc.update(contents, 0, contents.length);
+		return new FileFingerprint(contents.length, crc.getValue());
+	}
+
+	/**
+	 * The fingerprint of the given file's contents.
+	 *
+	 * @throws IOException If the file cannot be read.
+	 */
+	static FileFingerprint of(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return new FileFingerprint(channel.size(), crc(channel));
+		}
+	}
+
+	/**
+	 * Whether the given file has these contents. Files of another size are not
+	 * read.
+	 *
+	 * @throws IOException If the file cannot be read.
+	 */
+	boolean matches(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.size() == size && crc(channel) == crc;
+		}
+	}
+
+	private static long crc(final FileChannel channel) throws IOException {
+		final CRC32 crc = new CRC32();
+		final ByteBuffer buffer = ByteBuffer.allocate(65536);
+		while (channel.read(buffer) >= 0) {
+			buffer.flip();
+			crc.update(buffer);
+			buffer.clear();
+		}
+		return crc.getValue();
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (!(o instanceof FileFingerprint)) return false;
+		final FileFingerprint other = (FileFingerprint) o;
+		return size == other.size && crc == other.crc;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(size * 31 + crc);
+	}
+
+	@Override
+	public String toString() {
+		return size + " bytes, CRC-32 " + Long.toHexString(crc);
+	}
+}
@@ -0,0 +1,379 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.scijava.log.Logger;
+
+/**
+ * In-memory index of all visible files under a set of folders, so that the
+ * {@link FileSystemTree} can be filtered without touching the disk.
+ * <p>
+ * The index is built in the background, one folder tree at a time, and then
+ * kept up to date by watching every indexed folder for created and deleted
+ * files. Queries scan the index in path order, on their own thread, and hand
+ * over their matches in small batches as they are found.
+ * </p>
+ */
+class FileIndex {
+
+	/** Files beyond this many are not indexed. */
+	static final int MAX_FILES = 500000;
+
+	/** Folders beyond this many are indexed but not watched. */
+	static final int MAX_WATCHED_FOLDERS = 8192;
+
+	/** How many matches a query hands over at once. */
+	static final int BATCH_SIZE = 256;
+
+	/* How many files the builder indexes between notifications */
+	private static final int NOTIFY_EVERY = 5000;
+
+	private final Logger log;
+
+	/* Absolute file path vs. file name, sorted by path */
+	private final ConcurrentSkipListMap<String, String> files = new ConcurrentSkipListMap<>();
+
+	/* A copy of the index in arrays, which are faster to scan; only used by the querier */
+	private String[] paths = new String[0], names = new String[0];
+	private volatile boolean stale = false;
+
+	/* The indexed folders, as absolute paths */
+	private final Set<String> roots = new HashSet<>();
+
+	private final HashMap<WatchKey, Path> keys = new HashMap<>();
+	private WatchService watcher;
+	private Thread watching;
+	private volatile boolean warned;
+
+	private final ExecutorService builder = executor("File index");
+	private final ExecutorService querier = executor("File index query");
+
+	private volatile Runnable listener;
+
+	FileIndex(final Logger log) {
+		this.log = log;
+	}
+
+	private static ExecutorService executor(final String name) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					final Thread thread = new Thread(r, name);
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Sets who is told that the index changed, or {@code null}. Notifications
+	 * come from background threads, often in bursts.
+	 */
+	void setChangeListener(final Runnable listener) {
+		this.listener = listener;
+	}
+
+	/** @return the number of indexed files. */
+	int size() {
+		return files.size();
+	}
+
+	/**
+	 * Index the files under the given folders, and drop those under folders
+	 * that are not given any more.
+	 *
+	 * @param folders The paths of the folders to index.
+	 */
+	synchronized void setRoots(final Collection<String> folders) {
+		final HashSet<String> wanted = new HashSet<>();
+		for (final String folder : folders) {
+			wanted.add(Paths.get(folder).toAbsolutePath().normalize().toString());
+		}
+		for (final Iterator<String> it = roots.iterator(); it.hasNext();) {
+			final String root = it.next();
+			if (wanted.contains(root)) continue;
+			it.remove();
+			builder.execute(() -> remove(root));
+		}
+		for (final String root : wanted) {
+			if (roots.add(root)) builder.execute(() -> index(Paths.get(root)));
+		}
+	}
+
+	/**
+	 * Find the indexed files whose name is accepted, in path order. Returns
+	 * right away: the query runs in the background.
+	 *
+	 * @param names Tests the file names.
+	 * @param limit The maximum number of matches.
+	 * @param batches Receives the absolute paths of the matches, a batch at a
+	 *          time, in the query thread.
+	 * @param cancelled Polled while scanning; once it is true, no more batches
+	 *          are handed over.
+	 */
+	void query(final Predicate<String> names, final int limit, final Consumer<List<String>> batches,
+			final BooleanSupplier cancelled) {
+		querier.execute(() -> {
+			if (cancelled.getAsBoolean()) return;
+			if (stale) copy();
+			List<String> batch = new ArrayList<>();
+			int count = 0;
+			for (int i = 0; i < this.names.length; i++) {
+				if (0 == (i & 4095) && cancelled.getAsBoolean()) return;
+				if (!names.test(this.names[i])) continue;
+				batch.add(this.paths[i]);
+				if (++count == limit) break;
+				if (BATCH_SIZE == batch.size()) {
+					if (cancelled.getAsBoolean()) return;
+					batches.accept(batch);
+					batch = new ArrayList<>();
+				}
+			}
+			if (!batch.isEmpty() && !cancelled.getAsBoolean()) batches.accept(batch);
+		});
+	}
+
+	/** Copy the index into arrays. Runs on the querier thread. */
+	private void copy() {
+		stale = false;
+		final ArrayList<String> p = new ArrayList<>(files.size()), n = new ArrayList<>(files.size());
+		for (final Map.Entry<String, String> e : files.entrySet()) {
+			p.add(e.getKey());
+			// Fresh copies are laid out next to each other, which scans faster
+			n.add(new String(e.getValue().toCharArray()));
+		}
+		paths = p.toArray(new String[p.size()]);
+		names = n.toArray(new String[n.size()]);
+	}
+
+	/** Stop indexing, watching and querying. */
+	void close() {
+		builder.shutdownNow();
+		querier.shutdownNow();
+		synchronized (keys) {
+			if (null != watching) watching.interrupt();
+			if (null != watcher) {
+				try {
+					watcher.close();
+				} catch (final IOException e) {
+					log.debug(e);
+				}
+			}
+		}
+	}
+
+	private static boolean isVisible(final Path path) {
+		final String name = path.getFileName().toString();
+		if (name.endsWith("~")) return false;
+		try {
+			return !Files.isHidden(path);
+		} catch (final IOException e) {
+			return false;
+		}
+	}
+
+	/** Index the files under a folder, and watch it. Runs on the builder thread. */
+	private void index(final Path folder) {
+		final int[] added = { 0 };
+		try {
+			Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+					if (Thread.currentThread().isInterrupted()) return FileVisitResult.TERMINATE;
+					if (!dir.equals(folder) && !isVisible(dir)) return FileVisitResult.SKIP_SUBTREE;
+					watch(dir);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+					if (files.size() >= MAX_FILES) {
+						warn("Indexed the first " + MAX_FILES + " files only: filtering ignores the others.");
+						return FileVisitResult.TERMINATE;
+					}
+					if (!attrs.isDirectory() && isVisible(file)) {
+						files.put(file.toString(), file.getFileName().toString());
+						if (0 == ++added[0] % NOTIFY_EVERY) changed();
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+					return FileVisitResult.CONTINUE; // unreadable, or deleted meanwhile
+				}
+			});
+		} catch (final IOException e) {
+			log.error("Failed to index folder " + folder, e);
+		}
+		changed();
+	}
+
+	/** Forget the files under a folder. Runs on the builder thread. */
+	private void remove(final String root) {
+		final String prefix = root.endsWith(File.separator) ? root : root + File.separator;
+		files.subMap(prefix, prefix + Character.MAX_VALUE).clear();
+		synchronized (keys) {
+			for (final Iterator<Map.Entry<WatchKey, Path>> it = keys.entrySet().iterator(); it.hasNext();) {
+				final Map.Entry<WatchKey, Path> e = it.next();
+				if (e.getValue().startsWith(root)) {
+					e.getKey().cancel();
+					it.remove();
+				}
+			}
+		}
+		// Folders nested in the removed one, or around it, may still be wanted
+		final ArrayList<String> wanted = new ArrayList<>();
+		synchronized (this) {
+			for (final String other : roots) {
+				if (other.startsWith(prefix)) wanted.add(other);
+				else if (prefix.startsWith(other.endsWith(File.separator) ? other : other + File.separator)) {
+					wanted.clear();
+					wanted.add(root);
+					break;
+				}
+			}
+		}
+		for (final String folder : wanted) index(Paths.get(folder));
+		changed();
+	}
+
+	private void watch(final Path dir) {
+		synchronized (keys) {
+			if (null == watcher) {
+				try {
+					watcher = FileSystems.getDefault().newWatchService();
+				} catch (final IOException e) {
+					warn("Failed to watch the file system: filtering will not see new files.");
+					return;
+				}
+				watching = new Thread(this::run, "File index watcher");
+				watching.setDaemon(true);
+				watching.start();
+			}
+			if (keys.size() >= MAX_WATCHED_FOLDERS) {
+				warn("Watching the first " + MAX_WATCHED_FOLDERS + " folders only: filtering may miss new files in others.");
+				return;
+			}
+			try {
+				keys.put(dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE), dir);
+			} catch (final IOException e) {
+				log.debug(e);
+			}
+		}
+	}
+
+	/** Apply the events of the watched folders to the index. */
+	private void run() {
+		while (!Thread.currentThread().isInterrupted()) {
+			final WatchKey key;
+			try {
+				key = watcher.take();
+			} catch (final InterruptedException | RuntimeException e) {
+				return; // closed
+			}
+			final Path dir;
+			synchronized (keys) {
+				dir = keys.get(key);
+			}
+			if (null == dir) continue;
+			for (final WatchEvent<?> event : key.pollEvents()) {
+				final WatchEvent.Kind<?> kind = event.kind();
+				if (StandardWatchEventKinds.OVERFLOW == kind) {
+					builder.execute(() -> index(dir));
+					continue;
+				}
+				@SuppressWarnings("unchecked")
+				final Path child = dir.resolve(((WatchEvent<Path>) event).context());
+				if (StandardWatchEventKinds.ENTRY_DELETE == kind) {
+					final String path = child.toString();
+					files.remove(path);
+					files.subMap(path + File.separator, path + File.separator + Character.MAX_VALUE).clear();
+				} else if (!isVisible(child)) {
+					continue;
+				} else if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+					builder.execute(() -> index(child));
+				} else if (files.size() < MAX_FILES) {
+					files.put(child.toString(), child.getFileName().toString());
+				}
+			}
+			if (!key.reset()) {
+				synchronized (keys) {
+					keys.remove(key);
+				}
+			}
+			changed();
+		}
+	}
+
+	private void changed() {
+		stale = true;
+		final Runnable l = listener;
+		if (null != l) l.run();
+	}
+
+	private void warn(final String message) {
+		if (warned) return;
+		warned = true;
+		log.warn(message);
+	}
+}
@@ -37,25 +37,44 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JTree;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
 import javax.swing.event.TreeExpansionEvent;
 import javax.swing.event.TreeWillExpandListener;
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -118,17 +137,57 @@ public class FileSystemTree extends JTree
 
 	static public final Icon ICON_ERROR = makeErrorIcon();
 
+	/** Directories with more visible files than this list them a page at a time. */
+	static public final int PAGE_SIZE = 1000;
+
+	/** Filtering by name shows at most this many files. */
+	static public final int MAX_MATCHES = 10000;
+
+	private enum Placeholder { LOADING, MORE }
+
 	public class Node extends DefaultMutableTreeNode
 	{
 		final private String path;
+		/* Read once: Swing asks while painting and expanding */
+		final private boolean directory;
+		/* Non-null for the nodes that stand in for children not shown yet */
+		final private Placeholder placeholder;
 		private Icon icon = null;
+		/* Incremented by each listing and clearing, to drop stale listings */
+		private int generation = 0;
+		private boolean loading = false;
+		/* The last listing of children, of which the first 'shown' are in the tree */
+		private List<Node> listing = Collections.emptyList();
+		private int shown = 0;
 
 		public Node(final String path) {
+			this(path, new File(path).isDirectory());
+		}
+
+		Node(final String path, final boolean directory) {
 			this.path = withSlash(path);
+			this.directory = directory;
+			this.placeholder = null;
+		}
+
+		private Node(final Node parent, final Placeholder placeholder) {
+			this.path = parent.path + placeholder;
+			this.directory = false;
+			this.placeholder = placeholder;
 		}
 
 		public boolean isDirectory() {
-			return new File(this.path).isDirectory();
+			return this.directory;
+		}
+
+		/** @return whether this node stands in for children that are not shown yet. */
+		public boolean isPlaceholder() {
+			return null != this.placeholder;
+		}
+
+		/** @return whether the children of this node are being listed. */
+		public synchronized boolean isLoading() {
+			return this.loading;
 		}
 
 		/**
@@ -137,41 +196,184 @@ public class FileSystemTree extends JTree
 		 * @return the array denoting children files
 		 */
 		public File[] updatedChildrenFiles(final boolean sort, final FileFilter file_filter) {
-			final File file = new File(this.path);
-			if (!file.isDirectory()) {
+			if (!this.directory) {
+				return new File[0];
+			}
+			try {
+				final List<Node> children = listChildren(sort, file_filter);
+				final File[] files = new File[children.size()];
+				for (int i=0; i<files.length; ++i) files[i] = new File(children.get(i).path);
+				return files;
+			} catch (IOException e) {
+				log.error("Failed to list folder " + this.path, e);
 				return new File[0];
 			}
-			final File[] files = file.listFiles(new FileFilter() {
-				@Override
-				public boolean accept(final File f) {
-					return !f.isHidden() && !f.getName().endsWith("~")
-							&& !re_ignored_extensions.matcher(f.getName()).matches()
-							&& (f.isDirectory() || file_filter.accept(f));
+		}
+
+		/**
+		 * List the visible files, reading the attributes of each only once.
+		 * Does I/O: call it off the event dispatch thread.
+		 */
+		private List<Node> listChildren(final boolean sort, final FileFilter file_filter) throws IOException {
+			final Pattern ignored = re_ignored_extensions;
+			final ArrayList<Path> paths = new ArrayList<>();
+			final HashSet<Path> dirs = new HashSet<>();
+			try (final DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(this.path))) {
+				for (final Path child : stream) {
+					final String name = child.getFileName().toString();
+					if (name.endsWith("~") || ignored.matcher(name).matches()) continue;
+					final BasicFileAttributes attrs;
+					try {
+						attrs = Files.readAttributes(child, BasicFileAttributes.class);
+						if (Files.isHidden(child)) continue;
+					} catch (IOException e) {
+						continue; // deleted meanwhile, or a broken link
+					}
+					if (attrs.isDirectory()) dirs.add(child);
+					else if (!file_filter.accept(child.toFile())) continue;
+					paths.add(child);
 				}
-			});
-			if (sort) Arrays.sort(files);
-			return files;
+			}
+			if (sort) Collections.sort(paths);
+			final ArrayList<Node> children = new ArrayList<>(paths.size());
+			for (final Path child : paths) children.add(new Node(child.toString(), dirs.contains(child)));
+			return children;
 		}
 
 		/**
 		 * If it's a directory, add a Node for each of its visible files.
+		 * The files are listed in the background; meanwhile, an empty node
+		 * shows a "loading…" placeholder and a refreshed one keeps its children.
 		 *
 		 * @param model       the tree model
 		 * @param file_filter Applies to leafs, not to directories.
 		 */
-		public synchronized void populateChildren(final DefaultTreeModel model, final FileFilter file_filter) {
-			try {
-				if (isLeaf()) return;
-				int index = 0;
-				for (final File file : updatedChildrenFiles(true, file_filter)) {
-					// Can't use add: would try to insert at getChildCount(), which is the wrong value here
-					model.insertNodeInto(new Node(file.getAbsolutePath()), this, index++);
+		public void populateChildren(final DefaultTreeModel model, final FileFilter file_filter) {
+			populateChildren(model, file_filter, null);
+		}
+
+		/**
+		 * Like {@link #populateChildren(DefaultTreeModel, FileFilter)}.
+		 *
+		 * @param onLoaded Runs on the event dispatch thread once the children are in, or null.
+		 */
+		public void populateChildren(final DefaultTreeModel model, final FileFilter file_filter, final Runnable onLoaded) {
+			if (isLeaf()) return;
+			final int gen;
+			synchronized (this) {
+				gen = ++this.generation;
+				this.loading = true;
+				if (0 == super.getChildCount()) {
+					model.insertNodeInto(new Node(this, Placeholder.LOADING), this, 0);
 				}
-				icon = null;
-			} catch (Throwable t) {
-				icon = ICON_ERROR;
-				log.error("Failed to populate folder " + this.path, t);
 			}
+			CompletableFuture.supplyAsync(() -> {
+				try {
+					return listChildren(true, file_filter);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, lister).whenComplete((children, t) -> SwingUtilities.invokeLater(() -> {
+				synchronized (this) {
+					if (gen != this.generation) return; // cleared or listed again meanwhile
+					this.loading = false;
+					if (null == t) {
+						this.icon = null;
+						merge(model, children);
+					} else {
+						removeAllChildren(model);
+						this.icon = ICON_ERROR;
+						log.error("Failed to populate folder " + this.path, t);
+					}
+				}
+				model.nodeChanged(this);
+				if (null != onLoaded) onLoaded.run();
+			}));
+		}
+
+		/**
+		 * Make the children match a new listing, with one model event for the
+		 * removed nodes and one for the inserted ones. The nodes of the files that
+		 * are still there are kept, and with them their children and whether
+		 * they are expanded. Call it on the event dispatch thread.
+		 */
+		private synchronized void merge(final DefaultTreeModel model, final List<Node> children) {
+			final HashMap<String, Node> current = new HashMap<>();
+			for (int i=0, count=super.getChildCount(); i<count; ++i) {
+				final Node child = (Node) super.getChildAt(i);
+				if (!child.isPlaceholder()) current.put(child.path, child);
+			}
+			final ArrayList<Node> merged = new ArrayList<>(children.size());
+			for (final Node node : children) {
+				final Node old = current.get(node.path);
+				merged.add(null != old && old.directory == node.directory ? old : node);
+			}
+			// Show as many as before, or at least a page
+			final int count = Math.min(merged.size(), Math.max(this.shown, PAGE_SIZE));
+			final Set<Node> shown = Collections.newSetFromMap(new IdentityHashMap<>());
+			shown.addAll(merged.subList(0, count));
+			// Remove the nodes of the files that are gone, and the placeholders
+			final int before = super.getChildCount();
+			final int[] removed = new int[before];
+			final Object[] nodes = new Object[before];
+			int r = 0;
+			for (int i=0; i<before; ++i) {
+				final Node child = (Node) super.getChildAt(i);
+				if (shown.contains(child)) continue;
+				removed[r] = i;
+				nodes[r++] = child;
+			}
+			for (int i=r-1; i>-1; --i) super.remove(removed[i]);
+			if (r > 0) model.nodesWereRemoved(this, Arrays.copyOf(removed, r), Arrays.copyOf(nodes, r));
+			// The remaining children are in listing order: insert the new ones among them
+			final int[] inserted = new int[count + 1];
+			int n = 0;
+			for (int i=0; i<count; ++i) {
+				final Node node = merged.get(i);
+				if (i < super.getChildCount() && super.getChildAt(i) == node) continue;
+				insert(node, i);
+				inserted[n++] = i;
+			}
+			this.listing = merged;
+			this.shown = count;
+			if (count < merged.size()) {
+				insert(new Node(this, Placeholder.MORE), count);
+				inserted[n++] = count;
+			}
+			if (n > 0) model.nodesWereInserted(this, Arrays.copyOf(inserted, n));
+		}
+
+		/**
+		 * Add the next page of children, if any, followed by a placeholder
+		 * for the rest. Call it on the event dispatch thread.
+		 *
+		 * @param model the tree model
+		 */
+		public synchronized void showMore(final DefaultTreeModel model) {
+			final int last = super.getChildCount() - 1;
+			if (last > -1 && ((Node) super.getChildAt(last)).isPlaceholder()) {
+				model.removeNodeFromParent((Node) super.getChildAt(last));
+			}
+			final int first = super.getChildCount();
+			final int count = Math.min(PAGE_SIZE, this.listing.size() - this.shown);
+			final boolean more = this.shown + count < this.listing.size();
+			final int[] indices = new int[count + (more ? 1 : 0)];
+			for (int i=0; i<count; ++i) {
+				// Can't use add: would try to insert at getChildCount(), which is the wrong value here
+				insert(this.listing.get(this.shown + i), first + i);
+				indices[i] = first + i;
+			}
+			this.shown += count;
+			if (more) {
+				insert(new Node(this, Placeholder.MORE), first + count);
+				indices[count] = first + count;
+			}
+			if (indices.length > 0) model.nodesWereInserted(this, indices);
+		}
+
+		/** @return the number of children not shown yet. */
+		public synchronized int getHiddenChildCount() {
+			return this.listing.size() - this.shown;
 		}
 
 		/**
@@ -234,18 +436,36 @@ public class FileSystemTree extends JTree
 
 		@Override
 		public boolean isLeaf() {
-			return !isRoot() && !this.isDirectory();
+			return !isRoot() && !this.directory;
 		}
 
 		public synchronized void removeAllChildren(final DefaultTreeModel model) {
-			for (int i=super.getChildCount() -1; i>-1; --i) {
-				// Can't use DefaultMutableTreeNode.removeAllChildren or .remove(int): the model is not notified
-				model.removeNodeFromParent((Node)super.getChildAt(i));
+			++this.generation; // drop any listing under way
+			this.loading = false;
+			this.listing = Collections.emptyList();
+			this.shown = 0;
+			clear(model);
+		}
+
+		private synchronized void clear(final DefaultTreeModel model) {
+			final int count = super.getChildCount();
+			if (0 == count) return;
+			// Can't use DefaultMutableTreeNode.removeAllChildren alone: the model is not notified
+			final int[] indices = new int[count];
+			final Object[] removed = new Object[count];
+			for (int i=0; i<count; ++i) {
+				indices[i] = i;
+				removed[i] = super.getChildAt(i);
 			}
+			super.removeAllChildren();
+			model.nodesWereRemoved(this, indices, removed);
 		}
 
-		public synchronized void updateChildrenList(final DefaultTreeModel model, final FileFilter file_filter) {
-			removeAllChildren(model);
+		/**
+		 * Re-list the children in the background, keeping the current ones until
+		 * then, and then only add and remove the nodes of the files that changed.
+		 */
+		public void updateChildrenList(final DefaultTreeModel model, final FileFilter file_filter) {
 			populateChildren(model, file_filter);
 		}
 	}
@@ -264,10 +484,50 @@ public class FileSystemTree extends JTree
 	private Pattern re_ignored_extensions = Pattern.compile("^.*$", Pattern.CASE_INSENSITIVE); // match all
 	private FileFilter file_filter = ((f) -> true);
 
+	/* All files under the top-level folders; created when first filtering by name */
+	private FileIndex index = null;
+	private Predicate<String> name_filter = null;
+	private HashSet<String> expanded_before_filter = null;
+	/* Incremented by each query of the index, to drop the matches of stale ones */
+	private volatile int query_generation = 0;
+	/* Queries the index again after it changed, at most this often */
+	private final Timer requery = new Timer(250, e -> runQuery());
+
+	/* Lists directories off the event dispatch thread */
+	private final ThreadPoolExecutor lister = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), r -> {
+				final Thread thread = new Thread(r, "File system tree listing");
+				thread.setDaemon(true);
+				return thread;
+			});
+
 	public FileSystemTree(final Logger log)
 	{
 		this.log = log;
+		lister.allowCoreThreadTimeOut(true);
+		requery.setRepeats(false);
 		setModel(new DefaultTreeModel(new Node("#root#")));
+		getModel().addTreeModelListener(new TreeModelListener() {
+			@Override
+			public void treeNodesChanged(final TreeModelEvent e) {
+				// names do not change
+			}
+
+			@Override
+			public void treeNodesInserted(final TreeModelEvent e) {
+				if (1 == e.getTreePath().getPathCount()) topLevelFoldersChanged();
+			}
+
+			@Override
+			public void treeNodesRemoved(final TreeModelEvent e) {
+				if (1 == e.getTreePath().getPathCount()) topLevelFoldersChanged();
+			}
+
+			@Override
+			public void treeStructureChanged(final TreeModelEvent e) {
+				if (null == e.getTreePath() || 1 == e.getTreePath().getPathCount()) topLevelFoldersChanged();
+			}
+		});
 		setRootVisible(false);
 		getSelectionModel().setSelectionMode(TreeSelectionModel.SINGLE_TREE_SELECTION);
 		setAutoscrolls(true);
@@ -276,13 +536,15 @@ public class FileSystemTree extends JTree
 		addTreeWillExpandListener(new TreeWillExpandListener() {
 			@Override
 			public void treeWillExpand(TreeExpansionEvent event) throws ExpandVetoException {
+				if (null != name_filter) return; // shows the matches only
 				final Node node = ((Node)event.getPath().getLastPathComponent());
-				node.populateChildren(getModel(), file_filter);
+				if (!node.isLoading()) node.populateChildren(getModel(), file_filter);
 				dir_watcher.register(node);
 			}
 
 			@Override
 			public void treeWillCollapse(TreeExpansionEvent event) throws ExpandVetoException {
+				if (null != name_filter) return; // keeps the matches
 				final Node node = ((Node)event.getPath().getLastPathComponent());
 				node.removeAllChildren(getModel());
 				dir_watcher.unregister(node);
@@ -295,7 +557,9 @@ public class FileSystemTree extends JTree
 				if (null == path) return;
 				final Node node = (Node) path.getLastPathComponent();
 				if (2 == me.getClickCount()) {
-					if (node.isLeaf() && !node.isDirectory()) { // do not accept empty directories as leafs
+					if (Placeholder.MORE == node.placeholder) {
+						((Node) node.getParent()).showMore(getModel());
+					} else if (node.isLeaf() && !node.isDirectory()) { // do not accept empty directories as leafs
 						for (final LeafListener l : leaf_listeners) l.leafDoubleClicked(new File(node.path));
 					}
 				}
@@ -315,6 +579,13 @@ public class FileSystemTree extends JTree
 				final boolean expanded, final boolean leaf, final int row, final boolean hasFocus) {
 				super.getTreeCellRendererComponent(tree, value, selected, expanded, leaf, row, hasFocus);
 				final Node node = (Node) value;
+				if (node.isPlaceholder()) {
+					setText(Placeholder.LOADING == node.placeholder ? "loading\u2026"
+							: ((Node) node.getParent()).getHiddenChildCount() + " more\u2026 (double-click to list)");
+					setToolTipText(null);
+					setIcon(null);
+					return this;
+				}
 				setText(new File(node.path).getName());
 				if (node.isDirectory()) {
 					setToolTipText(node.path);
@@ -375,13 +646,25 @@ public class FileSystemTree extends JTree
 	}
 	
 	private void updateRecursively(final FileFilter file_filter) {
-		// Find expanded directories
+		final HashSet<String> expanded = expandedFolders();
+		final Node root = (Node) this.getModel().getRoot();
+		final ArrayList<Node> stack2 = new ArrayList<>();
+		for (int i=root.getChildCount() -1; i>-1; --i) {
+			stack2.add(root.getChildAt(i));
+		}
+		// Re-list all files, filtering, and expand again what was expanded
+		for (final Node node : stack2) {
+			if (expanded.contains(node.path)) repopulate(node, expanded, file_filter);
+		}
+	}
+
+	/** @return the paths of the expanded directories. */
+	private HashSet<String> expandedFolders() {
 		final ArrayList<Node> stack = new ArrayList<>();
 		final Node root = (Node) this.getModel().getRoot();
 		for (int i=root.getChildCount() -1; i>-1; --i) {
 			stack.add((Node)root.getChildAt(i));
 		}
-		final ArrayList<Node> stack2 = new ArrayList<>(stack); // copy for second phase
 		final HashSet<String> expanded = new HashSet<>();
 		while (!stack.isEmpty()) {
 			final Node node = stack.remove(0);
@@ -393,20 +676,120 @@ public class FileSystemTree extends JTree
 				}
 			}
 		}
-		// Re-list all files, filtering
-		while (!stack2.isEmpty()) {
-			final Node node = stack2.remove(0);
-			if (expanded.contains(node.path)) {
-				node.removeAllChildren(this.getModel());
-				node.populateChildren(this.getModel(), file_filter);
-				final int count = node.getChildCount();
-				if (count > 0) expandPath(new TreePath(node.getChildAt(0).getPath())); // awkward way to ensure parent is expanded
-				for (int i=0; i<count; ++i) {
-					final Node child = node.getChildAt(i);
-					if (expanded.contains(child.path)) stack2.add(child);
-				}
-			}
+		return expanded;
+	}
+
+	/**
+	 * Show only the files whose name is accepted, and the folders that lead to
+	 * them, whether these were expanded or not. The files are looked up in an
+	 * index of all files under the top-level folders, which is built, and then
+	 * kept up to date, in the background. Matches show up as they are found.
+	 *
+	 * @param name_filter Tests file names; or null to show all files again,
+	 *                    with the folders that were expanded before filtering.
+	 */
+	public void setNameFilter(final Predicate<String> name_filter) {
+		if (null == this.name_filter && null == name_filter) return;
+		if (null == index) {
+			index = new FileIndex(log);
+			index.setChangeListener(() -> SwingUtilities.invokeLater(() -> {
+				if (null != this.name_filter && !requery.isRunning()) requery.start();
+			}));
+			index.setRoots(getTopLevelFolders());
+		}
+		if (null == this.name_filter) expanded_before_filter = expandedFolders();
+		this.name_filter = name_filter;
+		if (null != name_filter) {
+			runQuery();
+			return;
+		}
+		++query_generation;
+		requery.stop();
+		final HashSet<String> expanded = expanded_before_filter;
+		expanded_before_filter = null;
+		final Node root = (Node) getModel().getRoot();
+		for (int i=0; i<root.getChildCount(); ++i) {
+			final Node top = root.getChildAt(i);
+			top.removeAllChildren(getModel());
+			if (expanded.contains(top.path)) repopulate(top, expanded, file_filter);
+			else collapsePath(new TreePath(top.getPath()));
+		}
+	}
+
+	/** Replace the children of the top-level folders with the matches of the name filter. */
+	private void runQuery() {
+		final Predicate<String> names = this.name_filter;
+		if (null == names || null == index) return;
+		final int generation = ++query_generation;
+		final Pattern ignored = re_ignored_extensions;
+		final Node root = (Node) getModel().getRoot();
+		final HashMap<String, Node> folders = new HashMap<>();
+		for (int i=0; i<root.getChildCount(); ++i) {
+			final Node top = root.getChildAt(i);
+			top.removeAllChildren(getModel());
+			folders.put(top.path, top);
 		}
+		index.query(name -> !ignored.matcher(name).matches() && names.test(name), MAX_MATCHES,
+				batch -> SwingUtilities.invokeLater(() -> {
+					if (generation == query_generation) addMatches(batch, folders);
+				}), () -> generation != query_generation);
+	}
+
+	/** Add files to the filtered tree, along with the folders that lead to them. */
+	private void addMatches(final List<String> paths, final HashMap<String, Node> folders) {
+		final LinkedHashSet<Node> parents = new LinkedHashSet<>();
+		for (final String file : paths) {
+			final String path = withSlash(file);
+			final Node parent = folderOf(path, folders);
+			if (null == parent) continue; // not under a top-level folder
+			getModel().insertNodeInto(new Node(path, false), parent, parent.getChildCount());
+			parents.add(parent);
+		}
+		for (final Node parent : parents) {
+			final TreePath path = new TreePath(parent.getPath());
+			if (!isExpanded(path)) expandPath(path);
+		}
+	}
+
+	/** @return the node of the folder of the path, added if need be, or null if not under a top-level folder. */
+	private Node folderOf(final String path, final HashMap<String, Node> folders) {
+		final int slash = path.lastIndexOf('/', path.length() - 2);
+		if (slash < 0) return null;
+		final String dir = path.substring(0, slash + 1);
+		Node folder = folders.get(dir);
+		if (null != folder) return folder;
+		final Node parent = folderOf(dir, folders);
+		if (null == parent) return null;
+		folder = new Node(dir, true);
+		getModel().insertNodeInto(folder, parent, parent.getChildCount());
+		folders.put(dir, folder);
+		return folder;
+	}
+
+	private void topLevelFoldersChanged() {
+		if (null == index) return;
+		index.setRoots(getTopLevelFolders());
+		if (null != name_filter) requery.restart();
+	}
+
+	/** @return the paths of the top-level folders. */
+	private List<String> getTopLevelFolders() {
+		final Node root = (Node) getModel().getRoot();
+		final ArrayList<String> folders = new ArrayList<>();
+		for (int i=0; i<root.getChildCount(); ++i) folders.add(root.getChildAt(i).path);
+		return folders;
+	}
+
+	/** Re-list an expanded directory, then its expanded subdirectories once listed. */
+	private void repopulate(final Node node, final HashSet<String> expanded, final FileFilter file_filter) {
+		node.populateChildren(getModel(), file_filter, () -> {
+			for (int i=0, count=node.getChildCount(); i<count; ++i) {
+				final Node child = node.getChildAt(i);
+				if (expanded.contains(child.path)) repopulate(child, expanded, file_filter);
+			}
+		});
+		final TreePath path = new TreePath(node.getPath());
+		if (!isExpanded(path)) expandPath(path); // does not list it again while loading
 	}
 
 	synchronized public void addLeafListener(final LeafListener l) {
@@ -496,16 +879,34 @@ public class FileSystemTree extends JTree
 
 	public void destroy() {
 		dir_watcher.interrupt();
+		lister.shutdownNow();
+		requery.stop();
+		if (null != index) index.close();
 		FileDrop.remove(this);
 	}
 
+	/**
+	 * Watches the expanded directories, and re-lists those whose files were
+	 * created or deleted. The events of each directory are coalesced until
+	 * the directory has been quiet for a moment, so that a burst of changes
+	 * is applied as a single update of its children.
+	 */
 	private class DirectoryWatcher extends Thread {
 
+		/* Expanded directories beyond this many are not watched */
+		static final int MAX_WATCHED_FOLDERS = 256;
+		/* Wait this long for more events before updating the tree... */
+		static final long QUIET_MILLIS = 100;
+		/* ...but no longer than this, while events keep coming */
+		static final long MAX_DELAY_MILLIS = 1000;
+
 		private WatchService watcher;
 		private final HashMap<WatchKey, Path> keys = new HashMap<>();
 		private final HashMap<Path, Node> map = new HashMap<>();
+		private boolean warned = false;
 
 		DirectoryWatcher() {
+			super("File system tree watcher");
 			setDaemon(true);
 			try {
 				this.watcher = FileSystems.getDefault().newWatchService();
@@ -521,11 +922,19 @@ public class FileSystemTree extends JTree
 				return;
 			}
 			synchronized (keys) {
+				final Path path = new File(node.path).toPath();
+				if (map.containsKey(path)) {
+					map.put(path, node); // same directory, new node
+					return;
+				}
+				if (keys.size() >= MAX_WATCHED_FOLDERS) {
+					if (!warned) log.warn("Watching the first " + MAX_WATCHED_FOLDERS + " expanded folders only: others do not show changes.");
+					warned = true;
+					return;
+				}
 				try {
-					final Path path = new File(node.path).toPath();
 					final WatchKey key = path.register(watcher,
 						StandardWatchEventKinds.ENTRY_CREATE,
-						StandardWatchEventKinds.ENTRY_MODIFY,
 						StandardWatchEventKinds.ENTRY_DELETE);
 					keys.put(key, path);
 					map.put(path, node);
@@ -548,10 +957,12 @@ public class FileSystemTree extends JTree
 					}
 				}
 				if (null == path) return;
-				final Iterator<Path> itp = keys.values().iterator();
-				while (itp.hasNext()) {
-					if (itp.next().equals(path)) {
-						itp.remove();
+				final Iterator<Map.Entry<WatchKey, Path>> itk = keys.entrySet().iterator();
+				while (itk.hasNext()) {
+					final Map.Entry<WatchKey, Path> e = itk.next();
+					if (e.getValue().equals(path)) {
+						e.getKey().cancel();
+						itk.remove();
 						return;
 					}
 				}
@@ -560,48 +971,54 @@ public class FileSystemTree extends JTree
 
 		@Override
 		public void run() {
-			while (true) {
-				if (isInterrupted()) return;
-				WatchKey key;
+			while (!isInterrupted()) {
+				final LinkedHashSet<Path> changed = new LinkedHashSet<>();
 				try {
-					key = watcher.take();
-				} catch (InterruptedException x) {
+					WatchKey key = watcher.take();
+					final long deadline = System.currentTimeMillis() + MAX_DELAY_MILLIS;
+					while (null != key) {
+						collect(key, changed);
+						final long left = deadline - System.currentTimeMillis();
+						key = left > 0 ? watcher.poll(Math.min(QUIET_MILLIS, left), TimeUnit.MILLISECONDS) : null;
+					}
+				} catch (InterruptedException | ClosedWatchServiceException x) {
 					return;
 				}
+				if (!changed.isEmpty()) SwingUtilities.invokeLater(() -> refresh(changed));
+			}
+		}
 
-				final Path dir = keys.get(key);
-				if (null == dir) {
-					log.error("Unrecognized WatchKey: " + key);
-					continue;
+		/** Note the directory of the key as changed, whatever the events. */
+		private void collect(final WatchKey key, final Collection<Path> changed) {
+			final Path dir;
+			synchronized (keys) {
+				dir = keys.get(key);
+			}
+			// An OVERFLOW event means events were lost: re-listing the directory covers them
+			if (!key.pollEvents().isEmpty() && null != dir) changed.add(dir);
+			if (!key.reset()) {
+				synchronized (keys) {
+					final Path path = keys.remove(key);
+					if (null != path) map.remove(path);
 				}
+			}
+		}
 
-				final HashSet<Node> nodes = new HashSet<>();
-
-				for (final WatchEvent<?> event: key.pollEvents()) {
-					final WatchEvent.Kind<?> kind = event.kind();
-					if (StandardWatchEventKinds.OVERFLOW == kind
-					 || StandardWatchEventKinds.ENTRY_MODIFY == kind) { // ignore e.g. files getting larger or smaller
-						continue;
-					}
-
-					@SuppressWarnings("unchecked")
-					final Path child = dir.resolve(((WatchEvent<Path>) event).context());
-					final Node node = map.get(child.getParent());
-					if (null != node) nodes.add(node);
+		/** Re-list the changed directories that are still in the tree. */
+		private void refresh(final Collection<Path> dirs) {
+			if (null != name_filter) return; // the index keeps the filtered tree up to date
+			final Object root = getModel().getRoot();
+			for (final Path dir : dirs) {
+				final Node node;
+				synchronized (keys) {
+					node = map.get(dir);
 				}
-
-				SwingUtilities.invokeLater(() -> {
-					for (final Node node : nodes) {
-						node.updateChildrenList(FileSystemTree.this.getModel(), file_filter);
-						FileSystemTree.this.expandPath(new TreePath(node.getPath()));
-					}
-				});
-
-				boolean valid = key.reset();
-				if (!valid) {
-					final Path path = keys.remove(key);
-					if (null != path) map.remove(path);
+				if (null == node) continue;
+				if (node.getRoot() != root) {
+					unregister(node); // an ancestor was collapsed or removed
+					continue;
 				}
+				node.updateChildrenList(getModel(), file_filter);
 			}
 		}
 	}
@@ -36,8 +36,6 @@ import java.awt.FontMetrics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
-import java.awt.event.FocusAdapter;
-import java.awt.event.FocusEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.font.FontRenderContext;
@@ -58,6 +56,8 @@ import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreePath;
 
@@ -78,6 +78,7 @@ class FileSystemTreePanel extends JPanel {
 	private final FileSystemTree tree;
 	private final SearchField searchField;
 	private boolean regex;
+	private boolean fuzzy;
 	private boolean caseSensitive;
 
 	@Parameter
@@ -131,65 +132,91 @@ class FileSystemTreePanel extends JPanel {
 
 	private SearchField initializedField() {
 		final SearchField field = new SearchField();
-		field.addFocusListener(new FocusAdapter() {
+		// Filter on every keystroke: the tree searches an in-memory index
+		field.getDocument().addDocumentListener(new DocumentListener() {
 			@Override
-			public void focusLost(final FocusEvent e) {
-				if (0 == field.getText().length()) {
-					tree.setFileFilter(((f) -> true)); // any // no need to press enter
-				}
+			public void insertUpdate(final DocumentEvent e) {
+				applyFilter();
+			}
+
+			@Override
+			public void removeUpdate(final DocumentEvent e) {
+				applyFilter();
+			}
+
+			@Override
+			public void changedUpdate(final DocumentEvent e) {
+				// attributes only
 			}
 		});
 		field.addKeyListener(new KeyAdapter() {
-			Pattern pattern = null;
-
 			@Override
 			public void keyPressed(final KeyEvent ke) {
-				if (ke.getKeyCode() == KeyEvent.VK_ENTER) {
-					final String text = field.getText();
-					if (0 == text.length()) {
-						tree.setFileFilter(((f) -> true)); // any
-						return;
-					}
-
-					if (isRegexEnabled()) { // if ('/' == text.charAt(0)) {
-						// Interpret as a regular expression
-						// Attempt to compile the pattern
-						try {
-							String regex = text; // text.substring(1);
-							if ('^' != regex.charAt(1))
-								regex = "^.*" + regex;
-							if ('$' != regex.charAt(regex.length() - 1))
-								regex += ".*$";
-							pattern = Pattern.compile(regex);
-							field.setForeground(tree.getForeground());
-						} catch (final PatternSyntaxException | StringIndexOutOfBoundsException pse) {
-							// regex is too short to be parseable or is invalid
-							tree.log.warn(pse.getLocalizedMessage());
-							field.setForeground(Color.RED);
-							pattern = null;
-							return;
-						}
-						if (null != pattern) {
-							tree.setFileFilter((f) -> pattern.matcher(f.getName()).matches());
-						}
-					} else {
-						// Interpret as a literal match
-						if (isCaseSensitive())
-							tree.setFileFilter((f) -> -1 != f.getName().indexOf(text));
-						else
-							tree.setFileFilter((f) -> -1 != f.getName().toLowerCase().indexOf(text.toLowerCase()));
-					}
-				} else {
-					// Upon re-typing something
-					if (field.getForeground() == Color.RED) {
-						field.setForeground(tree.getForeground());
-					}
-				}
+				if (ke.getKeyCode() == KeyEvent.VK_ENTER) applyFilter();
 			}
 		});
 		return field;
 	}
 
+	private void applyFilter() {
+		final String text = searchField.getText();
+		searchField.setForeground(tree.getForeground());
+		if (0 == text.length()) {
+			tree.setNameFilter(null); // any
+			return;
+		}
+
+		if (isRegexEnabled()) { // if ('/' == text.charAt(0)) {
+			// Interpret as a regular expression
+			// Attempt to compile the pattern
+			final Pattern pattern;
+			try {
+				String regex = text; // text.substring(1);
+				if ('^' != regex.charAt(0))
+					regex = "^.*" + regex;
+				if ('$' != regex.charAt(regex.length() - 1))
+					regex += ".*$";
+				pattern = Pattern.compile(regex);
+			} catch (final PatternSyntaxException | StringIndexOutOfBoundsException pse) {
+				// regex is too short to be parseable or is invalid
+				searchField.setForeground(Color.RED);
+				return;
+			}
+			tree.setNameFilter(name -> pattern.matcher(name).matches());
+		} else if (isFuzzyEnabled()) {
+			// Interpret as characters to find in order
+			final boolean caseSensitive = isCaseSensitive();
+			tree.setNameFilter(name -> fuzzyMatches(name, text, caseSensitive));
+		} else {
+			// Interpret as a literal match
+			if (isCaseSensitive())
+				tree.setNameFilter(name -> -1 != name.indexOf(text));
+			else
+				tree.setNameFilter(name -> containsIgnoreCase(name, text));
+		}
+	}
+
+	/** Whether the characters of the query appear in the name, in order. */
+	static boolean fuzzyMatches(final String name, final String query, final boolean caseSensitive) {
+		int j = 0;
+		for (int i = 0; i < name.length() && j < query.length(); i++) {
+			final char c = name.charAt(i), q = query.charAt(j);
+			if (c == q || !caseSensitive && Character.toLowerCase(c) == Character.toLowerCase(q)) j++;
+		}
+		return j == query.length();
+	}
+
+	/** Whether the name contains the query, ignoring case, without copying. */
+	static boolean containsIgnoreCase(final String name, final String query) {
+		if (query.isEmpty()) return true;
+		final char lower = Character.toLowerCase(query.charAt(0)), upper = Character.toUpperCase(query.charAt(0));
+		for (int i = 0, last = name.length() - query.length(); i <= last; i++) {
+			final char c = name.charAt(i);
+			if ((c == lower || c == upper) && name.regionMatches(true, i + 1, query, 1, query.length() - 1)) return true;
+		}
+		return false;
+	}
+
 	private JButton thinButton(final String label, final float factor) {
 		final JButton b = new JButton(label);
 		try {
@@ -276,10 +303,17 @@ class FileSystemTreePanel extends JPanel {
 		});
 		popup.add(jcbmi1);
 		final JCheckBoxMenuItem jcbmi2 = new JCheckBoxMenuItem("Enable Regex", isCaseSensitive());
+		final JCheckBoxMenuItem jcbmi3 = new JCheckBoxMenuItem("Fuzzy Matching", isFuzzyEnabled());
 		jcbmi2.addItemListener(e -> {
 			setRegexEnabled(jcbmi2.isSelected());
+			if (jcbmi2.isSelected()) jcbmi3.setSelected(false);
 		});
 		popup.add(jcbmi2);
+		jcbmi3.addItemListener(e -> {
+			setFuzzyEnabled(jcbmi3.isSelected());
+			if (jcbmi3.isSelected()) jcbmi2.setSelected(false);
+		});
+		popup.add(jcbmi3);
 		popup.addSeparator();
 		JMenuItem jmi = new JMenuItem("Reset Filter");
 		jmi.addActionListener(e -> {
@@ -287,8 +321,9 @@ class FileSystemTreePanel extends JPanel {
 			setCaseSensitive(false);
 			jcbmi2.setSelected(false);
 			setRegexEnabled(false);
-			searchField.setText("");
-			tree.setFileFilter(((f) -> true));
+			jcbmi3.setSelected(false);
+			setFuzzyEnabled(false);
+			searchField.setText(""); // shows all files again
 		});
 		popup.add(jmi);
 		popup.addSeparator();
@@ -383,9 +418,11 @@ class FileSystemTreePanel extends JPanel {
 				+ "<p>Double-click on a file to open it. Drag &amp; drop items into the editor pane "
 				+ "to paste their paths into the active script.</p>" //
 				+ "<br><p><b>Filtering Files</b></p>" //
-				+ "<p>Filters affect filenames (not folders) and are applied by typing a filtering "//
-				+ "string + [Enter]. Filters act only on files being listed in expanded directories, " //
-				+ "and ignore the content of collapsed folders. Examples of regex usage:</p>" //
+				+ "<p>Filters affect filenames (not folders) and are applied while typing a filtering "//
+				+ "string. Filters act on all files under the top-level folders, including those in " //
+				+ "collapsed folders, and show at most " + FileSystemTree.MAX_MATCHES + " files. " //
+				+ "Fuzzy matching shows files whose name contains the typed characters in order, " //
+				+ "e.g., <i>bcv</i> matches <i>Batch_Convert.py</i>. Examples of regex usage:</p>" //
 				+ "<br><table align='center'>" //
 				+ "  <tr>" //
 				+ "   <th>Pattern</th>" //
@@ -411,14 +448,26 @@ class FileSystemTreePanel extends JPanel {
 		return regex;
 	}
 
+	private boolean isFuzzyEnabled() {
+		return fuzzy;
+	}
+
 	private void setCaseSensitive(final boolean b) {
 		caseSensitive = b;
 		searchField.update();
+		applyFilter();
 	}
 
 	private void setRegexEnabled(final boolean b) {
 		regex = b;
 		searchField.update();
+		applyFilter();
+	}
+
+	private void setFuzzyEnabled(final boolean b) {
+		fuzzy = b;
+		searchField.update();
+		applyFilter();
 	}
 
 	private class SearchField extends TextEditor.TextFieldWithPlaceholder {
@@ -426,6 +475,7 @@ class FileSystemTreePanel extends JPanel {
 		private static final long serialVersionUID = 7004232238240585434L;
 		private static final String REGEX_HOLDER = "[?*]";
 		private static final String CASE_HOLDER = "[Aa]";
+		private static final String FUZZY_HOLDER = "[~]";
 		private static final String DEF_HOLDER = "File filter... ";
 
 		SearchField() {
@@ -433,7 +483,7 @@ class FileSystemTreePanel extends JPanel {
 				// make sure pane is large enough to display placeholders
 				final FontMetrics fm = getFontMetrics(getFont());
 				final FontRenderContext frc = fm.getFontRenderContext();
-				final String buf = CASE_HOLDER + REGEX_HOLDER + DEF_HOLDER;
+				final String buf = CASE_HOLDER + REGEX_HOLDER + FUZZY_HOLDER + DEF_HOLDER;
 				final Rectangle2D rect = getFont().getStringBounds(buf, frc);
 				final int prefWidth = (int) rect.getWidth();
 				setColumns(prefWidth / getColumnWidth());
@@ -453,6 +503,8 @@ class FileSystemTreePanel extends JPanel {
 				sb.append(CASE_HOLDER);
 			if (isRegexEnabled())
 				sb.append(REGEX_HOLDER);
+			if (isFuzzyEnabled())
+				sb.append(FUZZY_HOLDER);
 			return sb.toString();
 		}
 	}
@@ -223,8 +223,7 @@ public class FindAndReplaceDialog extends JDialog implements ActionListener {
 				return;
 			}
 			final int replace =
-				SearchEngine.replaceAll(getTextArea(), getSearchContext(true))
-					.getCount();
+				getTextAreaAsEditorPane().replaceAll(getSearchContext(true));
 			JOptionPane.showMessageDialog(this, replace + " replacements made!");
 		}
 	}
@@ -30,15 +30,8 @@
 package org.scijava.ui.swing.script;
 
 import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Vector;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import javax.swing.JTextArea;
-import javax.swing.text.BadLocationException;
 
 /**
  * TODO
@@ -49,22 +42,21 @@ public class JTextAreaOutputStream extends OutputStream {
 
 	JTextArea textArea;
 
-	ScheduledExecutorService updater = Executors.newScheduledThreadPool(1);
-	Vector<String> queue = new Vector<>();
+	private final ConsoleBuffer buffer;
 
 	/**
-	 * Creates a new output stream that prints every 400 ms to the textArea. When
-	 * done, call shutdown() to clean up and finish printing any remaining text.
+	 * Creates a new output stream that prints to the textArea, flushed by the
+	 * editor-wide {@link ConsoleFlusher}. When done, call shutdown() to clean
+	 * up and finish printing any remaining text.
 	 */
 	public JTextAreaOutputStream(final JTextArea textArea) {
 		this.textArea = textArea;
-		updater.scheduleWithFixedDelay(() -> flushQueue(), 10, 400,
-			TimeUnit.MILLISECONDS);
+		buffer = new ConsoleBuffer(textArea);
 	}
 
 	@Override
-	public void write(final int i) {
-		write(Character.toString((char) i));
+	public synchronized void write(final int i) {
+		buffer.write((char) i);
 	}
 
 	@Override
@@ -77,36 +69,25 @@ public class JTextAreaOutputStream extends OutputStream {
 		write(new String(buffer, off, len));
 	}
 
-	public void write(final String string) {
-		queue.add(string);
+	public synchronized void write(final String string) {
+		buffer.write(string);
 	}
 
 	public void flushQueue() {
-		ArrayList<String> strings;
-		synchronized (queue) {
-			if (0 == queue.size()) return;
-			strings = new ArrayList<>();
-			strings.addAll(queue);
-			queue.clear();
-		}
-
-		final StringBuilder sb = new StringBuilder();
-		for (final String s : strings)
-			sb.append(s);
-
-		synchronized (textArea) {
-			final int lineCount = textArea.getLineCount();
-			// Eliminate the first 100 lines when reaching 1100 lines:
-			if (lineCount > 1100) try {
-				textArea.replaceRange("", 0, textArea
-					.getLineEndOffset(lineCount - 1000));
-			}
-			catch (final BadLocationException e) {
-				e.printStackTrace();
-			}
-			textArea.append(sb.toString());
-			textArea.setCaretPosition(textArea.getDocument().getLength());
-		}
+		buffer.flush();
+	}
+
+	/** The maximum number of lines kept in the text area. */
+	public int getLineLimit() {
+		return buffer.getLineLimit();
+	}
+
+	/**
+	 * Sets the maximum number of lines kept in the text area; older lines are
+	 * dropped.
+	 */
+	public void setLineLimit(final int lineLimit) {
+		buffer.setLineLimit(lineLimit);
 	}
 
 	@Override
@@ -118,22 +99,18 @@ public class JTextAreaOutputStream extends OutputStream {
 	@Override
 	public void close() {
 		flush();
-		updater.shutdown();
 	}
 
 	/**
-	 * Stop printing services, finishing to print any remaining tasks in the
-	 * context of the calling thread.
+	 * Stop printing services, finishing to print any remaining text, and wait
+	 * until it is shown.
 	 */
 	public void shutdown() {
-		final List<Runnable> tasks = updater.shutdownNow();
-		if (null == tasks) return;
-		for (final Runnable t : tasks)
-			t.run();
+		buffer.flush();
 	}
 
 	/** Stop printing services immediately, not printing any remaining text. */
 	public void shutdownNow() {
-		updater.shutdownNow();
+		buffer.discard();
 	}
 }
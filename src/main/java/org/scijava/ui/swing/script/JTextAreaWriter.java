@@ -30,15 +30,9 @@
 package org.scijava.ui.swing.script;
 
 import java.io.Writer;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Vector;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import javax.swing.JTextArea;
-import javax.swing.text.BadLocationException;
 
 import org.scijava.log.LogService;
 
@@ -52,19 +46,18 @@ public class JTextAreaWriter extends Writer {
 	JTextArea textArea;
 	protected final LogService log;
 
-	ScheduledExecutorService updater = Executors.newScheduledThreadPool(1);
-	Vector<String> queue = new Vector<>();
+	private final ConsoleBuffer buffer;
 
 	/**
-	 * Creates a new output stream that prints every 400 ms to the textArea. When
-	 * done, call close() to clean up and finish printing any remaining text.
+	 * Creates a new output stream that prints to the textArea, flushed by the
+	 * editor-wide {@link ConsoleFlusher}. When done, call close() to clean up
+	 * and finish printing any remaining text.
 	 */
 	public JTextAreaWriter(final JTextArea textArea, final LogService logService)
 	{
 		this.textArea = textArea;
+		buffer = new ConsoleBuffer(textArea);
 		log = logService;
-		updater.scheduleWithFixedDelay(() -> flushQueue(), 10, 400,
-			TimeUnit.MILLISECONDS);
 	}
 
 	public void print(final String line) {
@@ -73,50 +66,48 @@ public class JTextAreaWriter extends Writer {
 
 	@Override
 	public void write(final int i) {
-		write(Character.toString((char) i));
-	}
-
-	@Override
-	public void write(final char[] buffer) {
-		write(new String(buffer));
+		synchronized (lock) {
+			buffer.write((char) i);
+		}
 	}
 
 	@Override
-	public void write(final char[] buffer, final int off, final int len) {
-		write(new String(buffer, off, len));
+	public void write(final char[] chars, final int off, final int len) {
+		synchronized (lock) {
+			buffer.write(chars, off, len);
+		}
 	}
 
 	@Override
 	public void write(final String string) {
-		queue.add(string);
+		synchronized (lock) {
+			buffer.write(string);
+		}
 	}
 
 	public void flushQueue() {
-		ArrayList<String> strings;
-		synchronized (queue) {
-			if (0 == queue.size()) return;
-			strings = new ArrayList<>();
-			strings.addAll(queue);
-			queue.clear();
-		}
+		buffer.flush();
+	}
 
-		final StringBuilder sb = new StringBuilder();
-		for (final String s : strings)
-			sb.append(s);
-
-		synchronized (textArea) {
-			final int lineCount = textArea.getLineCount();
-			// Eliminate the first 100 lines when reaching 1100 lines:
-			if (lineCount > 1100) try {
-				textArea.replaceRange("", 0, textArea
-					.getLineEndOffset(lineCount - 1000));
-			}
-			catch (final BadLocationException e) {
-				log.error(e);
-			}
-			textArea.append(sb.toString());
-			textArea.setCaretPosition(textArea.getDocument().getLength());
-		}
+	/**
+	 * Sets who sees each chunk of output as it reaches the text area, or
+	 * {@code null}.
+	 */
+	void setChunkListener(final Consumer<String> listener) {
+		buffer.setListener(listener);
+	}
+
+	/** The maximum number of lines kept in the text area. */
+	public int getLineLimit() {
+		return buffer.getLineLimit();
+	}
+
+	/**
+	 * Sets the maximum number of lines kept in the text area; older lines are
+	 * dropped.
+	 */
+	public void setLineLimit(final int lineLimit) {
+		buffer.setLineLimit(lineLimit);
 	}
 
 	@Override
@@ -128,22 +119,18 @@ public class JTextAreaWriter extends Writer {
 	@Override
 	public void close() {
 		flush();
-		updater.shutdown();
 	}
 
 	/**
-	 * Stop printing services, finishing to print any remaining tasks in the
-	 * context of the calling thread.
+	 * Stop printing services, finishing to print any remaining text, and wait
+	 * until it is shown.
 	 */
 	public void shutdown() {
-		final List<Runnable> tasks = updater.shutdownNow();
-		if (null == tasks) return;
-		for (final Runnable t : tasks)
-			t.run();
+		buffer.flush();
 	}
 
 	/** Stop printing services immediately, not printing any remaining text. */
 	public void shutdownNow() {
-		updater.shutdownNow();
+		buffer.discard();
 	}
 }
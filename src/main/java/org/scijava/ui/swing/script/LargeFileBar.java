@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.awt.BorderLayout;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.event.ChangeListener;
+
+/**
+ * Shown above an {@link EditorPane} in large-file mode: tells how much of the
+ * file is loaded, and offers to load all of it for editing.
+ */
+class LargeFileBar extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	private final EditorPane editorPane;
+	private final JLabel message = new JLabel();
+	private final JProgressBar progress = new JProgressBar(0, 1000);
+	private final JButton loadAll = new JButton("Load All & Edit");
+	private final ChangeListener listener = e -> update();
+	private LargeFileLoader loader;
+
+	LargeFileBar(final EditorPane editorPane) {
+		super(new BorderLayout(8, 0));
+		this.editorPane = editorPane;
+		setBorder(BorderFactory.createEmptyBorder(2, 4, 2, 4));
+		progress.setStringPainted(true);
+		loadAll.setToolTipText("Load the rest of the file, then turn editing and syntax highlighting back on");
+		loadAll.addActionListener(e -> loadAll());
+		final JPanel right = new JPanel(new BorderLayout(4, 0));
+		right.add(progress, BorderLayout.CENTER);
+		right.add(loadAll, BorderLayout.LINE_END);
+		add(message, BorderLayout.CENTER);
+		add(right, BorderLayout.LINE_END);
+		editorPane.addPropertyChangeListener(EditorPane.LARGE_FILE_PROPERTY, e -> update());
+		update();
+	}
+
+	private void update() {
+		final LargeFileLoader current = editorPane.getLargeFileLoader();
+		if (current != loader) {
+			if (loader != null) loader.removeChangeListener(listener);
+			loader = current;
+			if (loader != null) loader.addChangeListener(listener);
+		}
+		setVisible(loader != null);
+		if (loader == null) return;
+		final long length = loader.length(), position = loader.position();
+		progress.setValue((int) (1000 * position / Math.max(1, length)));
+		progress.setString(megabytes(position) + " of " + megabytes(length));
+		loadAll.setEnabled(!loader.isLoadingAll());
+		message.setText(loader.isLoadingAll() ? "Loading " + loader.getFile().getName() + "..."
+				: loader.getFile().getName() + " is large: it is read-only, without syntax highlighting,"
+						+ " and loaded as you scroll. Search covers the loaded text only.");
+	}
+
+	private void loadAll() {
+		final Runtime runtime = Runtime.getRuntime();
+		final long available = runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
+		// Two bytes per character, and the document's buffer grows by doubling
+		final long needed = 4 * (loader.length() - loader.position());
+		if (needed > available && JOptionPane.YES_OPTION != JOptionPane.showConfirmDialog(this,
+				"Editing all of " + loader.getFile().getName() + " needs about " + megabytes(needed)
+						+ " more memory, but only " + megabytes(available) + " are available.\nLoad it anyway?",
+				"Low Memory", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE))
+			return;
+		editorPane.loadWholeFile();
+	}
+
+	private static String megabytes(final long bytes) {
+		return String.format("%.1f MB", bytes / (double) (1 << 20));
+	}
+}
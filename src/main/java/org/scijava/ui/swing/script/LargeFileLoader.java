@@ -0,0 +1,252 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+/**
+ * Fills the document of an {@link EditorPane} from a file too large to be
+ * read at once (see {@link EditorPane#LARGE_FILE_THRESHOLD}).
+ * <p>
+ * The file is memory-mapped one window at a time and decoded as UTF-8, and
+ * each window is appended to the document on the event dispatch thread. Only
+ * the first window is read when the file is opened. The next ones are read in
+ * the background, one at a time: when the view nears the end of the loaded
+ * text ({@link #loadMore()}), or until the end of the file
+ * ({@link #loadAll(Runnable)}). The document itself cannot be mapped, as
+ * {@code RSyntaxDocument} keeps its text in a gap buffer on the heap.
+ * </p>
+ */
+class LargeFileLoader {
+
+	/** The number of bytes read at a time as the view nears the end of the loaded text. */
+	static final int CHUNK_SIZE = 1 << 20;
+
+	/**
+	 * The number of bytes read at a time when loading the rest of the file: each
+	 * append costs a little on top of the text it adds, and the editor is not
+	 * usable until all is loaded anyway.
+	 */
+	static final int BULK_CHUNK_SIZE = 8 << 20;
+
+	private static final ThreadPoolExecutor reader = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), r -> {
+				final Thread thread = new Thread(r, "Large file loader");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		reader.allowCoreThreadTimeOut(true);
+	}
+
+	private final EditorPane editorPane;
+	private final File file;
+	private final FileChannel channel;
+	private final long length;
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+	/** The number of bytes decoded so far. */
+	private volatile long position;
+	private volatile boolean closed;
+
+	// Accessed on the event dispatch thread only
+	private boolean loading;
+	private Runnable whenComplete;
+
+	/**
+	 * @param editorPane The editor pane to append the text to.
+	 * @param file The file to read.
+	 * @throws IOException If the file cannot be opened.
+	 */
+	LargeFileLoader(final EditorPane editorPane, final File file) throws IOException {
+		this.editorPane = editorPane;
+		this.file = file;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		length = channel.size();
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	/** @return the size of the file, in bytes */
+	long length() {
+		return length;
+	}
+
+	/** @return the number of bytes of the file shown in the editor pane */
+	long position() {
+		return position;
+	}
+
+	boolean isComplete() {
+		return position >= length;
+	}
+
+	/** Whether the rest of the file is being loaded by {@link #loadAll(Runnable)}. */
+	boolean isLoadingAll() {
+		return whenComplete != null;
+	}
+
+	void addChangeListener(final ChangeListener listener) {
+		listeners.add(listener);
+	}
+
+	void removeChangeListener(final ChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/** Reads the first chunk of the file and appends it, in the calling thread. */
+	void loadFirst() throws IOException {
+		final String chunk = readChunk(CHUNK_SIZE);
+		if (chunk != null) editorPane.appendLoaded(chunk);
+	}
+
+	/**
+	 * Reads the next chunk of the file in the background, unless it is already
+	 * being read. Must be called on the event dispatch thread.
+	 */
+	void loadMore() {
+		if (loading || closed || isComplete()) return;
+		loading = true;
+		final int size = whenComplete == null ? CHUNK_SIZE : BULK_CHUNK_SIZE;
+		reader.execute(() -> read(size));
+	}
+
+	/**
+	 * Reads the rest of the file in the background. Must be called on the event
+	 * dispatch thread.
+	 *
+	 * @param whenComplete Run on the event dispatch thread once all of the file
+	 *          is shown.
+	 */
+	void loadAll(final Runnable whenComplete) {
+		this.whenComplete = whenComplete;
+		if (isComplete()) completed();
+		else loadMore();
+		fireStateChanged();
+	}
+
+	/** Stops loading and releases the file. */
+	void close() {
+		closed = true;
+		whenComplete = null;
+		try {
+			channel.close();
+		}
+		catch (final IOException e) {
+			// ignore: the file was only read
+		}
+	}
+
+	private void read(final int size) {
+		try {
+			final String chunk = readChunk(size);
+			SwingUtilities.invokeLater(() -> appended(chunk));
+		}
+		catch (final IOException e) {
+			SwingUtilities.invokeLater(() -> failed(e));
+		}
+	}
+
+	/** Maps and decodes the next chunk, or returns {@code null} at the end of the file. */
+	private String readChunk(final int maxSize) throws IOException {
+		synchronized (decoder) {
+			final long start = position;
+			if (start >= length) return null;
+			final int size = (int) Math.min(maxSize, length - start);
+			final boolean last = start + size == length;
+			final MappedByteBuffer bytes = channel.map(MapMode.READ_ONLY, start, size);
+			// UTF-8 never decodes to more characters than bytes
+			final CharBuffer chars = CharBuffer.allocate(size);
+			decoder.decode(bytes, chars, last);
+			if (last) decoder.flush(chars);
+			// A sequence cut by the end of the window is decoded with the next one
+			position = start + bytes.position();
+			chars.flip();
+			return chars.toString();
+		}
+	}
+
+	private void appended(final String chunk) {
+		loading = false;
+		if (closed) return;
+		if (chunk != null) editorPane.appendLoaded(chunk);
+		if (!isComplete()) {
+			if (whenComplete != null) loadMore();
+		}
+		else if (whenComplete != null) {
+			completed();
+		}
+		fireStateChanged();
+	}
+
+	private void completed() {
+		final Runnable r = whenComplete;
+		whenComplete = null;
+		r.run();
+	}
+
+	private void failed(final IOException e) {
+		loading = false;
+		if (closed) return;
+		whenComplete = null;
+		fireStateChanged();
+		editorPane.error("Could not read " + file.getName() + ":\n" + e.getMessage());
+	}
+
+	private void fireStateChanged() {
+		final ChangeEvent event = new ChangeEvent(this);
+		for (final ChangeListener listener : listeners)
+			listener.stateChanged(event);
+	}
+}
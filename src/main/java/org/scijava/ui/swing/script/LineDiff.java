@@ -0,0 +1,294 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Line-level differences between two texts, as the edits that turn the old
+ * text into the new one.
+ * <p>
+ * Lines common to the start and end of both texts are skipped by comparing
+ * characters in place, so that only the lines in between are split. These are compared with Myers' O(ND)
+ * algorithm in its linear-space variant, which recursively splits them at the
+ * middle snake. Each region whose differences exceed {@link #MAX_D} is
+ * replaced as a whole instead, which keeps the cost bounded for files that
+ * were rewritten entirely.
+ * </p>
+ * <p>
+ * Each edit is then narrowed to the characters that differ, so that applying
+ * it to a document leaves the rest of its lines, and the positions in them,
+ * alone.
+ * </p>
+ */
+final class LineDiff {
+
+	/** How many differences to look for in one region before replacing it as a whole. */
+	private static final int MAX_D = 1024;
+
+	/** How many characters to compare at once when skipping common text. */
+	private static final int BLOCK = 64;
+
+	/** Replaces {@code length} characters of the old text at {@code offset} by {@code text}. */
+	static final class Edit {
+
+		final int offset;
+		final int length;
+		final String text;
+
+		Edit(final int offset, final int length, final String text) {
+			this.offset = offset;
+			this.length = length;
+			this.text = text;
+		}
+
+		@Override
+		public String toString() {
+			return "@" + offset + " -" + length + " +" + text.length();
+		}
+	}
+
+	private final int[] oldStarts, newStarts;
+	private int[] a, b;
+	/** Differing line ranges, as quadruples of old start, old end, new start and new end. */
+	private int[] hunks = new int[16];
+	private int hunkCount;
+
+	private LineDiff(final String oldText, final String newText) {
+		final int oldLength = oldText.length(), newLength = newText.length();
+		// Skip the common lines at the start...
+		final int prefix = oldText.lastIndexOf('\n', commonPrefix(oldText, 0, oldLength, newText, 0, newLength) - 1) + 1;
+		// ...and at the end
+		int suffix = commonSuffix(oldText, prefix, oldLength, newText, prefix, newLength);
+		if (!isLineStart(oldText, oldLength - suffix, prefix) || !isLineStart(newText, newLength - suffix, prefix)) {
+			final int eol = oldText.indexOf('\n', oldLength - suffix);
+			suffix = eol < 0 ? 0 : oldLength - eol - 1;
+		}
+		oldStarts = lineStarts(oldText, prefix, oldLength - suffix);
+		newStarts = lineStarts(newText, prefix, newLength - suffix);
+		final int a1 = oldStarts.length - 1, b1 = newStarts.length - 1;
+		if (a1 == 0 && b1 == 0) return;
+		// Number the lines in between, so that they compare as ints
+		final HashMap<String, Integer> ids = new HashMap<>();
+		a = number(oldText, oldStarts, ids);
+		b = number(newText, newStarts, ids);
+		diff(0, a1, 0, b1);
+	}
+
+	/**
+	 * Computes the edits that turn one text into the other.
+	 *
+	 * @return the edits in the order of their offsets, which do not overlap;
+	 *         apply them from last to first
+	 */
+	static List<Edit> diff(final String oldText, final String newText) {
+		final LineDiff diff = new LineDiff(oldText, newText);
+		final List<Edit> edits = new ArrayList<>(diff.hunkCount);
+		for (int i = 0; i < diff.hunkCount; i++) {
+			final int[] h = diff.hunks;
+			final int oldFrom = diff.oldStarts[h[4 * i]], oldTo = diff.oldStarts[h[4 * i + 1]];
+			final int newFrom = diff.newStarts[h[4 * i + 2]], newTo = diff.newStarts[h[4 * i + 3]];
+			final int prefix = commonPrefix(oldText, oldFrom, oldTo, newText, newFrom, newTo);
+			final int suffix = commonSuffix(oldText, oldFrom + prefix, oldTo, newText, newFrom + prefix, newTo);
+			edits.add(new Edit(oldFrom + prefix, oldTo - suffix - oldFrom - prefix,
+					newText.substring(newFrom + prefix, newTo - suffix)));
+		}
+		return edits;
+	}
+
+	/** The number of characters that two ranges of text start with in common. */
+	private static int commonPrefix(final String a, final int aFrom, final int aTo, final String b, final int bFrom,
+			final int bTo) {
+		final int max = Math.min(aTo - aFrom, bTo - bFrom);
+		int n = 0;
+		while (n + BLOCK <= max && a.regionMatches(aFrom + n, b, bFrom + n, BLOCK))
+			n += BLOCK;
+		while (n < max && a.charAt(aFrom + n) == b.charAt(bFrom + n))
+			n++;
+		return n;
+	}
+
+	/** The number of characters that two ranges of text end with in common. */
+	private static int commonSuffix(final String a, final int aFrom, final int aTo, final String b, final int bFrom,
+			final int bTo) {
+		final int max = Math.min(aTo - aFrom, bTo - bFrom);
+		int n = 0;
+		while (n + BLOCK <= max && a.regionMatches(aTo - n - BLOCK, b, bTo - n - BLOCK, BLOCK))
+			n += BLOCK;
+		while (n < max && a.charAt(aTo - n - 1) == b.charAt(bTo - n - 1))
+			n++;
+		return n;
+	}
+
+	/**
+	 * The offsets where the lines of a text start, followed by its length. Each
+	 * line includes its terminating {@code '\n'}, if any.
+	 */
+	static int[] lineStarts(final String text) {
+		return lineStarts(text, 0, text.length());
+	}
+
+	/** The offsets where the lines from {@code from}, a line start, to {@code to} start, followed by {@code to}. */
+	private static int[] lineStarts(final String text, final int from, final int to) {
+		int count = 1;
+		for (int i = text.indexOf('\n', from); i >= 0 && i < to; i = text.indexOf('\n', i + 1))
+			count++;
+		final int[] starts = new int[count + 1];
+		starts[0] = from;
+		int n = 1;
+		for (int i = text.indexOf('\n', from); i >= 0 && i < to; i = text.indexOf('\n', i + 1))
+			starts[n++] = i + 1;
+		if (starts[n - 1] != to) starts[n++] = to;
+		return n == starts.length ? starts : Arrays.copyOf(starts, n);
+	}
+
+	private static boolean isLineStart(final String text, final int offset, final int prefix) {
+		return offset == prefix || text.charAt(offset - 1) == '\n';
+	}
+
+	/** The id of each line. */
+	private static int[] number(final String text, final int[] starts, final HashMap<String, Integer> ids) {
+		final int[] lines = new int[starts.length - 1];
+		for (int i = 0; i < lines.length; i++) {
+			final Integer id = ids.putIfAbsent(text.substring(starts[i], starts[i + 1]), ids.size());
+			lines[i] = id == null ? ids.size() - 1 : id;
+		}
+		return lines;
+	}
+
+	/** Finds the differences between old lines {@code a0..a1} and new lines {@code b0..b1}. */
+	private void diff(int a0, int a1, int b0, int b1) {
+		while (a0 < a1 && b0 < b1 && a[a0] == b[b0]) {
+			a0++;
+			b0++;
+		}
+		while (a0 < a1 && b0 < b1 && a[a1 - 1] == b[b1 - 1]) {
+			a1--;
+			b1--;
+		}
+		if (a0 == a1 && b0 == b1) return;
+		if (a0 < a1 && b0 < b1) {
+			final long split = bisect(a0, a1, b0, b1);
+			if (split >= 0) {
+				final int x = (int) (split >>> 32), y = (int) split;
+				if ((x > a0 || y > b0) && (x < a1 || y < b1)) {
+					diff(a0, x, b0, y);
+					diff(x, a1, y, b1);
+					return;
+				}
+			}
+		}
+		addHunk(a0, a1, b0, b1);
+	}
+
+	/**
+	 * Finds where the forward and reverse paths of a shortest edit script
+	 * overlap, as in Myers' paper.
+	 *
+	 * @return the old and new line numbers of the overlap, packed into a long,
+	 *         or -1 if there are more than {@link #MAX_D} differences
+	 */
+	private long bisect(final int a0, final int a1, final int b0, final int b1) {
+		final int n = a1 - a0, m = b1 - b0;
+		final int maxD = Math.min((n + m + 1) / 2, MAX_D);
+		final int vOffset = maxD, vLength = 2 * maxD + 2;
+		final int[] v1 = new int[vLength], v2 = new int[vLength];
+		Arrays.fill(v1, -1);
+		Arrays.fill(v2, -1);
+		v1[vOffset + 1] = 0;
+		v2[vOffset + 1] = 0;
+		final int delta = n - m;
+		// If the difference is odd, the forward path meets the reverse one
+		final boolean front = delta % 2 != 0;
+		int k1start = 0, k1end = 0, k2start = 0, k2end = 0;
+		for (int d = 0; d < maxD; d++) {
+			for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+				final int k1Offset = vOffset + k1;
+				int x1 = k1 == -d || k1 != d && v1[k1Offset - 1] < v1[k1Offset + 1] ? v1[k1Offset + 1]
+						: v1[k1Offset - 1] + 1;
+				int y1 = x1 - k1;
+				while (x1 < n && y1 < m && a[a0 + x1] == b[b0 + y1]) {
+					x1++;
+					y1++;
+				}
+				v1[k1Offset] = x1;
+				if (x1 > n) k1end += 2; // ran off the right
+				else if (y1 > m) k1start += 2; // ran off the bottom
+				else if (front) {
+					final int k2Offset = vOffset + delta - k1;
+					if (k2Offset >= 0 && k2Offset < vLength && v2[k2Offset] != -1 && x1 >= n - v2[k2Offset]) {
+						return (long) (a0 + x1) << 32 | b0 + y1;
+					}
+				}
+			}
+			for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+				final int k2Offset = vOffset + k2;
+				int x2 = k2 == -d || k2 != d && v2[k2Offset - 1] < v2[k2Offset + 1] ? v2[k2Offset + 1]
+						: v2[k2Offset - 1] + 1;
+				int y2 = x2 - k2;
+				while (x2 < n && y2 < m && a[a1 - x2 - 1] == b[b1 - y2 - 1]) {
+					x2++;
+					y2++;
+				}
+				v2[k2Offset] = x2;
+				if (x2 > n) k2end += 2;
+				else if (y2 > m) k2start += 2;
+				else if (!front) {
+					final int k1Offset = vOffset + delta - k2;
+					if (k1Offset >= 0 && k1Offset < vLength && v1[k1Offset] != -1) {
+						final int x1 = v1[k1Offset];
+						final int y1 = vOffset + x1 - k1Offset;
+						if (x1 >= n - x2) return (long) (a0 + x1) << 32 | b0 + y1;
+					}
+				}
+			}
+		}
+		return -1;
+	}
+
+	private void addHunk(final int a0, final int a1, final int b0, final int b1) {
+		final int last = 4 * (hunkCount - 1);
+		if (hunkCount > 0 && hunks[last + 1] == a0 && hunks[last + 3] == b0) {
+			// Adjacent to the previous one: merge
+			hunks[last + 1] = a1;
+			hunks[last + 3] = b1;
+			return;
+		}
+		if (4 * hunkCount == hunks.length) hunks = Arrays.copyOf(hunks, 2 * hunks.length);
+		hunks[4 * hunkCount] = a0;
+		hunks[4 * hunkCount + 1] = a1;
+		hunks[4 * hunkCount + 2] = b0;
+		hunks[4 * hunkCount + 3] = b1;
+		hunkCount++;
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+
+package org.scijava.ui.swing.script;
+
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+import javax.swing.Action;
+import javax.swing.text.Element;
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.OccurrenceMarker;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextAreaHighlighter;
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenMakerBase;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+import org.fife.ui.rtextarea.SmartHighlightPainter;
+
+/**
+ * A {@link TokenMaker} that shows lines past a length limit as plain text,
+ * and lexes all other lines with the token maker of the language.
+ * <p>
+ * Minified JavaScript, JSON dumps or recorded macros can have lines of a
+ * megabyte. The text area lexes the whole line whenever it is painted or
+ * edited, which makes typing on, or scrolling past, such a line hang. A long
+ * line is instead cut into plain chunks of {@value #CHUNK} characters, without
+ * looking at them: the text area paints the chunks up to the end of the
+ * visible area only, and a line of plain chunks has no brackets to match, no
+ * links and no occurrences to mark. A long line also ends any multi-line
+ * comment or string, as far as highlighting is concerned.
+ * </p>
+ *
+ * @see EditorPane#setLongLineLimit(int)
+ */
+final class LongLineTokenMaker implements TokenMaker {
+
+	/** The number of characters of a long line per plain token. */
+	static final int CHUNK = 1024;
+
+	private final TokenMaker tokenMaker;
+	private final IntSupplier limit;
+	private final PlainChunks plain = new PlainChunks();
+	private OccurrenceMarker occurrenceMarker;
+
+	/**
+	 * @param tokenMaker The token maker of the language.
+	 * @param limit The longest line to lex, in characters; 0 or less for no
+	 *          limit.
+	 */
+	LongLineTokenMaker(final TokenMaker tokenMaker, final IntSupplier limit) {
+		this.tokenMaker = tokenMaker;
+		this.limit = limit;
+	}
+
+	/** Whether a line of the given length is shown as plain text. */
+	boolean isLong(final int length) {
+		final int max = limit.getAsInt();
+		return max > 0 && length > max;
+	}
+
+	@Override
+	public Token getTokenList(final Segment text, final int initialTokenType,
+		final int startOffset)
+	{
+		if (isLong(text.count)) return plain.getTokenList(text, initialTokenType, startOffset);
+		return tokenMaker.getTokenList(text, initialTokenType, startOffset);
+	}
+
+	@Override
+	public int getLastTokenTypeOnLine(final Segment text, final int initialTokenType) {
+		if (isLong(text.count)) return TokenTypes.NULL;
+		return tokenMaker.getLastTokenTypeOnLine(text, initialTokenType);
+	}
+
+	/** Marks no occurrences while the caret is on a long line. */
+	@Override
+	public OccurrenceMarker getOccurrenceMarker() {
+		if (occurrenceMarker == null) occurrenceMarker = guard(tokenMaker.getOccurrenceMarker());
+		return occurrenceMarker;
+	}
+
+	private OccurrenceMarker guard(final OccurrenceMarker marker) {
+		return new OccurrenceMarker() {
+
+			@Override
+			public Token getTokenToMark(final RSyntaxTextArea textArea) {
+				final Element line = textArea.getDocument().getDefaultRootElement()
+					.getElement(textArea.getCaretLineNumber());
+				if (isLong(line.getEndOffset() - line.getStartOffset() - 1)) return null;
+				return marker.getTokenToMark(textArea);
+			}
+
+			@Override
+			public boolean isValidType(final RSyntaxTextArea textArea, final Token t) {
+				return marker.isValidType(textArea, t);
+			}
+
+			@Override
+			public void markOccurrences(final RSyntaxDocument doc, final Token t,
+				final RSyntaxTextAreaHighlighter h, final SmartHighlightPainter p)
+			{
+				marker.markOccurrences(doc, t, h, p);
+			}
+		};
+	}
+
+	@Override
+	public void addNullToken() {
+		tokenMaker.addNullToken();
+	}
+
+	@Override
+	public void addToken(final char[] array, final int start, final int end,
+		final int tokenType, final int startOffset)
+	{
+		tokenMaker.addToken(array, start, end, tokenType, startOffset);
+	}
+
+	@Override
+	public int getClosestStandardTokenTypeForInternalType(final int type) {
+		return tokenMaker.getClosestStandardTokenTypeForInternalType(type);
+	}
+
+	@Override
+	public boolean getCurlyBracesDenoteCodeBlocks(final int languageIndex) {
+		return tokenMaker.getCurlyBracesDenoteCodeBlocks(languageIndex);
+	}
+
+	@Override
+	public String[] getLineCommentStartAndEnd(final int languageIndex) {
+		return tokenMaker.getLineCommentStartAndEnd(languageIndex);
+	}
+
+	@Override
+	public Action getInsertBreakAction() {
+		return tokenMaker.getInsertBreakAction();
+	}
+
+	@Override
+	public boolean getMarkOccurrencesOfTokenType(final int type) {
+		return tokenMaker.getMarkOccurrencesOfTokenType(type);
+	}
+
+	@Override
+	public boolean getShouldIndentNextLineAfter(final Token token) {
+		return tokenMaker.getShouldIndentNextLineAfter(token);
+	}
+
+	@Override
+	public boolean isIdentifierChar(final int languageIndex, final char ch) {
+		return tokenMaker.isIdentifierChar(languageIndex, ch);
+	}
+
+	@Override
+	public boolean isMarkupLanguage() {
+		return tokenMaker.isMarkupLanguage();
+	}
+
+	/** Cuts a line into plain tokens, without lexing it. */
+	private static final class PlainChunks extends TokenMakerBase {
+
+		@Override
+		public Token getTokenList(final Segment text, final int initialTokenType,
+			final int startOffset)
+		{
+			resetTokenList();
+			for (int start = 0; start < text.count;) {
+				int end = Math.min(text.count, start + CHUNK);
+				// Keep surrogate pairs together
+				if (end < text.count && Character.isHighSurrogate(text.array[text.offset + end - 1])) end++;
+				addToken(text.array, text.offset + start, text.offset + end - 1,
+					TokenTypes.IDENTIFIER, startOffset + start);
+				start = end;
+			}
+			addNullToken();
+			return firstToken;
+		}
+	}
+
+	/**
+	 * Wraps the token makers of the default factory, which the script editor
+	 * adds its languages to.
+	 */
+	static final class Factory extends TokenMakerFactory {
+
+		private final IntSupplier limit;
+
+		/** @param limit The longest line to lex; read whenever a line is lexed. */
+		Factory(final IntSupplier limit) {
+			this.limit = limit;
+		}
+
+		@Override
+		protected TokenMaker getTokenMakerImpl(final String key) {
+			return new LongLineTokenMaker(getDefaultInstance().getTokenMaker(key), limit);
+		}
+
+		@Override
+		public Set<String> keySet() {
+			return getDefaultInstance().keySet();
+		}
+	}
+}
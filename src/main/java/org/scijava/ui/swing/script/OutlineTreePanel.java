@@ -81,7 +81,8 @@ class OutlineTreePanel extends JScrollPane {
 			sourceTree.uninstall();
 		}
 		final ScriptLanguage sLanguage = pane.getCurrentLanguage();
-		final String language = (sLanguage == null) ? "" : sLanguage.getLanguageName();
+		// Large files are not parsed until loaded for editing
+		final String language = (sLanguage == null || pane.isLargeFileMode()) ? "" : sLanguage.getLanguageName();
 		switch (language) {
 		case "Java":
 		//case "BeanShell":
@@ -91,7 +92,11 @@ class OutlineTreePanel extends JScrollPane {
 			sourceTree = new JavaScriptOutlineTree(sorted);
 			break;
 		default:
-			if (EditorPane.SYNTAX_STYLE_XML.equals(pane.getSyntaxEditingStyle())) {
+			final ScriptOutline.Dialect dialect = pane.isLargeFileMode() ? null
+					: ScriptOutline.Dialect.forLanguage(sLanguage);
+			if (dialect != null) {
+				sourceTree = new ScriptOutlineTree(dialect, sorted);
+			} else if (EditorPane.SYNTAX_STYLE_XML.equals(pane.getSyntaxEditingStyle())) {
 				sourceTree = new XmlOutlineTree(sorted);
 			} else
 				sourceTree = null;
@@ -147,7 +152,7 @@ class OutlineTreePanel extends JScrollPane {
 
 		private static final long serialVersionUID = 1L;
 		private static final String HOLDER = "Outline not available... "
-				+ "(Currently, only Java, JS, & XML are supported)";
+				+ "(Currently, only Groovy, Java, JS, IJ Macro, Python & XML are supported)";
 
 		public UnsupportedLangTree() {
 			super((TreeNode) null);
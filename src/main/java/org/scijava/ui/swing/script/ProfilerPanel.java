@@ -0,0 +1,231 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+import org.scijava.ui.swing.script.TextEditor.GuiUtils;
+
+/**
+ * History of the profiled runs of a {@link TextEditorTab}, in a sortable
+ * table. Selecting two runs compares them.
+ */
+class ProfilerPanel extends JPanel {
+
+	private static final String[] COLUMNS = { "#", "Script", "Started",
+		"Wall (ms)", "CPU (ms)", "Allocated (MB)", "GCs", "GC (ms)",
+		"Wall vs. previous (%)" };
+	private static final Class<?>[] TYPES = { Integer.class, String.class,
+		Date.class, Double.class, Double.class, Double.class, Long.class,
+		Long.class, Double.class };
+
+	private final List<RunProfile> runs = new ArrayList<>();
+	private final Model model = new Model();
+	private final JTable table = new JTable(model);
+	private final JLabel comparison = new JLabel(" ");
+
+	ProfilerPanel() {
+		super(new BorderLayout());
+		table.setAutoCreateRowSorter(true);
+		table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+		table.getSelectionModel().addListSelectionListener(e -> {
+			if (!e.getValueIsAdjusting()) compare();
+		});
+
+		final JButton export = new JButton("Export CSV...");
+		export.addActionListener(e -> export());
+		final JButton clear = new JButton("Clear");
+		clear.addActionListener(e -> {
+			runs.clear();
+			model.fireTableDataChanged();
+		});
+		final JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		buttons.add(export);
+		buttons.add(clear);
+		buttons.add(comparison);
+
+		add(new JScrollPane(table), BorderLayout.CENTER);
+		add(buttons, BorderLayout.SOUTH);
+	}
+
+	/** Adds a run to the history. Callable from any thread. */
+	void add(final RunProfile run) {
+		SwingUtilities.invokeLater(() -> {
+			runs.add(run);
+			model.fireTableRowsInserted(runs.size() - 1, runs.size() - 1);
+		});
+	}
+
+	/** Writes the history as comma-separated values, one run per line. */
+	void writeCSV(final Writer writer) {
+		final PrintWriter out = new PrintWriter(writer);
+		out.println(String.join(",", COLUMNS));
+		final SimpleDateFormat iso = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+		for (int row = 0; row < runs.size(); row++) {
+			final StringBuilder line = new StringBuilder();
+			for (int column = 0; column < COLUMNS.length; column++) {
+				if (column > 0) line.append(',');
+				final Object value = model.getValueAt(row, column);
+				if (value instanceof Date) line.append(iso.format((Date) value));
+				else if (value instanceof String) line.append('"').append(
+					((String) value).replace("\"", "\"\"")).append('"');
+				else if (value != null) line.append(value);
+			}
+			out.println(line);
+		}
+		out.flush();
+	}
+
+	private void export() {
+		final JFileChooser chooser = new JFileChooser();
+		chooser.setDialogTitle("Export Profile");
+		chooser.setSelectedFile(new File("profile.csv"));
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+		try (final Writer writer = Files.newBufferedWriter(chooser
+			.getSelectedFile().toPath(), StandardCharsets.UTF_8))
+		{
+			writeCSV(writer);
+		}
+		catch (final IOException e) {
+			GuiUtils.error(this, "Could not export the profile:\n" + e
+				.getMessage());
+		}
+	}
+
+	/** Shows how the second selected run differs from the first. */
+	private void compare() {
+		final int[] rows = table.getSelectedRows();
+		if (rows.length != 2) {
+			comparison.setText(" ");
+			return;
+		}
+		final int a = Math.min(table.convertRowIndexToModel(rows[0]), table
+			.convertRowIndexToModel(rows[1]));
+		final int b = Math.max(table.convertRowIndexToModel(rows[0]), table
+			.convertRowIndexToModel(rows[1]));
+		final RunProfile first = runs.get(a), second = runs.get(b);
+		comparison.setText("#" + (b + 1) + " vs. #" + (a + 1) + ": wall " +
+			percent(first.wallNanos, second.wallNanos) + ", CPU " + percent(
+				first.cpuNanos, second.cpuNanos) + ", allocated " + percent(
+					first.allocatedBytes, second.allocatedBytes));
+	}
+
+	private static String percent(final long before, final long after) {
+		final Double change = change(before, after);
+		return change == null ? "n/a" : String.format("%+.1f %%", change);
+	}
+
+	private static Double change(final long before, final long after) {
+		if (before <= 0 || after < 0) return null;
+		return Math.round(1000.0 * (after - before) / before) / 10.0;
+	}
+
+	private static Double millis(final long nanos) {
+		return nanos < 0 ? null : Math.round(nanos / 1e4) / 100.0;
+	}
+
+	private class Model extends AbstractTableModel {
+
+		@Override
+		public int getRowCount() {
+			return runs.size();
+		}
+
+		@Override
+		public int getColumnCount() {
+			return COLUMNS.length;
+		}
+
+		@Override
+		public String getColumnName(final int column) {
+			return COLUMNS[column];
+		}
+
+		@Override
+		public Class<?> getColumnClass(final int column) {
+			return TYPES[column];
+		}
+
+		@Override
+		public Object getValueAt(final int row, final int column) {
+			final RunProfile run = runs.get(row);
+			switch (column) {
+				case 0:
+					return row + 1;
+				case 1:
+					return run.script;
+				case 2:
+					return run.started;
+				case 3:
+					return millis(run.wallNanos);
+				case 4:
+					return millis(run.cpuNanos);
+				case 5:
+					return run.allocatedBytes < 0 ? null : Math.round(
+						run.allocatedBytes / 1e4) / 100.0;
+				case 6:
+					return run.gcCount < 0 ? null : run.gcCount;
+				case 7:
+					return run.gcMillis < 0 ? null : run.gcMillis;
+				case 8:
+					// Compare with the previous run of the same script
+					for (int i = row - 1; i >= 0; i--) {
+						if (runs.get(i).script.equals(run.script)) {
+							return change(runs.get(i).wallNanos, run.wallNanos);
+						}
+					}
+					return null;
+				default:
+					return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Date;
+
+/**
+ * The measurements of one profiled script run.
+ * <p>
+ * CPU time and allocated bytes are those of the thread running the script,
+ * which excludes any threads the script starts. The garbage collections are
+ * those of the whole JVM during the run. Values the Java runtime does not
+ * measure are -1.
+ * </p>
+ */
+class RunProfile {
+
+	final String script;
+	final Date started;
+	final long wallNanos, cpuNanos, allocatedBytes, gcCount, gcMillis;
+
+	RunProfile(final String script, final Date started, final long wallNanos,
+		final long cpuNanos, final long allocatedBytes, final long gcCount,
+		final long gcMillis)
+	{
+		this.script = script;
+		this.started = started;
+		this.wallNanos = wallNanos;
+		this.cpuNanos = cpuNanos;
+		this.allocatedBytes = allocatedBytes;
+		this.gcCount = gcCount;
+		this.gcMillis = gcMillis;
+	}
+
+	/** Starts measuring a run in the calling thread. */
+	static Probe start(final String script) {
+		return new Probe(script);
+	}
+
+	/** A run being measured; to be stopped in the thread that started it. */
+	static class Probe {
+
+		private final String script;
+		private final Date started = new Date();
+		private final long wall, cpu, allocated, gcCount, gcMillis;
+
+		private Probe(final String script) {
+			this.script = script;
+			gcCount = gcCount();
+			gcMillis = gcMillis();
+			allocated = allocatedBytes();
+			cpu = cpuTime();
+			wall = System.nanoTime();
+		}
+
+		RunProfile stop() {
+			final long wallNow = System.nanoTime();
+			final long cpuNow = cpuTime();
+			final long allocatedNow = allocatedBytes();
+			return new RunProfile(script, started, wallNow - wall, //
+				delta(cpu, cpuNow), delta(allocated, allocatedNow), //
+				delta(gcCount, gcCount()), delta(gcMillis, gcMillis()));
+		}
+	}
+
+	private static long delta(final long before, final long after) {
+		return before < 0 || after < 0 ? -1 : after - before;
+	}
+
+	private static long cpuTime() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		try {
+			return threads.isCurrentThreadCpuTimeSupported() ? threads
+				.getCurrentThreadCpuTime() : -1;
+		}
+		catch (final UnsupportedOperationException e) {
+			return -1;
+		}
+	}
+
+	private static long allocatedBytes() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+		final com.sun.management.ThreadMXBean sun =
+			(com.sun.management.ThreadMXBean) threads;
+		try {
+			return sun.isThreadAllocatedMemoryEnabled() ? sun
+				.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+		}
+		catch (final UnsupportedOperationException e) {
+			return -1;
+		}
+	}
+
+	private static long gcCount() {
+		long sum = 0;
+		for (final GarbageCollectorMXBean gc : ManagementFactory
+			.getGarbageCollectorMXBeans())
+		{
+			final long count = gc.getCollectionCount();
+			if (count < 0) return -1;
+			sum += count;
+		}
+		return sum;
+	}
+
+	private static long gcMillis() {
+		long sum = 0;
+		for (final GarbageCollectorMXBean gc : ManagementFactory
+			.getGarbageCollectorMXBeans())
+		{
+			final long time = gc.getCollectionTime();
+			if (time < 0) return -1;
+			sum += time;
+		}
+		return sum;
+	}
+}
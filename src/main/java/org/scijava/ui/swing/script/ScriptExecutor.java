@@ -0,0 +1,434 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.scijava.log.Logger;
+import org.scijava.log.StderrLogService;
+
+/**
+ * Runs the scripts of the script editors, at most a given number at once.
+ * <p>
+ * At most {@link #getParallelism()} scripts run at once, from all editor
+ * windows and tabs together; further runs wait in a queue. Each run is a
+ * {@link Task}, which can be cancelled or stopped and which reports its
+ * wall-clock and CPU time.
+ * </p>
+ * <p>
+ * The pool only does the queueing: each script runs on a thread of its own,
+ * in a {@link ThreadGroup} of its own, together with the threads it starts.
+ * The pool's worker waits until all of them have died, and cancelling or
+ * stopping a run acts on that group only. Idle workers time out, so that an
+ * idle editor holds no threads. On Java 21 and later, the waiting workers can
+ * be virtual threads.
+ * </p>
+ */
+public class ScriptExecutor {
+
+	private static ScriptExecutor shared;
+
+	private final ThreadPoolExecutor pool;
+	private final boolean virtual;
+	private volatile Logger log = new StderrLogService();
+
+	/**
+	 * The executor shared by all script editors, with one worker per core and
+	 * at least two. Set the system property
+	 * {@code scijava.scriptEditor.virtualThreads} to {@code true} to use
+	 * virtual threads where available.
+	 */
+	public static synchronized ScriptExecutor getShared() {
+		if (shared == null) {
+			shared = new ScriptExecutor(Math.max(2, Runtime.getRuntime()
+				.availableProcessors()), Boolean.getBoolean(
+					"scijava.scriptEditor.virtualThreads"));
+		}
+		return shared;
+	}
+
+	/**
+	 * @param parallelism The maximum number of scripts to run at once.
+	 * @param virtualThreads Whether the workers waiting for the scripts are
+	 *          virtual threads, if the Java runtime supports them.
+	 */
+	public ScriptExecutor(final int parallelism, final boolean virtualThreads) {
+		ThreadFactory factory = virtualThreads ? virtualThreadFactory() : null;
+		virtual = factory != null;
+		if (factory == null) {
+			final AtomicInteger count = new AtomicInteger();
+			factory = r -> {
+				final Thread thread = new Thread(r, "Script Editor Queue-" + count
+					.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			};
+		}
+		pool = new ThreadPoolExecutor(parallelism, parallelism, 30,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+		pool.allowCoreThreadTimeOut(true);
+	}
+
+	/** The maximum number of scripts running at once. */
+	public int getParallelism() {
+		return pool.getMaximumPoolSize();
+	}
+
+	/** Whether the workers waiting for the scripts are virtual threads. */
+	public boolean isVirtual() {
+		return virtual;
+	}
+
+	/** The number of scripts currently running. */
+	public int getActiveCount() {
+		return pool.getActiveCount();
+	}
+
+	/** The number of scripts waiting for a worker. */
+	public int getQueuedCount() {
+		return pool.getQueue().size();
+	}
+
+	/** Sets where the failures of tasks that do not handle them are logged. */
+	public void setLogger(final Logger log) {
+		this.log = log;
+	}
+
+	/** Queues the task, to be run as soon as a worker is free. */
+	public <T extends Task> T submit(final T task) {
+		((Task) task).executor = this;
+		pool.execute(task);
+		return task;
+	}
+
+	/** {@code Thread.ofVirtual().factory()}, if this Java has it. */
+	private static ThreadFactory virtualThreadFactory() {
+		try {
+			final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			final Object builder = ofVirtual.invoke(null);
+			final Method name = ofVirtual.getReturnType().getMethod("name",
+				String.class, long.class);
+			final Object named = name.invoke(builder, "Script Editor Queue-", 1L);
+			final Method factory = ofVirtual.getReturnType().getMethod("factory");
+			return (ThreadFactory) factory.invoke(named);
+		}
+		catch (final ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * One run on a {@link ScriptExecutor}.
+	 * <p>
+	 * {@link #finished()} is called exactly once, when the script and all
+	 * threads it started have ended in any way, or when the run is cancelled
+	 * while still queued.
+	 * </p>
+	 */
+	public static abstract class Task implements Runnable {
+
+		private static final int QUEUED = 0, RUNNING = 1, DONE = 2;
+
+		private final AtomicInteger state = new AtomicInteger(QUEUED);
+		private final String name;
+		private final long submitted = System.nanoTime();
+		private volatile long started, ended;
+		/** CPU time of the threads measured, and their CPU times when measuring began. */
+		private long cpuTime = -1;
+		private final Map<Thread, Long> measuring = new HashMap<>();
+		/** The threads of this run; {@code null} until it runs. */
+		private volatile ThreadGroup group;
+		private volatile Thread thread;
+		private ScriptExecutor executor;
+
+		protected Task(final String name) {
+			this.name = name;
+		}
+
+		/** The actual work, in a thread of the run's own group. */
+		protected abstract void execute();
+
+		/**
+		 * Called when {@link #execute()} throws, other than because the run was
+		 * stopped. Logs the failure by default.
+		 */
+		protected void failed(final Throwable t) {
+			(executor == null ? new StderrLogService() : executor.log).error(
+				name + " failed", t);
+		}
+
+		/** Called on the worker when the run leaves the queue, before it starts. */
+		protected void starting() {}
+
+		/** Called once, when the run has ended or was cancelled while queued. */
+		protected void finished() {}
+
+		@Override
+		public final void run() {
+			if (!state.compareAndSet(QUEUED, RUNNING)) return; // cancelled
+			starting();
+			final ThreadGroup threads = new ThreadGroup(name);
+			final Thread script = new Thread(threads, this::runScript, name);
+			script.setDaemon(false); // like the threads it starts, unless it says so
+			script.setPriority(Thread.NORM_PRIORITY);
+			started = System.nanoTime();
+			thread = script;
+			group = threads;
+			try {
+				script.start();
+				awaitThreads(threads);
+			}
+			catch (final InterruptedException e) {
+				// The executor is shutting down: take the script down with it
+				threads.interrupt();
+			}
+			finally {
+				synchronized (measuring) {
+					// e.g. threads stopped before they were done
+					for (final Thread t : new ArrayList<>(measuring.keySet())) {
+						stopMeasuring(t);
+					}
+				}
+				ended = System.nanoTime();
+				state.set(DONE);
+				finished();
+			}
+		}
+
+		private void runScript() {
+			startMeasuring(Thread.currentThread());
+			try {
+				execute();
+			}
+			catch (final ThreadDeath death) {
+				// stopped: nothing failed
+			}
+			catch (final Throwable t) {
+				failed(t);
+			}
+			finally {
+				stopMeasuring(Thread.currentThread());
+			}
+		}
+
+		/**
+		 * Adds the CPU time of a thread from now on to that of the run, until
+		 * {@link #stopMeasuring(Thread)} or the end of the run. The script's own
+		 * thread is measured already; this is for threads that run its work
+		 * elsewhere, e.g. a module on a thread pool.
+		 */
+		protected void startMeasuring(final Thread t) {
+			final long cpu = threadCpuTime(t);
+			if (cpu < 0) return;
+			synchronized (measuring) {
+				measuring.put(t, cpu);
+			}
+		}
+
+		/** Stops adding the CPU time of a thread to that of the run. */
+		protected void stopMeasuring(final Thread t) {
+			synchronized (measuring) {
+				final Long start = measuring.remove(t);
+				final long cpu = start == null ? -1 : threadCpuTime(t);
+				if (cpu >= 0) cpuTime = Math.max(0, cpuTime) + cpu - start;
+			}
+		}
+
+		/**
+		 * Waits until the threads of the group have died, except for daemon
+		 * threads, e.g. those of thread pools, and the stack slice selector of
+		 * ImageJ windows, which outlive a script by design.
+		 */
+		private static void awaitThreads(final ThreadGroup threads)
+			throws InterruptedException
+		{
+			for (;;) {
+				Thread pending = null;
+				for (final Thread t : threadsOf(threads)) {
+					if (t.isAlive() && !t.isDaemon() && !t.getName().equals("zSelector")) {
+						pending = t;
+						break;
+					}
+				}
+				if (pending == null) return;
+				pending.join();
+			}
+		}
+
+		private static Thread[] threadsOf(final ThreadGroup threads) {
+			Thread[] all = new Thread[threads.activeCount() + 8];
+			int count;
+			while ((count = threads.enumerate(all, true)) == all.length) {
+				all = new Thread[2 * all.length];
+			}
+			return Arrays.copyOf(all, count);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isQueued() {
+			return state.get() == QUEUED;
+		}
+
+		public boolean isRunning() {
+			return state.get() == RUNNING;
+		}
+
+		public boolean isDone() {
+			return state.get() == DONE;
+		}
+
+		/**
+		 * Cancels the run: removes it from the queue, or interrupts all of its
+		 * threads if it is running already.
+		 */
+		public void cancel() {
+			if (state.compareAndSet(QUEUED, DONE)) {
+				if (executor != null) executor.pool.remove(this);
+				ended = System.nanoTime();
+				finished();
+				return;
+			}
+			final ThreadGroup threads = group;
+			if (threads != null && isRunning()) threads.interrupt();
+		}
+
+		/**
+		 * Stops a run that did not react to {@link #cancel()}: interrupts and
+		 * then stops all of its threads, with {@link Thread#stop()}. This is
+		 * unsafe, and not supported by Java 20 and later, where the threads are
+		 * only interrupted.
+		 *
+		 * @return whether all threads were stopped
+		 */
+		public boolean stop() {
+			if (isQueued()) {
+				cancel();
+				return true;
+			}
+			final ThreadGroup threads = group;
+			if (threads == null || !isRunning()) return true;
+			boolean stopped = true;
+			for (final Thread t : threadsOf(threads)) {
+				stopped &= stop(t);
+			}
+			return stopped;
+		}
+
+		/**
+		 * Interrupts and then stops a thread, with {@link Thread#stop()}.
+		 *
+		 * @return whether it was stopped, i.e. whether this Java still stops
+		 *         threads
+		 */
+		@SuppressWarnings("deprecation")
+		protected static boolean stop(final Thread t) {
+			t.interrupt();
+			Thread.yield(); // give it a chance
+			try {
+				t.stop();
+				return true;
+			}
+			catch (final UnsupportedOperationException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * The thread that runs {@link #execute()}; {@code null} until the run has
+		 * started.
+		 */
+		protected Thread getThread() {
+			return thread;
+		}
+
+		/** The time spent waiting for a worker, in milliseconds. */
+		public long getQueueTime() {
+			final long start = started != 0 ? started : ended != 0 ? ended : System
+				.nanoTime();
+			return TimeUnit.NANOSECONDS.toMillis(start - submitted);
+		}
+
+		/** The wall-clock time of the run so far, in milliseconds. */
+		public long getWallTime() {
+			if (started == 0) return 0;
+			final long end = ended != 0 ? ended : System.nanoTime();
+			return TimeUnit.NANOSECONDS.toMillis(end - started);
+		}
+
+		/**
+		 * The CPU time of the run so far, in milliseconds: that of the script's
+		 * own thread, and of the threads measured with
+		 * {@link #startMeasuring(Thread)}; -1 if the Java runtime does not
+		 * measure it.
+		 */
+		public long getCpuTime() {
+			synchronized (measuring) {
+				long cpu = cpuTime;
+				for (final Map.Entry<Thread, Long> entry : measuring.entrySet()) {
+					final long now = threadCpuTime(entry.getKey());
+					if (now >= 0) cpu = Math.max(0, cpu) + now - entry.getValue();
+				}
+				return cpu < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(cpu);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+
+		/** The CPU time of a live thread, in nanoseconds, or -1. */
+		private static long threadCpuTime(final Thread t) {
+			final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			try {
+				return threads.isThreadCpuTimeSupported() ? threads.getThreadCpuTime(t
+					.getId()) : -1;
+			}
+			catch (final UnsupportedOperationException e) {
+				return -1;
+			}
+		}
+
+	}
+}
@@ -0,0 +1,402 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+import org.fife.ui.rsyntaxtextarea.modes.GroovyTokenMaker;
+import org.fife.ui.rsyntaxtextarea.modes.PythonTokenMaker;
+import org.scijava.script.ScriptLanguage;
+import org.scijava.ui.swing.script.highliters.ImageJMacroTokenMaker;
+
+/**
+ * Lightweight outline of a script: its classes, functions, macros and
+ * top-level variables.
+ * <p>
+ * Instead of a full parser, the outline is read off the token stream of the
+ * language's {@link TokenMaker}, so that strings and comments are already
+ * told apart from code. Python blocks are nested by indentation, Groovy and
+ * ImageJ macro blocks by braces. A parse only needs a snapshot of the text and
+ * its own token maker, so it can run on any thread.
+ * </p>
+ */
+class ScriptOutline {
+
+	private ScriptOutline() {
+		// prevent instantiation of utility class
+	}
+
+	enum Kind {
+		CLASS, FUNCTION, MACRO, VARIABLE
+	}
+
+	/** A named element of the outline, and the elements it contains. */
+	static class Element {
+
+		final Kind kind;
+		final String name;
+		/** The 1-based line, and the offset of the name. */
+		final int line, offset;
+		final List<Element> children = new ArrayList<>();
+
+		Element(final Kind kind, final String name, final int line, final int offset) {
+			this.kind = kind;
+			this.name = name;
+			this.line = line;
+			this.offset = offset;
+		}
+
+		/** Variables are minor elements. */
+		boolean isMajor() {
+			return kind != Kind.VARIABLE;
+		}
+
+		/** Whether the other element stands for the same code, wherever it moved. */
+		boolean sameAs(final Element other) {
+			return kind == other.kind && name.equals(other.name);
+		}
+
+		@Override
+		public String toString() {
+			return kind == Kind.FUNCTION ? name + "()" : name;
+		}
+	}
+
+	/** The languages with an outline. */
+	enum Dialect {
+
+		PYTHON, GROOVY, IJ_MACRO;
+
+		/** A new token maker, for the calling thread only. */
+		TokenMaker newTokenMaker() {
+			switch (this) {
+				case PYTHON:
+					return new PythonTokenMaker();
+				case GROOVY:
+					return new GroovyTokenMaker();
+				default:
+					return new ImageJMacroTokenMaker();
+			}
+		}
+
+		/** @return the dialect of the given language, or null if it has no outline. */
+		static Dialect forLanguage(final ScriptLanguage language) {
+			if (language == null) return null;
+			final List<String> extensions = language.getExtensions();
+			final String name = language.getLanguageName().toLowerCase(Locale.ROOT);
+			if (extensions.contains("py") || name.contains("python")) return PYTHON;
+			if (extensions.contains("groovy") || name.contains("groovy")) return GROOVY;
+			if (extensions.contains("ijm") || name.contains("macro") && name.contains("ij")) return IJ_MACRO;
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the outline of a script.
+	 *
+	 * @return the root element, named after nothing, holding the top-level
+	 *         elements
+	 */
+	static Element parse(final Dialect dialect, final char[] text) {
+		final Parser parser = dialect == Dialect.PYTHON ? new IndentParser() : new BraceParser(dialect);
+		final TokenMaker tokenMaker = dialect.newTokenMaker();
+		final Segment segment = new Segment();
+		final List<Token> tokens = new ArrayList<>();
+		int type = TokenTypes.NULL;
+		for (int start = 0, line = 1; start <= text.length; line++) {
+			int end = start;
+			while (end < text.length && text[end] != '\n') end++;
+			segment.array = text;
+			segment.offset = start;
+			segment.count = (end > start && text[end - 1] == '\r') ? end - start - 1 : end - start;
+			Token t = tokenMaker.getTokenList(segment, type, start);
+			// Tokens are reused by the next line: use them right away
+			tokens.clear();
+			int indent = -1;
+			for (Token last = t; t != null; last = t, t = t.getNextToken()) {
+				if (t.getNextToken() == null) type = t.getType();
+				if (!t.isPaintable()) continue;
+				if (t.isComment()) continue;
+				if (t.isWhitespace()) {
+					if (indent < 0 && last == t) indent = width(t);
+					continue;
+				}
+				tokens.add(t);
+			}
+			if (!tokens.isEmpty()) parser.line(tokens, line, Math.max(0, indent));
+			start = end + 1;
+		}
+		return parser.root;
+	}
+
+	/** The width of leading white space, with tabs to the next multiple of 8. */
+	private static int width(final Token t) {
+		int width = 0;
+		final char[] chars = t.getTextArray();
+		for (int i = t.getTextOffset(); i < t.getTextOffset() + t.length(); i++) {
+			width = chars[i] == '\t' ? (width / 8 + 1) * 8 : width + 1;
+		}
+		return width;
+	}
+
+	private static boolean isName(final Token t) {
+		return t.getType() == TokenTypes.IDENTIFIER;
+	}
+
+	private abstract static class Parser {
+
+		final Element root = new Element(null, "", 0, 0);
+		/** Variable names seen per element, to list each only once. */
+		private final Map<Element, Set<String>> seen = new HashMap<>();
+
+		/**
+		 * Parses the code tokens of one line.
+		 *
+		 * @param indent the width of the line's leading white space
+		 */
+		abstract void line(List<Token> tokens, int line, int indent);
+
+		void addVariable(final Element parent, final Token name, final int line) {
+			final String text = name.getLexeme();
+			if (seen.computeIfAbsent(parent, p -> new HashSet<>()).add(text)) {
+				parent.children.add(new Element(Kind.VARIABLE, text, line, name.getOffset()));
+			}
+		}
+	}
+
+	/** Python: blocks nest by indentation. */
+	private static class IndentParser extends Parser {
+
+		private final Deque<Element> stack = new ArrayDeque<>();
+		private final Deque<Integer> indents = new ArrayDeque<>();
+		/** Open brackets, inside which lines continue a statement. */
+		private int brackets;
+
+		@Override
+		void line(final List<Token> tokens, final int line, final int indent) {
+			final boolean continued = brackets > 0;
+			for (final Token t : tokens) {
+				if (t.getType() != TokenTypes.SEPARATOR) continue;
+				if (t.isSingleChar('(') || t.isSingleChar('[') || t.isSingleChar('{')) brackets++;
+				else if (brackets > 0 && (t.isSingleChar(')') || t.isSingleChar(']') || t.isSingleChar('}'))) brackets--;
+			}
+			if (continued) return;
+			final Token first = tokens.get(0);
+			if (first.getType() == TokenTypes.LITERAL_CHAR || first.getType() == TokenTypes.LITERAL_STRING_DOUBLE_QUOTE) {
+				return; // docstrings, and lines continuing a string
+			}
+			while (!indents.isEmpty() && indents.peek() >= indent) {
+				indents.pop();
+				stack.pop();
+			}
+			final Element parent = stack.isEmpty() ? root : stack.peek();
+			int i = 0;
+			if (first.is(first.getType(), "async") && tokens.size() > 1) i++; // a keyword only since Python 3.7
+			final Token keyword = tokens.get(i);
+			if (i + 1 < tokens.size() && isName(tokens.get(i + 1))) {
+				Kind kind = null;
+				if (keyword.is(TokenTypes.RESERVED_WORD, "def")) kind = Kind.FUNCTION;
+				else if (keyword.is(TokenTypes.RESERVED_WORD, "class")) kind = Kind.CLASS;
+				if (kind != null) {
+					final Token name = tokens.get(i + 1);
+					final Element element = new Element(kind, name.getLexeme(), line, name.getOffset());
+					parent.children.add(element);
+					stack.push(element);
+					indents.push(indent);
+					return;
+				}
+			}
+			// NAME = ..., but not NAME == ...
+			if (tokens.size() > 1 && isName(first) && tokens.get(1).isSingleChar('=') &&
+				(parent == root || parent.kind == Kind.CLASS))
+			{
+				addVariable(parent, first, line);
+			}
+		}
+	}
+
+	/** Groovy and ImageJ macro: blocks nest by braces. */
+	private static class BraceParser extends Parser {
+
+		private final Dialect dialect;
+		/** The open elements, and the brace depth inside each. */
+		private final Deque<Element> stack = new ArrayDeque<>();
+		private final Deque<Integer> depths = new ArrayDeque<>();
+		private int depth;
+		/** A declaration waiting for its opening brace, if any. */
+		private Element pending;
+		private Element pendingParent;
+		/** Parenthesis depth of the pending declaration's parameters. */
+		private int parens;
+		/** Whether a line ended after the pending function's parameters. */
+		private boolean parametersEnded;
+
+		BraceParser(final Dialect dialect) {
+			this.dialect = dialect;
+		}
+
+		private Element parent() {
+			return stack.isEmpty() ? root : stack.peek();
+		}
+
+		/** Whether declarations may start here: at the top level or in a class body. */
+		private boolean inBody() {
+			final Element parent = parent();
+			return (parent == root || parent.kind == Kind.CLASS) &&
+				depth == (depths.isEmpty() ? 0 : depths.peek());
+		}
+
+		@Override
+		void line(final List<Token> tokens, final int line, final int indent) {
+			// A function's brace may only follow on the next line
+			if (parametersEnded && !tokens.get(0).isSingleChar('{') && !tokens.get(0).is(TokenTypes.RESERVED_WORD, "throws")) {
+				pending = null;
+			}
+			parametersEnded = false;
+			if (pending == null && inBody()) variable(tokens, line);
+			final int n = tokens.size();
+			for (int i = 0; i < n; i++) {
+				final Token t = tokens.get(i);
+				if (t.getType() == TokenTypes.SEPARATOR) {
+					if (t.isSingleChar('{')) {
+						depth++;
+						if (pending != null && parens == 0) {
+							pendingParent.children.add(pending);
+							stack.push(pending);
+							depths.push(depth);
+							pending = null;
+						}
+					}
+					else if (t.isSingleChar('}')) {
+						if (!depths.isEmpty() && depths.peek() == depth) {
+							depths.pop();
+							stack.pop();
+						}
+						depth = Math.max(0, depth - 1);
+						pending = null;
+					}
+					else if (pending != null && t.isSingleChar('(')) parens++;
+					else if (pending != null && t.isSingleChar(')')) parens--;
+					continue;
+				}
+				if (pending != null) {
+					// Parameters, or whatever may come between them and the brace
+					if (parens > 0 || t.getOffset() <= pending.offset || isType(t) || t.is(TokenTypes.RESERVED_WORD, "throws") ||
+						t.is(TokenTypes.RESERVED_WORD, "extends") || t.is(TokenTypes.RESERVED_WORD, "implements") ||
+						t.isSingleChar(',') || t.isSingleChar('.') || t.isSingleChar('<') || t.isSingleChar('>'))
+					{
+						continue;
+					}
+					pending = null;
+				}
+				if (inBody()) declaration(tokens, i, line);
+			}
+			parametersEnded = pending != null && pending.kind == Kind.FUNCTION && parens == 0;
+		}
+
+		/** Names and types; the token makers tell some types apart as functions. */
+		private static boolean isType(final Token t) {
+			return isName(t) || t.getType() == TokenTypes.DATA_TYPE || t.getType() == TokenTypes.FUNCTION;
+		}
+
+		private void declaration(final List<Token> tokens, final int i, final int line) {
+			final Token t = tokens.get(i);
+			final Token next = i + 1 < tokens.size() ? tokens.get(i + 1) : null;
+			if (next == null) return;
+			if (dialect == Dialect.IJ_MACRO) {
+				if (t.is(TokenTypes.RESERVED_WORD, "macro") && next.getType() == TokenTypes.LITERAL_STRING_DOUBLE_QUOTE) {
+					final String name = next.getLexeme();
+					expect(new Element(Kind.MACRO, name.substring(1, Math.max(1, name.length() - 1)), line, next.getOffset()));
+				}
+				else if (t.is(TokenTypes.RESERVED_WORD, "function") && isName(next)) {
+					expect(new Element(Kind.FUNCTION, next.getLexeme(), line, next.getOffset()));
+				}
+				return;
+			}
+			if (t.getType() == TokenTypes.RESERVED_WORD && isName(next) &&
+				(t.is(TokenTypes.RESERVED_WORD, "class") || t.is(TokenTypes.RESERVED_WORD, "interface") ||
+					t.is(TokenTypes.RESERVED_WORD, "enum") || t.is(TokenTypes.RESERVED_WORD, "trait")))
+			{
+				expect(new Element(Kind.CLASS, next.getLexeme(), line, next.getOffset()));
+			}
+			else if (isName(next) && i + 2 < tokens.size() && tokens.get(i + 2).isSingleChar('(') &&
+				(t.is(TokenTypes.RESERVED_WORD, "def") || isType(t) || t.isSingleChar('>') || t.isSingleChar(']')))
+			{
+				// [modifiers] type name(...) {
+				expect(new Element(Kind.FUNCTION, next.getLexeme(), line, next.getOffset()));
+			}
+		}
+
+		private void expect(final Element element) {
+			pending = element;
+			pendingParent = parent();
+			parens = 0;
+		}
+
+		private static boolean isModifier(final Token t) {
+			return t.is(TokenTypes.RESERVED_WORD, "static") || t.is(TokenTypes.RESERVED_WORD, "final") ||
+				t.is(TokenTypes.RESERVED_WORD, "private") || t.is(TokenTypes.RESERVED_WORD, "protected") ||
+				t.is(TokenTypes.RESERVED_WORD, "public");
+		}
+
+		/** [def|type] name = ..., at the start of a line. */
+		private void variable(final List<Token> tokens, final int line) {
+			if (dialect == Dialect.IJ_MACRO) {
+				if (tokens.size() > 1 && tokens.get(0).is(TokenTypes.RESERVED_WORD, "var") && isName(tokens.get(1))) {
+					addVariable(parent(), tokens.get(1), line);
+				}
+				return;
+			}
+			int i = 0;
+			while (i < tokens.size() && isModifier(tokens.get(i))) i++;
+			if (i + 2 < tokens.size() && (tokens.get(i).is(TokenTypes.RESERVED_WORD, "def") || isType(tokens.get(i))) &&
+				isName(tokens.get(i + 1)))
+			{
+				i++;
+			}
+			if (i + 1 < tokens.size() && isName(tokens.get(i)) && tokens.get(i + 1).isSingleChar('=')) {
+				addVariable(parent(), tokens.get(i), line);
+			}
+		}
+	}
+}
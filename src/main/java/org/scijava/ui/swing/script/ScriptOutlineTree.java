@@ -0,0 +1,304 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
+
+import org.fife.rsta.ac.AbstractSourceTree;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.scijava.ui.swing.script.ScriptOutline.Dialect;
+import org.scijava.ui.swing.script.ScriptOutline.Element;
+
+/**
+ * {@link AbstractSourceTree} showing the {@link ScriptOutline} of a script.
+ * <p>
+ * The outline is parsed on a background thread once edits have paused for
+ * {@link #DELAY} milliseconds, so that typing never waits for it, however long
+ * the script. Each result is merged into the tree: elements that are still
+ * there keep their nodes (and thus whether they are expanded or selected), and
+ * only the children that changed are removed and inserted.
+ * </p>
+ */
+class ScriptOutlineTree extends AbstractSourceTree {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Milliseconds without edits before the outline is parsed again. */
+	static final int DELAY = 500;
+
+	private static final ThreadPoolExecutor parser = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), r -> {
+				final Thread thread = new Thread(r, "Script outline parser");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		parser.allowCoreThreadTimeOut(true);
+	}
+
+	private final Dialect dialect;
+	private final DefaultTreeModel model;
+	private final Listener listener = new Listener();
+	private final Timer timer = new Timer(DELAY, e -> parse());
+	/** Counts edits, so that outdated outlines are dropped. */
+	private long edits;
+	/** The last outline parsed, if any. */
+	private Element outline;
+
+	ScriptOutlineTree(final Dialect dialect, final boolean sorted) {
+		this.dialect = dialect;
+		model = new DefaultTreeModel(new DefaultMutableTreeNode());
+		setModel(model);
+		setRootVisible(false);
+		setShowsRootHandles(true);
+		setSorted(sorted);
+		timer.setRepeats(false);
+		addMouseListener(listener);
+	}
+
+	@Override
+	public void listenTo(final RSyntaxTextArea textArea) {
+		if (this.textArea != null)
+			uninstall();
+		this.textArea = textArea;
+		textArea.getDocument().addDocumentListener(listener);
+		textArea.addPropertyChangeListener("document", listener);
+		parse();
+	}
+
+	@Override
+	public void uninstall() {
+		timer.stop();
+		edits++;
+		if (textArea == null)
+			return;
+		textArea.getDocument().removeDocumentListener(listener);
+		textArea.removePropertyChangeListener("document", listener);
+		textArea = null;
+	}
+
+	@Override
+	public void expandInitialNodes() {
+		final DefaultMutableTreeNode root = (DefaultMutableTreeNode) model.getRoot();
+		for (int i = 0; i < root.getChildCount(); i++) {
+			expandPath(new TreePath(((DefaultMutableTreeNode) root.getChildAt(i)).getPath()));
+		}
+	}
+
+	@Override
+	public boolean gotoSelectedElement() {
+		final TreePath path = getLeadSelectionPath();
+		if (path == null || textArea == null)
+			return false;
+		final Object element = ((DefaultMutableTreeNode) path.getLastPathComponent()).getUserObject();
+		if (!(element instanceof Element))
+			return false;
+		textArea.setCaretPosition(Math.min(((Element) element).offset, textArea.getDocument().getLength()));
+		textArea.requestFocusInWindow();
+		return true;
+	}
+
+	/** Shows the last outline again, e.g. after minor elements were hidden. */
+	@Override
+	public void refresh() {
+		if (outline != null)
+			merge((DefaultMutableTreeNode) model.getRoot(), display(outline));
+	}
+
+	@Override
+	public void setSorted(final boolean sorted) {
+		if (sorted != isSorted()) {
+			super.setSorted(sorted);
+			refresh();
+		}
+	}
+
+	/** Parses a snapshot of the text in the background. */
+	private void parse() {
+		if (textArea == null)
+			return;
+		final Document document = textArea.getDocument();
+		final long version = edits;
+		parser.execute(() -> {
+			final char[][] text = new char[1][];
+			document.render(() -> {
+				final Segment segment = new Segment();
+				try {
+					document.getText(0, document.getLength(), segment);
+				} catch (final BadLocationException e) {
+					// Cannot happen: the whole document is there
+					throw new IllegalStateException(e);
+				}
+				text[0] = Arrays.copyOfRange(segment.array, segment.offset, segment.offset + segment.count);
+			});
+			final Element parsed = ScriptOutline.parse(dialect, text[0]);
+			SwingUtilities.invokeLater(() -> {
+				if (version == edits)
+					update(parsed);
+			});
+		});
+	}
+
+	private void update(final Element parsed) {
+		final boolean first = outline == null;
+		outline = parsed;
+		merge((DefaultMutableTreeNode) model.getRoot(), display(parsed));
+		if (first)
+			expandInitialNodes();
+	}
+
+	/** The children of an element as shown: maybe only major ones, maybe sorted. */
+	private List<Element> display(final Element element) {
+		final List<Element> children = new ArrayList<>(element.children.size());
+		for (final Element child : element.children) {
+			if (child.isMajor() || !getShowMajorElementsOnly())
+				children.add(child);
+		}
+		if (isSorted())
+			children.sort((e1, e2) -> e1.name.compareToIgnoreCase(e2.name));
+		return children;
+	}
+
+	/**
+	 * Updates the children of a node to the given elements. Children are kept
+	 * from the start and from the end as long as they stand for the same
+	 * elements; those in between are replaced.
+	 */
+	private void merge(final DefaultMutableTreeNode node, final List<Element> elements) {
+		final int oldCount = node.getChildCount();
+		final int newCount = elements.size();
+		int prefix = 0;
+		while (prefix < oldCount && prefix < newCount && elementAt(node, prefix).sameAs(elements.get(prefix)))
+			prefix++;
+		int suffix = 0;
+		while (suffix < oldCount - prefix && suffix < newCount - prefix
+				&& elementAt(node, oldCount - 1 - suffix).sameAs(elements.get(newCount - 1 - suffix)))
+			suffix++;
+		final int removed = oldCount - prefix - suffix;
+		if (removed > 0) {
+			final int[] indices = new int[removed];
+			final Object[] nodes = new Object[removed];
+			for (int i = 0; i < removed; i++) {
+				indices[i] = prefix + i;
+				nodes[i] = node.getChildAt(prefix + i);
+			}
+			for (int i = removed - 1; i >= 0; i--)
+				node.remove(prefix + i);
+			model.nodesWereRemoved(node, indices, nodes);
+		}
+		final int inserted = newCount - prefix - suffix;
+		if (inserted > 0) {
+			final int[] indices = new int[inserted];
+			for (int i = 0; i < inserted; i++) {
+				node.insert(create(elements.get(prefix + i)), prefix + i);
+				indices[i] = prefix + i;
+			}
+			model.nodesWereInserted(node, indices);
+		}
+		// The kept children may have moved, and their own children changed
+		for (int i = 0; i < newCount; i++) {
+			if (i == prefix)
+				i += inserted;
+			if (i >= newCount)
+				break;
+			final DefaultMutableTreeNode child = (DefaultMutableTreeNode) node.getChildAt(i);
+			child.setUserObject(elements.get(i));
+			merge(child, display(elements.get(i)));
+		}
+	}
+
+	private static Element elementAt(final DefaultMutableTreeNode node, final int index) {
+		return (Element) ((DefaultMutableTreeNode) node.getChildAt(index)).getUserObject();
+	}
+
+	private DefaultMutableTreeNode create(final Element element) {
+		final DefaultMutableTreeNode node = new DefaultMutableTreeNode(element);
+		for (final Element child : display(element))
+			node.add(create(child));
+		return node;
+	}
+
+	private class Listener extends MouseAdapter implements DocumentListener, PropertyChangeListener {
+
+		@Override
+		public void insertUpdate(final DocumentEvent e) {
+			edited();
+		}
+
+		@Override
+		public void removeUpdate(final DocumentEvent e) {
+			edited();
+		}
+
+		@Override
+		public void changedUpdate(final DocumentEvent e) {
+			// attributes only
+		}
+
+		private void edited() {
+			edits++;
+			timer.restart();
+		}
+
+		@Override
+		public void propertyChange(final PropertyChangeEvent e) {
+			((Document) e.getOldValue()).removeDocumentListener(this);
+			((Document) e.getNewValue()).addDocumentListener(this);
+			edited();
+		}
+
+		@Override
+		public void mouseClicked(final MouseEvent e) {
+			if (getGotoSelectedElementOnClick() && getPathForLocation(e.getX(), e.getY()) != null)
+				gotoSelectedElement();
+		}
+	}
+}
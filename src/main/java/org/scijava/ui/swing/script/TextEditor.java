@@ -34,6 +34,7 @@ import java.awt.Component;
 import java.awt.Cursor;
 import java.awt.Desktop;
 import java.awt.Dimension;
+import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.GridBagConstraints;
@@ -70,8 +71,6 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.io.PrintWriter;
 import java.io.RandomAccessFile;
 import java.io.Reader;
@@ -99,7 +98,10 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipException;
@@ -136,8 +138,11 @@ import org.scijava.event.ContextDisposingEvent;
 import org.scijava.event.EventHandler;
 import org.scijava.io.IOService;
 import org.scijava.log.LogService;
+import org.scijava.module.Module;
 import org.scijava.module.ModuleException;
 import org.scijava.module.ModuleService;
+import org.scijava.module.event.ModuleExecutedEvent;
+import org.scijava.module.event.ModuleExecutingEvent;
 import org.scijava.options.OptionsService;
 import org.scijava.platform.PlatformService;
 import org.scijava.plugin.Parameter;
@@ -154,6 +159,7 @@ import org.scijava.thread.ThreadService;
 import org.scijava.ui.CloseConfirmable;
 import org.scijava.ui.UIService;
 import org.scijava.ui.swing.script.autocompletion.ClassUtil;
+import org.scijava.ui.swing.script.autocompletion.DocumentationLookup;
 import org.scijava.ui.swing.script.commands.ChooseFontSize;
 import org.scijava.ui.swing.script.commands.ChooseTabSize;
 import org.scijava.ui.swing.script.commands.GitGrep;
@@ -280,11 +286,14 @@ public class TextEditor extends JFrame implements ActionListener,
 	
 	private EditableScriptInfo scriptInfo;
 	private ScriptModule module;
+	/** The modules being run with profiling on, and where their profiles go. */
+	private final Map<Module, ProfiledRun> profiledRuns = new ConcurrentHashMap<>();
 	private boolean incremental = false;
 	private DragSource dragSource;
 	private boolean layoutLoading = true;
 	private OutlineTreePanel sourceTreePanel;
 	protected final CommandPalette cmdPalette;
+	private final FileChangeWatcher fileWatcher;
 
 	public static final ArrayList<TextEditor> instances = new ArrayList<>();
 	public static final ArrayList<Context> contexts = new ArrayList<>();
@@ -295,6 +304,7 @@ public class TextEditor extends JFrame implements ActionListener,
 		instances.add(this);
 		contexts.add(context);
 		context.inject(this);
+		fileWatcher = new FileChangeWatcher(log, this::changedOutside);
 		initializeTokenMakers();
 
 		// NB: All panes must be initialized before menus are assembled!
@@ -481,7 +491,7 @@ public class TextEditor extends JFrame implements ActionListener,
 
 		toolsMenu = new JMenu("Tools");
 		toolsMenu.setMnemonic(KeyEvent.VK_O);
-		cmdPalette = new CommandPalette(this);
+		cmdPalette = new CommandPalette(this, prefService);
 		cmdPalette.install(toolsMenu);
 	
 		GuiUtils.addMenubarSeparator(toolsMenu, "Imports:");
@@ -741,6 +751,7 @@ public class TextEditor extends JFrame implements ActionListener,
 				}
 				dragSource = null;
 				getTab().destroy();
+				fileWatcher.close();
 				cmdPalette.dispose();
 				dispose();
 			}
@@ -805,6 +816,7 @@ public class TextEditor extends JFrame implements ActionListener,
 		setFontSize(getEditorPane().getFontSize());
 		// Ensure menu commands are up-to-date
 		updateUI(true);
+		cmdPalette.startIndexing();
 		// Store locations of splitpanes
 		panePositions = new int[]{body.getDividerLocation(), getTab().getDividerLocation()};
 		editorPane.requestFocus();
@@ -1155,12 +1167,18 @@ public class TextEditor extends JFrame implements ActionListener,
 	public void checkForOutsideChanges() {
 		final EditorPane editorPane = getEditorPane();
 		if (editorPane.wasChangedOutside()) {
-			reload(editorPane.getFile().getName() +
-				"\nwas changed outside of the editor.");
+			editorPane.outsideChangeSeen();
+			if (!reload(editorPane.getFile().getName() +
+				"\nwas changed outside of the editor.")) editorPane.outsideChangeKept();
 		}
 
 	}
 
+	/** Asks right away when the file of the tab in front was changed outside. */
+	private void changedOutside(final EditorPane editorPane) {
+		if (isFocused() && editorPane == getEditorPane()) checkForOutsideChanges();
+	}
+
 	/**
 	 * Adds a script template path that will be scanned by future TextEditor
 	 * instances.
@@ -1178,6 +1196,26 @@ public class TextEditor extends JFrame implements ActionListener,
 		if (isDisplayable()) dispose();
 	}
 
+	/**
+	 * Starts measuring a module on its own thread, right before it runs: for
+	 * the CPU time of the run, and its profile if asked for.
+	 */
+	@EventHandler
+	private void onEvent(final ModuleExecutingEvent e) {
+		final Executer executer = executerOf(Thread.currentThread());
+		if (executer != null) executer.startMeasuring(Thread.currentThread());
+		final ProfiledRun run = profiledRuns.get(e.getModule());
+		if (run != null) run.probe = RunProfile.start(run.script);
+	}
+
+	@EventHandler
+	private void onEvent(final ModuleExecutedEvent e) {
+		final Executer executer = executerOf(Thread.currentThread());
+		if (executer != null) executer.stopMeasuring(Thread.currentThread());
+		final ProfiledRun run = profiledRuns.remove(e.getModule());
+		if (run != null && run.probe != null) run.tab.addProfile(run.probe.stop());
+	}
+
 	/**
 	 * Loads the Script Editor layout from persisted storage.
 	 * @see #saveWindowSizeToPrefs()
@@ -1565,7 +1603,7 @@ public class TextEditor extends JFrame implements ActionListener,
 			if (file != null) new Thread(() -> open(file)).start();
 			return;
 		}
-		else if (source == save) save();
+		else if (source == save) saveInBackground();
 		else if (source == saveas) saveAs();
 		else if (source == makeJar) makeJar(false);
 		else if (source == makeJarWithSource) makeJar(true);
@@ -1994,16 +2032,13 @@ public class TextEditor extends JFrame implements ActionListener,
 			JOptionPane.DEFAULT_OPTION, JOptionPane.WARNING_MESSAGE, null, options,
 			options[0])) {
 			case 0:
-				try {
-					editorPane.open(file);
-					return true;
-				}
-				catch (final IOException e) {
+				editorPane.reloadInBackground().whenComplete((reloaded, e) -> {
+					if (e == null) return;
+					log.debug(e);
 					error("Could not reload " + file.getPath());
-				}
-
-				updateLanguageMenu(editorPane.getCurrentLanguage());
-				break;
+					updateLanguageMenu(editorPane.getCurrentLanguage());
+				});
+				return true;
 		}
 		return false;
 	}
@@ -2104,6 +2139,7 @@ public class TextEditor extends JFrame implements ActionListener,
 						0, 0));
 				}
 				setEditorPaneFileName(tab.editorPane.getFile());
+				fileWatcher.watch(tab.editorPane);
 				try {
 					updateTabAndFontSize(true);
 					if (font_size > 0) setFontSize(font_size);
@@ -2163,6 +2199,7 @@ public class TextEditor extends JFrame implements ActionListener,
 		if (!write(file))
 			return false;
 		setEditorPaneFileName(file);
+		fileWatcher.watch(getEditorPane());
 		openRecent.add(path);
 		return true;
 	}
@@ -2181,6 +2218,26 @@ public class TextEditor extends JFrame implements ActionListener,
 		return true;
 	}
 
+	/**
+	 * Saves the current file like {@link #save()}, but without waiting until it
+	 * is written: the editor stays responsive while saving large files.
+	 */
+	public void saveInBackground() {
+		final EditorPane editorPane = getEditorPane();
+		final File file = editorPane.getFile();
+		if (file == null) {
+			saveAs();
+			return;
+		}
+		editorPane.writeInBackground(file).whenComplete((written, e) -> {
+			if (e != null) {
+				log.error(e);
+				error("Could not save " + file.getName() + ":\n" + e.getMessage());
+			}
+			setTitle();
+		});
+	}
+
 	public boolean write(final File file) {
 		try {
 			getEditorPane().write(file);
@@ -2188,7 +2245,7 @@ public class TextEditor extends JFrame implements ActionListener,
 		}
 		catch (final IOException e) {
 			log.error(e);
-			error("Could not save " + file.getName());
+			error("Could not save " + file.getName() + ":\n" + e.getMessage());
 			return false;
 		}
 	}
@@ -2452,7 +2509,7 @@ public class TextEditor extends JFrame implements ActionListener,
 		final String fileName = editorPane.getFileName();
 		final String title =
 			(fileChanged ? "*" : "") + fileName +
-				(executingTasks.isEmpty() ? "" : " (Running)");
+				(executingTasks.isEmpty() ? "" : " (Running" + queued() + ")");
 		SwingUtilities.invokeLater(() -> {
 			setTitle(title); // to the main window
 			// Update all tabs: could have changed
@@ -2462,6 +2519,12 @@ public class TextEditor extends JFrame implements ActionListener,
 		});
 	}
 
+	/** How many runs of all editors wait for others to end, if any. */
+	private static String queued() {
+		final int queued = ScriptExecutor.getShared().getQueuedCount();
+		return queued == 0 ? "" : ", " + queued + " queued";
+	}
+
 	@Override
 	public synchronized void setTitle(final String title) {
 		super.setTitle(title);
@@ -2472,13 +2535,48 @@ public class TextEditor extends JFrame implements ActionListener,
 		}
 	}
 
-	private final ArrayList<Executer> executingTasks = new ArrayList<>();
+	private final List<Executer> executingTasks = new CopyOnWriteArrayList<>();
 
 	/**
-	 * Generic Thread that keeps a starting time stamp, sets the priority to
-	 * normal and starts itself.
+	 * The threads of the {@link ThreadService} that run tasks submitted by the
+	 * given thread, e.g. the module of a script that the thread runs.
 	 */
-	public abstract class Executer extends ThreadGroup {
+	private List<Thread> moduleThreads(final Thread parent) {
+		final List<Thread> threads = new ArrayList<>();
+		for (final Thread t : Thread.getAllStackTraces().keySet()) {
+			if (threadService.getParent(t) == parent) threads.add(t);
+		}
+		return threads;
+	}
+
+	/** A profiled run of a module, until it has run. */
+	private static class ProfiledRun {
+
+		private final TextEditorTab tab;
+		private final String script;
+		private volatile RunProfile.Probe probe;
+
+		ProfiledRun(final TextEditorTab tab, final String script) {
+			this.tab = tab;
+			this.script = script;
+		}
+	}
+
+	/** The run that the given thread works for, through the thread service. */
+	private Executer executerOf(final Thread thread) {
+		final Thread parent = threadService.getParent(thread);
+		if (parent == null) return null;
+		for (final Executer executer : executingTasks) {
+			if (executer.getThread() == parent) return executer;
+		}
+		return null;
+	}
+
+	/**
+	 * One run of a script, queued on the shared {@link ScriptExecutor} as soon
+	 * as it is created.
+	 */
+	public abstract class Executer extends ScriptExecutor.Task {
 
 		JTextAreaWriter output, errors;
 
@@ -2491,99 +2589,59 @@ public class TextEditor extends JFrame implements ActionListener,
 			setTitle();
 			// Enable kill menu
 			kill.setEnabled(true);
-			// Fork a task, as a part of this ThreadGroup
-			new Thread(this, getName()) {
+			ScriptExecutor.getShared().submit(this);
+		}
 
-				{
-					setPriority(Thread.NORM_PRIORITY);
-					start();
-				}
+		@Override
+		protected void failed(final Throwable t) {
+			handleException(t);
+		}
 
-				@Override
-				public void run() {
-					try {
-						execute();
-						// Wait until any children threads die:
-						int activeCount = getThreadGroup().activeCount();
-						while (activeCount > 1) {
-							if (isInterrupted()) break;
-							try {
-								Thread.sleep(500);
-								final List<Thread> ts = getAllThreads();
-								activeCount = ts.size();
-								if (activeCount <= 1) break;
-								log.debug("Waiting for " + ts.size() + " threads to die");
-								int count_zSelector = 0;
-								for (final Thread t : ts) {
-									if (t.getName().equals("zSelector")) {
-										count_zSelector++;
-									}
-									log.debug("THREAD: " + t.getName());
-								}
-								if (activeCount == count_zSelector + 1) {
-									// Do not wait on the stack slice selector thread.
-									break;
-								}
-							}
-							catch (final InterruptedException ie) {
-								/* ignore */
-							}
-						}
-					}
-					catch (final Throwable t) {
-						handleException(t);
-					}
-					finally {
-						executingTasks.remove(Executer.this);
-						try {
-							if (null != output) output.shutdown();
-							if (null != errors) errors.shutdown();
-						}
-						catch (final Exception e) {
-							handleException(e);
-						}
-						// Leave kill menu item enabled if other tasks are running
-						kill.setEnabled(executingTasks.size() > 0);
-						setTitle();
-					}
-				}
-			};
-		}
-
-		/** The method to extend, that will do the actual work. */
-		abstract void execute();
-
-		/** Fetch a list of all threads from all thread subgroups, recursively. */
-		List<Thread> getAllThreads() {
-			final ArrayList<Thread> threads = new ArrayList<>();
-			// From all subgroups:
-			final ThreadGroup[] tgs = new ThreadGroup[activeGroupCount() * 2 + 100];
-			this.enumerate(tgs, true);
-			for (final ThreadGroup tg : tgs) {
-				if (null == tg) continue;
-				final Thread[] ts = new Thread[tg.activeCount() * 2 + 100];
-				tg.enumerate(ts);
-				for (final Thread t : ts) {
-					if (null == t) continue;
-					threads.add(t);
-				}
+		@Override
+		protected void starting() {
+			setTitle(); // one fewer queued
+		}
+
+		@Override
+		protected void finished() {
+			executingTasks.remove(this);
+			try {
+				if (null != output) output.shutdown();
+				if (null != errors) errors.shutdown();
 			}
-			// And from this group:
-			final Thread[] ts = new Thread[activeCount() * 2 + 100];
-			this.enumerate(ts);
-			for (final Thread t : ts) {
-				if (null == t) continue;
-				threads.add(t);
+			catch (final Exception e) {
+				handleException(e);
 			}
-			return threads;
+			// Leave kill menu item enabled if other tasks are running
+			kill.setEnabled(executingTasks.size() > 0);
+			setTitle();
+		}
+
+		/** Asks the run to stop, or removes it from the queue. */
+		void interrupt() {
+			cancel();
+		}
+
+		/** Also stops the thread service's threads running this run's module. */
+		@Override
+		public boolean stop() {
+			final Thread thread = getThread();
+			boolean stopped = true;
+			if (thread != null && isRunning()) {
+				for (final Thread t : moduleThreads(thread)) {
+					stopped &= ScriptExecutor.Task.stop(t);
+				}
+			}
+			return super.stop() && stopped;
 		}
 
 		/**
-		 * Totally destroy/stop all threads in this and all recursive thread
-		 * subgroups. Will remove itself from the executingTasks list.
+		 * Stops the run forcibly, without printing any remaining output. Will
+		 * remove itself from the executingTasks list, if it could be stopped.
+		 *
+		 * @return whether the run was stopped
 		 */
-		@SuppressWarnings("deprecation")
-		void obliterate() {
+		boolean obliterate() {
 			try {
 				// Stop printing to the screen
 				if (null != output) output.shutdownNow();
@@ -2592,25 +2650,29 @@ public class TextEditor extends JFrame implements ActionListener,
 			catch (final Exception e) {
 				log.error(e);
 			}
-			for (final Thread thread : getAllThreads()) {
-				try {
-					thread.interrupt();
-					Thread.yield(); // give it a chance
-					thread.stop();
-				}
-				catch (final Throwable t) {
-					log.error(t);
-				}
+			if (!stop()) {
+				// Still running: it stays listed until it ends
+				log.warn(getName() + " could not be stopped: this Java only " +
+					"interrupts it, and it keeps running until it reacts.");
+				return false;
 			}
 			executingTasks.remove(this);
+			return true;
 		}
 
 		@Override
 		public String toString() {
-			return getName();
+			if (isQueued()) return getName() + " (queued for " + seconds(getQueueTime()) + ")";
+			final long cpu = getCpuTime();
+			return getName() + " (running for " + seconds(getWallTime()) +
+				(cpu < 0 ? "" : ", " + seconds(cpu) + " CPU") + ")";
 		}
 	}
 
+	private static String seconds(final long millis) {
+		return String.format("%.1f s", millis / 1000.0);
+	}
+
 	/** Returns a list of currently executing tasks */
 	public List<Executer> getExecutingTasks() {
 		return executingTasks;
@@ -2693,16 +2755,16 @@ public class TextEditor extends JFrame implements ActionListener,
 	}
 
 	/** Invoke in the context of the event dispatch thread. */
-	private void execute(final boolean selectionOnly) throws IOException {
+	private void execute(final boolean selectionOnly) {
 		final String text;
 		final TextEditorTab tab = getTab();
 		if (selectionOnly) {
 			final String selected = tab.getEditorPane().getSelectedText();
 			if (selected == null) {
 				error("Selection required!");
-				text = null;
+				return;
 			}
-			else text = selected + "\n"; // Ensure code blocks are terminated
+			text = selected + "\n"; // Ensure code blocks are terminated
 			getEditorPane().getErrorHighlighter().setSelectedCodeExecution(true);
 		}
 		else {
@@ -2718,27 +2780,22 @@ public class TextEditor extends JFrame implements ActionListener,
 	 * @param tab The {@link TextEditorTab} that is the source of the program to run.
 	 * @param text The text expressing the program to run.
 	 * @param writeCommandLog Whether to append the {@code text} to a log file for the appropriate language.
-	 * @throws IOException Whether there was an issue with piping the command to the executer.
 	 */
-	private void execute(final TextEditorTab tab, final String text, final boolean writeCommandLog) throws IOException {
+	private void execute(final TextEditorTab tab, final String text, final boolean writeCommandLog) {
 
 		tab.prepare();
 
 		final JTextAreaWriter output = new JTextAreaWriter(tab.screen, log);
 		final JTextAreaWriter errors = new JTextAreaWriter(errorScreen, log);
 		final File file = getEditorPane().getFile();
-		// Pipe current text into the runScript:
-		final PipedInputStream pi = new PipedInputStream();
-		final PipedOutputStream po = new PipedOutputStream(pi);
-		// The Executer creates a Thread that
-		// does the reading from PipedInputStream
+		// The Executer creates a Thread that reads the text straight from memory
 		tab.setExecutor(new Executer(output, errors) {
 
 			@Override
 			public void execute() {
 				try {
-					evalScript(file == null ? getEditorPane().getFileName() : file
-						.getAbsolutePath(), new InputStreamReader(pi), output, errors);
+					evalScript(tab, file == null ? getEditorPane().getFileName() : file
+						.getAbsolutePath(), new StringReader(text), output, errors);
 					output.flush();
 					errors.flush();
 					markCompileEnd();
@@ -2765,31 +2822,8 @@ public class TextEditor extends JFrame implements ActionListener,
 				}
 			}
 		});
-		// Write into PipedOutputStream
-		// from another Thread
-		try {
-			new Thread() {
-
-				{
-					setPriority(Thread.NORM_PRIORITY);
-				}
-
-				@Override
-				public void run() {
-					try (final PrintWriter pw = new PrintWriter(po)) {
-						pw.write(text);
-						pw.flush(); // will lock and wait in some cases
-					}
-				}
-			}.start();
-		}
-		catch (final Throwable t) {
-			log.error(t);
-		}
-		finally {
-			// Re-enable when all text to send has been sent
-			tab.getEditorPane().setEditable(true);
-		}
+		// Re-enable now that the text has been handed over
+		tab.getEditorPane().setEditable(true);
 	}
 	
 	private String getPromptCommandsFilename(final ScriptLanguage language) {
@@ -2876,7 +2910,8 @@ public class TextEditor extends JFrame implements ActionListener,
 		else getTab().showOutput();
 
 		markCompileStart();
-		final JTextAreaWriter output = new JTextAreaWriter(getTab().screen, log);
+		final TextEditorTab tab = getTab();
+		final JTextAreaWriter output = new JTextAreaWriter(tab.screen, log);
 		final JTextAreaWriter errors = new JTextAreaWriter(errorScreen, log);
 
 		final File file = getEditorPane().getFile();
@@ -2884,7 +2919,7 @@ public class TextEditor extends JFrame implements ActionListener,
 
 			@Override
 			public void execute() {
-				try (final Reader reader = evalScript(file.getPath(), new FileReader(file), output, errors)) {
+				try (final Reader reader = evalScript(tab, file.getPath(), new FileReader(file), output, errors)) {
 					output.flush();
 					errors.flush();
 					markCompileEnd();
@@ -3035,6 +3070,8 @@ public class TextEditor extends JFrame implements ActionListener,
 	private void removeTab(final int index) {
 		final int menuItemIndex = index + tabsMenuTabsStart;
 		try {
+			fileWatcher.unwatch(getTab(index).editorPane);
+			getTab(index).editorPane.closeLargeFile();
 			tabbed.remove(index);
 			tabsMenuItems.remove(tabsMenu.getItem(menuItemIndex));
 			tabsMenu.remove(menuItemIndex);
@@ -3158,72 +3195,81 @@ public class TextEditor extends JFrame implements ActionListener,
 		if (text == null)
 			text = getSelectedClassNameOrAsk("Class or package (complete or partial name, e.g., 'ij'):", "Lookup Which Class/Package?");
 		if (null == text) return;
-		new Thread(new FindClassSourceAndJavadoc(text)).start(); // fork away from event dispatch thread
+		new FindClassSourceAndJavadoc(text).run(); // the lookup itself runs in the background
 	}
 
-	public class FindClassSourceAndJavadoc implements Runnable {
+	public class FindClassSourceAndJavadoc implements Runnable, DocumentationLookup.Listener {
 		private final String text;
+		/** Link buttons of each class, by class name; accessed only on the event dispatch thread. */
+		private final HashMap<String, JPanel> links = new HashMap<>();
+		private JFrame frame;
 		public FindClassSourceAndJavadoc(final String text) {
 			this.text = text;
 		}
+		/** Start the lookup; results are shown as they arrive. */
 		@Override
 		public void run() {
 			setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-			final HashMap<String, ArrayList<String>> matches;
-			try {
-				 matches = ClassUtil.findDocumentationForClass(text);
-			} finally {
+			ClassUtil.getDocumentationLookup().find(text, this).whenComplete((matches, error) -> {
 				setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
-			}
-			if (matches.isEmpty()) {
-				if (confirm("No info found for: '" + text + "'.\nSearch for it on the web?", "Search the Web?",
-						"Search")) {
-					GuiUtils.runSearchQueryInBrowser(TextEditor.this, getPlatformService(), text.trim());
+				if (null != error) log.debug(error);
+				if (null == matches || matches.isEmpty()) {
+					if (confirm("No info found for: '" + text + "'.\nSearch for it on the web?", "Search the Web?",
+							"Search")) {
+						GuiUtils.runSearchQueryInBrowser(TextEditor.this, getPlatformService(), text.trim());
+					}
 				}
-				return;
-			}
-			final JPanel panel = new JPanel();
-			final GridBagLayout gridbag = new GridBagLayout();
-			final GridBagConstraints c = new GridBagConstraints();
-			panel.setLayout(gridbag);
-			//panel.setBorder(BorderFactory.createEmptyBorder(BORDER_SIZE, BORDER_SIZE, BORDER_SIZE, BORDER_SIZE));
-			final List<String> keys = new ArrayList<String>(matches.keySet());
-			Collections.sort(keys);
-			c.gridy = 0;
-			for (final String classname: keys) {
-				c.gridx = 0;
-				c.anchor = GridBagConstraints.EAST;
-				final JLabel class_label = new JLabel(classname);
-				gridbag.setConstraints(class_label, c);
-				panel.add(class_label);
-				ArrayList<String> urls = matches.get(classname);
-				if (urls.isEmpty()) {
-					urls = new ArrayList<String>();
-					urls.add("https://duckduckgo.com/?q=" + classname);
+			});
+		}
+		@Override
+		public void classesFound(final List<String> classnames) {
+			if (classnames.isEmpty()) return;
+			SwingUtilities.invokeLater(() -> {
+				final JPanel panel = new JPanel();
+				final GridBagLayout gridbag = new GridBagLayout();
+				final GridBagConstraints c = new GridBagConstraints();
+				panel.setLayout(gridbag);
+				c.gridy = 0;
+				for (final String classname: classnames) {
+					c.gridx = 0;
+					c.anchor = GridBagConstraints.EAST;
+					final JLabel class_label = new JLabel(classname);
+					gridbag.setConstraints(class_label, c);
+					panel.add(class_label);
+					c.gridx = 1;
+					c.anchor = GridBagConstraints.WEST;
+					final JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+					buttons.add(new JLabel(" Looking up..."));
+					gridbag.setConstraints(buttons, c);
+					panel.add(buttons);
+					links.put(classname, buttons);
+					c.gridy += 1;
 				}
+				frame = new JFrame("Resources for '" + text +"'");
+				frame.getContentPane().add(new JScrollPane(panel));
+				frame.pack();
+				frame.setLocationRelativeTo(TextEditor.this);
+				frame.setVisible(true);
+			});
+		}
+		@Override
+		public void urlsFound(final String classname, final List<String> found) {
+			SwingUtilities.invokeLater(() -> {
+				final JPanel buttons = links.get(classname);
+				buttons.removeAll();
+				final List<String> urls = found.isEmpty() ? Collections.singletonList("https://duckduckgo.com/?q=" + classname) : found;
 				for (final String url: urls) {
-					c.gridx += 1;
-					c.anchor = GridBagConstraints.WEST;
 					String title = "JavaDoc";
 					if (url.endsWith(".java")) title = "Source";
 					else if (url.contains("duckduckgo")) title = "Search...";
 					final JButton link = new JButton(title);
-					gridbag.setConstraints(link, c);
-					panel.add(link);
+					buttons.add(link);
 					link.addActionListener(event -> {
 						GuiUtils.openURL(TextEditor.this, platformService, url);
 					});
 				}
-				c.gridy += 1;
-			}
-			final JScrollPane jsp = new JScrollPane(panel);
-			//jsp.setPreferredSize(new Dimension(800, 500));
-			SwingUtilities.invokeLater(() -> {
-				final JFrame frame = new JFrame("Resources for '" + text +"'");
-				frame.getContentPane().add(jsp);
-				frame.setLocationRelativeTo(TextEditor.this);
+				buttons.revalidate();
 				frame.pack();
-				frame.setVisible(true);
 			});
 		}
 	}
@@ -3367,8 +3413,9 @@ public class TextEditor extends JFrame implements ActionListener,
 		}
 	}
 
-	private Reader evalScript(final String filename, Reader reader,
-		final Writer output, final JTextAreaWriter errors) throws ModuleException
+	private Reader evalScript(final TextEditorTab tab, final String filename,
+		Reader reader, final Writer output, final JTextAreaWriter errors)
+		throws ModuleException
 	{
 		final ScriptLanguage language = getCurrentLanguage();
 		
@@ -3413,16 +3460,31 @@ public class TextEditor extends JFrame implements ActionListener,
 		getEditorPane().getErrorHighlighter().reset();
 		getEditorPane().getErrorHighlighter().setWriter(errors);
 
-		// execute the script
-		try {
-			moduleService.run(module, true).get();
+		// execute the script, and wait for it in this run's thread
+		if (tab.isProfiling()) {
+			profiledRuns.put(module, new ProfiledRun(tab, new File(filename).getName()));
 		}
-		catch (final InterruptedException e) {
-			error("Interrupted");
+		final Future<ScriptModule> run = moduleService.run(module, true);
+		try {
+			for (boolean interrupted = false;;) {
+				try {
+					run.get();
+					break;
+				}
+				catch (final InterruptedException e) {
+					if (!interrupted) error("Interrupted");
+					interrupted = true;
+					// pass it on, and wait until the script reacts or is killed
+					for (final Thread t : moduleThreads(Thread.currentThread())) {
+						t.interrupt();
+					}
+				}
+			}
 		}
 		catch (final ExecutionException e) {
 			log.error(e);
 		} finally {
+			profiledRuns.remove(module);
 			getEditorPane().getErrorHighlighter().parse();
 		}
 		return reader;
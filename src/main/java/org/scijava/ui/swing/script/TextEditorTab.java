@@ -54,6 +54,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTextArea;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.text.JTextComponent;
 
 import org.fife.ui.rsyntaxtextarea.ErrorStrip;
@@ -78,7 +79,9 @@ public class TextEditorTab extends JSplitPane {
 	protected boolean showingErrors;
 	private Executer executer;
 	private final JButton runit, batchit, killit, toggleErrors, switchSplit;
-	private final JCheckBox incremental;
+	private final JCheckBox incremental, profile;
+	private final ProfilerPanel profiler = new ProfilerPanel();
+	private final JSplitPane consoleAndProfilerSplit;
 	private final JSplitPane screenAndPromptSplit;
 	private int screenAndPromptSplitDividerLocation;
 
@@ -182,11 +185,17 @@ public class TextEditorTab extends JSplitPane {
 		bottom.add(incremental, bc);
 
 		bc.gridx = 4;
+		profile = new JCheckBox("Profile");
+		profile.setToolTipText("Measure the time, memory and garbage collections of each run");
+		textEditor.cmdPalette.register(profile, "Interpreter");
+		bottom.add(profile, bc);
+
+		bc.gridx = 5;
 		bc.fill = GridBagConstraints.HORIZONTAL;
 		bc.weightx = 1;
 		bottom.add(new JPanel(), bc);
 
-		bc.gridx = 5;
+		bc.gridx = 6;
 		bc.fill = GridBagConstraints.NONE;
 		bc.weightx = 0;
 		bc.anchor = GridBagConstraints.NORTHEAST;
@@ -194,7 +203,7 @@ public class TextEditorTab extends JSplitPane {
 		toggleErrors.addActionListener(e -> toggleErrors());
 		bottom.add(toggleErrors, bc);
 
-		bc.gridx = 6;
+		bc.gridx = 7;
 		bc.fill = GridBagConstraints.NONE;
 		bc.weightx = 0;
 		bc.anchor = GridBagConstraints.NORTHEAST;
@@ -206,7 +215,7 @@ public class TextEditorTab extends JSplitPane {
 		bottom.add(clear, bc);
 		textEditor.cmdPalette.register(clear, "Console");
 
-		bc.gridx = 7;
+		bc.gridx = 8;
 		switchSplit = new JButton(RIGHT_ARROW);
 		switchSplit.setToolTipText("Switch location");
 		switchSplit.addActionListener(new ActionListener() {
@@ -231,9 +240,16 @@ public class TextEditorTab extends JSplitPane {
 		bc.fill = GridBagConstraints.BOTH;
 		bc.weightx = 1;
 		bc.weighty = 1;
-		bc.gridwidth = 8;
+		bc.gridwidth = 9;
 		scroll = new JScrollPane(screen);
-		bottom.add(scroll, bc);
+		profiler.setVisible(false);
+		consoleAndProfilerSplit = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, scroll, profiler);
+		consoleAndProfilerSplit.setResizeWeight(0.5);
+		bottom.add(consoleAndProfilerSplit, bc);
+		profile.addActionListener(ae -> {
+			profiler.setVisible(profile.isSelected());
+			if (profile.isSelected()) consoleAndProfilerSplit.setDividerLocation(0.5);
+		});
 
 		prompt.setEnabled(false);
 		prompt.setFont(getEditorPane().getFont());
@@ -318,6 +334,11 @@ public class TextEditorTab extends JSplitPane {
 		final JPanel holder = new JPanel(new BorderLayout());
 		holder.add(editorPane.wrappedInScrollbars());
 		holder.add(es, BorderLayout.LINE_END);
+		holder.add(new LargeFileBar(editorPane), BorderLayout.PAGE_START);
+		// Large-file mode changes what the menus show, e.g. the mark occurrences state
+		editorPane.addPropertyChangeListener(EditorPane.LARGE_FILE_PROPERTY, e -> {
+			if (getParent() != null && textEditor.getTab() == this) textEditor.updateUI(false);
+		});
 		super.setLeftComponent(holder);
 		super.setRightComponent(screenAndPromptSplit);
 		screenAndPromptSplit.setDividerLocation(1.0);
@@ -421,6 +442,16 @@ public class TextEditorTab extends JSplitPane {
 		return screen;
 	}
 
+	/** Whether runs of this tab are profiled. */
+	boolean isProfiling() {
+		return profile.isSelected();
+	}
+
+	/** Adds a profiled run to the history. Callable from any thread. */
+	void addProfile(final RunProfile run) {
+		profiler.add(run);
+	}
+
 	boolean isExecuting() {
 		return null != getExecuter();
 	}
@@ -431,31 +462,16 @@ public class TextEditorTab extends JSplitPane {
 	}
 
 	protected void kill() {
-		if (null == getExecuter()) return;
+		final Executer executer = getExecuter();
+		if (null == executer) return;
 		// Graceful attempt:
-		getExecuter().interrupt();
+		executer.interrupt();
 		// Give it 3 seconds. Then, stop it.
-		final long now = System.currentTimeMillis();
-		new Thread() {
-
-			{
-				setPriority(Thread.NORM_PRIORITY);
-			}
-
-			@Override
-			public void run() {
-				while (System.currentTimeMillis() - now < 3000)
-					try {
-						Thread.sleep(100);
-					}
-					catch (final InterruptedException e) {
-						/* ignore */
-					}
-				if (null != getExecuter()) getExecuter().obliterate();
-				restore();
-
-			}
-		}.start();
+		final Timer timer = new Timer(3000, e -> {
+			if (executer.isDone() || executer.obliterate()) restore();
+		});
+		timer.setRepeats(false);
+		timer.start();
 	}
 
 	public Executer getExecuter() {
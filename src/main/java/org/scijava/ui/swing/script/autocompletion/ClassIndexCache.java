@@ -0,0 +1,184 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.autocompletion;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.scijava.ui.swing.script.autocompletion.ClassUtil.JarProperties;
+import org.scijava.ui.swing.script.autocompletion.ClassUtil.JarScan;
+
+/**
+ * Persistent on-disk index of the classes found in each jar file, so that
+ * {@link ClassUtil#ensureCache()} only has to open the jar files that changed
+ * since the index was last written.
+ * <p>
+ * Each jar is keyed by its absolute path, size and last modification time.
+ * The file is versioned and read into memory at once, not mapped, so that it
+ * can be replaced right away, also on Windows. Its layout is:
+ * </p>
+ * <pre>
+ * int magic, int version, int jarCount
+ * jarCount x { str path, long size, long lastModified, str name,
+ *              int urlCount, urlCount x str url,
+ *              int classCount, classCount x str className }
+ * </pre>
+ * <p>
+ * where {@code str} is an int byte length followed by UTF-8 bytes, and a
+ * length of -1 stands for {@code null}.
+ * </p>
+ */
+final class ClassIndexCache {
+
+	static private final int MAGIC = 0x534a4349; // "SJCI"
+	static private final int VERSION = 1;
+
+	/** Cached scans, by absolute jar path. */
+	private final Map<String, JarScan> jars;
+
+	private ClassIndexCache(final Map<String, JarScan> jars) {
+		this.jars = jars;
+	}
+
+	/** The default location of the index file: {@code ~/.scijava/script-editor/class-index.bin}. */
+	static File defaultLocation() {
+		return new File(ClassUtil.cacheDirectory(), "class-index.bin");
+	}
+
+	/**
+	 * Returns the cached scan of the given jar file, or null when the jar is not
+	 * in the index or its size or modification time changed since it was indexed.
+	 */
+	JarScan get(final File jar) {
+		final JarScan scan = jars.get(jar.getAbsolutePath());
+		if (null == scan || scan.size != jar.length() || scan.lastModified != jar.lastModified()) return null;
+		return scan;
+	}
+
+	int size() {
+		return jars.size();
+	}
+
+	/**
+	 * Reads the index file. Returns an empty index when the file does not exist,
+	 * was written by a different version, or cannot be read.
+	 */
+	static ClassIndexCache load(final File file) {
+		final HashMap<String, JarScan> jars = new HashMap<>();
+		if (!file.isFile()) return new ClassIndexCache(jars);
+		try {
+			final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return new ClassIndexCache(jars);
+			final int jarCount = buffer.getInt();
+			for (int i = 0; i < jarCount; ++i) {
+				final String path = readString(buffer);
+				final long size = buffer.getLong();
+				final long lastModified = buffer.getLong();
+				final String name = readString(buffer);
+				final int urlCount = buffer.getInt();
+				final ArrayList<String> urls = new ArrayList<>(urlCount);
+				for (int k = 0; k < urlCount; ++k) urls.add(readString(buffer));
+				final int classCount = buffer.getInt();
+				final ArrayList<String> classnames = new ArrayList<>(classCount);
+				for (int k = 0; k < classCount; ++k) classnames.add(readString(buffer));
+				jars.put(path, new JarScan(path, size, lastModified, new JarProperties(name, urls), classnames));
+			}
+		} catch (IOException | RuntimeException e) {
+			// Unreadable, truncated or corrupt index: rescan everything
+			jars.clear();
+		}
+		return new ClassIndexCache(jars);
+	}
+
+	/**
+	 * Writes the given scans to the index file. The file is first written next
+	 * to the target and then moved over it, so that a concurrent reader never
+	 * sees a partially written index.
+	 */
+	static void save(final File file, final Collection<JarScan> scans) {
+		final File dir = file.getParentFile();
+		File tmp = null;
+		try {
+			if (!dir.isDirectory() && !dir.mkdirs()) return;
+			tmp = File.createTempFile("class-index", ".tmp", dir);
+			try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(scans.size());
+				for (final JarScan scan : scans) {
+					writeString(out, scan.path);
+					out.writeLong(scan.size);
+					out.writeLong(scan.lastModified);
+					writeString(out, scan.props.name);
+					out.writeInt(scan.props.urls.size());
+					for (final String url : scan.props.urls) writeString(out, url);
+					out.writeInt(scan.classnames.size());
+					for (final String classname : scan.classnames) writeString(out, classname);
+				}
+			}
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			// The index is only an optimization: the next session will rescan
+			System.err.println("Could not save the class index to " + file + ": " + e);
+			if (null != tmp) tmp.delete();
+		}
+	}
+
+	static private String readString(final ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		if (-1 == length) return null;
+		final byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static private void writeString(final DataOutputStream out, final String s) throws IOException {
+		if (null == s) {
+			out.writeInt(-1);
+			return;
+		}
+		final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+}
@@ -0,0 +1,412 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.autocompletion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.scijava.ui.swing.script.autocompletion.ClassUtil.JarProperties;
+
+/**
+ * Immutable, compact search index over fully qualified class names and the
+ * {@link JarProperties} of their jar files, built once by {@link ClassUtil}
+ * when all jar files have been scanned.
+ * <p>
+ * Classes are numbered in the sorted order of their fully qualified names.
+ * Each package name is stored once, simple names share one char pool, and
+ * jar files are referred to by int ids into a {@link JarProperties} table.
+ * Fully qualified names are only assembled for the results of a query.
+ * </p>
+ * <ul>
+ * <li>Prefix queries use binary search over the classes and the sorted package names.</li>
+ * <li>Substring queries use trigram postings, stored as delta-encoded
+ * varints: only the class names that contain the rarest trigram of the
+ * query are checked. Trigrams found in
+ * more than 1/{@value #FREQUENT} of all names are not indexed, since
+ * filtering by them would not help much.</li>
+ * <li>Simple name prefix queries use binary search over the classes sorted
+ * by simple name.</li>
+ * </ul>
+ */
+final class ClassNameIndex {
+
+	static private final int FREQUENT = 16;
+
+	/** Package names, sorted. */
+	private final String[] packages;
+
+	/** Index into {@link #packages} of each class, or -1 for the default package. */
+	private final int[] packageOf;
+
+	/** The simple name of class {@code i} is {@code simpleNames[simpleStart[i]]} to {@code simpleNames[simpleStart[i + 1] - 1]}. */
+	private final char[] simpleNames;
+	private final int[] simpleStart;
+
+	/** The jar files, and the index into {@link #jars} of each class. */
+	private final JarProperties[] jars;
+	private final int[] jarOf;
+
+	/** Classes sorted by simple name. */
+	private final int[] bySimpleName;
+
+	/** Trigram vs. its id, the index into {@link #offsets}. */
+	private final TrigramTable trigrams = new TrigramTable();
+
+	/**
+	 * Postings of trigram {@code id} are encoded in {@code postings[offsets[id]]}
+	 * to {@code postings[offsets[id + 1] - 1]}: the sorted class indices, each
+	 * as a varint of the difference to the previous one (or of the index + 1,
+	 * for the first). Frequent trigrams have no postings.
+	 */
+	private final int[] offsets;
+	private final byte[] postings;
+
+	ClassNameIndex(final Map<String, JarProperties> class_urls) {
+		final String[] names = class_urls.keySet().toArray(new String[0]);
+		Arrays.sort(names);
+
+		final TreeSet<String> packageSet = new TreeSet<>();
+		int poolSize = 0;
+		for (final String name : names) {
+			final int idot = name.lastIndexOf('.');
+			if (-1 != idot) packageSet.add(name.substring(0, idot));
+			poolSize += name.length() - idot - 1;
+		}
+		packages = packageSet.toArray(new String[0]);
+
+		packageOf = new int[names.length];
+		simpleNames = new char[poolSize];
+		simpleStart = new int[names.length + 1];
+		jarOf = new int[names.length];
+		final IdentityHashMap<JarProperties, Integer> jarIds = new IdentityHashMap<>();
+		final ArrayList<JarProperties> jarList = new ArrayList<>();
+		int p = -1;
+		for (int i = 0; i < names.length; i++) {
+			final String name = names[i];
+			final int idot = name.lastIndexOf('.');
+			// Names are sorted, so consecutive classes mostly share their package
+			if (-1 == idot) p = -1;
+			else if (-1 == p || packages[p].length() != idot || !name.startsWith(packages[p])) {
+				p = Arrays.binarySearch(packages, name.substring(0, idot));
+			}
+			packageOf[i] = p;
+			name.getChars(idot + 1, name.length(), simpleNames, simpleStart[i]);
+			simpleStart[i + 1] = simpleStart[i] + name.length() - idot - 1;
+			final JarProperties props = class_urls.get(name);
+			Integer id = jarIds.get(props);
+			if (null == id) {
+				id = jarList.size();
+				jarIds.put(props, id);
+				jarList.add(props);
+			}
+			jarOf[i] = id;
+		}
+		jars = jarList.toArray(new JarProperties[0]);
+
+		// Class indices follow the order of the full names, so they break ties between equal simple names
+		bySimpleName = IntStream.range(0, names.length).boxed()
+			.sorted((a, b) -> {
+				final int c = compareSimpleName(a, simpleNames, simpleStart[b], simpleStart[b + 1]);
+				return 0 != c ? c : a - b;
+			})
+			.mapToInt(Integer::intValue).toArray();
+
+		// First pass: count the names containing each trigram, and the bytes of their postings
+		int[] counts = new int[1024], bytes = new int[1024], last = new int[1024];
+		for (int i = 0; i < names.length; i++) {
+			final String name = names[i];
+			for (int k = 0; k + 3 <= name.length(); k++) {
+				final int id = trigrams.add(trigram(name, k));
+				if (id == counts.length) {
+					counts = Arrays.copyOf(counts, id * 2);
+					bytes = Arrays.copyOf(bytes, id * 2);
+					last = Arrays.copyOf(last, id * 2);
+				}
+				if (0 == counts[id]) {
+					bytes[id] = varintSize(i + 1);
+				} else if (last[id] != i) {
+					bytes[id] += varintSize(i - last[id]);
+				} else continue;
+				++counts[id];
+				last[id] = i;
+			}
+		}
+		// Second pass: encode the postings of all but the frequent trigrams
+		final int frequent = Math.max(names.length / FREQUENT, 64);
+		offsets = new int[trigrams.size() + 1];
+		for (int id = 0; id < trigrams.size(); id++) {
+			offsets[id + 1] = offsets[id] + (counts[id] > frequent ? 0 : bytes[id]);
+		}
+		postings = new byte[offsets[trigrams.size()]];
+		final int[] fill = Arrays.copyOf(offsets, trigrams.size());
+		Arrays.fill(last, -1);
+		for (int i = 0; i < names.length; i++) {
+			final String name = names[i];
+			for (int k = 0; k + 3 <= name.length(); k++) {
+				final int id = trigrams.get(trigram(name, k));
+				if (counts[id] > frequent || last[id] == i) continue;
+				// Write the varint, 7 bits at a time, low bits first
+				for (int delta = i - last[id]; ; delta >>>= 7) {
+					if (delta < 0x80) {
+						postings[fill[id]++] = (byte) delta;
+						break;
+					}
+					postings[fill[id]++] = (byte) (delta & 0x7f | 0x80);
+				}
+				last[id] = i;
+			}
+		}
+	}
+
+	int size() {
+		return packageOf.length;
+	}
+
+	/** The fully qualified name of class {@code i}. */
+	String name(final int i) {
+		final String simple = new String(simpleNames, simpleStart[i], simpleStart[i + 1] - simpleStart[i]);
+		return -1 == packageOf[i] ? simple : packages[packageOf[i]] + '.' + simple;
+	}
+
+	/** The properties of the jar file containing the class, or null if not indexed. */
+	JarProperties jarProperties(final String classname) {
+		final int i = lowerBound(classname);
+		return i < size() && 0 == compareName(i, classname) ? jars[jarOf[i]] : null;
+	}
+
+	Stream<String> all() {
+		return IntStream.range(0, size()).mapToObj(this::name);
+	}
+
+	Stream<String> classNamesStartingWith(final String text) {
+		final int from = lowerBound(text);
+		int lo = from, hi = size();
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (startsWith(mid, text)) lo = mid + 1;
+			else hi = mid;
+		}
+		return IntStream.range(from, lo).mapToObj(this::name);
+	}
+
+	Stream<String> packageNamesStartingWith(final String text) {
+		int from = Arrays.binarySearch(packages, text);
+		if (from < 0) from = -from - 1;
+		int lo = from, hi = packages.length;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (packages[mid].startsWith(text)) lo = mid + 1;
+			else hi = mid;
+		}
+		return Arrays.stream(packages, from, lo);
+	}
+
+	Stream<String> classNamesContaining(final String text) {
+		// Check only the names containing the rarest indexed trigram of the query
+		int from = -1, to = -1;
+		for (int k = 0; k + 3 <= text.length(); k++) {
+			final int id = trigrams.get(trigram(text, k));
+			if (-1 == id) return Stream.empty(); // no name contains this trigram
+			if (offsets[id + 1] == offsets[id]) continue; // frequent
+			if (-1 == from || offsets[id + 1] - offsets[id] < to - from) {
+				from = offsets[id];
+				to = offsets[id + 1];
+			}
+		}
+		if (-1 == from) return all().filter(s -> s.contains(text));
+		return decode(from, to).mapToObj(this::name).filter(s -> s.contains(text));
+	}
+
+	ArrayList<String> simpleClassNamesStartingWith(final String text) {
+		final ArrayList<String> matches = new ArrayList<>();
+		final char[] chars = text.toCharArray();
+		// Binary search for the first simple name not less than text
+		int lo = 0, hi = bySimpleName.length;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (compareSimpleName(bySimpleName[mid], chars, 0, chars.length) < 0) lo = mid + 1;
+			else hi = mid;
+		}
+		for (int i = lo; i < bySimpleName.length; i++) {
+			final int c = bySimpleName[i];
+			final int start = simpleStart[c];
+			if (simpleStart[c + 1] - start < chars.length
+				|| 0 != compareRange(simpleNames, start, start + chars.length, chars, 0, chars.length)) break;
+			matches.add(name(c));
+		}
+		return matches;
+	}
+
+	/** Decode the class indices of the postings in {@code postings[from..to)}. */
+	private IntStream decode(final int from, final int to) {
+		final IntStream.Builder indices = IntStream.builder();
+		int i = -1;
+		for (int b = from; b < to;) {
+			int delta = 0;
+			for (int shift = 0; ; shift += 7) {
+				final byte next = postings[b++];
+				delta |= (next & 0x7f) << shift;
+				if (next >= 0) break;
+			}
+			i += delta;
+			indices.add(i);
+		}
+		return indices.build();
+	}
+
+	static private int varintSize(final int value) {
+		return value < 1 << 7 ? 1 : value < 1 << 14 ? 2 : value < 1 << 21 ? 3 : value < 1 << 28 ? 4 : 5;
+	}
+
+	/** Length of the fully qualified name of class {@code i}. */
+	private int length(final int i) {
+		final int simple = simpleStart[i + 1] - simpleStart[i];
+		return -1 == packageOf[i] ? simple : packages[packageOf[i]].length() + 1 + simple;
+	}
+
+	/** Character {@code k} of the fully qualified name of class {@code i}. */
+	private char charAt(final int i, final int k) {
+		if (-1 != packageOf[i]) {
+			final String pkg = packages[packageOf[i]];
+			if (k < pkg.length()) return pkg.charAt(k);
+			if (k == pkg.length()) return '.';
+			return simpleNames[simpleStart[i] + k - pkg.length() - 1];
+		}
+		return simpleNames[simpleStart[i] + k];
+	}
+
+	/** Compare the fully qualified name of class {@code i} with {@code text}, without assembling it. */
+	private int compareName(final int i, final String text) {
+		final int length = length(i);
+		final int n = Math.min(length, text.length());
+		for (int k = 0; k < n; k++) {
+			final char c1 = charAt(i, k), c2 = text.charAt(k);
+			if (c1 != c2) return c1 - c2;
+		}
+		return length - text.length();
+	}
+
+	private boolean startsWith(final int i, final String prefix) {
+		if (length(i) < prefix.length()) return false;
+		for (int k = prefix.length() - 1; k >= 0; k--) {
+			if (charAt(i, k) != prefix.charAt(k)) return false;
+		}
+		return true;
+	}
+
+	/** Index of the first class whose name is not less than {@code text}. */
+	private int lowerBound(final String text) {
+		int lo = 0, hi = size();
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (compareName(mid, text) < 0) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo;
+	}
+
+	/** Compare the simple name of class {@code i} with {@code chars[from..to)}. */
+	private int compareSimpleName(final int i, final char[] chars, final int from, final int to) {
+		return compareRange(simpleNames, simpleStart[i], simpleStart[i + 1], chars, from, to);
+	}
+
+	static private int compareRange(final char[] a, final int fromA, final int toA, final char[] b, final int fromB, final int toB) {
+		final int n = Math.min(toA - fromA, toB - fromB);
+		for (int k = 0; k < n; k++) {
+			final char c1 = a[fromA + k], c2 = b[fromB + k];
+			if (c1 != c2) return c1 - c2;
+		}
+		return (toA - fromA) - (toB - fromB);
+	}
+
+	static private long trigram(final String s, final int k) {
+		return ((long) s.charAt(k) << 32) | ((long) s.charAt(k + 1) << 16) | s.charAt(k + 2);
+	}
+	/** Open addressing hash table of trigrams vs. consecutive ids. */
+	static private final class TrigramTable {
+		private long[] keys = new long[1024]; // trigram + 1; 0 is empty
+		private int[] ids = new int[1024];
+		private int size = 0;
+
+		int size() {
+			return size;
+		}
+
+		/** The id of the trigram, or -1 if absent. */
+		int get(final long trigram) {
+			final int mask = keys.length - 1;
+			for (int slot = hash(trigram) & mask; 0 != keys[slot]; slot = (slot + 1) & mask) {
+				if (keys[slot] == trigram + 1) return ids[slot];
+			}
+			return -1;
+		}
+
+		/** The id of the trigram, adding it if absent. */
+		int add(final long trigram) {
+			int mask = keys.length - 1;
+			int slot = hash(trigram) & mask;
+			for (; 0 != keys[slot]; slot = (slot + 1) & mask) {
+				if (keys[slot] == trigram + 1) return ids[slot];
+			}
+			if (2 * (size + 1) > keys.length) {
+				grow();
+				mask = keys.length - 1;
+				for (slot = hash(trigram) & mask; 0 != keys[slot]; slot = (slot + 1) & mask);
+			}
+			keys[slot] = trigram + 1;
+			ids[slot] = size;
+			return size++;
+		}
+
+		private void grow() {
+			final long[] oldKeys = keys;
+			final int[] oldIds = ids;
+			keys = new long[oldKeys.length * 2];
+			ids = new int[oldIds.length * 2];
+			final int mask = keys.length - 1;
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (0 == oldKeys[i]) continue;
+				int slot = hash(oldKeys[i] - 1) & mask;
+				while (0 != keys[slot]) slot = (slot + 1) & mask;
+				keys[slot] = oldKeys[i];
+				ids[slot] = oldIds[i];
+			}
+		}
+
+		static private int hash(final long trigram) {
+			final long h = trigram * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
@@ -28,22 +28,28 @@
  */
 package org.scijava.ui.swing.script.autocompletion;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.net.URL;
-import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Matcher;
@@ -58,33 +64,79 @@ public class ClassUtil {
 	
 	static final String scijava_javadoc_URL = "https://javadoc.scijava.org/"; // with ending slash
 	
-	/** Cache of class names vs list of URLs found in the pom.xml files of their contaning jar files, if any. */
-	static private final Map<String, JarProperties> class_urls = new HashMap<>();
+	/**
+	 * Cache of class names vs list of URLs found in the pom.xml files of their contaning jar files, if any.
+	 * Only filled while scanning: once all jar files have been scanned, it is replaced by {@link #class_index}.
+	 */
+	static private final Map<String, JarProperties> class_urls = new ConcurrentHashMap<>();
+	
+	/** Package names found so far while scanning. */
+	static private final Set<String> package_names = ConcurrentHashMap.newKeySet();
+	
+	static private volatile boolean ready = false;
+	
+	/** Compact search index of all classes and their jar files, built once all jar files have been scanned. */
+	static private volatile ClassNameIndex class_index = null;
 	
-	static private final Map<String, JarProperties> package_urls = new HashMap<>();
+	/** The background scan filling {@link #class_urls}; null until first requested. */
+	static private ForkJoinTask<?> cache_task = null;
 	
-	static private boolean ready = false;
+	/** Lookup of class documentation at https://javadoc.scijava.org; null until first used. */
+	static private DocumentationLookup documentation_lookup = null;
 	
-	/** Cache of subURL javadoc at https://javadoc.scijava.org */
-	static private final HashMap<String, String> scijava_javadoc_URLs = new HashMap<>();
+	static private final Pattern urlpattern = Pattern.compile(">(http.*?)<");
+	static private final Pattern namepattern = Pattern.compile("<name>(.*?)<");
 	
+	/** Block until all jar files have been scanned. */
 	static public final void ensureCache() {
+		startCache().join();
+	}
+	
+	/**
+	 * Start scanning jar files in the background, if not started already.
+	 * Classes are published jar by jar as they are found, so queries return
+	 * partial results until {@link #isCacheReady()}.
+	 */
+	static private final ForkJoinTask<?> startCache() {
 		synchronized (class_urls) {
-			if (class_urls.isEmpty()) {
-				final ArrayList<String> dirs = new ArrayList<>();
-				dirs.add(System.getProperty("java.home"));
-				dirs.add(System.getProperty("ij.dir"));
-				class_urls.putAll(findAllClasses(dirs));
-				// Soft attempt at getting all packages (will get them wrong if multiple jars have the same packages)
-				for (final Map.Entry<String, JarProperties> entry: class_urls.entrySet()) {
-					final int idot = entry.getKey().lastIndexOf('.');
-					if (-1 == idot) continue; // no package
-					final String package_name = entry.getKey().substring(0, idot);
-					if (package_urls.containsKey(package_name)) continue;
-					package_urls.put(package_name, entry.getValue());
+			if (null != cache_task) return cache_task;
+			final ForkJoinPool pool = new ForkJoinPool();
+			cache_task = pool.submit(() -> {
+				try {
+					final ArrayList<String> dirs = new ArrayList<>();
+					dirs.add(System.getProperty("java.home"));
+					dirs.add(System.getProperty("ij.dir"));
+					// Only open the jar files that changed since the on-disk index was written
+					final File indexFile = ClassIndexCache.defaultLocation();
+					final ClassIndexCache index = ClassIndexCache.load(indexFile);
+					final List<JarScan> scans = scanJars(findJarFiles(dirs), index, ClassUtil::publish);
+					boolean changed = index.size() != scans.size();
+					for (final JarScan scan : scans) changed |= scan != index.get(new File(scan.path));
+					if (changed) ClassIndexCache.save(indexFile, scans);
+					// As before, a class found in several jars maps to the last one
+					for (final JarScan scan : scans) {
+						for (final String classname : scan.classnames) class_urls.put(classname, scan.props);
+					}
+					class_index = new ClassNameIndex(class_urls);
+					ready = true;
+					// The index holds the same information in a fraction of the memory
+					class_urls.clear();
+					package_names.clear();
+				} finally {
+					pool.shutdown();
 				}
-				ready = true;
-			}
+			});
+			return cache_task;
+		}
+	}
+	
+	/** Make the classes of one jar visible to queries while the scan continues. */
+	static private final void publish(final JarScan scan) {
+		for (final String classname : scan.classnames) {
+			class_urls.putIfAbsent(classname, scan.props);
+			final int idot = classname.lastIndexOf('.');
+			if (-1 == idot) continue; // no package
+			package_names.add(classname.substring(0, idot));
 		}
 	}
 	
@@ -92,123 +144,41 @@ public class ClassUtil {
 		return ready;
 	}
 	
-	static public final void ensureSciJavaSubURLCache() {
-		synchronized (scijava_javadoc_URLs) {
-			if (!scijava_javadoc_URLs.isEmpty()) return;
-			Scanner scanner = null;
-			try {
-				final Pattern pattern = Pattern.compile("<div class=\"jdbox\"><div><a href=\"(.*?)\">");
-				final URLConnection connection =  new URL(scijava_javadoc_URL).openConnection();
-				scanner = new Scanner(connection.getInputStream());
-				while (scanner.hasNext()) {
-					final Matcher matcher = pattern.matcher(scanner.nextLine());
-					if (matcher.find()) {
-						String name = matcher.group(1).toLowerCase();
-						if (name.endsWith("/")) name = name.substring(0, name.length() -1);
-						scijava_javadoc_URLs.put(name, scijava_javadoc_URL + matcher.group(1));
-					}
-				}
-				scanner.close();
-			} catch ( Exception e ) {
-				e.printStackTrace();
-			} finally {
-				if (null != scanner) scanner.close();
-			}
+	/** The directory of the persistent caches: {@code ~/.scijava/script-editor}. */
+	static final File cacheDirectory() {
+		return new File(System.getProperty("user.home"), ".scijava" + File.separator + "script-editor");
+	}
+	
+	/** The documentation lookup used by {@link #findDocumentationForClass(String)}, with its results cached on disk. */
+	static public final synchronized DocumentationLookup getDocumentationLookup() {
+		if (null == documentation_lookup) {
+			documentation_lookup = new DocumentationLookup(DocumentationLookup.URL_CONNECTION, scijava_javadoc_URL,
+					new File(cacheDirectory(), "javadoc-cache.properties"), 4, 5000);
 		}
+		return documentation_lookup;
+	}
+	
+	static public final void ensureSciJavaSubURLCache() {
+		getDocumentationLookup().projects().join();
 	}
 	
 	static public HashMap<String, JarProperties> findClassDocumentationURLs(final String s) {
 		ensureCache();
 		final HashMap<String, JarProperties> matches = new HashMap<>();
-		for (final Map.Entry<String, JarProperties> entry: class_urls.entrySet()) {
-			if (entry.getKey().contains(s)) {
-				final JarProperties props = entry.getValue();
-				matches.put(entry.getKey(), new JarProperties(props.name, new ArrayList<String>(props.urls)));
-			}
-		}
+		class_index.classNamesContaining(s).forEach(classname -> {
+			final JarProperties props = class_index.jarProperties(classname);
+			matches.put(classname, new JarProperties(props.name, new ArrayList<String>(props.urls)));
+		});
 		return matches;
 	}
 	
+	/**
+	 * Blocking variant of {@link DocumentationLookup#find(String, DocumentationLookup.Listener)}.
+	 * 
+	 * @return Class names containing {@code s} vs. the URLs of their source and javadoc.
+	 */
 	static public HashMap<String, ArrayList<String>> findDocumentationForClass(final String s) {
-		final HashMap<String, JarProperties> matches = findClassDocumentationURLs(s);
-		ensureSciJavaSubURLCache();
-		
-		final Pattern javaPackages = Pattern.compile("^(java|javax|org\\.omg|org\\.w3c|org\\.xml|org\\.ietf\\.jgss)\\..*$");
-		final String version = System.getProperty("java.version");
-		final String majorVersion = version.startsWith("1.") ?
-				  version.substring(2, version.indexOf('.', 2))
-				: version.substring(0, version.indexOf('.'));
-		final String javaDoc = "java" + majorVersion;
-	
-		final HashMap<String, ArrayList<String>> class_urls = new HashMap<>();
-		
-		for (final Map.Entry<String, JarProperties> entry: matches.entrySet()) {
-			final String classname = entry.getKey();
-			final ArrayList<String> urls = new ArrayList<>();
-			class_urls.put(classname, urls);
-			if (javaPackages.matcher(classname).matches()) {
-				urls.add(scijava_javadoc_URLs.get(javaDoc) + classname.replace('.', '/') + ".html");
-			} else {
-				final JarProperties props = entry.getValue();
-				// Find the first URL with git in it
-				for (final String url : props.urls) {
-					final boolean github = url.contains("/github.com"),
-								  gitlab = url.contains("/gitlab.com");
-					if (github || gitlab) {
-						// Find the 5th slash, e.g. https://github.com/imglib/imglib2/
-						int count = 0;
-						int last = 0;
-						while (count < 5) {
-							last = url.indexOf('/', last + 1);
-							if (-1 == last) break; // less than 5 found
-							++count;
-						}
-						String urlbase = url;
-						if (5 == count) urlbase = url.substring(0, last); // without the ending slash
-						// Assume maven, since these URLs were found in a pom.xml: src/main/java/
-						urls.add(urlbase + (gitlab ? "/-" : "") + "/blob/master/src/main/java/" + classname.replace('.', '/') + ".java");
-						break;
-					}
-				}
-				// Try to find a javadoc in the scijava website
-				if (null != props.name) {
-					String scijava_javadoc_url = scijava_javadoc_URLs.get(props.name.toLowerCase());
-					if (null == scijava_javadoc_url) {
-						// Try cropping name at the first whitespace if any (e.g. "ImgLib2 Core Library" to "ImgLib2")
-						for (final String word: props.name.split(" ")) {
-							scijava_javadoc_url = scijava_javadoc_URLs.get(word.toLowerCase());
-							if (null != scijava_javadoc_url) break; // found a valid one
-						}
-					}
-					if (null != scijava_javadoc_url) {
-						urls.add(scijava_javadoc_url + classname.replace('.', '/') + ".html");
-					} else {
-						// Try Fiji: could be a plugin
-						Scanner scanner = null;
-						try {
-							final String url = scijava_javadoc_URL + "Fiji/" + classname.replace('.', '/') + ".html";
-							final URLConnection c = new URL(url).openConnection();
-							scanner = new Scanner(c.getInputStream());
-							while (scanner.hasNext()) {
-								final String line = scanner.nextLine();
-								if (line.contains("<title>")) {
-									if (!line.contains("<title>404")) {
-										urls.add(url);
-									}
-									break;
-								}
-							}
-						} catch (Exception e) {
-							// Ignore: 404 that wasn't redirected to an error page
-						} finally {
-							if (null != scanner) scanner.close();
-						}
-					}
-				}
-			}
-		}
-
-		return class_urls;
+		return getDocumentationLookup().find(s, null).join();
 	}
 	
 	static public final class JarProperties {
@@ -220,8 +190,64 @@ public class ClassUtil {
 		}
 	}
 	
+	/** The classes and pom.xml properties found in one jar file. */
+	static final class JarScan {
+		final String path;
+		final long size, lastModified;
+		final JarProperties props;
+		final List<String> classnames;
+		JarScan(final String path, final long size, final long lastModified, final JarProperties props, final List<String> classnames) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.props = props;
+			this.classnames = classnames;
+		}
+	}
+	
 	static public final HashMap<String, JarProperties> findAllClasses(final List<String> jar_folders) {
-		// Find all jar files
+		final HashMap<String, JarProperties> class_urls = new HashMap<>();
+		final ForkJoinPool pool = new ForkJoinPool();
+		try {
+			for (final JarScan scan : pool.invoke(ForkJoinTask.adapt(() -> scanJars(findJarFiles(jar_folders), null, null)))) {
+				for (final String classname : scan.classnames) class_urls.put(classname, scan.props);
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return class_urls;
+	}
+	
+	/**
+	 * Scan jar files in parallel, one fork/join task per jar. Must be called
+	 * from within a {@link ForkJoinPool}.
+	 * 
+	 * @param index Previously indexed jars to reuse when unchanged, or null.
+	 * @param publisher Receives each scan as soon as it completes, or null.
+	 * @return The scans, in the order of {@code jarpaths}, excluding unreadable jars.
+	 */
+	static final List<JarScan> scanJars(final List<String> jarpaths, final ClassIndexCache index, final Consumer<JarScan> publisher) {
+		final ArrayList<ForkJoinTask<JarScan>> tasks = new ArrayList<>(jarpaths.size());
+		for (final String jarpath : jarpaths) {
+			tasks.add(ForkJoinTask.adapt(() -> {
+				final File jar = new File(jarpath);
+				final JarScan indexed = null == index ? null : index.get(jar);
+				final JarScan scan = null == indexed ? scanJar(jar) : indexed;
+				if (null != scan && null != publisher) publisher.accept(scan);
+				return scan;
+			}));
+		}
+		ForkJoinTask.invokeAll(tasks);
+		final ArrayList<JarScan> scans = new ArrayList<>(tasks.size());
+		for (final ForkJoinTask<JarScan> task : tasks) {
+			final JarScan scan = task.join();
+			if (null != scan) scans.add(scan);
+		}
+		return scans;
+	}
+	
+	/** Find all jar files, recursively, in the given folders. */
+	static final ArrayList<String> findJarFiles(final List<String> jar_folders) {
 		final ArrayList<String> jarFilePaths = new ArrayList<String>();
 		final LinkedList<String> dirs = new LinkedList<>(jar_folders);
 		final HashSet<String> seenDirs = new HashSet<>();
@@ -239,69 +265,79 @@ public class ClassUtil {
 				}
 			}
 		}
-		// Find all classes from all jar files
-		final HashMap<String, JarProperties> class_urls = new HashMap<>();
-		final Pattern urlpattern = Pattern.compile(">(http.*?)<");
-		final Pattern namepattern = Pattern.compile("<name>(.*?)<");
-		for (final String jarpath : jarFilePaths) {
-			JarFile jar = null;
-			try {
-				jar = new JarFile(jarpath);
-				final Enumeration<JarEntry> entries = jar.entries();
-				final ArrayList<String> urls = new ArrayList<>();
-				final JarProperties props = new JarProperties(null, urls);
-				// For every filepath in the jar zip archive
-				while (entries.hasMoreElements()) {
-					final JarEntry entry = entries.nextElement();
-					if (entry.isDirectory()) continue;
-					if (entry.getName().endsWith(".class")) {
-						String classname = entry.getName().replace('/', '.');
-						final int idollar = classname.indexOf('$');
-						if (-1 != idollar) {
-							classname = classname.substring(0, idollar); // truncate at the first dollar sign
-						} else {
-							classname = classname.substring(0, classname.length() - 6); // without .class
-						}
-						class_urls.put(classname, props);
-					} else if (entry.getName().endsWith("/pom.xml")) {
-						final Scanner scanner = new Scanner(jar.getInputStream(entry));
-						while (scanner.hasNext()) {
-							final String line = scanner.nextLine();
-							final Matcher matcher1 = urlpattern.matcher(line);
-							if (matcher1.find()) {
-								urls.add(matcher1.group(1));
-							}
-							if (null == props.name) {
-								final Matcher matcher2 = namepattern.matcher(line);
-								if (matcher2.find()) {
-									props.name = matcher2.group(1);
-								}
-							}
-						}
-						scanner.close();
+		return jarFilePaths;
+	}
+	
+	/**
+	 * Find all classes in a jar file, and the name and URLs listed in its pom.xml if any.
+	 * 
+	 * @return The scan, or null if the jar file could not be read.
+	 */
+	static final JarScan scanJar(final File file) {
+		// Read size and time before opening, so that a concurrent change triggers a rescan next time
+		final long size = file.length();
+		final long lastModified = file.lastModified();
+		try (final JarFile jar = new JarFile(file)) {
+			final Enumeration<JarEntry> entries = jar.entries();
+			final ArrayList<String> urls = new ArrayList<>();
+			final JarProperties props = new JarProperties(null, urls);
+			final LinkedHashSet<String> classnames = new LinkedHashSet<>();
+			// For every filepath in the jar zip archive
+			while (entries.hasMoreElements()) {
+				final JarEntry entry = entries.nextElement();
+				if (entry.isDirectory()) continue;
+				if (entry.getName().endsWith(".class")) {
+					String classname = entry.getName().replace('/', '.');
+					final int idollar = classname.indexOf('$');
+					if (-1 != idollar) {
+						classname = classname.substring(0, idollar); // truncate at the first dollar sign
+					} else {
+						classname = classname.substring(0, classname.length() - 6); // without .class
 					}
+					classnames.add(classname);
+				} else if (entry.getName().endsWith("/pom.xml")) {
+					readPom(jar, entry, props);
+				}
+			}
+			return new JarScan(file.getAbsolutePath(), size, lastModified, props, new ArrayList<>(classnames));
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	/** Collect the name and URLs of a pom.xml into {@code props}. */
+	static private final void readPom(final JarFile jar, final JarEntry entry, final JarProperties props) throws IOException {
+		try (final BufferedReader reader = new BufferedReader(new InputStreamReader(jar.getInputStream(entry), StandardCharsets.UTF_8))) {
+			final Matcher urlmatcher = urlpattern.matcher("");
+			final Matcher namematcher = namepattern.matcher("");
+			String line;
+			while (null != (line = reader.readLine())) {
+				// Cheap checks first: most lines match neither pattern
+				if (line.contains(">http") && urlmatcher.reset(line).find()) {
+					props.urls.add(urlmatcher.group(1));
+				}
+				if (null == props.name && line.contains("<name>") && namematcher.reset(line).find()) {
+					props.name = namematcher.group(1);
 				}
-			} catch (IOException e) {
-				e.printStackTrace();
-			} finally {
-				if (null != jar) try {
-					jar.close();
-				} catch (IOException e) { e.printStackTrace(); }
 			}
 		}
-		return class_urls;
 	}
 	
 	static public final Stream<String> findPackageNamesStartingWith(final String text) {
-		ensureCache();
-		return package_urls.keySet().stream().filter(s -> s.startsWith(text));
+		startCache();
+		final ClassNameIndex index = class_index;
+		if (null != index) return index.packageNamesStartingWith(text);
+		return package_names.stream().filter(s -> s.startsWith(text));
 	}
 	
 	static public final Stream<String> findClassNamesForPackage(final String packageName) {
-		ensureCache();
+		startCache();
+		final ClassNameIndex index = class_index;
 		if (null == packageName || packageName.length() == 0)
-			return class_urls.keySet().stream();
-		return class_urls.keySet().stream().filter(s -> s.startsWith(packageName) && -1 == s.indexOf('.', packageName.length() + 2));
+			return null != index ? index.all() : class_urls.keySet().stream();
+		return (null != index ? index.classNamesStartingWith(packageName) : class_urls.keySet().stream().filter(s -> s.startsWith(packageName)))
+				.filter(s -> -1 == s.indexOf('.', packageName.length() + 2));
 	}
 	
 	/**
@@ -310,9 +346,11 @@ public class ClassUtil {
 	 * @return
 	 */
 	static public final Stream<String> findClassNamesStartingWith(final String text) {
-		ensureCache();
+		startCache();
+		final ClassNameIndex index = class_index;
 		if (text.length() == 0)
-			return class_urls.keySet().stream();
+			return null != index ? index.all() : class_urls.keySet().stream();
+		if (null != index) return index.classNamesStartingWith(text);
 		return class_urls.keySet().stream().filter(s -> s.startsWith(text));
 	}
 	
@@ -322,7 +360,9 @@ public class ClassUtil {
 	 * @return
 	 */
 	static public final Stream<String> findClassNamesContaining(final String text) {
-		ensureCache();
+		startCache();
+		final ClassNameIndex index = class_index;
+		if (null != index) return index.classNamesContaining(text);
 		return class_urls.keySet().stream().filter(s -> s.contains(text));
 	}
 	
@@ -332,10 +372,12 @@ public class ClassUtil {
 	 * @return
 	 */
 	static public final ArrayList<String> findSimpleClassNamesStartingWith(final String text) {
-		ensureCache();
-		final ArrayList<String> matches = new ArrayList<>();
+		startCache();
 		if (0 == text.length())
-			return matches;
+			return new ArrayList<>();
+		final ClassNameIndex index = class_index;
+		if (null != index) return index.simpleClassNamesStartingWith(text);
+		final ArrayList<String> matches = new ArrayList<>();
 		for (final String classname: class_urls.keySet()) {
 			final int idot = classname.lastIndexOf('.');
 			final String simplename = -1 == idot ? classname : classname.substring(idot + 1);
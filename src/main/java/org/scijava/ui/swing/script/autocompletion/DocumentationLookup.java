@@ -0,0 +1,353 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.autocompletion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.scijava.ui.swing.script.autocompletion.ClassUtil.JarProperties;
+
+/**
+ * Asynchronous lookup of the source and javadoc URLs of classes.
+ * <p>
+ * Network access goes through a pluggable {@link Fetcher}, with a timeout for
+ * each request. At most a fixed number of requests run in parallel. The
+ * javadoc project index and the outcome of each probe for a javadoc page are
+ * kept in a persistent cache file, each with a time to live. Results are
+ * reported class by class to a {@link Listener} as they resolve.
+ * </p>
+ */
+public class DocumentationLookup {
+
+	/** The network layer: fetches the content of a URL. */
+	public interface Fetcher {
+		/**
+		 * @return The content, or null if there is none (e.g. HTTP 404).
+		 * @throws IOException For transient failures such as timeouts, whose outcome is not cached.
+		 */
+		String fetch(String url, int timeoutMillis) throws IOException;
+	}
+
+	/** Receives the results of a lookup as they resolve, on a background thread. */
+	public interface Listener {
+		/** The classes matching the query, sorted; known before any network access. */
+		void classesFound(List<String> classnames);
+
+		/** All URLs found for one class. */
+		void urlsFound(String classname, List<String> urls);
+	}
+
+	/** Fetches through {@link URLConnection}. */
+	static public final Fetcher URL_CONNECTION = (url, timeoutMillis) -> {
+		final URLConnection connection = new URL(url).openConnection();
+		connection.setConnectTimeout(timeoutMillis);
+		connection.setReadTimeout(timeoutMillis);
+		if (connection instanceof HttpURLConnection) {
+			final int code = ((HttpURLConnection) connection).getResponseCode();
+			if (404 == code || 410 == code) return null;
+		}
+		try (final InputStream in = connection.getInputStream()) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[8192];
+			for (int n = in.read(buffer); -1 != n; n = in.read(buffer)) out.write(buffer, 0, n);
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (FileNotFoundException e) {
+			return null;
+		}
+	};
+
+	static private final long INDEX_TTL = TimeUnit.DAYS.toMillis(7);
+	static private final long FOUND_TTL = TimeUnit.DAYS.toMillis(30);
+	static private final long NOT_FOUND_TTL = TimeUnit.DAYS.toMillis(1);
+
+	static private final Pattern indexPattern = Pattern.compile("<div class=\"jdbox\"><div><a href=\"(.*?)\">");
+	static private final Pattern javaPackages = Pattern.compile("^(java|javax|org\\.omg|org\\.w3c|org\\.xml|org\\.ietf\\.jgss)\\..*$");
+
+	private final Fetcher fetcher;
+	private final String baseURL;
+	private final int timeoutMillis;
+	private final ExecutorService executor;
+
+	/** The persistent cache, or null for none. */
+	private final File cacheFile;
+	private Properties cache = null;
+
+	/** Javadoc project name, lower case, vs. its URL; null until first requested. */
+	private CompletableFuture<Map<String, String>> projects = null;
+
+	/**
+	 * @param fetcher The network layer.
+	 * @param baseURL The javadoc site, with ending slash.
+	 * @param cacheFile The file to persist results in, or null for none.
+	 * @param maxParallelRequests How many requests may run at once.
+	 * @param timeoutMillis The connect and read timeouts of each request.
+	 */
+	public DocumentationLookup(final Fetcher fetcher, final String baseURL, final File cacheFile,
+			final int maxParallelRequests, final int timeoutMillis) {
+		this.fetcher = fetcher;
+		this.baseURL = baseURL;
+		this.cacheFile = cacheFile;
+		this.timeoutMillis = timeoutMillis;
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor(maxParallelRequests, maxParallelRequests,
+				30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+					final Thread thread = new Thread(r, "Documentation lookup");
+					thread.setDaemon(true);
+					return thread;
+				});
+		pool.allowCoreThreadTimeOut(true);
+		this.executor = pool;
+	}
+
+	/** Look up the documentation of the classes whose fully qualified name contains {@code text}. */
+	public CompletableFuture<HashMap<String, ArrayList<String>>> find(final String text, final Listener listener) {
+		return CompletableFuture.supplyAsync(() -> ClassUtil.findClassDocumentationURLs(text), executor)
+				.thenCompose(matches -> find(matches, listener));
+	}
+
+	/**
+	 * Look up the documentation of the given classes.
+	 * 
+	 * @param matches Class names vs. the properties of their jar file.
+	 * @param listener Receives the results as they resolve, or null.
+	 * @return All class names vs. their URLs, once every class is resolved.
+	 */
+	public CompletableFuture<HashMap<String, ArrayList<String>>> find(final Map<String, JarProperties> matches, final Listener listener) {
+		final ArrayList<String> classnames = new ArrayList<>(matches.keySet());
+		Collections.sort(classnames);
+		if (null != listener) listener.classesFound(classnames);
+		if (classnames.isEmpty()) return CompletableFuture.completedFuture(new HashMap<>());
+		return projects().thenCompose(projects -> {
+			final List<CompletableFuture<ArrayList<String>>> lookups = new ArrayList<>();
+			for (final String classname : classnames) {
+				lookups.add(findURLs(classname, matches.get(classname), projects).thenApply(urls -> {
+					if (null != listener) listener.urlsFound(classname, urls);
+					return urls;
+				}));
+			}
+			return CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+				saveCache();
+				final HashMap<String, ArrayList<String>> class_urls = new HashMap<>();
+				for (int i = 0; i < classnames.size(); i++) class_urls.put(classnames.get(i), lookups.get(i).join());
+				return class_urls;
+			});
+		});
+	}
+
+	/** The javadoc projects of the site, lower case, vs. their URLs; from the cache when fresh. */
+	public synchronized CompletableFuture<Map<String, String>> projects() {
+		if (null != projects) return projects;
+		final HashMap<String, String> cached = new HashMap<>();
+		final Properties cache = cache();
+		if (System.currentTimeMillis() - parseTime(cache.getProperty("index")) < INDEX_TTL) {
+			for (final String key : cache.stringPropertyNames()) {
+				if (key.startsWith("index.")) cached.put(key.substring(6), cache.getProperty(key));
+			}
+		}
+		if (!cached.isEmpty()) {
+			projects = CompletableFuture.completedFuture(cached);
+			return projects;
+		}
+		projects = CompletableFuture.supplyAsync(() -> {
+			final HashMap<String, String> urls = new HashMap<>();
+			try {
+				final String page = fetcher.fetch(baseURL, timeoutMillis);
+				if (null == page) return urls;
+				final Matcher matcher = indexPattern.matcher(page);
+				while (matcher.find()) {
+					String name = matcher.group(1).toLowerCase();
+					if (name.endsWith("/")) name = name.substring(0, name.length() - 1);
+					urls.put(name, baseURL + matcher.group(1));
+				}
+			} catch (IOException e) {
+				// Try again with the next lookup
+				synchronized (DocumentationLookup.this) {
+					projects = null;
+				}
+				return urls;
+			}
+			synchronized (DocumentationLookup.this) {
+				cache().setProperty("index", Long.toString(System.currentTimeMillis()));
+				for (final Map.Entry<String, String> entry : urls.entrySet()) cache().setProperty("index." + entry.getKey(), entry.getValue());
+			}
+			return urls;
+		}, executor);
+		return projects;
+	}
+
+	private CompletableFuture<ArrayList<String>> findURLs(final String classname, final JarProperties props, final Map<String, String> projects) {
+		final ArrayList<String> urls = new ArrayList<>();
+		final String path = classname.replace('.', '/');
+		if (javaPackages.matcher(classname).matches()) {
+			final String javadoc = projects.get(javaDoc(System.getProperty("java.version")));
+			if (null != javadoc) urls.add(javadoc + path + ".html");
+			return CompletableFuture.completedFuture(urls);
+		}
+		// Find the first URL with git in it
+		for (final String url : props.urls) {
+			final boolean github = url.contains("/github.com"),
+						  gitlab = url.contains("/gitlab.com");
+			if (github || gitlab) {
+				// Find the 5th slash, e.g. https://github.com/imglib/imglib2/
+				int count = 0;
+				int last = 0;
+				while (count < 5) {
+					last = url.indexOf('/', last + 1);
+					if (-1 == last) break; // less than 5 found
+					++count;
+				}
+				String urlbase = url;
+				if (5 == count) urlbase = url.substring(0, last); // without the ending slash
+				// Assume maven, since these URLs were found in a pom.xml: src/main/java/
+				urls.add(urlbase + (gitlab ? "/-" : "") + "/blob/master/src/main/java/" + path + ".java");
+				break;
+			}
+		}
+		if (null == props.name) return CompletableFuture.completedFuture(urls);
+		// Try to find a javadoc in the scijava website
+		String javadoc = projects.get(props.name.toLowerCase());
+		if (null == javadoc) {
+			// Try cropping name at the first whitespace if any (e.g. "ImgLib2 Core Library" to "ImgLib2")
+			for (final String word: props.name.split(" ")) {
+				javadoc = projects.get(word.toLowerCase());
+				if (null != javadoc) break; // found a valid one
+			}
+		}
+		if (null != javadoc) {
+			urls.add(javadoc + path + ".html");
+			return CompletableFuture.completedFuture(urls);
+		}
+		// Try Fiji: could be a plugin
+		final String url = baseURL + "Fiji/" + path + ".html";
+		return probe(url).thenApply(found -> {
+			if (found) urls.add(url);
+			return urls;
+		});
+	}
+
+	/** Whether a javadoc page exists at the URL; from the cache when fresh. */
+	private CompletableFuture<Boolean> probe(final String url) {
+		synchronized (this) {
+			final String entry = cache().getProperty("probe." + url);
+			if (null != entry) {
+				final boolean found = entry.endsWith(" found");
+				final long age = System.currentTimeMillis() - parseTime(entry);
+				if (age < (found ? FOUND_TTL : NOT_FOUND_TTL)) return CompletableFuture.completedFuture(found);
+			}
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			final boolean found;
+			try {
+				final String page = fetcher.fetch(url, timeoutMillis);
+				// A 404 may also be redirected to an error page
+				found = null != page && !page.contains("<title>404");
+			} catch (IOException e) {
+				return false; // not cached: may work next time
+			}
+			synchronized (DocumentationLookup.this) {
+				cache().setProperty("probe." + url, System.currentTimeMillis() + (found ? " found" : " missing"));
+			}
+			return found;
+		}, executor);
+	}
+
+	/**
+	 * The javadoc project of a Java version, from its major version: java8 for
+	 * "1.8.0_392", java21 for "21.0.1", "21" or "21-ea". Anything else is
+	 * taken whole.
+	 */
+	static String javaDoc(final String version) {
+		final String major = version.startsWith("1.") ? version.substring(2) : version;
+		int end = 0;
+		while (end < major.length() && Character.isDigit(major.charAt(end))) end++;
+		return "java" + (0 == end ? major : major.substring(0, end));
+	}
+
+	static private long parseTime(final String entry) {
+		if (null == entry) return 0;
+		final int space = entry.indexOf(' ');
+		try {
+			return Long.parseLong(-1 == space ? entry : entry.substring(0, space));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private synchronized Properties cache() {
+		if (null != cache) return cache;
+		cache = new Properties();
+		if (null != cacheFile && cacheFile.isFile()) {
+			try (final InputStream in = Files.newInputStream(cacheFile.toPath())) {
+				cache.load(in);
+			} catch (IOException | IllegalArgumentException e) {
+				cache.clear(); // start over
+			}
+		}
+		return cache;
+	}
+
+	private synchronized void saveCache() {
+		if (null == cacheFile || null == cache) return;
+		final File dir = cacheFile.getParentFile();
+		File tmp = null;
+		try {
+			if (!dir.isDirectory() && !dir.mkdirs()) return;
+			tmp = File.createTempFile("javadoc-cache", ".tmp", dir);
+			try (final OutputStream out = Files.newOutputStream(tmp.toPath())) {
+				cache.store(out, "Documentation lookup results");
+			}
+			Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			// The cache is only an optimization
+			if (null != tmp) tmp.delete();
+		}
+	}
+}
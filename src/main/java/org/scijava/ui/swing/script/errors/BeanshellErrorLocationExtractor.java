@@ -0,0 +1,66 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.errors;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.ui.swing.script.AbstractErrorLocationExtractor;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * {@link ErrorLocationExtractor} for BeanShell: messages such as
+ * {@code Sourced file: inline evaluation of: ``x = 1;'' : ... : at Line: 51 : in file: <unknown file>}.
+ * Frames of the interpreter itself are ignored.
+ */
+@Plugin(type = ErrorLocationExtractor.class)
+public class BeanshellErrorLocationExtractor extends
+	AbstractErrorLocationExtractor
+{
+
+	private static final Pattern LINE = Pattern.compile(
+		"at Line: (\\d+)(?: : in file: ([^:]*?)(?= :|$))?");
+
+	public BeanshellErrorLocationExtractor() {
+		super("bsh");
+	}
+
+	@Override
+	public ErrorLocation extract(final String line, final String fileName) {
+		if (line.contains("at bsh.") || !line.contains("at Line: ")) return null;
+		final Matcher m = LINE.matcher(line);
+		if (!m.find()) return null;
+		// Inline evaluations are named after the script text, not after a file
+		final String file = m.group(2) == null ? "" : m.group(2).trim();
+		return new ErrorLocation(file.isEmpty() || file.equals("<unknown file>")
+			? null : file, number(m, 1), 0);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.errors;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Plugin;
+import org.scijava.script.ScriptLanguage;
+import org.scijava.ui.swing.script.AbstractErrorLocationExtractor;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * Fallback {@link ErrorLocationExtractor} for all languages: takes the first
+ * number after a colon or after the word "line", in lines that mention a line,
+ * the script or its file extension.
+ */
+@Plugin(type = ErrorLocationExtractor.class, priority = Priority.LOW)
+public class DefaultErrorLocationExtractor extends
+	AbstractErrorLocationExtractor
+{
+
+	/* A line number after a colon, or after the word "line" */
+	private static final Pattern LINE_NUMBER = Pattern.compile(
+		":(\\d+)|line\\D*(\\d+)", Pattern.CASE_INSENSITIVE);
+	private static final Pattern COLUMN = Pattern.compile("column\\D*(\\d+)",
+		Pattern.CASE_INSENSITIVE);
+
+	public DefaultErrorLocationExtractor() {
+		super();
+	}
+
+	/** For the languages with the given extensions. */
+	protected DefaultErrorLocationExtractor(final String... extensions) {
+		super(extensions);
+	}
+
+	// -- ErrorLocationExtractor methods --
+
+	@Override
+	public boolean supports(final ScriptLanguage language) {
+		return getClass() == DefaultErrorLocationExtractor.class || super.supports(
+			language);
+	}
+
+	@Override
+	public ErrorLocation extract(final String line, final String fileName) {
+		if (isInternal(line) || !mentionsScript(line, fileName)) return null;
+		final Matcher matcher = LINE_NUMBER.matcher(line);
+		if (!matcher.find()) return null;
+		final int lineNumber = number(matcher, matcher.group(1) == null ? 2 : 1);
+		if (lineNumber <= 0) return null;
+		final Matcher column = COLUMN.matcher(line);
+		return new ErrorLocation(null, lineNumber, column.find(matcher.end())
+			? number(column, 1) : 0);
+	}
+
+	// -- Helper methods --
+
+	/** Whether the line is a stack frame of a language runtime. */
+	protected boolean isInternal(final String line) {
+		return line.contains(":classloader:") // ruby
+			|| line.contains(".org.python.") // python
+			|| line.contains(".codehaus.groovy.") // groovy
+			|| line.contains(".tools.nsc.") // scala
+			|| line.contains("at bsh.") // beanshell
+			|| line.contains("$Recompilation$"); // javascript
+	}
+
+	/** Whether the line mentions a line, the script or its file extension. */
+	protected boolean mentionsScript(final String line, final String fileName) {
+		if (containsIgnoreCase(line, "line")) return true;
+		if (line.contains(" Script")) return true; // unsaved file, etc.
+		if (fileName == null) return false;
+		if (line.contains(fileName)) return true;
+		final int dot = fileName.lastIndexOf('.');
+		return dot >= 0 && line.contains(fileName.substring(dot));
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.errors;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.ui.swing.script.AbstractErrorLocationExtractor;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * {@link ErrorLocationExtractor} for Groovy: compilation errors such as
+ * {@code Script1.groovy: 5: unexpected token: } @ line 5, column 1.} and
+ * stack frames such as {@code at Script1.run(Script1.groovy:51)}.
+ */
+@Plugin(type = ErrorLocationExtractor.class)
+public class GroovyErrorLocationExtractor extends
+	AbstractErrorLocationExtractor
+{
+
+	private static final Pattern COMPILATION = Pattern.compile(
+		"^(?:(\\S+\\.groovy): \\d+: )?.*@ line (\\d+), column (\\d+)");
+	private static final Pattern FRAME = Pattern.compile(
+		"\\(([^()\\s:]+\\.groovy):(\\d+)\\)");
+
+	public GroovyErrorLocationExtractor() {
+		super("groovy");
+	}
+
+	@Override
+	public ErrorLocation extract(final String line, final String fileName) {
+		if (line.contains("@ line ")) {
+			final Matcher m = COMPILATION.matcher(line);
+			if (m.find()) {
+				return new ErrorLocation(m.group(1), number(m, 2), number(m, 3));
+			}
+		}
+		if (line.contains(".groovy:")) {
+			final Matcher m = FRAME.matcher(line);
+			if (m.find()) return new ErrorLocation(m.group(1), number(m, 2), 0);
+		}
+		return null;
+	}
+}
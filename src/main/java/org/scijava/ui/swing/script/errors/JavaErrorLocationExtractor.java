@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.errors;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.ui.swing.script.AbstractErrorLocationExtractor;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * {@link ErrorLocationExtractor} for Java: compiler errors such as
+ * {@code /tmp/java/Foo.java:12: error: ';' expected} or
+ * {@code Foo.java:[12,5] cannot find symbol}, and stack frames such as
+ * {@code at Foo.run(Foo.java:12)}. Only locations in the file of the script are
+ * reported, so the script must have a file name.
+ */
+@Plugin(type = ErrorLocationExtractor.class)
+public class JavaErrorLocationExtractor extends AbstractErrorLocationExtractor {
+
+	/* A line number, and maybe a column, right after the file name */
+	private static final Pattern POSITION = Pattern.compile(
+		"\\G:(?:(\\d+)[:)]|\\[(\\d+),(\\d+)\\])");
+
+	public JavaErrorLocationExtractor() {
+		super("java");
+	}
+
+	@Override
+	public ErrorLocation extract(final String line, final String fileName) {
+		if (fileName == null) return null;
+		final int index = line.indexOf(fileName);
+		if (index < 0) return null;
+		final Matcher m = POSITION.matcher(line);
+		if (!m.find(index + fileName.length())) return null;
+		if (m.group(1) != null) return new ErrorLocation(fileName, number(m, 1), 0);
+		return new ErrorLocation(fileName, number(m, 2), number(m, 3));
+	}
+}
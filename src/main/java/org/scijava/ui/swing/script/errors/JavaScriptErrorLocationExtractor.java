@@ -0,0 +1,77 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.errors;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.ui.swing.script.AbstractErrorLocationExtractor;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * {@link ErrorLocationExtractor} for JavaScript (Nashorn): stack frames such
+ * as {@code at jdk.nashorn.internal.scripts.Script$15$Greeting.:program(Greeting.js:51)},
+ * syntax errors such as {@code <eval>:3:4 Expected ; but found y} and messages
+ * ending in {@code at line number 51 at column number 18}. The duplicate frames
+ * of recompiled functions are ignored.
+ */
+@Plugin(type = ErrorLocationExtractor.class)
+public class JavaScriptErrorLocationExtractor extends
+	AbstractErrorLocationExtractor
+{
+
+	private static final Pattern FILE_LINE = Pattern.compile(
+		"(<eval>|[^\\s:()]+\\.js):(\\d+)(?::(\\d+))?");
+	private static final Pattern LINE_NUMBER = Pattern.compile(
+		"at line number (\\d+)(?: at column number (\\d+))?");
+
+	public JavaScriptErrorLocationExtractor() {
+		super("js");
+	}
+
+	@Override
+	public ErrorLocation extract(final String line, final String fileName) {
+		if (line.contains("$Recompilation$")) return null;
+		if (line.contains("at line number ")) {
+			final Matcher m = LINE_NUMBER.matcher(line);
+			if (m.find()) return new ErrorLocation(null, number(m, 1), number(m, 2));
+		}
+		if (line.contains(".js:") || line.contains("<eval>:")) {
+			final Matcher m = FILE_LINE.matcher(line);
+			if (m.find()) {
+				// Nashorn reports 0-based columns
+				final int column = m.group(3) == null ? 0 : number(m, 3) + 1;
+				return new ErrorLocation(m.group(1), number(m, 2), column);
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.errors;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.ui.swing.script.AbstractErrorLocationExtractor;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * {@link ErrorLocationExtractor} for Python (Jython): traceback entries such
+ * as {@code File "New_.py", line 51, in <module>} and syntax errors such as
+ * {@code SyntaxError: ("mismatched input", ('<iostream>', 3, 4, 'x y\n'))}.
+ * Frames of the Jython runtime itself are ignored.
+ */
+@Plugin(type = ErrorLocationExtractor.class)
+public class PythonErrorLocationExtractor extends
+	AbstractErrorLocationExtractor
+{
+
+	private static final Pattern TRACEBACK = Pattern.compile(
+		"File \"([^\"]*)\", line (\\d+)");
+	private static final Pattern SYNTAX = Pattern.compile(
+		"\\('([^']*)', (\\d+), (\\d+),");
+
+	public PythonErrorLocationExtractor() {
+		super("py");
+	}
+
+	@Override
+	public ErrorLocation extract(final String line, final String fileName) {
+		if (line.contains(".org.python.")) return null;
+		if (line.contains("File \"")) {
+			final Matcher m = TRACEBACK.matcher(line);
+			if (m.find()) return new ErrorLocation(m.group(1), number(m, 2), 0);
+		}
+		if (line.startsWith("SyntaxError")) {
+			final Matcher m = SYNTAX.matcher(line);
+			if (m.find()) {
+				// Jython reports 0-based columns
+				return new ErrorLocation(m.group(1), number(m, 2), number(m, 3) + 1);
+			}
+		}
+		return null;
+	}
+}
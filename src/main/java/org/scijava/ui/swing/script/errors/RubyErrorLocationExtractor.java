@@ -0,0 +1,63 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.errors;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.ui.swing.script.AbstractErrorLocationExtractor;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * {@link ErrorLocationExtractor} for Ruby (JRuby): backtraces and syntax
+ * errors such as {@code <main> at Batch_Convert.rb:51} or
+ * {@code SyntaxError: <script>:3: syntax error, unexpected end-of-file}.
+ * Frames of the JRuby kernel, which is loaded from the class loader, are
+ * ignored.
+ */
+@Plugin(type = ErrorLocationExtractor.class)
+public class RubyErrorLocationExtractor extends AbstractErrorLocationExtractor {
+
+	private static final Pattern LOCATION = Pattern.compile(
+		"(<script>|[^\\s:()'\"]+\\.rb):(\\d+)");
+
+	public RubyErrorLocationExtractor() {
+		super("rb");
+	}
+
+	@Override
+	public ErrorLocation extract(final String line, final String fileName) {
+		if (line.contains(":classloader:")) return null;
+		if (!line.contains(".rb:") && !line.contains("<script>:")) return null;
+		final Matcher m = LOCATION.matcher(line);
+		return m.find() ? new ErrorLocation(m.group(1), number(m, 2), 0) : null;
+	}
+}
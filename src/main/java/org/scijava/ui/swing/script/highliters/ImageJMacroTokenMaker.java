@@ -2370,6 +2370,9 @@ public class ImageJMacroTokenMaker extends AbstractJFlexCTokenMaker {
 
 	/* user code: */
 
+	/** The tokens of recently lexed lines, replayed instead of lexing them again. */
+	final LineTokenCache tokenCache = new LineTokenCache();
+
 	/**
 	 * Constructor. This must be here because JFlex does not generate a
 	 * no-parameter constructor.
@@ -2450,6 +2453,9 @@ public class ImageJMacroTokenMaker extends AbstractJFlexCTokenMaker {
 	{
 
 		resetTokenList();
+		if (tokenCache.replay(this, text, initialTokenType, startOffset)) {
+			return firstToken;
+		}
 		this.offsetShift = -text.offset + startOffset;
 
 		// Start off in the proper state.
@@ -2469,7 +2475,7 @@ public class ImageJMacroTokenMaker extends AbstractJFlexCTokenMaker {
 		try {
 			yyreset(zzReader);
 			yybegin(state);
-			return yylex();
+			return tokenCache.record(yylex(), text, initialTokenType, startOffset);
 		}
 		catch (final IOException ioe) {
 			ioe.printStackTrace();
@@ -0,0 +1,202 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+
+package org.scijava.ui.swing.script.highliters;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMakerBase;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+
+/**
+ * The tokens of recently lexed lines, keyed by the text of the line and the
+ * token type it starts in.
+ * <p>
+ * The text area asks its token maker for the tokens of each visible line
+ * whenever it paints, and again for the lines below an edit. A line with the
+ * same text, starting in the same state, always yields the same tokens, only
+ * at other offsets; so instead of running the lexer again, the cached token
+ * types and boundaries are replayed into the token maker's own token list.
+ * Since the key is the whole line, nothing needs to be invalidated.
+ * </p>
+ * <p>
+ * The cache holds at most a given number of characters, counting both the
+ * lines and their tokens, and drops the least recently used lines first; very
+ * long lines are not cached at all. It is not thread-safe, just like the token
+ * maker that owns it.
+ * </p>
+ */
+final class LineTokenCache {
+
+	/** The default capacity, in characters: some ten thousand typical lines. */
+	static final int DEFAULT_CAPACITY = 1 << 20;
+
+	private static final int FIELDS = 4;
+
+	private final LinkedHashMap<Key, int[]> lines = new LinkedHashMap<>(256, 0.75f, true);
+
+	/** Looks up lines without copying them. */
+	private final Key probe = new Key();
+
+	private int capacity = DEFAULT_CAPACITY;
+	private long size;
+
+	/** Sets the capacity in characters; 0 disables the cache. */
+	void setCapacity(final int capacity) {
+		this.capacity = Math.max(0, capacity);
+		evict();
+	}
+
+	/**
+	 * Adds the cached tokens of a line to the token maker's (empty) token list.
+	 *
+	 * @return whether the line was cached
+	 */
+	boolean replay(final TokenMakerBase tokenMaker, final Segment text,
+		final int initialTokenType, final int startOffset)
+	{
+		if (!isCacheable(text)) return false;
+		final int[] tokens = lines.get(probe.set(text, initialTokenType));
+		probe.array = null; // do not hold on to the document's text
+		if (tokens == null) return false;
+		for (int i = 0; i < tokens.length; i += FIELDS) {
+			final int type = tokens[i + 2];
+			if (type == TokenTypes.NULL) {
+				tokenMaker.addNullToken();
+			}
+			else {
+				tokenMaker.addToken(text.array, text.offset + tokens[i], text.offset +
+					tokens[i + 1], type, startOffset + tokens[i], tokens[i + 3] != 0);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Caches the tokens just lexed for a line.
+	 *
+	 * @return the first of the tokens
+	 */
+	Token record(final Token firstToken, final Segment text,
+		final int initialTokenType, final int startOffset)
+	{
+		if (!isCacheable(text)) return firstToken;
+		int count = 0;
+		for (Token t = firstToken; t != null; t = t.getNextToken()) count++;
+		final int[] tokens = new int[FIELDS * count];
+		int i = 0;
+		for (Token t = firstToken; t != null; t = t.getNextToken(), i += FIELDS) {
+			tokens[i + 2] = t.getType();
+			if (t.getType() == TokenTypes.NULL) continue;
+			tokens[i] = t.getOffset() - startOffset;
+			tokens[i + 1] = tokens[i] + t.length() - 1;
+			tokens[i + 3] = t.isHyperlink() ? 1 : 0;
+		}
+		final Key key = new Key().set(text, initialTokenType).copy();
+		final int[] old = lines.put(key, tokens);
+		if (old != null) size -= cost(key, old);
+		size += cost(key, tokens);
+		evict();
+		return firstToken;
+	}
+
+	/**
+	 * Whether a line is short enough to be cached. A line longer than a
+	 * sixteenth of the capacity would push out most others, or itself right
+	 * away, and recording it would only add to the cost of lexing it.
+	 */
+	private boolean isCacheable(final Segment text) {
+		return text.count <= capacity / 16;
+	}
+
+	private void evict() {
+		final Iterator<Map.Entry<Key, int[]>> eldest = lines.entrySet().iterator();
+		while (size > capacity && eldest.hasNext()) {
+			final Map.Entry<Key, int[]> entry = eldest.next();
+			size -= cost(entry.getKey(), entry.getValue());
+			eldest.remove();
+		}
+	}
+
+	/** The characters held for a line, counting each token field as one. */
+	private static int cost(final Key key, final int[] tokens) {
+		return key.count + tokens.length;
+	}
+
+	/** A line of text and the token type it starts in. */
+	private static final class Key {
+
+		private char[] array;
+		private int offset, count;
+		private int initialTokenType;
+		private int hash;
+
+		private Key set(final Segment text, final int initialTokenType) {
+			array = text.array;
+			offset = text.offset;
+			count = text.count;
+			this.initialTokenType = initialTokenType;
+			int h = initialTokenType;
+			for (int i = offset; i < offset + count; i++) h = 31 * h + array[i];
+			hash = h;
+			return this;
+		}
+
+		/** Detaches the key from the text it was set to. */
+		private Key copy() {
+			array = Arrays.copyOfRange(array, offset, offset + count);
+			offset = 0;
+			return this;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof Key)) return false;
+			final Key other = (Key) o;
+			if (hash != other.hash || count != other.count ||
+				initialTokenType != other.initialTokenType) return false;
+			for (int i = 0; i < count; i++) {
+				if (array[offset + i] != other.array[other.offset + i]) return false;
+			}
+			return true;
+		}
+	}
+}
@@ -455,6 +455,9 @@ public class MatlabTokenMaker extends AbstractJFlexTokenMaker {
 
 	/* user code: */
 
+	/** The tokens of recently lexed lines, replayed instead of lexing them again. */
+	final LineTokenCache tokenCache = new LineTokenCache();
+
 	/**
 	 * Constructor. This must be here because JFlex does not generate a
 	 * no-parameter constructor.
@@ -530,6 +533,9 @@ public class MatlabTokenMaker extends AbstractJFlexTokenMaker {
 	{
 
 		resetTokenList();
+		if (tokenCache.replay(this, text, initialTokenType, startOffset)) {
+			return firstToken;
+		}
 		this.offsetShift = -text.offset + startOffset;
 
 		// Start off in the proper state.
@@ -555,7 +561,7 @@ public class MatlabTokenMaker extends AbstractJFlexTokenMaker {
 		try {
 			yyreset(zzReader);
 			yybegin(state);
-			return yylex();
+			return tokenCache.record(yylex(), text, initialTokenType, startOffset);
 		}
 		catch (final IOException ioe) {
 			ioe.printStackTrace();
@@ -0,0 +1,220 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchEngine;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks Replace All, Zap Gremlins and the tab to space conversion on a
+ * Python script of 100,000 lines with 10,000 matches, gremlins and tabs: the
+ * {@link SearchEngine} and {@code setText} ways they used to take, against
+ * {@link BulkEdit}. Also counts the document events each one fires
+ * ({@code events}).
+ * <p>
+ * Run from test scope with {@link #main(String...)}. The old Replace All takes
+ * seconds per run.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-Djava.awt.headless=true" })
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class BulkEditBenchmark {
+
+	@Param({ "100000" })
+	public int lines;
+
+	private String text;
+
+	/** A text area showing the script, and the number of document events it saw. */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Area implements DocumentListener {
+
+		public long events;
+
+		RSyntaxTextArea textArea;
+
+		@Setup(Level.Invocation)
+		public void setUp(final BulkEditBenchmark benchmark) throws Exception {
+			SwingUtilities.invokeAndWait(() -> {
+				if (textArea == null) {
+					textArea = new RSyntaxTextArea();
+					textArea.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_PYTHON);
+					textArea.setTabSize(4);
+				}
+				textArea.getDocument().removeDocumentListener(this);
+				textArea.setText(benchmark.text);
+				textArea.discardAllEdits();
+				textArea.setCaretPosition(0);
+				textArea.getDocument().addDocumentListener(this);
+			});
+		}
+
+		@Override
+		public void insertUpdate(final DocumentEvent e) {
+			events++;
+		}
+
+		@Override
+		public void removeUpdate(final DocumentEvent e) {
+			events++;
+		}
+
+		@Override
+		public void changedUpdate(final DocumentEvent e) {}
+	}
+
+	@Setup
+	public void setUp() {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			// Every tenth line is indented with a tab, calls foo and has a non-breaking space
+			if (i % 10 == 0) builder.append("\tresult = foo(").append(i).append(")\u00a0# 'na\u00efve'\n");
+			else builder.append("    result = bar(").append(i).append(")  # \"na\u00efve\"\n");
+		}
+		text = builder.toString();
+	}
+
+	@Benchmark
+	public int replaceAllSearchEngine(final Area area) throws Exception {
+		final int[] count = { 0 };
+		SwingUtilities.invokeAndWait(() -> count[0] = SearchEngine.replaceAll(area.textArea, search()).getCount());
+		return count[0];
+	}
+
+	@Benchmark
+	public int replaceAllBulkEdit(final Area area) throws Exception {
+		final int[] count = { 0 };
+		SwingUtilities.invokeAndWait(() -> count[0] = BulkEdit.replaceAll(area.textArea.getDocument(), search())
+				.apply(area.textArea));
+		return count[0];
+	}
+
+	@Benchmark
+	public int zapGremlinsSetText(final Area area) throws Exception {
+		final int[] count = { 0 };
+		SwingUtilities.invokeAndWait(() -> {
+			// As EditorPane.zapGremlins used to
+			final char[] chars = area.textArea.getText().toCharArray();
+			boolean inQuotes = false;
+			char quoteChar = 0;
+			for (int i = 0; i < chars.length; ++i) {
+				final char c = chars[i];
+				if (!inQuotes) {
+					if (c == '"' || c == '\'') {
+						inQuotes = true;
+						quoteChar = c;
+					}
+					else if (c != '\n' && c != '\t' && (c < 32 || c > 127)) {
+						count[0]++;
+						chars[i] = ' ';
+					}
+				}
+				else if (c == quoteChar || c == '\n') {
+					inQuotes = false;
+				}
+			}
+			area.textArea.beginAtomicEdit();
+			try {
+				area.textArea.setText(new String(chars));
+			}
+			finally {
+				area.textArea.endAtomicEdit();
+			}
+		});
+		return count[0];
+	}
+
+	@Benchmark
+	public int zapGremlinsBulkEdit(final Area area) throws Exception {
+		final int[] count = { 0 };
+		SwingUtilities.invokeAndWait(() -> count[0] = BulkEdit.zapGremlins(area.textArea.getDocument()).apply(area.textArea));
+		return count[0];
+	}
+
+	@Benchmark
+	public void tabsToSpacesSetText(final Area area) throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			area.textArea.beginAtomicEdit();
+			try {
+				area.textArea.convertTabsToSpaces();
+			}
+			finally {
+				area.textArea.endAtomicEdit();
+			}
+		});
+	}
+
+	@Benchmark
+	public int tabsToSpacesBulkEdit(final Area area) throws Exception {
+		final int[] count = { 0 };
+		SwingUtilities.invokeAndWait(() -> count[0] = BulkEdit.tabsToSpaces(area.textArea.getDocument(), 4)
+				.apply(area.textArea));
+		return count[0];
+	}
+
+	private static SearchContext search() {
+		final SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("compute");
+		context.setMatchCase(true);
+		return context;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(BulkEditBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.Test;
+
+/**
+ * Tests {@link BulkEdit}.
+ */
+public class BulkEditTest {
+
+	@Test
+	public void testZapGremlins() {
+		final RSyntaxTextArea textArea = new RSyntaxTextArea("a\u00a0b 'c\u00a0d' \"e\u00a0\nf\u00a0g\tx\u0001\n");
+		assertEquals(3, BulkEdit.zapGremlins(textArea.getDocument()).apply(textArea));
+		assertEquals("a b 'c\u00a0d' \"e\u00a0\nf g\tx \n", textArea.getText());
+	}
+
+	@Test
+	public void testTabsAndSpaces() {
+		final RSyntaxTextArea textArea = new RSyntaxTextArea("\tif a:\n\t\tb(\"\t\")\n  c\n");
+		assertEquals(4, BulkEdit.tabsToSpaces(textArea.getDocument(), 4).apply(textArea));
+		assertEquals("    if a:\n        b(\"    \")\n  c\n", textArea.getText());
+		assertEquals(4, BulkEdit.spacesToTabs(textArea.getDocument(), 4).apply(textArea));
+		assertEquals("\tif a:\n\t\tb(\"\t\")\n  c\n", textArea.getText());
+	}
+
+	@Test
+	public void testReplaceAll() {
+		final RSyntaxTextArea textArea = new RSyntaxTextArea("foo Foo food foo\nfoo(1) foo(22)\n");
+		assertEquals(5, replaceAll(textArea, "foo", "bar", true, false, false));
+		assertEquals("bar Foo bard bar\nbar(1) bar(22)\n", textArea.getText());
+		assertEquals(4, replaceAll(textArea, "BAR", "x", false, true, false));
+		assertEquals("x Foo bard x\nx(1) x(22)\n", textArea.getText());
+		assertEquals(2, replaceAll(textArea, "\\w+\\((\\d+)\\)", "f[$1]", true, false, true));
+		assertEquals("x Foo bard x\nf[1] f[22]\n", textArea.getText());
+		assertEquals(0, replaceAll(textArea, "nothing", "x", true, false, false));
+	}
+
+	@Test
+	public void testOneEventPerLine() {
+		final RSyntaxTextArea textArea = new RSyntaxTextArea("a\tb\tc\nd\n\te\t\n");
+		final AtomicInteger events = new AtomicInteger();
+		textArea.getDocument().addDocumentListener(new DocumentListener() {
+
+			@Override
+			public void insertUpdate(final DocumentEvent e) {
+				events.incrementAndGet();
+			}
+
+			@Override
+			public void removeUpdate(final DocumentEvent e) {
+				events.incrementAndGet();
+			}
+
+			@Override
+			public void changedUpdate(final DocumentEvent e) {}
+		});
+		assertEquals(4, BulkEdit.tabsToSpaces(textArea.getDocument(), 2).apply(textArea));
+		assertEquals("a  b  c\nd\n  e  \n", textArea.getText());
+		// a removal and an insertion for each of the two changed lines
+		assertEquals(4, events.get());
+	}
+
+	@Test
+	public void testCaretAndUndo() {
+		final String text = "\ta\n\tb\n\tc\n";
+		final RSyntaxTextArea textArea = new RSyntaxTextArea(text);
+		textArea.select(text.indexOf('b'), text.indexOf('c'));
+		BulkEdit.tabsToSpaces(textArea.getDocument(), 4).apply(textArea);
+		final String converted = textArea.getText();
+		assertEquals(converted.indexOf('b'), textArea.getSelectionStart());
+		assertEquals(converted.indexOf('c'), textArea.getSelectionEnd());
+		textArea.undoLastAction();
+		assertEquals(text, textArea.getText());
+	}
+
+	private static int replaceAll(final RSyntaxTextArea textArea, final String searchFor, final String replaceWith,
+		final boolean matchCase, final boolean wholeWord, final boolean regex)
+	{
+		final SearchContext context = new SearchContext(searchFor, matchCase);
+		context.setReplaceWith(replaceWith);
+		context.setWholeWord(wholeWord);
+		context.setRegularExpression(regex);
+		return BulkEdit.replaceAll(textArea.getDocument(), context).apply(textArea);
+	}
+}
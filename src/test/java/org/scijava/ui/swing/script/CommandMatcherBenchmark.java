@@ -0,0 +1,121 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks the {@link CommandMatcher} against the substring scan that the
+ * {@link CommandPalette} used before, on a synthetic set of commands.
+ * <p>
+ * Run from test scope with {@link #main(String...)}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CommandMatcherBenchmark {
+
+	@Param({ "5000" })
+	public int commandCount;
+
+	/** Typical queries: a word prefix, an acronym, a fuzzy abbreviation and a miss. */
+	@Param({ "togg", "tc", "slctln", "qqq" })
+	public String query;
+
+	private String[][] commands;
+	private CommandMatcher<String> matcher;
+
+	@Setup
+	public void setUp() {
+		commands = createCommands(commandCount);
+		matcher = new CommandMatcher<>(new HashMap<>());
+		for (final String[] command : commands) matcher.add(command[0], command[1], command[0]);
+		for (int i = 0; i < commands.length; i += 7) matcher.used(commands[i][0]);
+	}
+
+	@Benchmark
+	public List<String> matcher() {
+		return matcher.top(query, 100);
+	}
+
+	@Benchmark
+	public List<String> substring() {
+		final List<String> matches = new ArrayList<>();
+		for (final String[] command : commands) {
+			if (command[0].toLowerCase().replaceAll("\\s+", "").contains(query)
+				|| command[1].toLowerCase().contains(query))
+			{
+				matches.add(command[0]);
+			}
+		}
+		return matches;
+	}
+
+	/** Ids and menu locations that look like those of editor actions and menu items. */
+	static String[][] createCommands(final int count) {
+		final String[] verbs = { "Toggle", "Select", "Delete", "Insert", "Go To", "Open", "Save", "Copy", "Fold", "Run", "Clear", "Show" };
+		final String[] nouns = { "Line", "Comment", "Bookmark", "Word", "Selection", "Tab", "Caret Position", "Matching Bracket", "Script", "Console", "File", "Recent" };
+		final String[] locations = { "Edit", "File", "Run", "Tools", "Window", "Popup Menu", "Interpreter", "" };
+		final Random random = new Random(42);
+		final String[][] commands = new String[count][];
+		for (int i = 0; i < count; i++) {
+			final String id = verbs[random.nextInt(verbs.length)] + " " + nouns[random.nextInt(nouns.length)]
+				+ (random.nextBoolean() ? " " + nouns[random.nextInt(nouns.length)] : "") + " " + i;
+			commands[i] = new String[] { id, locations[random.nextInt(locations.length)] };
+		}
+		return commands;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CommandMatcherBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link CommandMatcher}.
+ */
+public class CommandMatcherTest {
+
+	private Map<String, Integer> usage;
+	private CommandMatcher<String> matcher;
+
+	@Before
+	public void setUp() {
+		usage = new HashMap<>();
+		matcher = new CommandMatcher<>(usage);
+		for (final String id : new String[] { "Close", "Copy as Rtf", "Save", "Save As", "Set Caret Position",
+			"Toggle Bookmark", "Toggle Comment", "Toggle Tab Comment" })
+		{
+			matcher.add(id, "Edit", id);
+		}
+		matcher.add("Kill Running Script", "Run", "Kill Running Script");
+	}
+
+	@Test
+	public void testAcronymRanksFirst() {
+		assertEquals("Toggle Comment", matcher.top("tc", 10).get(0));
+		assertEquals("Kill Running Script", matcher.top("krs", 10).get(0));
+	}
+
+	@Test
+	public void testPrefixAndExactRankFirst() {
+		assertEquals(Arrays.asList("Save", "Save As"), matcher.top("save", 10));
+		assertEquals("Set Caret Position", matcher.top("setc", 10).get(0));
+	}
+
+	@Test
+	public void testSubsequence() {
+		assertEquals(Arrays.asList("Toggle Bookmark"), matcher.top("tglbkm", 10));
+		assertTrue(matcher.top("xyz", 10).isEmpty());
+	}
+
+	@Test
+	public void testLocationMatchesRankLast() {
+		final List<String> matches = matcher.top("run", 10);
+		assertEquals("Kill Running Script", matches.get(0));
+		assertEquals(1, matches.size());
+		assertEquals(8, matcher.top("edit", 10).size());
+	}
+
+	@Test
+	public void testUsageRaisesRank() {
+		assertEquals("Close", matcher.top("c", 10).get(0));
+		matcher.used("Copy as Rtf");
+		matcher.used("Copy as Rtf");
+		assertEquals("Copy as Rtf", matcher.top("c", 10).get(0));
+		assertEquals(Integer.valueOf(2), usage.get("Copy as Rtf"));
+		assertEquals("Copy as Rtf", matcher.top("", 10).get(0));
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		matcher.remove("Save");
+		assertEquals(Arrays.asList("Save As"), matcher.top("save", 10));
+		matcher.add("Save", "File", "Save");
+		assertEquals(Arrays.asList("Save", "Save As"), matcher.top("save", 10));
+		for (final String id : matcher.top("", 100)) matcher.remove(id);
+		assertEquals(0, matcher.size());
+		assertTrue(matcher.top("", 10).isEmpty());
+		matcher.add("Save", "File", "Save");
+		assertEquals(Arrays.asList("Save"), matcher.top("s", 10));
+	}
+
+	@Test
+	public void testLimit() {
+		final List<String> matches = matcher.top("e", 3);
+		assertEquals(3, matches.size());
+		assertEquals(matcher.top("e", 100).subList(0, 3), matches);
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.scijava.log.StderrLogService;
+
+/**
+ * Floods a folder shown in a {@link FileSystemTree} with changes, and checks
+ * that the tree follows with few model updates.
+ * <p>
+ * This takes a while, and only runs with the system property
+ * {@code scijava.scriptEditor.stressTests} set to {@code true}.
+ * </p>
+ */
+public class DirectoryWatcherStressTest {
+
+	private static final int FILES = 10000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final MeteredEventQueue queue = new MeteredEventQueue();
+	private final AtomicInteger modelEvents = new AtomicInteger();
+	private FileSystemTree tree;
+	private FileSystemTree.Node top;
+
+	@Before
+	public void setUp() throws Exception {
+		assumeTrue("stress tests are off", Boolean.getBoolean("scijava.scriptEditor.stressTests"));
+		Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+		tree = new FileSystemTree(new StderrLogService());
+		tree.ignoreExtension("class");
+		SwingUtilities.invokeAndWait(() -> {
+			tree.addRootDirectory(folder.getRoot().getAbsolutePath(), false);
+			top = ((FileSystemTree.Node) tree.getModel().getRoot()).getChildAt(0);
+			tree.expandRow(0); // lists and watches the folder
+			tree.getModel().addTreeModelListener(new TreeModelListener() {
+				@Override
+				public void treeNodesChanged(final TreeModelEvent e) {
+					modelEvents.incrementAndGet();
+				}
+
+				@Override
+				public void treeNodesInserted(final TreeModelEvent e) {
+					modelEvents.incrementAndGet();
+				}
+
+				@Override
+				public void treeNodesRemoved(final TreeModelEvent e) {
+					modelEvents.incrementAndGet();
+				}
+
+				@Override
+				public void treeStructureChanged(final TreeModelEvent e) {
+					modelEvents.incrementAndGet();
+				}
+			});
+		});
+		await(() -> !top.isLoading());
+	}
+
+	@After
+	public void tearDown() {
+		if (tree == null) return; // skipped
+		tree.destroy();
+		queue.pop();
+	}
+
+	@Test
+	public void testCreateAndDeleteManyFiles() throws Exception {
+		final Path dir = folder.getRoot().toPath();
+		final long start = System.nanoTime();
+		for (int i = 0; i < FILES; i++) {
+			Files.createFile(dir.resolve(String.format("output%05d.csv", i)));
+		}
+		await(() -> FILES == listed());
+		final String creating = timing("created", start);
+		final int created = modelEvents.getAndSet(0);
+		assertEquals(FileSystemTree.PAGE_SIZE + 1, top.getChildCount()); // a page, and the rest behind a placeholder
+
+		final long start2 = System.nanoTime();
+		for (int i = 0; i < FILES; i++) {
+			Files.delete(dir.resolve(String.format("output%05d.csv", i)));
+		}
+		await(() -> 0 == listed());
+		final String deleting = timing("deleted", start2);
+		final int deleted = modelEvents.get();
+		// One re-listing per burst, not one per file
+		assertTrue(creating, created < 100);
+		assertTrue(deleting, deleted < 100);
+	}
+
+	/** @return the number of files listed under the folder, shown or not. */
+	private int listed() {
+		int count = top.getHiddenChildCount();
+		for (int i = 0; i < top.getChildCount(); i++) {
+			if (!top.getChildAt(i).isPlaceholder()) count++;
+		}
+		return count;
+	}
+
+	/** Describes the work done since the start, and starts measuring anew. */
+	private String timing(final String what, final long start) {
+		final String timing = String.format("%d files %s: tree updated after %d ms, with %d model events, %d ms of EDT work",
+				FILES, what, (System.nanoTime() - start) / 1000000, modelEvents.get(), queue.busyNanos / 1000000);
+		queue.busyNanos = 0;
+		return timing;
+	}
+
+	/** Polls on the event dispatch thread; some file systems only notice changes every few seconds. */
+	private static void await(final Callable<Boolean> condition) throws Exception {
+		final long deadline = System.currentTimeMillis() + 60000;
+		final boolean[] done = { false };
+		while (System.currentTimeMillis() < deadline) {
+			SwingUtilities.invokeAndWait(() -> {
+				try {
+					done[0] = condition.call();
+				} catch (final Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			if (done[0]) return;
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Timed out");
+	}
+
+	/** Measures the time spent dispatching events. */
+	private static class MeteredEventQueue extends EventQueue {
+
+		volatile long busyNanos;
+
+		@Override
+		protected void dispatchEvent(final AWTEvent event) {
+			final long start = System.nanoTime();
+			try {
+				super.dispatchEvent(event);
+			} finally {
+				busyNanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public void pop() {
+			super.pop();
+		}
+	}
+}
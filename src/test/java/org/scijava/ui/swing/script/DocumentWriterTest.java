@@ -0,0 +1,101 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link DocumentWriter}.
+ */
+public class DocumentWriterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testWritesAllSegmentsAsUTF8() throws Exception {
+		final Document document = new PlainDocument();
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			expected.append("line ").append(i).append(": é中😀\n");
+		}
+		// Leave the gap of the content in the middle of a surrogate pair
+		final int split = expected.indexOf("😀", expected.length() / 2) + 1;
+		document.insertString(0, expected.substring(split), null);
+		document.insertString(0, expected.substring(0, split), null);
+		final File file = new File(folder.getRoot(), "sub/dir/script.py");
+		DocumentWriter.write(document, file, () -> {});
+		assertArrayEquals(expected.toString().getBytes(StandardCharsets.UTF_8), Files.readAllBytes(file.toPath()));
+	}
+
+	@Test
+	public void testReplacesTargetAndLeavesNoTemporaryFile() throws Exception {
+		final File file = folder.newFile("script.groovy");
+		Files.write(file.toPath(), "old contents, longer than the new ones".getBytes(StandardCharsets.UTF_8));
+		final Document document = new PlainDocument();
+		document.insertString(0, "new", null);
+		DocumentWriter.write(document, file, () -> {});
+		assertEquals("new", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		assertArrayEquals(new String[] { "script.groovy" }, folder.getRoot().list());
+	}
+
+	@Test
+	public void testKeepsPermissionsAndFollowsLinks() throws Exception {
+		final Path target = folder.newFile("script.sh").toPath();
+		Assume.assumeTrue(target.getFileSystem().supportedFileAttributeViews().contains("posix"));
+		final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+		Files.setPosixFilePermissions(target, permissions);
+		final Path link = Files.createSymbolicLink(target.resolveSibling("link.sh"), target);
+		final Document document = new PlainDocument();
+		document.insertString(0, "echo hello\n", null);
+		DocumentWriter.write(document, link.toFile(), () -> {});
+		assertFalse(Files.isSymbolicLink(target));
+		assertEquals(link.toRealPath(), target.toRealPath());
+		assertEquals("echo hello\n", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+		assertEquals(permissions, Files.getPosixFilePermissions(target));
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.scijava.log.StderrLogService;
+
+/**
+ * Tests {@link FileChangeWatcher} on a file open in an {@link EditorPane}.
+ */
+public class FileChangeWatcherTest {
+
+	/** Some file systems are only polled for changes every few seconds. */
+	private static final long TIMEOUT_SECONDS = 20;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final BlockingQueue<EditorPane> reported = new LinkedBlockingQueue<>();
+	private FileChangeWatcher watcher;
+	private EditorPane editorPane;
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = folder.newFile("script.py");
+		write("print('hello')\n");
+		watcher = new FileChangeWatcher(new StderrLogService(), reported::add);
+		SwingUtilities.invokeAndWait(() -> {
+			editorPane = new EditorPane();
+			try {
+				editorPane.open(file);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException(e);
+			}
+			watcher.watch(editorPane);
+		});
+	}
+
+	@After
+	public void tearDown() {
+		watcher.close();
+	}
+
+	@Test
+	public void testTouchIsNotReported() throws Exception {
+		final long checked = watcher.getCheckedCount();
+		assertTrue(file.setLastModified(file.lastModified() + 5000));
+		assertQuiet(checked);
+	}
+
+	@Test
+	public void testIdenticalRewriteIsNotReported() throws Exception {
+		final long checked = watcher.getCheckedCount();
+		write("print('hello')\n");
+		assertQuiet(checked);
+	}
+
+	@Test
+	public void testOwnSaveIsNotReported() throws Exception {
+		SwingUtilities.invokeAndWait(() -> editorPane.setText("print('saved')\n"));
+		final long checked = watcher.getCheckedCount();
+		editorPane.write(file);
+		assertQuiet(checked);
+	}
+
+	@Test
+	public void testChangeIsReported() throws Exception {
+		write("print('changed')\n");
+		assertSame(editorPane, reported.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		assertTrue(editorPane.wasChangedOutside());
+	}
+
+	private void write(final String text) throws Exception {
+		Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Waits until the watcher has checked the file since the given count, and
+	 * asserts that it found nothing to report.
+	 */
+	private void assertQuiet(final long checked) throws Exception {
+		final long deadline = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000;
+		while (watcher.getCheckedCount() == checked) {
+			assertTrue("the watcher saw the event", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+		// Let any report reach the event dispatch thread
+		SwingUtilities.invokeAndWait(() -> assertFalse(editorPane.wasChangedOutside()));
+		assertNull(reported.poll());
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.scijava.log.StderrLogService;
+
+/**
+ * Tests {@link FileIndex}.
+ */
+public class FileIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private FileIndex index;
+	private Path root;
+
+	@Before
+	public void setUp() throws IOException {
+		root = folder.getRoot().toPath().toRealPath();
+		index = new FileIndex(new StderrLogService());
+	}
+
+	@After
+	public void tearDown() {
+		index.close();
+	}
+
+	@Test
+	public void testQueryIgnoresHiddenFiles() throws Exception {
+		final Path a = create("a/Demo.py");
+		final Path b = create("a/b/c/demo_2.groovy");
+		create("a/Demo.py~");
+		create(".git/Demo.py");
+		create("a/.Demo.py");
+		create("Other.txt");
+		index.setRoots(Collections.singleton(root.toString()));
+		awaitSize(3);
+		assertEquals(Arrays.asList(a.toString(), b.toString()), query(name -> name.toLowerCase().contains("demo")));
+		assertEquals(Collections.emptyList(), query(name -> name.contains("xyz")));
+	}
+
+	@Test
+	public void testQueryStopsAtLimit() throws Exception {
+		for (int i = 0; i < 2 * FileIndex.BATCH_SIZE; i++) create(String.format("f%04d.txt", i));
+		index.setRoots(Collections.singleton(root.toString()));
+		awaitSize(2 * FileIndex.BATCH_SIZE);
+		final List<String> matches = new ArrayList<>();
+		final CountDownLatch done = new CountDownLatch(1);
+		index.query(name -> true, FileIndex.BATCH_SIZE + 10, matches::addAll, () -> false);
+		index.query(name -> false, 1, batch -> {}, () -> {
+			done.countDown();
+			return false;
+		});
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(FileIndex.BATCH_SIZE + 10, matches.size());
+		assertEquals(root.resolve("f0000.txt").toString(), matches.get(0));
+	}
+
+	@Test
+	public void testWatchesCreatedAndDeletedFiles() throws Exception {
+		create("a/old.txt");
+		index.setRoots(Collections.singleton(root.toString()));
+		awaitSize(1);
+		final Path created = create("a/new.txt");
+		final Path nested = create("b/c/nested.txt");
+		awaitSize(3);
+		assertEquals(Arrays.asList(created.toString(), nested.toString()), query(name -> !name.startsWith("old")));
+		Files.delete(created);
+		awaitSize(2);
+	}
+
+	@Test
+	public void testSetRootsDropsRemovedFolders() throws Exception {
+		create("a/one.txt");
+		create("b/two.txt");
+		index.setRoots(Arrays.asList(root.resolve("a").toString(), root.resolve("b").toString()));
+		awaitSize(2);
+		index.setRoots(Collections.singleton(root.resolve("b").toString()));
+		awaitSize(1);
+		assertEquals(Collections.singletonList(root.resolve("b/two.txt").toString()), query(name -> true));
+	}
+
+	private Path create(final String relative) throws IOException {
+		final Path path = root.resolve(relative);
+		Files.createDirectories(path.getParent());
+		return Files.createFile(path);
+	}
+
+	private List<String> query(final Predicate<String> names) throws InterruptedException {
+		final List<String> matches = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch done = new CountDownLatch(1);
+		index.query(names, Integer.MAX_VALUE, matches::addAll, () -> false);
+		// Queries run one after the other
+		index.query(name -> false, 1, batch -> {}, () -> {
+			done.countDown();
+			return false;
+		});
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		return matches;
+	}
+
+	/** Some file systems only notice changes every few seconds. */
+	private void awaitSize(final int size) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 30000;
+		while (index.size() != size && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(size, index.size());
+	}
+}
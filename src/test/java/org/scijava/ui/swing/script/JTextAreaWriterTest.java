@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link JTextAreaWriter} and its {@link ConsoleFlusher}.
+ */
+public class JTextAreaWriterTest {
+
+	@Test
+	public void testThreadCountStaysFlat() throws Exception {
+		final JTextArea screen = new JTextArea();
+		final JTextArea errorScreen = new JTextArea();
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		run(screen, errorScreen, 0);
+		awaitText(errorScreen, "error 0\n");
+		final int before = threads.getThreadCount();
+
+		for (int i = 1; i <= 1000; i++) {
+			run(screen, errorScreen, i);
+		}
+		awaitText(errorScreen, "error 1000\n");
+
+		final int after = threads.getThreadCount();
+		assertTrue("threads before: " + before + ", after: " + after,
+			after <= before + 2);
+		assertTrue(screen.getText().endsWith("output 1000\n"));
+	}
+
+	@Test
+	public void testFlushesWithoutBeingAsked() throws Exception {
+		final JTextArea textArea = new JTextArea();
+		final JTextAreaWriter writer = new JTextAreaWriter(textArea, null);
+		writer.write("Hello");
+		awaitText(textArea, "Hello");
+		writer.write(", World!");
+		awaitText(textArea, "Hello, World!");
+	}
+
+	@Test
+	public void testLineLimit() {
+		final JTextArea textArea = new JTextArea();
+		final JTextAreaWriter writer = new JTextAreaWriter(textArea, null);
+		writer.setLineLimit(100);
+		for (int i = 0; i < 1000; i++) {
+			writer.print("line " + i);
+			if (i % 7 == 0) writer.flush();
+		}
+		writer.close();
+		assertTrue(textArea.getLineCount() <= 111);
+		assertTrue(textArea.getText().endsWith("line 999\n"));
+
+		writer.shutdownNow();
+		writer.print("dropped");
+		writer.close();
+		assertTrue(textArea.getText().endsWith("line 999\n"));
+	}
+
+	@Test
+	public void testFullRingIsDrainedOnTheEventDispatchThread() throws Exception {
+		final JTextArea textArea = new JTextArea();
+		final AtomicInteger offEDT = new AtomicInteger();
+		textArea.getDocument().addDocumentListener(new DocumentListener() {
+
+			@Override
+			public void insertUpdate(final DocumentEvent e) {
+				if (!SwingUtilities.isEventDispatchThread()) offEDT.incrementAndGet();
+			}
+
+			@Override
+			public void removeUpdate(final DocumentEvent e) {
+				insertUpdate(e);
+			}
+
+			@Override
+			public void changedUpdate(final DocumentEvent e) {}
+		});
+		final ConsoleBuffer buffer = new ConsoleBuffer(textArea, 64);
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			final String line = "line " + i + "\n";
+			buffer.write(line); // far more than fits in the ring
+			expected.append(line);
+		}
+		buffer.flush();
+		assertEquals(expected.toString(), textArea.getText());
+		assertEquals(0, offEDT.get());
+	}
+
+	/** One script run, the way the editor wires up its writers. */
+	private static void run(final JTextArea screen, final JTextArea errorScreen,
+		final int i)
+	{
+		final JTextAreaWriter output = new JTextAreaWriter(screen, null);
+		final JTextAreaWriter errors = new JTextAreaWriter(errorScreen, null);
+		output.print("output " + i);
+		output.flush();
+		output.shutdown();
+		// Error writers of compilations are never closed
+		errors.print("error " + i);
+	}
+
+	private static void awaitText(final JTextArea textArea, final String suffix)
+		throws InterruptedException
+	{
+		for (int i = 0; i < 500 && !textArea.getText().endsWith(suffix); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(suffix, textArea.getText().substring(Math.max(0, textArea
+			.getText().length() - suffix.length())));
+	}
+}
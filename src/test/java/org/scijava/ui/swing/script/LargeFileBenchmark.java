@@ -0,0 +1,207 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.Context;
+
+/**
+ * Benchmarks opening a large CSV file in an {@link EditorPane}: the time until
+ * the text is shown, and the heap the pane retains afterwards
+ * ({@code retainedMB}). The whole file used to be read into a
+ * {@link StringBuffer} and set as the text; now files above
+ * {@link EditorPane#LARGE_FILE_THRESHOLD} are opened in large-file mode, and
+ * only loaded in full for editing on request.
+ * <p>
+ * Run from test scope with {@link #main(String...)}. The old way needs about
+ * eight bytes of heap per byte of the file at its peak.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "-Djava.awt.headless=true" })
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class LargeFileBenchmark {
+
+	@Param({ "10", "100", "500" })
+	public int megabytes;
+
+	private Context context;
+	private File file;
+
+	/** Measures the heap retained by the editor pane, after garbage collection. */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Heap {
+
+		public double retainedMB;
+
+		EditorPane editorPane;
+		private long before;
+
+		@Setup(Level.Invocation)
+		public void measureBefore() {
+			before = usedHeap();
+		}
+
+		@TearDown(Level.Invocation)
+		public void measureAfter() throws InterruptedException, InvocationTargetException {
+			retainedMB += (usedHeap() - before) / (double) (1 << 20);
+			SwingUtilities.invokeAndWait(editorPane::closeLargeFile);
+			editorPane = null;
+		}
+	}
+
+	@Setup
+	public void setUp() throws IOException {
+		context = new Context();
+		file = File.createTempFile("large-file-", ".csv");
+		final long size = (long) megabytes << 20;
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("frame,x,y,intensity,label\n");
+			for (long i = 0, written = 0; written < size; i++) {
+				final String line = i + "," + (i * 7 % 1024) + "," + (i * 13 % 768) + "," + (i % 65536) / 256.0 + ",cell-" + i % 97 + "\n";
+				writer.write(line);
+				written += line.length();
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+		context.dispose();
+	}
+
+	@Benchmark
+	public void readWhole(final Heap heap) throws Exception {
+		onEDT(() -> {
+			heap.editorPane = newEditorPane();
+			final StringBuffer string = new StringBuffer();
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(new FileInputStream(file), "UTF-8"))) {
+				final char[] buffer = new char[16384];
+				for (;;) {
+					final int count = reader.read(buffer);
+					if (count < 0) break;
+					string.append(buffer, 0, count);
+				}
+			}
+			heap.editorPane.setText(string.toString());
+		});
+	}
+
+	@Benchmark
+	public void open(final Heap heap) throws Exception {
+		onEDT(() -> {
+			heap.editorPane = newEditorPane();
+			heap.editorPane.open(file);
+		});
+	}
+
+	@Benchmark
+	public void openAndLoadAll(final Heap heap) throws Exception {
+		final CountDownLatch loaded = new CountDownLatch(1);
+		onEDT(() -> {
+			heap.editorPane = newEditorPane();
+			heap.editorPane.open(file);
+			if (!heap.editorPane.isLargeFileMode()) loaded.countDown();
+			heap.editorPane.addPropertyChangeListener(EditorPane.LARGE_FILE_PROPERTY, e -> loaded.countDown());
+			heap.editorPane.loadWholeFile();
+		});
+		loaded.await();
+	}
+
+	private EditorPane newEditorPane() {
+		final EditorPane editorPane = new EditorPane();
+		context.inject(editorPane);
+		return editorPane;
+	}
+
+	private interface Task {
+
+		void run() throws IOException;
+	}
+
+	private static void onEDT(final Task task) throws Exception {
+		final IOException[] exception = { null };
+		SwingUtilities.invokeAndWait(() -> {
+			try {
+				task.run();
+			}
+			catch (final IOException e) {
+				exception[0] = e;
+			}
+		});
+		if (exception[0] != null) throw exception[0];
+	}
+
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(LargeFileBenchmark.class.getSimpleName()).build()).run();
+	}
+}
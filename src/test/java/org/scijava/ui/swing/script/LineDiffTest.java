@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link LineDiff}.
+ */
+public class LineDiffTest {
+
+	@Test
+	public void testLineStarts() {
+		assertArrayEquals(new int[] { 0 }, LineDiff.lineStarts(""));
+		assertArrayEquals(new int[] { 0, 1 }, LineDiff.lineStarts("a"));
+		assertArrayEquals(new int[] { 0, 2 }, LineDiff.lineStarts("a\n"));
+		assertArrayEquals(new int[] { 0, 2, 3 }, LineDiff.lineStarts("a\nb"));
+		assertArrayEquals(new int[] { 0, 1, 2 }, LineDiff.lineStarts("\n\n"));
+	}
+
+	@Test
+	public void testIdenticalTexts() {
+		assertTrue(LineDiff.diff("a\nb\n", "a\nb\n").isEmpty());
+		assertTrue(LineDiff.diff("", "").isEmpty());
+	}
+
+	@Test
+	public void testOneChangedLine() {
+		final StringBuilder old = new StringBuilder();
+		for (int i = 0; i < 50000; i++) old.append("line ").append(i).append('\n');
+		final String changed = old.toString().replace("line 31415\n", "line 31415 changed\n");
+		final List<LineDiff.Edit> edits = LineDiff.diff(old.toString(), changed);
+		assertEquals(1, edits.size());
+		assertEquals(old.indexOf("line 31415\n") + "line 31415".length(), edits.get(0).offset);
+		assertEquals(0, edits.get(0).length);
+		assertEquals(" changed", edits.get(0).text);
+	}
+
+	@Test
+	public void testInsertionsAndDeletions() {
+		final List<LineDiff.Edit> edits = LineDiff.diff("a\nb\nc\nd\ne\n", "a\nx\nc\nd\ne\ny\n");
+		assertEquals(2, edits.size());
+		assertEquals(2, edits.get(0).offset);
+		assertEquals(1, edits.get(0).length);
+		assertEquals("x", edits.get(0).text);
+		assertEquals(0, edits.get(1).length);
+		assertEquals("y\n", edits.get(1).text);
+		assertEquals("a\nx\nc\nd\ne\ny\n", apply("a\nb\nc\nd\ne\n", edits));
+	}
+
+	@Test
+	public void testEditsOnlyChangedCharacters() {
+		final List<LineDiff.Edit> edits = LineDiff.diff("ab\ncd\nef\n", "xab\ncd\ne-f\n");
+		assertEquals(2, edits.size());
+		assertEquals(0, edits.get(0).offset);
+		assertEquals(0, edits.get(0).length);
+		assertEquals("x", edits.get(0).text);
+		assertEquals("ab\ncd\ne".length(), edits.get(1).offset);
+		assertEquals("-", edits.get(1).text);
+		assertEquals("a\nb!", apply("a\nb", LineDiff.diff("a\nb", "a\nb!")));
+	}
+
+	@Test
+	public void testRandomEdits() {
+		final Random random = new Random(17);
+		for (int round = 0; round < 200; round++) {
+			final StringBuilder old = new StringBuilder(), changed = new StringBuilder();
+			for (int i = random.nextInt(200); i > 0; i--) {
+				final String line = random.nextInt(10) + (random.nextInt(8) == 0 ? "" : "\n");
+				final int what = random.nextInt(10);
+				if (what != 0) old.append(line);
+				if (what != 1) changed.append(what == 2 ? "changed\n" : line);
+			}
+			assertEquals(changed.toString(), apply(old.toString(), LineDiff.diff(old.toString(), changed.toString())));
+		}
+	}
+
+	@Test
+	public void testRewrittenText() {
+		final StringBuilder old = new StringBuilder(), changed = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			old.append("old ").append(i).append('\n');
+			changed.append("new ").append(i).append('\n');
+		}
+		// Too many differences: replaced as a whole
+		final List<LineDiff.Edit> edits = LineDiff.diff(old.toString(), changed.toString());
+		assertEquals(changed.toString(), apply(old.toString(), edits));
+	}
+
+	private static String apply(final String text, final List<LineDiff.Edit> edits) {
+		final StringBuilder result = new StringBuilder(text);
+		for (int i = edits.size() - 1; i >= 0; i--) {
+			final LineDiff.Edit edit = edits.get(i);
+			result.replace(edit.offset, edit.offset + edit.length, edit.text);
+		}
+		return result.toString();
+	}
+}
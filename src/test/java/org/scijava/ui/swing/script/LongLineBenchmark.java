@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.Context;
+
+/**
+ * Benchmarks the latency of typing on a one-megabyte line of minified
+ * JavaScript in an {@link EditorPane}: each operation inserts a character on
+ * the visible part of the line, and paints the visible area, on the event
+ * dispatch thread. With a {@code longLineLimit} of 0, the line is lexed and
+ * highlighted as before; with the default limit, it is shown as plain text.
+ * <p>
+ * Run from test scope with {@link #main(String...)}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-Djava.awt.headless=true" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LongLineBenchmark {
+
+	@Param({ "0", "" + EditorPane.DEFAULT_LONG_LINE_LIMIT })
+	public int longLineLimit;
+
+	@Param({ "1048576" })
+	public int lineLength;
+
+	private Context context;
+	private EditorPane editorPane;
+	private BufferedImage image;
+	private String text;
+
+	@Setup
+	public void setUp() {
+		context = new Context();
+		final StringBuilder sb = new StringBuilder("// minified\n");
+		for (int i = 0; sb.length() < lineLength; i++) {
+			sb.append("function f").append(i).append("(a,b){return a.x+b*").append(i).append(";}var s").append(i).append("=\"str\";");
+		}
+		sb.append("\nconsole.log(f0(1, 2));\n");
+		text = sb.toString();
+		image = new BufferedImage(1000, 800, BufferedImage.TYPE_INT_RGB);
+	}
+
+	@Setup(Level.Iteration)
+	public void openText() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			// Measure and paint into the image: there is no (headless) screen
+			editorPane = new EditorPane() {
+
+				@Override
+				public Graphics getGraphics() {
+					return image.createGraphics();
+				}
+			};
+			RepaintManager.currentManager(editorPane).setDoubleBufferingEnabled(false);
+			context.inject(editorPane);
+			editorPane.setLongLineLimit(longLineLimit);
+			editorPane.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+			editorPane.setText(text);
+			editorPane.setSize(editorPane.getPreferredSize());
+			editorPane.setCaretPosition(text.indexOf('\n') + 500);
+			paint();
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public void type() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			editorPane.replaceSelection("x");
+			paint();
+		});
+	}
+
+	/** Paints the part of the pane that a window would show. */
+	private void paint() {
+		final Graphics2D g = image.createGraphics();
+		try {
+			final Rectangle view = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+			g.setClip(view);
+			editorPane.paint(g);
+		}
+		finally {
+			g.dispose();
+		}
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(LongLineBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fife.ui.rsyntaxtextarea.OccurrenceMarker;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+import org.junit.Test;
+
+/**
+ * Tests {@link LongLineTokenMaker}.
+ */
+public class LongLineTokenMakerTest {
+
+	private final int[] limit = { 100 };
+
+	private final RSyntaxDocument document = new RSyntaxDocument(
+		new LongLineTokenMaker.Factory(() -> limit[0]), SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+
+	private final RSyntaxTextArea textArea = new RSyntaxTextArea(document);
+
+	@Test
+	public void testShortLinesAreLexed() {
+		textArea.setText("var x = 1; /* a\ncomment */");
+		final List<Token> tokens = tokens(0);
+		assertTrue(tokens.size() > 5);
+		assertEquals(TokenTypes.RESERVED_WORD, tokens.get(0).getType());
+		assertNotEquals(TokenTypes.NULL, document.getLastTokenTypeOnLine(0));
+		assertEquals(TokenTypes.COMMENT_MULTILINE, tokens(1).get(0).getType());
+	}
+
+	@Test
+	public void testLongLinesArePlain() {
+		final StringBuilder line = new StringBuilder("/* opens a comment ");
+		while (line.length() < 3000) line.append("var x = 'y'; ");
+		// A surrogate pair at the first chunk boundary
+		line.insert(LongLineTokenMaker.CHUNK - 1, "😀");
+		textArea.setText(line + "\nvar x;");
+		final List<Token> tokens = tokens(0);
+		int offset = 0;
+		for (final Token t : tokens.subList(0, tokens.size() - 1)) {
+			assertEquals(TokenTypes.IDENTIFIER, t.getType());
+			assertEquals(offset, t.getOffset());
+			assertTrue(t.length() <= LongLineTokenMaker.CHUNK + 1);
+			offset += t.length();
+		}
+		assertEquals(line.length(), offset);
+		assertEquals(LongLineTokenMaker.CHUNK + 1, tokens.get(0).length());
+		assertEquals(TokenTypes.NULL, tokens.get(tokens.size() - 1).getType());
+		// The comment does not carry over to the next line
+		assertEquals(TokenTypes.NULL, document.getLastTokenTypeOnLine(0));
+		assertEquals(TokenTypes.RESERVED_WORD, tokens(1).get(0).getType());
+	}
+
+	@Test
+	public void testNoLimit() {
+		limit[0] = 0;
+		final StringBuilder line = new StringBuilder();
+		while (line.length() < 3000) line.append("var x = 'y'; ");
+		textArea.setText(line.toString());
+		assertEquals(TokenTypes.RESERVED_WORD, tokens(0).get(0).getType());
+	}
+
+	@Test
+	public void testNoOccurrencesOnLongLines() {
+		final StringBuilder line = new StringBuilder();
+		while (line.length() < 3000) line.append("foo(); ");
+		textArea.setText("foo();\n" + line);
+		final OccurrenceMarker marker = new LongLineTokenMaker(TokenMakerFactory
+			.getDefaultInstance().getTokenMaker(SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT),
+			() -> limit[0]).getOccurrenceMarker();
+		textArea.setCaretPosition(1);
+		assertNotNull(marker.getTokenToMark(textArea));
+		textArea.setCaretPosition(textArea.getText().indexOf('\n') + 2);
+		assertNull(marker.getTokenToMark(textArea));
+	}
+
+	private List<Token> tokens(final int line) {
+		final List<Token> tokens = new ArrayList<>();
+		for (Token t = document.getTokenListForLine(line); t != null; t = t.getNextToken()) {
+			tokens.add(t);
+		}
+		return tokens;
+	}
+}
@@ -0,0 +1,297 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link ScriptExecutor}.
+ */
+public class ScriptExecutorTest {
+
+	/** Lets the threads that ignore interrupts end after each test. */
+	private volatile boolean done;
+
+	@After
+	public void release() {
+		done = true;
+	}
+
+	@Test
+	public void testCancelWhileQueued() throws Exception {
+		final ScriptExecutor executor = new ScriptExecutor(1, false);
+		final CountDownLatch blocking = new CountDownLatch(1);
+		final TestTask first = executor.submit(new TestTask() {
+
+			@Override
+			protected void run(final TestTask task) throws InterruptedException {
+				blocking.await();
+			}
+		});
+		final TestTask second = executor.submit(new TestTask());
+		first.awaitStarted();
+		assertTrue(second.isQueued());
+		assertEquals(1, executor.getQueuedCount());
+
+		second.cancel();
+		assertTrue(second.isDone());
+		assertEquals(1, second.finished.get());
+		assertEquals(0, executor.getQueuedCount());
+
+		blocking.countDown();
+		first.awaitFinished();
+		assertEquals(0, second.executed.get());
+		assertEquals(1, second.finished.get());
+	}
+
+	@Test
+	public void testCancelInterrupts() throws Exception {
+		final ScriptExecutor executor = new ScriptExecutor(1, false);
+		final AtomicInteger interrupted = new AtomicInteger();
+		final TestTask task = executor.submit(new TestTask() {
+
+			@Override
+			protected void run(final TestTask task) {
+				try {
+					Thread.sleep(60000);
+				}
+				catch (final InterruptedException e) {
+					interrupted.incrementAndGet();
+				}
+			}
+		});
+		task.awaitStarted();
+		task.cancel();
+		task.awaitFinished();
+		assertEquals(1, interrupted.get());
+		assertNull(task.failure);
+	}
+
+	@Test
+	public void testStopKillsAllThreadsOfTheRun() throws Exception {
+		final ScriptExecutor executor = new ScriptExecutor(1, false);
+		final Thread[] spawned = new Thread[1];
+		final TestTask task = executor.submit(new TestTask() {
+
+			@Override
+			protected void run(final TestTask task) {
+				spawned[0] = new Thread(() -> busy());
+				spawned[0].start();
+				busy();
+			}
+		});
+		task.awaitStarted();
+		task.cancel();
+		Thread.sleep(100);
+		assertTrue("ignores interrupts", task.isRunning());
+
+		final boolean stopped = task.stop();
+		assumeTrue("this Java stops threads", stopped);
+		task.awaitFinished();
+		spawned[0].join(5000);
+		assertFalse(spawned[0].isAlive());
+		assertNull("being stopped is no failure", task.failure);
+	}
+
+	@Test
+	public void testWaitsForSpawnedThreads() throws Exception {
+		final ScriptExecutor executor = new ScriptExecutor(1, false);
+		final CountDownLatch blocking = new CountDownLatch(1);
+		final TestTask task = executor.submit(new TestTask() {
+
+			@Override
+			protected void run(final TestTask task) {
+				new Thread(() -> {
+					try {
+						blocking.await();
+					}
+					catch (final InterruptedException e) {
+						// ends either way
+					}
+				}).start();
+			}
+		});
+		task.awaitStarted();
+		Thread.sleep(200);
+		assertEquals(1, task.executed.get());
+		assertTrue(task.isRunning());
+		assertEquals(0, task.finished.get());
+
+		blocking.countDown();
+		task.awaitFinished();
+	}
+
+	@Test
+	public void testStopLeavesOtherRunsAlone() throws Exception {
+		final ScriptExecutor executor = new ScriptExecutor(2, false);
+		final CountDownLatch blocking = new CountDownLatch(1);
+		final TestTask killed = executor.submit(new TestTask() {
+
+			@Override
+			protected void run(final TestTask task) {
+				busy();
+			}
+		});
+		final TestTask other = executor.submit(new TestTask() {
+
+			@Override
+			protected void run(final TestTask task) throws InterruptedException {
+				blocking.await();
+			}
+		});
+		killed.awaitStarted();
+		other.awaitStarted();
+
+		assumeTrue("this Java stops threads", killed.stop());
+		killed.awaitFinished();
+		assertTrue(other.isRunning());
+
+		blocking.countDown();
+		other.awaitFinished();
+		assertNull(other.failure);
+	}
+
+	@Test
+	public void testCpuTimeOfMeasuredThreads() throws Exception {
+		final ScriptExecutor executor = new ScriptExecutor(1, false);
+		final TestTask task = executor.submit(new TestTask() {
+
+			@Override
+			protected void run(final TestTask task) throws InterruptedException {
+				// the work is done elsewhere, like a module on the thread service
+				final Thread worker = new Thread(() -> {
+					task.startMeasuring(Thread.currentThread());
+					spin(300);
+					task.stopMeasuring(Thread.currentThread());
+				});
+				worker.setDaemon(true);
+				worker.start();
+				worker.join();
+			}
+		});
+		task.awaitFinished();
+		assumeTrue("this Java measures CPU time", task.getCpuTime() >= 0);
+		assertTrue("CPU time: " + task.getCpuTime(), task.getCpuTime() >= 150);
+		assertTrue(task.getWallTime() >= task.getCpuTime());
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		final ScriptExecutor executor = new ScriptExecutor(1, false);
+		final RuntimeException exception = new RuntimeException("expected");
+		final TestTask task = executor.submit(new TestTask() {
+
+			@Override
+			protected void run(final TestTask task) {
+				throw exception;
+			}
+		});
+		task.awaitFinished();
+		assertSame(exception, task.failure);
+		assertEquals(1, task.finished.get());
+	}
+
+	/** Keeps a core busy for the given time. */
+	private static void spin(final long millis) {
+		final long end = System.nanoTime() + millis * 1000000;
+		while (System.nanoTime() < end) {
+			// busy
+		}
+	}
+
+	/** Spins, ignoring interrupts, until the test is over. */
+	private void busy() {
+		long spins = 0;
+		while (!done) {
+			spins++;
+		}
+		assertTrue(spins > 0);
+	}
+
+	private static class TestTask extends ScriptExecutor.Task {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch ended = new CountDownLatch(1);
+		private final AtomicInteger executed = new AtomicInteger();
+		private final AtomicInteger finished = new AtomicInteger();
+		private volatile Throwable failure;
+
+		TestTask() {
+			super("test");
+		}
+
+		protected void run(@SuppressWarnings("unused") final TestTask task)
+			throws InterruptedException
+		{}
+
+		@Override
+		protected void execute() {
+			executed.incrementAndGet();
+			started.countDown();
+			try {
+				run(this);
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		protected void failed(final Throwable t) {
+			failure = t;
+		}
+
+		@Override
+		protected void finished() {
+			finished.incrementAndGet();
+			ended.countDown();
+		}
+
+		void awaitStarted() throws InterruptedException {
+			assertTrue("started", started.await(5, TimeUnit.SECONDS));
+		}
+
+		void awaitFinished() throws InterruptedException {
+			assertTrue("finished", ended.await(5, TimeUnit.SECONDS));
+		}
+	}
+}
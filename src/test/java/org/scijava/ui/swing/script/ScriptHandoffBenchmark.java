@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks the run-start latency of {@link TextEditor}: the time until the
+ * script module has read the whole script text. The text used to be piped
+ * in by a helper thread; now it is read straight from memory.
+ * <p>
+ * Run from test scope with {@link #main(String...)}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ScriptHandoffBenchmark {
+
+	@Param({ "1048576" })
+	public int scriptSize;
+
+	private String text;
+
+	@Setup
+	public void setUp() {
+		final StringBuilder builder = new StringBuilder(scriptSize);
+		for (int i = 0; builder.length() < scriptSize; i++) {
+			builder.append("print(\"Line ").append(i).append(": \" + ").append(i).append(" * 2)\n");
+		}
+		text = builder.substring(0, scriptSize);
+	}
+
+	@Benchmark
+	public String pipedHandoff() throws IOException {
+		final PipedInputStream pi = new PipedInputStream();
+		final PipedOutputStream po = new PipedOutputStream(pi);
+		new Thread(() -> {
+			try (final PrintWriter pw = new PrintWriter(po)) {
+				pw.write(text);
+				pw.flush();
+			}
+		}).start();
+		return read(new InputStreamReader(pi));
+	}
+
+	@Benchmark
+	public String directHandoff() throws IOException {
+		return read(new StringReader(text));
+	}
+
+	/** Reads the script like the script module does. */
+	private static String read(final Reader reader) throws IOException {
+		final char[] buffer = new char[8192];
+		final StringBuilder builder = new StringBuilder();
+		for (int read; (read = reader.read(buffer)) != -1;) {
+			builder.append(buffer, 0, read);
+		}
+		return builder.toString();
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ScriptHandoffBenchmark.class.getSimpleName()).build()).run();
+	}
+}
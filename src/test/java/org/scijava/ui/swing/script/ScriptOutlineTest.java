@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.scijava.ui.swing.script.ScriptOutline.Dialect;
+import org.scijava.ui.swing.script.ScriptOutline.Element;
+
+/**
+ * Tests {@link ScriptOutline}.
+ */
+public class ScriptOutlineTest {
+
+	@Test
+	public void testPython() {
+		final String script = "" + //
+			"import os\n" + //
+			"COUNT = 3\n" + //
+			"class Image(object):\n" + //
+			"    '''A class\n" + //
+			"    def not_a_function(): pass'''\n" + //
+			"    size = 0\n" + //
+			"    def __init__(self, w,\n" + //
+			"  h):\n" + //
+			"        self.w = w # def neither\n" + //
+			"        inner = 1\n" + //
+			"\n" + //
+			"    async def load(self):\n" + //
+			"\t\tdef nested():\n" + //
+			"\t\t\tpass\n" + //
+			"def main():\n" + //
+			"    if COUNT == 3:\n" + //
+			"        pass\n" + //
+			"COUNT = 4\n" + //
+			"main()\n";
+		assertEquals("[COUNT, Image[size, __init__(), load()[nested()]], main()]", outline(Dialect.PYTHON, script));
+	}
+
+	@Test
+	public void testGroovy() {
+		final String script = "" + //
+			"import java.io.File\n" + //
+			"def total = 0\n" + //
+			"class Image extends Base implements Cloneable {\n" + //
+			"  String name = \"{\"\n" + //
+			"  static int count\n" + //
+			"  def load(File f) { f.text }\n" + //
+			"  static int add(int a, int b)\n" + //
+			"  {\n" + //
+			"    if (a > b) { /* } */ return a }\n" + //
+			"    return b\n" + //
+			"  }\n" + //
+			"}\n" + //
+			"String describe(Image image) throws IOException {\n" + //
+			"  def local = 1\n" + //
+			"}\n" + //
+			"println describe(null)\n" + //
+			"total = 3\n" + //
+			"[1, 2].each { x -> println(x) }\n";
+		assertEquals("[total, Image[name, load(), add()], describe()]", outline(Dialect.GROOVY, script));
+	}
+
+	@Test
+	public void testMacro() {
+		final String script = "" + //
+			"var gx = 1;\n" + //
+			"macro \"Do It [F1]\" {\n" + //
+			"  foo(1);\n" + //
+			"}\n" + //
+			"// function commented(a) {}\n" + //
+			"function foo(a) {\n" + //
+			"  var notGlobal;\n" + //
+			"  return a;\n" + //
+			"}\n";
+		assertEquals("[gx, Do It [F1], foo()]", outline(Dialect.IJ_MACRO, script));
+	}
+
+	@Test
+	public void testPositions() {
+		final String script = "x = 1\r\ndef f():\r\n  pass\r\n";
+		final Element f = ScriptOutline.parse(Dialect.PYTHON, script.toCharArray()).children.get(1);
+		assertEquals(2, f.line);
+		assertEquals(script.indexOf("f("), f.offset);
+	}
+
+	private static String outline(final Dialect dialect, final String script) {
+		return toString(ScriptOutline.parse(dialect, script.toCharArray()));
+	}
+
+	private static String toString(final Element element) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (final Element child : element.children) {
+			if (sb.length() > 1) sb.append(", ");
+			sb.append(child);
+			if (!child.children.isEmpty()) sb.append(toString(child));
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -0,0 +1,146 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.autocompletion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.ui.swing.script.autocompletion.ClassUtil.JarProperties;
+
+/**
+ * Benchmarks the {@link ClassNameIndex} queries against the linear scans
+ * over all class names that {@link ClassUtil} used before, on a synthetic
+ * set of class names.
+ * <p>
+ * Run from test scope with {@link #main(String...)}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ClassNameIndexBenchmark {
+
+	@Param({ "100000" })
+	public int classCount;
+
+	/** Typical completion queries: a package prefix, a class name fragment and a simple name prefix. */
+	@Param({ "net.imglib2.img", "ImagePlus", "Roi" })
+	public String query;
+
+	private Set<String> classnames;
+	private ClassNameIndex index;
+
+	@Setup
+	public void setUp() {
+		final HashMap<String, JarProperties> class_urls = createClassUrls(classCount);
+		classnames = class_urls.keySet();
+		index = new ClassNameIndex(class_urls);
+	}
+
+	@Benchmark
+	public long prefixIndex() {
+		return index.classNamesStartingWith(query).count();
+	}
+
+	@Benchmark
+	public long prefixLinear() {
+		return classnames.stream().filter(s -> s.startsWith(query)).count();
+	}
+
+	@Benchmark
+	public long containsIndex() {
+		return index.classNamesContaining(query).count();
+	}
+
+	@Benchmark
+	public long containsLinear() {
+		return classnames.stream().filter(s -> s.contains(query)).count();
+	}
+
+	@Benchmark
+	public int simpleNameIndex() {
+		return index.simpleClassNamesStartingWith(query).size();
+	}
+
+	@Benchmark
+	public int simpleNameLinear() {
+		final ArrayList<String> matches = new ArrayList<>();
+		for (final String classname : classnames) {
+			final int idot = classname.lastIndexOf('.');
+			final String simplename = -1 == idot ? classname : classname.substring(idot + 1);
+			if (simplename.startsWith(query)) matches.add(classname);
+		}
+		return matches.size();
+	}
+
+	/** Class names spread over packages that look like those of a Fiji installation, in one jar per 500 classes. */
+	static HashMap<String, JarProperties> createClassUrls(final int count) {
+		final String[] roots = { "net.imglib2", "net.imagej", "ij", "org.scijava", "sc.fiji", "java.util", "javax.swing", "loci.formats", "io.scif" };
+		final String[] packages = { "img", "ops", "plugin", "gui", "io", "util", "process", "measure", "display", "type.numeric" };
+		final String[] words = { "Image", "Plus", "Roi", "Array", "Cell", "Planar", "Abstract", "Default", "Service", "Factory", "Op", "Dialog", "Reader", "Writer", "Stack", "Processor", "Listener", "View" };
+		final Random random = new Random(42);
+		final HashMap<String, JarProperties> class_urls = new HashMap<>();
+		JarProperties props = null;
+		while (class_urls.size() < count) {
+			if (0 == class_urls.size() % 500) props = new JarProperties("lib" + class_urls.size(), new ArrayList<>());
+			final StringBuilder name = new StringBuilder(roots[random.nextInt(roots.length)]);
+			name.append('.').append(packages[random.nextInt(packages.length)]);
+			if (random.nextBoolean()) name.append(".sub").append(random.nextInt(50));
+			name.append('.');
+			for (int w = 1 + random.nextInt(3); w > 0; w--) name.append(words[random.nextInt(words.length)]);
+			name.append(random.nextInt(1000));
+			class_urls.put(name.toString(), props);
+		}
+		return class_urls;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ClassNameIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+}
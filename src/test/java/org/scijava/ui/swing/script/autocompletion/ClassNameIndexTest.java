@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.autocompletion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.scijava.ui.swing.script.autocompletion.ClassUtil.JarProperties;
+
+/**
+ * Tests {@link ClassNameIndex}.
+ */
+public class ClassNameIndexTest {
+
+	@Test
+	public void testQueriesMatchLinearScan() {
+		final HashMap<String, JarProperties> class_urls = ClassNameIndexBenchmark.createClassUrls(20000);
+		class_urls.put("DefaultPackageClass", new JarProperties(null, new ArrayList<>()));
+		final ClassNameIndex index = new ClassNameIndex(class_urls);
+		final Set<String> names = class_urls.keySet();
+
+		assertEquals(names, index.all().collect(Collectors.toSet()));
+		for (final Map.Entry<String, JarProperties> entry : class_urls.entrySet()) {
+			assertSame(entry.getValue(), index.jarProperties(entry.getKey()));
+		}
+		assertNull(index.jarProperties("no.such.Class"));
+
+		final String[] queries = { "", "n", "net", "net.imglib2.img.", "ij.io.Reader", "Image", "Roi", "Plus3", "ViewStack", "o.sub1", "x", "Default", "Zzz" };
+		for (final String query : queries) {
+			assertEquals(query, filter(names, s -> s.startsWith(query)), index.classNamesStartingWith(query).collect(Collectors.toSet()));
+			assertEquals(query, filter(names, s -> s.contains(query)), index.classNamesContaining(query).collect(Collectors.toSet()));
+			assertEquals(query, filter(names, s -> s.substring(s.lastIndexOf('.') + 1).startsWith(query)), new HashSet<>(index.simpleClassNamesStartingWith(query)));
+			final Set<String> packages = names.stream().filter(s -> -1 != s.lastIndexOf('.')).map(s -> s.substring(0, s.lastIndexOf('.'))).collect(Collectors.toSet());
+			assertEquals(query, filter(packages, s -> s.startsWith(query)), index.packageNamesStartingWith(query).collect(Collectors.toSet()));
+		}
+	}
+
+	/**
+	 * Compares the heap taken by the index of a synthetic 200k-class corpus with
+	 * that of the maps of full class names it replaces.
+	 */
+	@Test
+	public void testHeapFootprint() {
+		final long baseline = usedHeap();
+		HashMap<String, JarProperties> class_urls = ClassNameIndexBenchmark.createClassUrls(200000);
+		HashMap<String, JarProperties> package_urls = new HashMap<>();
+		for (final Map.Entry<String, JarProperties> entry : class_urls.entrySet()) {
+			final int idot = entry.getKey().lastIndexOf('.');
+			if (-1 != idot) package_urls.putIfAbsent(entry.getKey().substring(0, idot), entry.getValue());
+		}
+		final long mapBytes = usedHeap() - baseline;
+
+		final ClassNameIndex index = new ClassNameIndex(class_urls);
+		class_urls = null;
+		package_urls = null;
+		final long indexBytes = usedHeap() - baseline;
+
+		assertEquals(200000, index.size());
+		assertTrue("index: " + indexBytes + " bytes, maps: " + mapBytes + " bytes", indexBytes < mapBytes * 3 / 4);
+	}
+
+	private static Set<String> filter(final Set<String> names, final Predicate<String> predicate) {
+		return names.stream().filter(predicate).collect(Collectors.toSet());
+	}
+
+	private static long usedHeap() {
+		for (int i = 0; i < 4; i++) System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+}
@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.autocompletion;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks {@link ClassUtil#findAllClasses(List)} on a synthetic directory
+ * of generated jar files. Scores are in jars per second.
+ * <p>
+ * Run from test scope with {@link #main(String...)}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ClassUtilBenchmark {
+
+	static final int JARS = 300;
+	static final int CLASSES_PER_JAR = 200;
+
+	private File dir;
+
+	@Setup
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("class-util-benchmark").toFile();
+		for (int j = 0; j < JARS; j++) {
+			createJar(new File(dir, "lib" + j + ".jar"), "org.lib" + j, CLASSES_PER_JAR);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		for (final File file : dir.listFiles()) file.delete();
+		dir.delete();
+	}
+
+	/** The scan used by {@link ClassUtil#ensureCache()}: one fork/join task per jar. */
+	@Benchmark
+	@OperationsPerInvocation(JARS)
+	public int parallelScan() {
+		return ClassUtil.findAllClasses(Collections.singletonList(dir.getAbsolutePath())).size();
+	}
+
+	/** One jar at a time into a single map, as a baseline. */
+	@Benchmark
+	@OperationsPerInvocation(JARS)
+	public int sequentialScan() {
+		final HashMap<String, ClassUtil.JarProperties> class_urls = new HashMap<>();
+		for (final String jarpath : ClassUtil.findJarFiles(Collections.singletonList(dir.getAbsolutePath()))) {
+			final ClassUtil.JarScan scan = ClassUtil.scanJar(new File(jarpath));
+			for (final String classname : scan.classnames) class_urls.put(classname, scan.props);
+		}
+		return class_urls.size();
+	}
+
+	/**
+	 * Write a jar with a pom.xml and {@code classCount} empty class entries,
+	 * each with one inner class, spread over ten packages.
+	 */
+	static void createJar(final File file, final String groupName, final int classCount) throws IOException {
+		try (final JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+			out.putNextEntry(new ZipEntry("META-INF/maven/" + groupName + "/lib/pom.xml"));
+			out.write(("<project>\n" +
+				"\t<name>" + groupName + " library</name>\n" +
+				"\t<url>https://github.com/" + groupName.replace('.', '/') + "/</url>\n" +
+				"</project>\n").getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+			final String prefix = groupName.replace('.', '/');
+			for (int c = 0; c < classCount; c++) {
+				final String path = prefix + "/pkg" + (c % 10) + "/Class" + c;
+				out.putNextEntry(new ZipEntry(path + ".class"));
+				out.closeEntry();
+				out.putNextEntry(new ZipEntry(path + "$Inner.class"));
+				out.closeEntry();
+			}
+		}
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ClassUtilBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,169 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.autocompletion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.ui.swing.script.autocompletion.ClassUtil.JarProperties;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests {@link DocumentationLookup} against a local HTTP server standing in
+ * for the javadoc site.
+ */
+public class DocumentationLookupTest {
+
+	private HttpServer server;
+	private String baseURL;
+	private File cacheFile;
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@Before
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			final String path = exchange.getRequestURI().getPath();
+			String page = null;
+			if ("/".equals(path)) {
+				page = "<div class=\"jdbox\"><div><a href=\"ImgLib2/\">ImgLib2</a></div></div>\n";
+			} else if ("/Fiji/sc/fiji/Plugin.html".equals(path)) {
+				page = "<html><head><title>Plugin</title></head></html>";
+			} else if ("/Fiji/sc/fiji/Slow.html".equals(path)) {
+				try {
+					Thread.sleep(2000);
+				} catch (InterruptedException e) {
+					// respond early
+				}
+				page = "<html><head><title>Slow</title></head></html>";
+			}
+			final byte[] bytes = null == page ? new byte[0] : page.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(null == page ? 404 : 200, null == page ? -1 : bytes.length);
+			try (final OutputStream out = exchange.getResponseBody()) {
+				out.write(bytes);
+			}
+		});
+		server.start();
+		baseURL = "http://localhost:" + server.getAddress().getPort() + "/";
+		cacheFile = File.createTempFile("javadoc-cache", ".properties");
+		cacheFile.delete();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		cacheFile.delete();
+	}
+
+	@Test
+	public void testFind() {
+		final Map<String, List<String>> reported = new ConcurrentHashMap<>();
+		final List<String> classes = new ArrayList<>();
+		final HashMap<String, ArrayList<String>> urls = lookup().find(matches(), new DocumentationLookup.Listener() {
+			@Override
+			public void classesFound(final List<String> classnames) {
+				classes.addAll(classnames);
+			}
+			@Override
+			public void urlsFound(final String classname, final List<String> found) {
+				reported.put(classname, found);
+			}
+		}).join();
+
+		assertEquals(Arrays.asList("net.imglib2.img.Img", "sc.fiji.Missing", "sc.fiji.Plugin"), classes);
+		assertEquals(Arrays.asList("https://github.com/imglib/imglib2/blob/master/src/main/java/net/imglib2/img/Img.java",
+				baseURL + "ImgLib2/net/imglib2/img/Img.html"), urls.get("net.imglib2.img.Img"));
+		assertEquals(Collections.singletonList(baseURL + "Fiji/sc/fiji/Plugin.html"), urls.get("sc.fiji.Plugin"));
+		assertEquals(Collections.emptyList(), urls.get("sc.fiji.Missing"));
+		assertEquals(urls, new HashMap<>(reported));
+	}
+
+	@Test
+	public void testResultsArePersisted() {
+		final HashMap<String, ArrayList<String>> first = lookup().find(matches(), null).join();
+		final int count = requests.get();
+		assertEquals(3, count); // the index and two probes
+
+		// A new lookup with the same cache file needs no network access
+		final HashMap<String, ArrayList<String>> second = lookup().find(matches(), null).join();
+		assertEquals(first, second);
+		assertEquals(count, requests.get());
+	}
+
+	@Test
+	public void testTimeout() {
+		final HashMap<String, JarProperties> matches = new HashMap<>();
+		matches.put("sc.fiji.Slow", new JarProperties("Fiji", new ArrayList<>()));
+		final long start = System.currentTimeMillis();
+		assertEquals(Collections.emptyList(), new DocumentationLookup(DocumentationLookup.URL_CONNECTION, baseURL, cacheFile, 2, 200)
+				.find(matches, null).join().get("sc.fiji.Slow"));
+		assertTrue(System.currentTimeMillis() - start < 2000);
+	}
+
+	@Test
+	public void testJavaDoc() {
+		assertEquals("java8", DocumentationLookup.javaDoc("1.8.0_392"));
+		assertEquals("java17", DocumentationLookup.javaDoc("17.0.9"));
+		assertEquals("java21", DocumentationLookup.javaDoc("21"));
+		assertEquals("java21", DocumentationLookup.javaDoc("21-ea"));
+		assertEquals("javaunknown", DocumentationLookup.javaDoc("unknown"));
+	}
+
+	private DocumentationLookup lookup() {
+		return new DocumentationLookup(DocumentationLookup.URL_CONNECTION, baseURL, cacheFile, 2, 1000);
+	}
+
+	private static Map<String, JarProperties> matches() {
+		final HashMap<String, JarProperties> matches = new HashMap<>();
+		matches.put("net.imglib2.img.Img", new JarProperties("ImgLib2 Core Library",
+				new ArrayList<>(Arrays.asList("https://imglib2.net/", "https://github.com/imglib/imglib2/issues"))));
+		matches.put("sc.fiji.Plugin", new JarProperties("Fiji", new ArrayList<>()));
+		matches.put("sc.fiji.Missing", new JarProperties("Fiji", new ArrayList<>()));
+		return matches;
+	}
+}
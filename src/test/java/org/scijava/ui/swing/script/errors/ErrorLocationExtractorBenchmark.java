@@ -0,0 +1,182 @@
+/*-
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package org.scijava.ui.swing.script.errors;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * Benchmarks each built-in {@link ErrorLocationExtractor}, and the generic
+ * fallback on the same output, over a log of several megabytes: the traces of
+ * the corpus of {@link ErrorLocationExtractorTest}, scattered among the lines
+ * that a batch script typically prints.
+ * <p>
+ * Run from test scope with {@link #main(String...)}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ErrorLocationExtractorBenchmark {
+
+	/** Approximate size of the log, in megabytes. */
+	@Param({ "4" })
+	public int megabytes;
+
+	@Param({ "groovy", "jython", "jruby", "nashorn", "beanshell", "java" })
+	public String language;
+
+	private List<String> log;
+	private String fileName;
+	private ErrorLocationExtractor extractor;
+	private final ErrorLocationExtractor fallback =
+		new DefaultErrorLocationExtractor();
+
+	@Setup
+	public void setUp() throws IOException {
+		final List<String> traces = new ArrayList<>();
+		switch (language) {
+			case "groovy":
+				extractor = new GroovyErrorLocationExtractor();
+				fileName = "Script3.groovy";
+				traces.addAll(ErrorLocationExtractorTest.read("groovy-compile.txt"));
+				traces.addAll(ErrorLocationExtractorTest.read("groovy-runtime.txt"));
+				break;
+			case "jython":
+				extractor = new PythonErrorLocationExtractor();
+				fileName = "Batch_Measure.py";
+				traces.addAll(ErrorLocationExtractorTest.read("jython-runtime.txt"));
+				traces.addAll(ErrorLocationExtractorTest.read("jython-syntax.txt"));
+				break;
+			case "jruby":
+				extractor = new RubyErrorLocationExtractor();
+				fileName = "Batch_Convert.rb";
+				traces.addAll(ErrorLocationExtractorTest.read("jruby-runtime.txt"));
+				break;
+			case "nashorn":
+				extractor = new JavaScriptErrorLocationExtractor();
+				fileName = "Greeting.js";
+				traces.addAll(ErrorLocationExtractorTest.read("nashorn-runtime.txt"));
+				traces.addAll(ErrorLocationExtractorTest.read("nashorn-syntax.txt"));
+				break;
+			case "beanshell":
+				extractor = new BeanshellErrorLocationExtractor();
+				fileName = "Measure_Roi.bsh";
+				traces.addAll(ErrorLocationExtractorTest.read("beanshell.txt"));
+				break;
+			case "java":
+				extractor = new JavaErrorLocationExtractor();
+				fileName = "Measure_Roi.java";
+				traces.addAll(ErrorLocationExtractorTest.read("java-compile.txt"));
+				traces.addAll(ErrorLocationExtractorTest.read("java-runtime.txt"));
+				break;
+			default:
+				throw new IllegalArgumentException(language);
+		}
+		log = createLog(traces, megabytes << 20);
+	}
+
+	@Benchmark
+	public int extractor() {
+		return extractAll(extractor);
+	}
+
+	@Benchmark
+	public int fallback() {
+		return extractAll(fallback);
+	}
+
+	private int extractAll(final ErrorLocationExtractor e) {
+		int lines = 0;
+		for (final String line : log) {
+			final ErrorLocation location = e.extract(line, fileName);
+			if (location != null) lines += location.getLine();
+		}
+		return lines;
+	}
+
+	/** Progress output, with one of the traces after every 200 lines or so. */
+	static List<String> createLog(final List<String> traces, final int size) {
+		final Random random = new Random(42);
+		final List<String> log = new ArrayList<>();
+		for (int chars = 0; chars < size;) {
+			final String line;
+			if (random.nextInt(200) == 0) {
+				log.addAll(traces);
+				for (final String trace : traces)
+					chars += trace.length() + 1;
+				continue;
+			}
+			switch (random.nextInt(3)) {
+				case 0:
+					line = "Processing image " + random.nextInt(5000) + " of 5000: /data/plate" +
+						random.nextInt(96) + "/well_" + random.nextInt(384) + ".tif";
+					break;
+				case 1:
+					line = "  mean=" + random.nextDouble() * 255 + " area=" + random.nextInt(
+						100000) + " elapsed=" + random.nextInt(60) + ":" + random.nextInt(60);
+					break;
+				default:
+					line = "[INFO] Saved results to /data/results/Results_" + random.nextInt(
+						1000) + ".csv";
+			}
+			log.add(line);
+			chars += line.length() + 1;
+		}
+		return log;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(
+			ErrorLocationExtractorBenchmark.class.getSimpleName()).build()).run();
+	}
+}
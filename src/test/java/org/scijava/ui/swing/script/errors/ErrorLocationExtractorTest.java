@@ -0,0 +1,172 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script.errors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.scijava.ui.swing.script.ErrorLocation;
+import org.scijava.ui.swing.script.ErrorLocationExtractor;
+
+/**
+ * Tests the built-in {@link ErrorLocationExtractor}s against a corpus of error
+ * output of the script languages.
+ */
+public class ErrorLocationExtractorTest {
+
+	@Test
+	public void testGroovy() throws IOException {
+		final ErrorLocationExtractor groovy = new GroovyErrorLocationExtractor();
+		assertLocations(groovy, "groovy-compile.txt", null, //
+			new ErrorLocation("Script1.groovy", 5, 1));
+		assertLocations(groovy, "groovy-runtime.txt", null, //
+			new ErrorLocation("Script3.groovy", 12, 0), //
+			new ErrorLocation("Script3.groovy", 27, 0));
+	}
+
+	@Test
+	public void testJython() throws IOException {
+		final ErrorLocationExtractor python = new PythonErrorLocationExtractor();
+		assertLocations(python, "jython-runtime.txt", null, //
+			new ErrorLocation("Batch_Measure.py", 51, 0), //
+			new ErrorLocation("Batch_Measure.py", 44, 0), //
+			new ErrorLocation("Batch_Measure.py", 17, 0));
+		assertLocations(python, "jython-syntax.txt", null, //
+			new ErrorLocation("<iostream>", 3, 0), //
+			new ErrorLocation("<iostream>", 3, 23));
+	}
+
+	@Test
+	public void testJRuby() throws IOException {
+		assertLocations(new RubyErrorLocationExtractor(), "jruby-runtime.txt",
+			null, //
+			new ErrorLocation("Batch_Convert.rb", 51, 0), //
+			new ErrorLocation("Batch_Convert.rb", 38, 0), //
+			new ErrorLocation("Batch_Convert.rb", 60, 0), //
+			new ErrorLocation("<script>", 7, 0));
+	}
+
+	@Test
+	public void testNashorn() throws IOException {
+		final ErrorLocationExtractor js = new JavaScriptErrorLocationExtractor();
+		assertLocations(js, "nashorn-runtime.txt", null, //
+			new ErrorLocation(null, 14, 18), //
+			new ErrorLocation("<eval>", 14, 18), //
+			new ErrorLocation("Greeting.js", 51, 0));
+		assertLocations(js, "nashorn-syntax.txt", null, //
+			new ErrorLocation("<eval>", 3, 5), //
+			new ErrorLocation(null, 3, 4));
+	}
+
+	@Test
+	public void testBeanshell() throws IOException {
+		assertLocations(new BeanshellErrorLocationExtractor(), "beanshell.txt",
+			null, //
+			new ErrorLocation(null, 51, 0), //
+			new ErrorLocation("Measure_Roi.bsh", 9, 0));
+	}
+
+	@Test
+	public void testJava() throws IOException {
+		final ErrorLocationExtractor java = new JavaErrorLocationExtractor();
+		assertLocations(java, "java-compile.txt", "Measure_Roi.java", //
+			new ErrorLocation("Measure_Roi.java", 12, 0), //
+			new ErrorLocation("Measure_Roi.java", 20, 0), //
+			new ErrorLocation("Measure_Roi.java", 27, 9));
+		assertLocations(java, "java-runtime.txt", "Measure_Roi.java", //
+			new ErrorLocation("Measure_Roi.java", 33, 0), //
+			new ErrorLocation("Measure_Roi.java", 21, 0));
+		// Without a file name, no line can be attributed to the script
+		assertLocations(java, "java-runtime.txt", null);
+	}
+
+	@Test
+	public void testScala() {
+		final ErrorLocationExtractor scala = new ScalaErrorLocationExtractor();
+		assertEquals(new ErrorLocation(null, 51, 18), scala.extract(
+			" at line number 51 at column number 18", null));
+		assertNull(scala.extract(
+			"	at scala.tools.nsc.interpreter.IMain.interpret(IMain.scala:12)", null));
+		// the interpreter's own lines before the script
+		assertEquals(10, scala.getLineOffset());
+	}
+
+	@Test
+	public void testDefault() {
+		final ErrorLocationExtractor fallback = new DefaultErrorLocationExtractor();
+		assertEquals(new ErrorLocation(null, 51, 0), fallback.extract(
+			"	at Script1.run(Script1.groovy:51)", null));
+		assertEquals(new ErrorLocation(null, 51, 18), fallback.extract(
+			" at line number 51 at column number 18", null));
+		assertEquals(new ErrorLocation(null, 3, 0), fallback.extract(
+			"Error in foo(): object 'x' not found: Untitled.R:3", "Untitled.R"));
+		assertNull(fallback.extract(
+			"	at org.codehaus.groovy.runtime.InvokerHelper.invokeMethod(InvokerHelper.java:12)",
+			null));
+		assertNull(fallback.extract("Done in 12:34", "Untitled.R"));
+	}
+
+	/** Asserts the locations found in a corpus file, in order. */
+	private static void assertLocations(final ErrorLocationExtractor extractor,
+		final String corpus, final String fileName,
+		final ErrorLocation... expected) throws IOException
+	{
+		final List<ErrorLocation> actual = new ArrayList<>();
+		for (final String line : read(corpus)) {
+			final ErrorLocation location = extractor.extract(line, fileName);
+			if (location != null) actual.add(location);
+		}
+		assertEquals(corpus, Arrays.asList(expected), actual);
+	}
+
+	static List<String> read(final String corpus) throws IOException {
+		final InputStream in = ErrorLocationExtractorTest.class.getResourceAsStream(
+			corpus);
+		if (in == null) throw new IOException("No such corpus: " + corpus);
+		final List<String> lines = new ArrayList<>();
+		try (final BufferedReader reader = new BufferedReader(
+			new InputStreamReader(in, StandardCharsets.UTF_8)))
+		{
+			for (String line; (line = reader.readLine()) != null;)
+				lines.add(line);
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script.highliters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+import org.junit.Test;
+
+/**
+ * Tests {@link LineTokenCache}.
+ */
+public class LineTokenCacheTest {
+
+	private static final String MACRO = "// A macro\n" + //
+		"macro \"Measure [m]\" {\n" + //
+		"\tfor (i = 0; i < nSlices; i++) { /* a comment\n" + //
+		"\t   over two lines */ setSlice(i + 1); run(\"Measure\"); }\n" + //
+		"\n" + //
+		"\ts = 'it''s' + 0x1F + 1.5e3; // see https://imagej.net/\n" + //
+		"}";
+
+	private static final String MATLAB = "% A function\n" + //
+		"function y = f(x)\n" + //
+		"%{\n" + //
+		"  a block comment\n" + //
+		"%}\n" + //
+		"  y = x .^ 2 + 0x1F; s = 'it''s'; % see https://www.mathworks.com/\n" + //
+		"\n" + //
+		"end";
+
+	@Test
+	public void testImageJMacro() {
+		final ImageJMacroTokenMaker uncached = new ImageJMacroTokenMaker();
+		uncached.tokenCache.setCapacity(0);
+		assertReplaysLexedTokens(new ImageJMacroTokenMaker(), uncached, MACRO);
+	}
+
+	@Test
+	public void testMatlab() {
+		final MatlabTokenMaker uncached = new MatlabTokenMaker();
+		uncached.tokenCache.setCapacity(0);
+		assertReplaysLexedTokens(new MatlabTokenMaker(), uncached, MATLAB);
+	}
+
+	@Test
+	public void testInitialTokenType() {
+		final ImageJMacroTokenMaker tokenMaker = new ImageJMacroTokenMaker();
+		final List<String> plain = lex(tokenMaker, "a */ b", TokenTypes.NULL, 0);
+		final List<String> inComment = lex(tokenMaker, "a */ b", TokenTypes.COMMENT_MULTILINE, 0);
+		assertNotEquals(plain, inComment);
+		assertEquals(plain, lex(tokenMaker, "a */ b", TokenTypes.NULL, 0));
+		assertEquals(inComment, lex(tokenMaker, "a */ b", TokenTypes.COMMENT_MULTILINE, 0));
+	}
+
+	@Test
+	public void testCapacity() {
+		final MatlabTokenMaker tokenMaker = new MatlabTokenMaker();
+		tokenMaker.tokenCache.setCapacity(16 * 12);
+		for (int i = 0; i < 1000; i++) {
+			lex(tokenMaker, "x" + i + " = " + i + ";", TokenTypes.NULL, 0);
+		}
+		// Only the most recent lines are kept
+		assertTrue(isCached(tokenMaker, "x999 = 999;"));
+		assertFalse(isCached(tokenMaker, "x0 = 0;"));
+		// Lines longer than a sixteenth of the capacity are not cached
+		lex(tokenMaker, "x1000 = 1000;", TokenTypes.NULL, 0);
+		assertFalse(isCached(tokenMaker, "x1000 = 1000;"));
+		tokenMaker.tokenCache.setCapacity(0);
+		assertFalse(isCached(tokenMaker, "x999 = 999;"));
+	}
+
+	/**
+	 * Lexes the text line by line twice with a cache, the second time at other
+	 * offsets, and compares the tokens with those of a token maker without one.
+	 */
+	private static void assertReplaysLexedTokens(final TokenMaker cached,
+		final TokenMaker uncached, final String text)
+	{
+		final String[] lines = text.split("\n", -1);
+		final List<String> expected = new ArrayList<>();
+		int type = TokenTypes.NULL, offset = 0;
+		for (final String line : lines) {
+			final List<String> tokens = lex(uncached, line, type, offset);
+			expected.addAll(tokens);
+			type = lastTokenType(tokens);
+			offset += line.length() + 1;
+		}
+		for (final int shift : new int[] { 0, 1000 }) {
+			final List<String> actual = new ArrayList<>();
+			type = TokenTypes.NULL;
+			offset = shift;
+			for (final String line : lines) {
+				final List<String> tokens = lex(cached, line, type, offset);
+				actual.addAll(tokens);
+				type = lastTokenType(tokens);
+				offset += line.length() + 1;
+			}
+			assertEquals(shifted(expected, shift), actual);
+		}
+	}
+
+	/** Lexes a line, placed in the middle of a larger array. */
+	private static List<String> lex(final TokenMaker tokenMaker, final String line,
+		final int initialTokenType, final int startOffset)
+	{
+		final char[] array = ("<<" + line + ">>").toCharArray();
+		final List<String> tokens = new ArrayList<>();
+		for (Token t = tokenMaker.getTokenList(new Segment(array, 2, line.length()),
+			initialTokenType, startOffset); t != null; t = t.getNextToken())
+		{
+			tokens.add(t.getType() == TokenTypes.NULL ? "null" : t.getOffset() + ":" +
+				t.getLexeme() + ":" + t.getType() + (t.isHyperlink() ? ":link" : ""));
+		}
+		return tokens;
+	}
+
+	private static int lastTokenType(final List<String> tokens) {
+		final String last = tokens.get(tokens.size() - 1);
+		if (last.equals("null")) return TokenTypes.NULL;
+		return Integer.parseInt(last.replaceFirst(":link$", "").replaceFirst(".*:", ""));
+	}
+
+	private static List<String> shifted(final List<String> tokens, final int shift) {
+		final List<String> result = new ArrayList<>();
+		for (final String token : tokens) {
+			if (token.equals("null")) result.add(token);
+			else {
+				final int colon = token.indexOf(':');
+				result.add((Integer.parseInt(token.substring(0, colon)) + shift) + token.substring(colon));
+			}
+		}
+		return result;
+	}
+
+	private static boolean isCached(final MatlabTokenMaker tokenMaker, final String line) {
+		// Replays into another token maker, so as to leave this one alone
+		return tokenMaker.tokenCache.replay(new MatlabTokenMaker(), new Segment(line
+			.toCharArray(), 0, line.length()), TokenTypes.NULL, 0);
+	}
+}
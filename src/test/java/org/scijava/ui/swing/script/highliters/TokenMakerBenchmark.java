@@ -0,0 +1,185 @@
+/*
+ * #%L
+ * Script Editor and Interpreter for SciJava script languages.
+ * %%
+ * Copyright (C) 2009 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.ui.swing.script.highliters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks the {@link ImageJMacroTokenMaker} and the
+ * {@link MatlabTokenMaker}, lexing a whole script line by line as the text
+ * area does, once with the lexer itself and once replaying the tokens from
+ * the {@link LineTokenCache}, as when the same lines are painted again.
+ * <p>
+ * Besides a realistic script, the inputs are pathological for a lexer: one
+ * huge line, a block comment over thousands of lines, and long string
+ * literals. The {@code tokens} counter gives the tokens per second; add
+ * {@code -prof gc} to see the allocations per token. Run from test scope with
+ * {@link #main(String...)}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenMakerBenchmark {
+
+	@Param({ "ijm", "matlab" })
+	public String language;
+
+	@Param({ "realistic", "hugeLine", "deepComment", "longString" })
+	public String input;
+
+	private Segment[] lines;
+	private TokenMaker lexer, cache;
+
+	/** Counts the tokens, reported per second. */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Tokens {
+
+		public long tokens;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			tokens = 0;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		final boolean ijm = language.equals("ijm");
+		final List<String> text = new ArrayList<>();
+		switch (input) {
+			case "realistic":
+				for (int i = 0; i < 2000; i++) {
+					text.add(ijm ? "// Measure slice " + i : "% Measure slice " + i);
+					text.add(ijm ? "for (i = 0; i < nSlices; i++) {" : "for i = 1:nSlices");
+					text.add(ijm ? "\tsetSlice(i + 1); run(\"Measure\");" : "\tslice = img(:, :, i); m = mean(slice(:));");
+					text.add(ijm ? "\tv = getResult(\"Mean\", i) * 1.5e3 + 0x1F; print('v = ' + v);" : "\tv = m * 1.5e3 + 0x1F; disp(['v = ', num2str(v)]);");
+					text.add(ijm ? "}" : "end");
+				}
+				break;
+			case "hugeLine":
+				text.add(repeat(ijm ? "a = getPixel(x, y) + 1; " : "a = img(x, y) + 1; ", 20000));
+				break;
+			case "deepComment":
+				text.add(ijm ? "/*" : "%{");
+				for (int i = 0; i < 10000; i++) text.add("  commented out: v = getResult(\"Mean\", " + i + ");");
+				text.add(ijm ? "*/" : "%}");
+				break;
+			case "longString":
+				final String quote = ijm ? "\"" : "'";
+				for (int i = 0; i < 100; i++) text.add("s = " + quote + repeat("lorem ipsum ", 1000) + quote + ";");
+				break;
+			default:
+				throw new IllegalArgumentException(input);
+		}
+		lines = new Segment[text.size()];
+		for (int i = 0; i < lines.length; i++) {
+			final char[] line = text.get(i).toCharArray();
+			lines[i] = new Segment(line, 0, line.length);
+		}
+		if (ijm) {
+			final ImageJMacroTokenMaker uncached = new ImageJMacroTokenMaker();
+			uncached.tokenCache.setCapacity(0);
+			lexer = uncached;
+			cache = new ImageJMacroTokenMaker();
+		}
+		else {
+			final MatlabTokenMaker uncached = new MatlabTokenMaker();
+			uncached.tokenCache.setCapacity(0);
+			lexer = uncached;
+			cache = new MatlabTokenMaker();
+		}
+		lexAll(cache);
+	}
+
+	@Benchmark
+	public void lex(final Tokens counter) {
+		counter.tokens += lexAll(lexer);
+	}
+
+	@Benchmark
+	public void replayCached(final Tokens counter) {
+		counter.tokens += lexAll(cache);
+	}
+
+	/** Lexes all lines, each starting in the state the previous one ended in. */
+	private long lexAll(final TokenMaker tokenMaker) {
+		long count = 0;
+		int type = TokenTypes.NULL, offset = 0;
+		for (final Segment line : lines) {
+			Token last = null;
+			for (Token t = tokenMaker.getTokenList(line, type, offset); t != null; t = t.getNextToken()) {
+				last = t;
+				count++;
+			}
+			type = last == null ? TokenTypes.NULL : last.getType();
+			offset += line.count + 1;
+		}
+		return count;
+	}
+
+	private static String repeat(final String s, final int n) {
+		final StringBuilder sb = new StringBuilder(s.length() * n);
+		for (int i = 0; i < n; i++) sb.append(s);
+		return sb.toString();
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TokenMakerBenchmark.class.getSimpleName()).build()).run();
+	}
+}